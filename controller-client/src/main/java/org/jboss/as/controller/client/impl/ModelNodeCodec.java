@@ -0,0 +1,529 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.client.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.jboss.as.controller.client.logging.ControllerClientLogger;
+import org.jboss.as.protocol.mgmt.ManagementProtocol;
+import org.jboss.as.protocol.mgmt.ManagementProtocolHeader;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.dmr.Property;
+import org.jboss.dmr.ValueExpression;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Reads and writes the model nodes carried by management protocol messages.
+ * <p>
+ * Messages with a protocol version of at least {@link ManagementProtocol#COMPACT_MODEL_VERSION} use a compact
+ * encoding, in which every short string (keys, names and values alike) is only written out the first time it occurs
+ * in a model node, and referenced by its index in a string table afterwards. Once the encoding of a model node reaches
+ * {@link #DEFLATE_THRESHOLD} bytes it is deflated as well, and written out in chunks as it is encoded rather than
+ * being buffered. Messages with a lower version use the standard
+ * {@link ModelNode#writeExternal(DataOutput) external form}.
+ * </p>
+ * <p>
+ * Since the version of a response is the lower of the version of the request and the version supported by the
+ * responding side, only responses can use the compact encoding. Requests use the standard external form, as the
+ * requesting side does not know which version the other side supports.
+ * </p>
+ */
+public final class ModelNodeCodec {
+
+    /**
+     * The size in bytes from which encoded model nodes are deflated. A negative value disables deflating.
+     */
+    public static final int DEFLATE_THRESHOLD = getIntProperty("org.jboss.as.controller.client.model-deflate-threshold", 32 * 1024);
+
+    // Interned strings are limited in length and number, so that the string tables stay small
+    private static final int MAX_INTERNED_LENGTH = 128;
+    private static final int MAX_INTERNED_STRINGS = 64 * 1024;
+
+    private static final byte PLAIN = 0x01;
+    private static final byte DEFLATED = 0x02;
+
+    private static final byte UNDEFINED = 'u';
+    private static final byte TRUE = 'T';
+    private static final byte FALSE = 'F';
+    private static final byte INT = 'I';
+    private static final byte LONG = 'J';
+    private static final byte DOUBLE = 'D';
+    private static final byte BIG_DECIMAL = 'd';
+    private static final byte BIG_INTEGER = 'i';
+    private static final byte BYTES = 'b';
+    private static final byte EXPRESSION = 'e';
+    private static final byte STRING = 's';
+    private static final byte TYPE = 't';
+    private static final byte OBJECT = 'o';
+    private static final byte LIST = 'l';
+    private static final byte PROPERTY = 'p';
+
+    private ModelNodeCodec() {
+    }
+
+    /**
+     * Gets whether a message uses the compact encoding.
+     *
+     * @param header the header of the message
+     * @return {@code true} if the model nodes of the message are in the compact encoding
+     */
+    public static boolean isCompact(final ManagementProtocolHeader header) {
+        return header.getVersion() >= ManagementProtocol.COMPACT_MODEL_VERSION;
+    }
+
+    /**
+     * Writes a model node to a message.
+     *
+     * @param node the model node
+     * @param output the output of the message
+     * @param header the header of the message
+     * @throws IOException if writing fails
+     */
+    public static void writeModelNode(final ModelNode node, final DataOutput output, final ManagementProtocolHeader header) throws IOException {
+        if (!isCompact(header)) {
+            node.writeExternal(output);
+            return;
+        }
+        final FramingOutputStream framing = new FramingOutputStream(output);
+        try {
+            final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(framing, 8 * 1024));
+            new Encoder(out).encode(node);
+            out.close();
+        } finally {
+            framing.end();
+        }
+    }
+
+    /**
+     * Reads a model node from a message.
+     *
+     * @param input the input of the message
+     * @param header the header of the message
+     * @return the model node
+     * @throws IOException if reading fails
+     */
+    public static ModelNode readModelNode(final DataInput input, final ManagementProtocolHeader header) throws IOException {
+        final ModelNode node = new ModelNode();
+        if (!isCompact(header)) {
+            node.readExternal(input);
+            return node;
+        }
+        final byte framing = input.readByte();
+        if (framing != PLAIN && framing != DEFLATED) {
+            throw ControllerClientLogger.ROOT_LOGGER.invalidModelNodeEncoding(Integer.toHexString(framing));
+        }
+        if (framing == PLAIN) {
+            final int length = input.readInt();
+            if (length < 0) {
+                throw ControllerClientLogger.ROOT_LOGGER.invalidModelNodeEncoding(Integer.toHexString(length));
+            }
+            final byte[] bytes = new byte[length];
+            input.readFully(bytes);
+            new Decoder(new DataInputStream(new ByteArrayInputStream(bytes))).decode(node);
+        } else {
+            // Closing reads up to the end of the chunks, whatever the inflater left of them
+            try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ChunkInputStream(input)))) {
+                new Decoder(in).decode(node);
+            }
+        }
+        return node;
+    }
+
+    private static final class Encoder {
+
+        private final DataOutput out;
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        private Encoder(final DataOutput out) {
+            this.out = out;
+        }
+
+        void encode(final ModelNode node) throws IOException {
+            final ModelType type = node.getType();
+            switch (type) {
+                case UNDEFINED:
+                    out.writeByte(UNDEFINED);
+                    break;
+                case BOOLEAN:
+                    out.writeByte(node.asBoolean() ? TRUE : FALSE);
+                    break;
+                case INT:
+                    out.writeByte(INT);
+                    out.writeInt(node.asInt());
+                    break;
+                case LONG:
+                    out.writeByte(LONG);
+                    out.writeLong(node.asLong());
+                    break;
+                case DOUBLE:
+                    out.writeByte(DOUBLE);
+                    out.writeDouble(node.asDouble());
+                    break;
+                case BIG_DECIMAL:
+                    out.writeByte(BIG_DECIMAL);
+                    writeString(node.asBigDecimal().toString());
+                    break;
+                case BIG_INTEGER:
+                    out.writeByte(BIG_INTEGER);
+                    writeBytes(node.asBigInteger().toByteArray());
+                    break;
+                case BYTES:
+                    out.writeByte(BYTES);
+                    writeBytes(node.asBytes());
+                    break;
+                case EXPRESSION:
+                    out.writeByte(EXPRESSION);
+                    writeString(node.asExpression().getExpressionString());
+                    break;
+                case STRING:
+                    out.writeByte(STRING);
+                    writeString(node.asString());
+                    break;
+                case TYPE:
+                    out.writeByte(TYPE);
+                    writeString(node.asType().name());
+                    break;
+                case OBJECT:
+                    out.writeByte(OBJECT);
+                    writeVarInt(node.keys().size());
+                    for (String key : node.keys()) {
+                        writeString(key);
+                        encode(node.get(key));
+                    }
+                    break;
+                case LIST:
+                    out.writeByte(LIST);
+                    final List<ModelNode> list = node.asList();
+                    writeVarInt(list.size());
+                    for (ModelNode element : list) {
+                        encode(element);
+                    }
+                    break;
+                case PROPERTY:
+                    out.writeByte(PROPERTY);
+                    final Property property = node.asProperty();
+                    writeString(property.getName());
+                    encode(property.getValue());
+                    break;
+                default:
+                    throw ControllerClientLogger.ROOT_LOGGER.invalidModelNodeEncoding(type.name());
+            }
+        }
+
+        /**
+         * Writes {@code 0} followed by the string the first time a string occurs, and the index of the string in the
+         * string table plus one after that.
+         */
+        private void writeString(final String value) throws IOException {
+            final Integer index = strings.get(value);
+            if (index != null) {
+                writeVarInt(index + 1);
+                return;
+            }
+            writeVarInt(0);
+            writeBytes(value.getBytes(StandardCharsets.UTF_8));
+            if (value.length() <= MAX_INTERNED_LENGTH && strings.size() < MAX_INTERNED_STRINGS) {
+                strings.put(value, strings.size());
+            }
+        }
+
+        private void writeBytes(final byte[] bytes) throws IOException {
+            writeVarInt(bytes.length);
+            out.write(bytes);
+        }
+
+        private void writeVarInt(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                out.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.writeByte(value);
+        }
+    }
+
+    private static final class Decoder {
+
+        private final DataInput in;
+        private final List<String> strings = new ArrayList<>();
+
+        private Decoder(final DataInput in) {
+            this.in = in;
+        }
+
+        void decode(final ModelNode node) throws IOException {
+            final byte type = in.readByte();
+            switch (type) {
+                case UNDEFINED:
+                    break;
+                case TRUE:
+                    node.set(true);
+                    break;
+                case FALSE:
+                    node.set(false);
+                    break;
+                case INT:
+                    node.set(in.readInt());
+                    break;
+                case LONG:
+                    node.set(in.readLong());
+                    break;
+                case DOUBLE:
+                    node.set(in.readDouble());
+                    break;
+                case BIG_DECIMAL:
+                    node.set(new BigDecimal(readString()));
+                    break;
+                case BIG_INTEGER:
+                    node.set(new BigInteger(readBytes()));
+                    break;
+                case BYTES:
+                    node.set(readBytes());
+                    break;
+                case EXPRESSION:
+                    node.set(new ValueExpression(readString()));
+                    break;
+                case STRING:
+                    node.set(readString());
+                    break;
+                case TYPE:
+                    node.set(ModelType.valueOf(readString()));
+                    break;
+                case OBJECT:
+                    node.setEmptyObject();
+                    for (int i = readVarInt(); i > 0; i--) {
+                        decode(node.get(readString()));
+                    }
+                    break;
+                case LIST:
+                    node.setEmptyList();
+                    for (int i = readVarInt(); i > 0; i--) {
+                        decode(node.add());
+                    }
+                    break;
+                case PROPERTY:
+                    final String name = readString();
+                    final ModelNode value = new ModelNode();
+                    decode(value);
+                    node.set(name, value);
+                    break;
+                default:
+                    throw ControllerClientLogger.ROOT_LOGGER.invalidModelNodeEncoding(Integer.toHexString(type));
+            }
+        }
+
+        private String readString() throws IOException {
+            final int index = readVarInt();
+            if (index > 0) {
+                if (index > strings.size()) {
+                    throw ControllerClientLogger.ROOT_LOGGER.invalidStringReference(index, strings.size());
+                }
+                return strings.get(index - 1);
+            }
+            final String value = new String(readBytes(), StandardCharsets.UTF_8);
+            if (value.length() <= MAX_INTERNED_LENGTH && strings.size() < MAX_INTERNED_STRINGS) {
+                strings.add(value);
+            }
+            return value;
+        }
+
+        private byte[] readBytes() throws IOException {
+            final int length = readVarInt();
+            if (length < 0) {
+                throw ControllerClientLogger.ROOT_LOGGER.invalidModelNodeEncoding(Integer.toHexString(length));
+            }
+            final byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            return bytes;
+        }
+
+        private int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                final byte b = in.readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the framing of an encoded model node: a plain encoding is buffered and written with its length, and once
+     * the encoding reaches {@link #DEFLATE_THRESHOLD} bytes it goes through a deflater to the message instead, in
+     * chunks each preceded by its length and followed by an empty chunk.
+     */
+    private static final class FramingOutputStream extends OutputStream {
+
+        private final DataOutput output;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream(8 * 1024);
+        private Deflater deflater;
+        private DeflaterOutputStream deflating;
+
+        private FramingOutputStream(final DataOutput output) {
+            this.output = output;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            if (deflating != null) {
+                deflating.write(b, off, len);
+                return;
+            }
+            buffer.write(b, off, len);
+            if (DEFLATE_THRESHOLD >= 0 && buffer.size() >= DEFLATE_THRESHOLD) {
+                output.writeByte(DEFLATED);
+                deflater = new Deflater(Deflater.BEST_SPEED);
+                deflating = new DeflaterOutputStream(new ChunkOutputStream(output), deflater, 8 * 1024);
+                buffer.writeTo(deflating);
+                buffer = null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (deflating != null) {
+                deflating.finish();
+                output.writeInt(0);
+            } else if (buffer != null) {
+                output.writeByte(PLAIN);
+                output.writeInt(buffer.size());
+                output.write(buffer.toByteArray());
+                buffer = null;
+            }
+        }
+
+        /**
+         * Releases the deflater, whether or not the model node was written completely.
+         */
+        void end() {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+    }
+
+    private static final class ChunkOutputStream extends OutputStream {
+
+        private final DataOutput output;
+
+        private ChunkOutputStream(final DataOutput output) {
+            this.output = output;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            if (len > 0) {
+                output.writeInt(len);
+                output.write(b, off, len);
+            }
+        }
+    }
+
+    /**
+     * Reads the chunks written by a {@link ChunkOutputStream}, up to the empty chunk ending them.
+     */
+    private static final class ChunkInputStream extends InputStream {
+
+        private final DataInput input;
+        private int remaining;
+        private boolean end;
+
+        private ChunkInputStream(final DataInput input) {
+            this.input = input;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (remaining == 0) {
+                if (end) {
+                    return -1;
+                }
+                remaining = input.readInt();
+                if (remaining < 0) {
+                    throw ControllerClientLogger.ROOT_LOGGER.invalidModelNodeEncoding(Integer.toHexString(remaining));
+                }
+                end = remaining == 0;
+            }
+            final int read = Math.min(len, remaining);
+            input.readFully(b, off, read);
+            remaining -= read;
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            final byte[] skipped = new byte[512];
+            while (read(skipped, 0, skipped.length) != -1) {
+                // skip
+            }
+        }
+    }
+
+    private static int getIntProperty(final String name, final int defaultValue) {
+        final String value = WildFlySecurityManager.getPropertyPrivileged(name, null);
+        try {
+            return value == null ? defaultValue : Integer.parseInt(value);
+        } catch (NumberFormatException ignored) {
+            return defaultValue;
+        }
+    }
+}
@@ -376,6 +376,12 @@ public interface ControllerClientLogger extends BasicLogger {
     @Message(id = 36, value = "Stream was closed")
     IOException streamWasClosed();
 
+    @Message(id = 37, value = "Invalid model node encoding 0x%s")
+    IOException invalidModelNodeEncoding(String type);
+
+    @Message(id = 38, value = "Invalid reference %d to a string table of %d strings")
+    IOException invalidStringReference(int index, int size);
+
     class LeakDescription extends Throwable {
         private static final long serialVersionUID = -7193498784746897578L;
 
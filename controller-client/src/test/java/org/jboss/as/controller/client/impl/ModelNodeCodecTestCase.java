@@ -0,0 +1,159 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.client.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.jboss.as.protocol.mgmt.ManagementProtocol;
+import org.jboss.as.protocol.mgmt.ManagementProtocolHeader;
+import org.jboss.as.protocol.mgmt.ManagementResponseHeader;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.dmr.ValueExpression;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the model node encodings of management protocol messages.
+ */
+public class ModelNodeCodecTestCase {
+
+    private static final ManagementProtocolHeader COMPACT = new ManagementResponseHeader(ManagementProtocol.VERSION, 1, null);
+    private static final ManagementProtocolHeader STANDARD = new ManagementResponseHeader(ManagementProtocol.COMPACT_MODEL_VERSION - 1, 1, null);
+
+    @Test
+    public void testAllTypes() throws IOException {
+        final ModelNode node = new ModelNode();
+        node.get("undefined");
+        node.get("boolean").set(true);
+        node.get("int").set(Integer.MIN_VALUE);
+        node.get("long").set(Long.MAX_VALUE);
+        node.get("double").set(1.5d);
+        node.get("big-decimal").set(new BigDecimal("12345678901234567890.123456789"));
+        node.get("big-integer").set(new BigInteger("-12345678901234567890"));
+        node.get("bytes").set(new byte[] {0, 1, -1});
+        node.get("expression").set(new ValueExpression("${jboss.bind.address:127.0.0.1}"));
+        node.get("string").set("héllo");
+        node.get("type").set(ModelType.OBJECT);
+        node.get("list").add(1).add("boolean").add(new ModelNode());
+        node.get("property").set("name", new ModelNode("boolean"));
+        node.get("object", "nested", "boolean").set(false);
+
+        Assert.assertEquals(node, roundTrip(node, COMPACT));
+        Assert.assertEquals(node, roundTrip(node, STANDARD));
+        Assert.assertEquals(new ModelNode(), roundTrip(new ModelNode(), COMPACT));
+    }
+
+    @Test
+    public void testRepeatedStrings() throws IOException {
+        final ModelNode node = new ModelNode();
+        for (int i = 0; i < 1000; i++) {
+            final ModelNode server = node.get("server", "server-" + i);
+            server.get("outcome").set("success");
+            server.get("result", "server-state").set("running");
+            server.get("result", "long-value").set(longString(i));
+        }
+        final byte[] standard = write(node, STANDARD);
+        final byte[] compact = write(node, COMPACT);
+        Assert.assertTrue(compact.length < standard.length / 2);
+        Assert.assertEquals(node, read(compact, COMPACT));
+    }
+
+    @Test
+    public void testStandardForOlderVersions() throws IOException {
+        final ModelNode node = new ModelNode();
+        node.get("outcome").set("success");
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            node.writeExternal(out);
+            out.writeByte(ManagementProtocol.RESPONSE_END);
+        }
+        Assert.assertArrayEquals(bytes.toByteArray(), write(node, STANDARD));
+    }
+
+    @Test
+    public void testManyChunks() throws IOException {
+        // Random values barely deflate, so the encoding spans many chunks
+        final Random random = new Random(42);
+        final ModelNode node = new ModelNode();
+        for (int i = 0; i < 200; i++) {
+            final byte[] bytes = new byte[1024];
+            random.nextBytes(bytes);
+            node.get("content").add(bytes);
+        }
+        final byte[] compact = write(node, COMPACT);
+        Assert.assertTrue(compact.length > ModelNodeCodec.DEFLATE_THRESHOLD);
+        Assert.assertEquals(node, read(compact, COMPACT));
+    }
+
+    @Test
+    public void testInvalidStringReference() throws IOException {
+        final ModelNode node = new ModelNode();
+        node.get("a").set("a");
+        final byte[] bytes = write(node, COMPACT);
+        // PLAIN, length, 'o', 1 key, then a new string "a"; refer to a string which does not exist instead
+        Assert.assertEquals(0, bytes[7]);
+        bytes[7] = 2;
+        try {
+            read(bytes, COMPACT);
+            Assert.fail("Invalid string reference read");
+        } catch (IOException expected) {
+            // good
+        }
+    }
+
+    private static String longString(final int i) {
+        final StringBuilder sb = new StringBuilder();
+        for (int j = 0; j < 20; j++) {
+            sb.append("a long value which is not interned ").append(i);
+        }
+        return sb.toString();
+    }
+
+    private static ModelNode roundTrip(final ModelNode node, final ManagementProtocolHeader header) throws IOException {
+        return read(write(node, header), header);
+    }
+
+    private static byte[] write(final ModelNode node, final ManagementProtocolHeader header) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            ModelNodeCodec.writeModelNode(node, out, header);
+            out.writeByte(ManagementProtocol.RESPONSE_END);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static ModelNode read(final byte[] bytes, final ManagementProtocolHeader header) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            final ModelNode node = ModelNodeCodec.readModelNode(in, header);
+            Assert.assertEquals(ManagementProtocol.RESPONSE_END, in.readByte());
+            return node;
+        }
+    }
+}
@@ -477,9 +477,14 @@ public abstract class AbstractControllerService implements Service<ModelControll
                     stopAsynchronous(context);
                 } finally {
                     try {
+                        configurationPersister.shutdown();
                         authorizer.shutdown();
                     } finally {
-                        context.complete();
+                        try {
+                            auditLogger.stop();
+                        } finally {
+                            context.complete();
+                        }
                     }
                 }
             }
@@ -93,6 +93,7 @@ import org.jboss.dmr.Property;
 import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceTarget;
+import org.jboss.msc.service.StabilityMonitor;
 import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
@@ -156,6 +157,9 @@ abstract class AbstractOperationContext implements OperationContext {
     /** First response node provided to addStep  */
     ModelNode initialResponse;
 
+    /** The persistence of the configuration changes committed by this operation, if any */
+    private volatile ConfigurationPersister.PersistenceResource committedPersistence;
+
     /** Operations that were added by the controller, before execution started */
     private final List<ModelNode> controllerOperations = new ArrayList<ModelNode>(2);
     private boolean auditLogged;
@@ -164,6 +168,10 @@ abstract class AbstractOperationContext implements OperationContext {
     private final OperationStepHandler extraValidationStepHandler;
     // protected by this
     private Map<String, OperationResponse.StreamEntry> responseStreams;
+    /** Profiler recording where the time of the operation goes, or {@code null} if the operation isn't profiled */
+    private OperationProfiler profiler;
+    /** Total time in nanoseconds spent waiting for the service container to become stable */
+    private long stabilityWaitTime;
 
     /**
      * Resources modified by this context's operations. May be modified by ParallelBootOperationStepHandler which spawns threads,
@@ -219,6 +227,15 @@ abstract class AbstractOperationContext implements OperationContext {
      */
     abstract ModelControllerImpl.ManagementModelImpl getManagementModel();
 
+    /**
+     * Gets the hard capability requirements between resources in the model this context is updating.
+     *
+     * @return map of dependent resource address to the addresses of the resources providing what it requires
+     */
+    Map<PathAddress, Set<PathAddress>> getCapabilityRequirementGraph() {
+        return getManagementModel().getCapabilityRegistry().getRequirementGraph();
+    }
+
     /**
      * Internal helper to read a resource from a given management model.
      *
@@ -468,6 +485,60 @@ abstract class AbstractOperationContext implements OperationContext {
      */
     abstract void awaitServiceContainerStability() throws InterruptedException, TimeoutException;
 
+    /**
+     * Set the profiler recording the execution of this context's steps.
+     *
+     * @param profiler the profiler, or {@code null} if the operation should not be profiled
+     */
+    void setProfiler(final OperationProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * Gets the monitor tracking the services installed or changed by this operation, if the operation only needs
+     * to wait for stability of those services rather than of the whole service container.
+     *
+     * <p>This default implementation always returns {@code null}.</p>
+     *
+     * @return the monitor, or {@code null} if the operation waits for stability of the whole service container
+     */
+    StabilityMonitor getScopedStabilityMonitor() {
+        return null;
+    }
+
+    /**
+     * Record time spent waiting for the controller lock, if the operation is being profiled.
+     *
+     * @param start the {@link System#nanoTime()} value taken when the wait began
+     */
+    final void recordLockWait(final long start) {
+        if (profiler != null) {
+            profiler.lockWaited(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Record time spent waiting for the service container to become stable.
+     *
+     * @param start the {@link System#nanoTime()} value taken when the wait began
+     */
+    final void recordStabilityWait(final long start) {
+        final long time = System.nanoTime() - start;
+        stabilityWaitTime += time;
+        if (profiler != null) {
+            profiler.stabilityWaited(time);
+        }
+    }
+
+    /**
+     * Gets the total time spent waiting for the service container to become stable.
+     *
+     * @return the time in nanoseconds
+     */
+    final long getStabilityWaitTime() {
+        return stabilityWaitTime;
+    }
+
     /**
      * Create a persistence resource (if appropriate for this implementation) for use in persisting the configuration
      * model that results from this operation. If a resource is created, it should perform as much persistence work
@@ -480,6 +551,19 @@ abstract class AbstractOperationContext implements OperationContext {
      */
     abstract ConfigurationPersister.PersistenceResource createPersistenceResource() throws ConfigurationPersistenceException;
 
+    /**
+     * Waits until the configuration changes committed by this operation, if any, have been flushed to the
+     * persistence store. Should be called once the operation no longer holds the controller lock.
+     *
+     * @throws ConfigurationPersistenceException if the changes could not be flushed
+     */
+    void awaitPersistence() throws ConfigurationPersistenceException {
+        final ConfigurationPersister.PersistenceResource persistence = committedPersistence;
+        if (persistence != null) {
+            persistence.awaitFlushed();
+        }
+    }
+
     /**
      * publish any changes to capability registery
      */
@@ -628,6 +712,7 @@ abstract class AbstractOperationContext implements OperationContext {
                     if (currentStage == Stage.VERIFY) {
                         // a change was made to the runtime. Thus, we must wait
                         // for stability before resuming in to verify.
+                        final long stabilityStart = System.nanoTime();
                         try {
                             awaitServiceContainerStability();
                         } catch (InterruptedException e) {
@@ -643,6 +728,8 @@ abstract class AbstractOperationContext implements OperationContext {
                             handleContainerStabilityFailure(primaryResponse, te);
                             executeResultHandlerPhase(null);
                             return;
+                        } finally {
+                            recordStabilityWait(stabilityStart);
                         }
                     }
                 }
@@ -741,6 +828,7 @@ abstract class AbstractOperationContext implements OperationContext {
                     persistenceResource.rollback();
                 } else {
                     persistenceResource.commit();
+                    committedPersistence = persistenceResource;
                 }
             }
             if (resultAction != ResultAction.ROLLBACK) {
@@ -882,6 +970,9 @@ abstract class AbstractOperationContext implements OperationContext {
 
         step.predecessor = this.activeStep;
         this.activeStep = step;
+        if (profiler != null) {
+            step.profile = profiler.stepStarted(step.operationId, step.handler, currentStage, step.parent == null ? null : step.parent.profile);
+        }
 
         try {
             try {
@@ -932,6 +1023,9 @@ abstract class AbstractOperationContext implements OperationContext {
                 step.response.get(ROLLED_BACK).set(true);
             }
         } finally {
+            if (step.profile != null) {
+                profiler.stepCompleted(step.profile);
+            }
             addBootFailureDescription();
         }
     }
@@ -1196,6 +1290,7 @@ abstract class AbstractOperationContext implements OperationContext {
         private ServiceVerificationHelper serviceVerificationHelper;
         private Set<ServiceName> addedServices;
         Step predecessor;
+        OperationProfiler.Entry profile;
         boolean hasRemovals;
         boolean executed;
 
@@ -1228,6 +1323,10 @@ abstract class AbstractOperationContext implements OperationContext {
             if (serviceTarget == null) {
                 serviceTarget = parent.subTarget();
                 serviceTarget.addMonitor(getServiceVerificationHelper().getMonitor());
+                final StabilityMonitor scopedMonitor = getScopedStabilityMonitor();
+                if (scopedMonitor != null) {
+                    serviceTarget.addMonitor(scopedMonitor);
+                }
             }
             return serviceTarget;
         }
@@ -1251,6 +1350,12 @@ abstract class AbstractOperationContext implements OperationContext {
             // This should not be used for removals
             assert service.getMode() != ServiceController.Mode.REMOVE;
 
+            // Track rollback changes as well; the operation must not complete while they are in progress
+            final StabilityMonitor scopedMonitor = getScopedStabilityMonitor();
+            if (scopedMonitor != null) {
+                scopedMonitor.addController(service);
+            }
+
             if (!executed) {
                 if (addedServices == null || !addedServices.contains(service.getName())) {
                     service.addListener(getServiceVerificationHelper());
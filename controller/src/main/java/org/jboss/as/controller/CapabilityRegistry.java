@@ -459,6 +459,41 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
 
     //end ImmutableCapabilityRegistry methods
 
+    /**
+     * Gets, for each resource that registered a hard capability requirement, the addresses of the resources that
+     * registered a capability of the required name. Requirements are matched by capability name only, so this is
+     * suitable for ordering work, not for validating the model.
+     *
+     * @return map of dependent resource address to the addresses of the resources providing what it requires.
+     *         Will not be {@code null}
+     */
+    Map<PathAddress, Set<PathAddress>> getRequirementGraph() {
+        readLock.lock();
+        try {
+            Map<String, Set<PathAddress>> providers = new HashMap<>();
+            for (RuntimeCapabilityRegistration reg : capabilities.values()) {
+                Set<PathAddress> points = providers.computeIfAbsent(reg.getCapabilityName(), name -> new HashSet<>());
+                for (RegistrationPoint point : reg.getRegistrationPoints()) {
+                    points.add(point.getAddress());
+                }
+            }
+            Map<PathAddress, Set<PathAddress>> result = new HashMap<>();
+            for (Map<String, RuntimeRequirementRegistration> dependentRequirements : requirements.values()) {
+                for (RuntimeRequirementRegistration req : dependentRequirements.values()) {
+                    Set<PathAddress> required = providers.get(req.getRequiredName());
+                    if (required != null) {
+                        for (RegistrationPoint point : req.getRegistrationPoints()) {
+                            result.computeIfAbsent(point.getAddress(), address -> new HashSet<>()).addAll(required);
+                        }
+                    }
+                }
+            }
+            return result;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
     /**
      * Publish the changes to main registry
      */
@@ -21,12 +21,15 @@
 */
 package org.jboss.as.controller;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
-import org.jboss.dmr.Property;
 import org.jboss.dmr.ValueExpression;
 
 /**
@@ -82,22 +85,13 @@ public class ExpressionResolverImpl implements ExpressionResolver {
         ModelNode resolved;
         if (type == ModelType.EXPRESSION) {
             resolved = resolveExpressionStringRecursively(node.asExpression().getExpressionString(), lenient, true);
-        } else if (type == ModelType.OBJECT) {
+        } else if (type == ModelType.OBJECT || type == ModelType.LIST || type == ModelType.PROPERTY) {
+            // Copy the tree once and only replace the expressions found in it. A tree with no
+            // expressions at all is still copied, as callers may modify what is returned.
             resolved = node.clone();
-            for (Property prop : resolved.asPropertyList()) {
-                resolved.get(prop.getName()).set(resolveExpressionsRecursively(prop.getValue()));
+            if (containsExpression(node)) {
+                resolveExpressionsInPlace(resolved);
             }
-        } else if (type == ModelType.LIST) {
-            resolved = node.clone();
-            ModelNode list = new ModelNode();
-            list.setEmptyList();
-            for (ModelNode current : resolved.asList()) {
-                list.add(resolveExpressionsRecursively(current));
-            }
-            resolved = list;
-        } else if (type == ModelType.PROPERTY) {
-            resolved = node.clone();
-            resolved.set(resolved.asProperty().getName(), resolveExpressionsRecursively(resolved.asProperty().getValue()));
         } else {
             resolved = node;
         }
@@ -105,6 +99,59 @@ public class ExpressionResolverImpl implements ExpressionResolver {
         return resolved;
     }
 
+    /**
+     * Replaces the expressions within a node that is not shared with the caller of
+     * {@link #resolveExpressions(ModelNode)}.
+     */
+    private void resolveExpressionsInPlace(final ModelNode node) throws OperationFailedException {
+        switch (node.getType()) {
+            case EXPRESSION:
+                node.set(resolveExpressionStringRecursively(node.asExpression().getExpressionString(), lenient, true));
+                break;
+            case OBJECT:
+                for (String key : node.keys()) {
+                    resolveExpressionsInPlace(node.get(key));
+                }
+                break;
+            case LIST:
+                for (int i = 0, size = node.asInt(); i < size; i++) {
+                    resolveExpressionsInPlace(node.get(i));
+                }
+                break;
+            case PROPERTY:
+                // The value of the property is held by the node, not copied
+                resolveExpressionsInPlace(node.asProperty().getValue());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static boolean containsExpression(final ModelNode node) {
+        switch (node.getType()) {
+            case EXPRESSION:
+                return true;
+            case OBJECT:
+                for (String key : node.keys()) {
+                    if (containsExpression(node.get(key))) {
+                        return true;
+                    }
+                }
+                return false;
+            case LIST:
+                for (int i = 0, size = node.asInt(); i < size; i++) {
+                    if (containsExpression(node.get(i))) {
+                        return true;
+                    }
+                }
+                return false;
+            case PROPERTY:
+                return containsExpression(node.asProperty().getValue());
+            default:
+                return false;
+        }
+    }
+
     /**
      * Attempt to resolve the expression {@link org.jboss.dmr.ModelNode#asString() encapsulated in the given node},
      * setting the value of {@code node} to the resolved string if successful, or leaving {@code node} unaltered
@@ -167,6 +214,10 @@ public class ExpressionResolverImpl implements ExpressionResolver {
 
     private ParseAndResolveResult parseAndResolve(final String initialValue, boolean lenient) throws OperationFailedException {
 
+        final CompiledExpression compiled = CompiledExpression.forString(initialValue);
+        if (compiled != CompiledExpression.NOT_COMPILED) {
+            return resolveCompiled(compiled, initialValue, lenient);
+        }
 
         final StringBuilder builder = new StringBuilder();
         final int len = initialValue.length();
@@ -316,6 +367,40 @@ public class ExpressionResolverImpl implements ExpressionResolver {
         return new ParseAndResolveResult(builder.toString(), modified, false);
     }
 
+    /**
+     * Equivalent to {@link #parseAndResolve(String, boolean)} for a string that could be compiled, without
+     * parsing it again.
+     */
+    private ParseAndResolveResult resolveCompiled(final CompiledExpression compiled, final String initialValue,
+                                                  final boolean lenient) throws OperationFailedException {
+        final String[] lookups = compiled.lookups;
+        if (lookups.length == 0) {
+            return new ParseAndResolveResult(initialValue, false, false);
+        }
+        final String[] literals = compiled.literals;
+        final StringBuilder builder = new StringBuilder(initialValue.length());
+        builder.append(literals[0]);
+        for (int i = 0; i < lookups.length; i++) {
+            final String toResolve = lookups[i];
+            final String resolved = resolveExpressionString(toResolve);
+            if (toResolve.equals(resolved)) {
+                if (lenient) {
+                    return new ParseAndResolveResult(initialValue, false, false);
+                }
+                throw ControllerLogger.ROOT_LOGGER.cannotResolveExpression(initialValue);
+            }
+            if (EXPRESSION_PATTERN.matcher(resolved).matches()) {
+                // As in parseAndResolve, substitute into the original string and start over
+                final int start = compiled.lookupStarts[i];
+                final String result = initialValue.substring(0, start) + resolved
+                        + initialValue.substring(start + toResolve.length());
+                return new ParseAndResolveResult(result, true, true);
+            }
+            builder.append(resolved).append(literals[i + 1]);
+        }
+        return new ParseAndResolveResult(builder.toString(), true, false);
+    }
+
     private static Stack<OpenExpression> addToStack(Stack<OpenExpression> stack, int startIndex) {
         Stack<OpenExpression> result = stack == null ? new Stack<OpenExpression>() : stack;
         result.push(new OpenExpression(startIndex));
@@ -467,6 +552,86 @@ public class ExpressionResolverImpl implements ExpressionResolver {
         }
     }
 
+    /**
+     * An expression string split once into the literal text and the {@code ${...}} lookups that follow each piece
+     * of it, so it can be resolved again without parsing. Only strings whose lookups contain no nested expressions
+     * or braces and which have no {@code $} other than the ones starting lookups are compiled; anything else is left
+     * to {@link #parseAndResolve(String, boolean)}.
+     */
+    private static final class CompiledExpression {
+
+        private static final int MAX_CACHED = 4096;
+        private static final int MAX_CACHED_LENGTH = 1024;
+        private static final Map<String, CompiledExpression> CACHE = new ConcurrentHashMap<>();
+        private static final CompiledExpression NOT_COMPILED = new CompiledExpression(null, null, null);
+
+        /** literals[i] precedes lookups[i]; the last literal follows the last lookup */
+        private final String[] literals;
+        private final String[] lookups;
+        private final int[] lookupStarts;
+
+        private CompiledExpression(String[] literals, String[] lookups, int[] lookupStarts) {
+            this.literals = literals;
+            this.lookups = lookups;
+            this.lookupStarts = lookupStarts;
+        }
+
+        private static CompiledExpression forString(final String value) {
+            if (value.length() > MAX_CACHED_LENGTH) {
+                return compile(value);
+            }
+            CompiledExpression result = CACHE.get(value);
+            if (result == null) {
+                result = compile(value);
+                if (CACHE.size() >= MAX_CACHED) {
+                    CACHE.clear();
+                }
+                CACHE.put(value, result);
+            }
+            return result;
+        }
+
+        private static CompiledExpression compile(final String value) {
+            final List<String> literals = new ArrayList<>();
+            final List<String> lookups = new ArrayList<>();
+            final List<Integer> starts = new ArrayList<>();
+            final int len = value.length();
+            int literalStart = 0;
+            int i = value.indexOf('$');
+            while (i >= 0) {
+                if (i + 1 >= len || value.charAt(i + 1) != '{') {
+                    // Escapes and lone '$' are handled by the full parser
+                    return NOT_COMPILED;
+                }
+                int end = i + 2;
+                while (end < len) {
+                    char ch = value.charAt(end);
+                    if (ch == '}') {
+                        break;
+                    } else if (ch == '$' || ch == '{') {
+                        return NOT_COMPILED;
+                    }
+                    end++;
+                }
+                if (end == len) {
+                    return NOT_COMPILED;
+                }
+                literals.add(value.substring(literalStart, i));
+                lookups.add(value.substring(i, end + 1));
+                starts.add(i);
+                literalStart = end + 1;
+                i = value.indexOf('$', literalStart);
+            }
+            literals.add(value.substring(literalStart));
+            final int[] lookupStarts = new int[starts.size()];
+            for (int j = 0; j < lookupStarts.length; j++) {
+                lookupStarts[j] = starts.get(j);
+            }
+            return new CompiledExpression(literals.toArray(new String[literals.size()]),
+                    lookups.toArray(new String[lookups.size()]), lookupStarts);
+        }
+    }
+
     private static class OpenExpression {
         private final int startIndex;
         private int endIndex = -1;
@@ -41,7 +41,9 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_STATISTICS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROCESS_STATE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESPONSE_HEADERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLBACK_ON_RUNTIME_FAILURE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVICE;
@@ -73,7 +75,6 @@ import java.util.concurrent.atomic.AtomicReference;
 import org.jboss.as.controller.access.Authorizer;
 import org.jboss.as.controller.audit.AuditLogger;
 import org.jboss.as.controller.audit.ManagedAuditLogger;
-import org.jboss.as.controller.capability.registry.RuntimeCapabilityRegistry;
 import org.jboss.as.controller.client.ModelControllerClient;
 import org.jboss.as.controller.client.Operation;
 import org.jboss.as.controller.client.OperationAttachments;
@@ -137,6 +138,7 @@ class ModelControllerImpl implements ModelController {
     private final Authorizer authorizer;
 
     private final ConcurrentMap<Integer, OperationContextImpl> activeOperations = new ConcurrentHashMap<>();
+    private final OperationStatistics operationStatistics = new OperationStatistics();
     private final Random random = new Random();
     private final ManagedAuditLogger auditLogger;
     private final BootErrorCollector bootErrorCollector;
@@ -339,6 +341,7 @@ class ModelControllerImpl implements ModelController {
             contextFlags.add(AbstractOperationContext.ContextFlag.ALLOW_RESOURCE_SERVICE_RESTART);
         }
         final ModelNode blockingTimeoutConfig = headers != null && headers.hasDefined(BLOCKING_TIMEOUT) ? headers.get(BLOCKING_TIMEOUT) : null;
+        final boolean profile = headers != null && headers.hasDefined(PROFILE) && headers.get(PROFILE).asBoolean();
 
         final ModelNode responseNode = validateOperation(operation);
         if(responseNode.hasDefined(FAILURE_DESCRIPTION)) {
@@ -381,6 +384,7 @@ class ModelControllerImpl implements ModelController {
             return handleExternalRequestDuringBoot();
         }
 
+        final long startTime = System.nanoTime();
         for (;;) {
             responseStreams = null;
             // Create a random operation-id
@@ -390,6 +394,8 @@ class ModelControllerImpl implements ModelController {
                     contextFlags, handler, attachments, managementModel.get(), originalResultTxControl, processState, auditLogger,
                     bootingFlag.get(), hostServerGroupTracker, blockingTimeoutConfig, accessContext, notificationSupport,
                     false, extraValidationStepHandler, partialModel);
+            final OperationProfiler profiler = profile ? new OperationProfiler() : null;
+            context.setProfiler(profiler);
             // Try again if the operation-id is already taken
             if(activeOperations.putIfAbsent(operationID, context) == null) {
                 //noinspection deprecation
@@ -397,7 +403,10 @@ class ModelControllerImpl implements ModelController {
                 boolean shouldUnlock = false;
                 try {
                     if (attemptLock) {
-                        if (!controllerLock.detectDeadlockAndGetLock(operationID)) {
+                        final long lockStart = System.nanoTime();
+                        final boolean locked = controllerLock.detectDeadlockAndGetLock(operationID);
+                        context.recordLockWait(lockStart);
+                        if (!locked) {
                             responseNode.get(OUTCOME).set(FAILED);
                             responseNode.get(FAILURE_DESCRIPTION).set(ControllerLogger.ROOT_LOGGER.cannotGetControllerLock());
                             return OperationResponse.Factory.createSimple(responseNode);
@@ -405,6 +414,7 @@ class ModelControllerImpl implements ModelController {
                         shouldUnlock = true;
                     }
 
+                    context.setPersistableOperation(operation);
                     context.addStep(responseNode, operation, prepareStep, OperationContext.Stage.MODEL);
                     ControllerLogger.MGMT_OP_LOGGER.tracef("Executing %s", operation);
                     context.executeOperation();
@@ -427,9 +437,20 @@ class ModelControllerImpl implements ModelController {
                         controllerLock.unlock(operationID);
                     }
                     activeOperations.remove(operationID);
+                    operationStatistics.record(operation.get(OP).asString(), System.nanoTime() - startTime, context.getStabilityWaitTime());
+                    if (profiler != null) {
+                        responseNode.get(RESPONSE_HEADERS, PROFILE).set(profiler.toModelNode());
+                    }
                     //noinspection deprecation
                     CurrentOperationIdHolder.setCurrentOperationID(null);
                 }
+                // The lock is released, so commits by other operations can be flushed along with this one
+                try {
+                    context.awaitPersistence();
+                } catch (ConfigurationPersistenceException e) {
+                    responseNode.get(OUTCOME).set(FAILED);
+                    responseNode.get(FAILURE_DESCRIPTION).set(ControllerLogger.ROOT_LOGGER.failedToPersistConfigurationChange(e.getLocalizedMessage()));
+                }
                 break;
             }
         }
@@ -782,10 +803,9 @@ class ModelControllerImpl implements ModelController {
         };
     }
 
-    ConfigurationPersister.PersistenceResource writeModel(final ManagementModelImpl model, Set<PathAddress> affectedAddresses) throws ConfigurationPersistenceException {
+    ConfigurationPersister.PersistenceResource writeModel(final ManagementModelImpl model, Set<PathAddress> affectedAddresses, final ModelNode operation) throws ConfigurationPersistenceException {
         ControllerLogger.MGMT_OP_LOGGER.tracef("persisting %s from %s", model.rootResource, model);
-        final ModelNode newModel = Resource.Tools.readModel(model.rootResource);
-        final ConfigurationPersister.PersistenceResource delegate = persister.store(newModel, affectedAddresses);
+        final ConfigurationPersister.PersistenceResource delegate = persister.store(model.rootResource, affectedAddresses, operation);
         return new ConfigurationPersister.PersistenceResource() {
 
             @Override
@@ -804,6 +824,11 @@ class ModelControllerImpl implements ModelController {
                 model.discard();
                 delegate.rollback();
             }
+
+            @Override
+            public void awaitFlushed() throws ConfigurationPersistenceException {
+                delegate.awaitFlushed();
+            }
         };
     }
 
@@ -1035,6 +1060,18 @@ class ModelControllerImpl implements ModelController {
             super(SERVICE, MANAGEMENT_OPERATIONS);
         }
 
+        @Override
+        public boolean isModelDefined() {
+            return true;
+        }
+
+        @Override
+        public ModelNode getModel() {
+            final ModelNode model = new ModelNode();
+            model.get(OPERATION_STATISTICS).set(operationStatistics.toModelNode());
+            return model;
+        }
+
         @Override
         public boolean hasChild(PathElement element) {
             try {
@@ -1174,14 +1211,14 @@ class ModelControllerImpl implements ModelController {
         }
 
         @Override
-        public RuntimeCapabilityRegistry getCapabilityRegistry() {
+        public CapabilityRegistry getCapabilityRegistry() {
             return capabilityRegistry;
         }
 
         /**
          * Creates a new {@code ManagementModelImpl} that uses a clone of this one's root {@link ManagementResourceRegistration}.
          * The caller can safely modify that {@code ManagementResourceRegistration} without changes being exposed
-         * to other callers. Use {@link org.jboss.as.controller.ModelControllerImpl#writeModel(org.jboss.as.controller.ModelControllerImpl.ManagementModelImpl, java.util.Set)}
+         * to other callers. Use {@link org.jboss.as.controller.ModelControllerImpl#writeModel(org.jboss.as.controller.ModelControllerImpl.ManagementModelImpl, java.util.Set, org.jboss.dmr.ModelNode)}
          * to publish changes.
          *
          * @return the new {@code ManagementModelImpl}. Will not return {@code null}
@@ -1211,9 +1248,11 @@ class ModelControllerImpl implements ModelController {
         */
 
         /**
-         * Creates a new {@code ManagementModelImpl} that uses a clone of this one's root {@link Resource}.
+         * Creates a new {@code ManagementModelImpl} that uses a copy of this one's root {@link Resource}.
          * The caller can safely modify that {@code Resource} without changes being exposed
-         * to other callers. Use {@link org.jboss.as.controller.ModelControllerImpl#writeModel(org.jboss.as.controller.ModelControllerImpl.ManagementModelImpl, java.util.Set)}
+         * to other callers. If this model has been published the copy is a
+         * {@link org.jboss.as.controller.registry.Resource.Tools#copyOnWrite(Resource) copy-on-write copy} that
+         * shares all resources not updated via the copy with the published model. Use {@link org.jboss.as.controller.ModelControllerImpl#writeModel(org.jboss.as.controller.ModelControllerImpl.ManagementModelImpl, java.util.Set, org.jboss.dmr.ModelNode)}
          * to publish changes.
          *
          * @return the new {@code ManagementModelImpl}. Will not return {@code null}
@@ -1222,6 +1261,7 @@ class ModelControllerImpl implements ModelController {
             ManagementResourceRegistration mrr;
             Resource currentResource;
             CapabilityRegistry currentCaps;
+            Resource clone;
             if (published) {
                 // This is the first clone since this was published. Use the current stuff as the basis
                 // to ensure that the clone is based on the latest even if we are not the latest.
@@ -1229,14 +1269,18 @@ class ModelControllerImpl implements ModelController {
                 mrr = currentPublished.resourceRegistration;
                 currentResource = currentPublished.rootResource;
                 currentCaps = currentPublished.capabilityRegistry;
+                // The published resource tree is never modified, so we only need to copy
+                // the resources the caller actually touches
+                clone = Resource.Tools.copyOnWrite(currentResource);
             } else {
                 // We've already been cloned, which means the thread calling this has the controller lock
                 // and our stuff hasn't been superceded by another thread. So use our stuff
                 mrr = resourceRegistration;
                 currentResource = rootResource;
                 currentCaps = capabilityRegistry;
+                // Our resource tree may still be modified by its owner, so take a full copy
+                clone = currentResource.clone();
             }
-            Resource clone = currentResource.clone();
             ManagementModelImpl result = new ManagementModelImpl(mrr, clone, currentCaps);
             ControllerLogger.MGMT_OP_LOGGER.tracef("cloned to %s to create %s and %s", currentResource, clone, result);
             return result;
@@ -1261,6 +1305,8 @@ class ModelControllerImpl implements ModelController {
             }
         }
         private void publish() {
+            // Nothing modifies the published tree, so it can hand out the resources it shares with the previous one
+            Resource.Tools.endCopyOnWrite(rootResource);
             ModelControllerImpl.this.managementModel.set(this);
             published = true;
             ControllerLogger.MGMT_OP_LOGGER.tracef("published %s", this);
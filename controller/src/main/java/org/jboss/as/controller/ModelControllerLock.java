@@ -22,6 +22,8 @@
 
 package org.jboss.as.controller;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.AbstractQueuedSynchronizer;
 
@@ -31,7 +33,11 @@ import java.util.concurrent.locks.AbstractQueuedSynchronizer;
  *
  * The lock supports two mutually exclusive modes, shared and exclusive. If shared locks are acquired and held
  * then the exclusive lock may not be acquired, and if the exclusive lock is held, the shared locks may not be acquired.
- * For an existing "permit holder" (operationId), the lock may be reentrantly re-acquired.
+ * For an existing "permit holder" (operationId), the lock may be reentrantly re-acquired, in either mode.
+ *
+ * Apart from such reentrant acquisition, the lock is handed over in arrival order: a caller does not barge ahead of
+ * callers already waiting, and in particular shared acquisition waits once an exclusive acquirer is queued, so a
+ * steady stream of readers cannot starve a writer.
  *
  * @author Emanuel Muckenhuber
  * @author Ken Wills
@@ -190,7 +196,8 @@ class ModelControllerLock {
      * for locking in exclusive mode, or already locked shared.
      */
     boolean detectDeadlockAndGetLock(final int permit) {
-        return sync.tryAcquire(permit);
+        // An immediate attempt, so don't defer to queued callers
+        return sync.internalAcquire(permit, true, false) == 1;
     }
 
     /**
@@ -213,14 +220,17 @@ class ModelControllerLock {
         // the current permit holder in exclusive mode.
         private int permitHolder;
 
+        // the current permit holders in shared mode, with the number of times each has acquired the lock.
+        private final ConcurrentMap<Integer, Integer> sharedPermitHolders = new ConcurrentHashMap<>();
+
         @Override
         protected final boolean tryAcquire(final int permit) {
-            return internalAcquire(permit, true) == 1;
+            return internalAcquire(permit, true, true) == 1;
         }
 
         @Override
         protected final int tryAcquireShared(final int permit) {
-            return internalAcquire(permit, false);
+            return internalAcquire(permit, false, true);
         }
 
         @Override
@@ -267,9 +277,10 @@ class ModelControllerLock {
          *
          * @param permit - the lock permit object, for exclusive locks, multiple acquires for the same permit are allowed.
          * @param exclusive - Whether to attempt to acquire the exclusive (true) or shared lock (false).
+         * @param fair - Whether to fail if other threads are already waiting, unless this is a reentrant acquisition.
          * @return {@code int} < 0 for failure, > 0 for success.
          */
-        private int internalAcquire(final int permit, final boolean exclusive) {
+        private int internalAcquire(final int permit, final boolean exclusive, final boolean fair) {
 
             // loop until the CAS is successful and the state has been updated.
             for (; ; ) {
@@ -294,6 +305,14 @@ class ModelControllerLock {
                 if (mode == EXCLUSIVE && (getCurrentPermitHolder() != permit || !exclusive))
                     return -1;
 
+                // (4) Unless a permit holder is re-acquiring, which must not wait behind callers
+                // that in turn wait for it, take turns with the threads already queued. An exclusive
+                // holder got past (3); a shared holder is found in sharedPermitHolders, which may be
+                // stale in the same way as (1), in which case the CAS below fails.
+                if (fair && mode != EXCLUSIVE && hasQueuedPredecessors()
+                        && !(mode == SHARED && sharedPermitHolders.containsKey(permit)))
+                    return -1;
+
                 short next = (short) (count + 1); // increase lock count
                 if (next < 0) {
                     throw new IllegalMonitorStateException("Maximum lock count exceeded.");
@@ -302,6 +321,8 @@ class ModelControllerLock {
                 if (compareAndSetState(state, newState)) {
                     if (exclusive)
                         setCurrentPermitHolder(permit);
+                    else
+                        sharedPermitHolders.merge(permit, 1, Integer::sum);
                     return 1;
                 }
             }
@@ -341,6 +362,8 @@ class ModelControllerLock {
                 int newState = (next == 0 ? 0 : makeState(exclusive ? EXCLUSIVE : SHARED, next));
                 if (compareAndSetState(state, newState)) {
                     // don't need to reset permit, it'll be written to on the next exclusive lock acquire
+                    if (!exclusive)
+                        sharedPermitHolders.computeIfPresent(permit, (p, holds) -> holds == 1 ? null : holds - 1);
                     return next == 0;
                 }
             }
@@ -121,6 +121,7 @@ import org.jboss.msc.service.StabilityMonitor;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.value.ImmediateValue;
 import org.jboss.msc.value.Value;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Operation context implementation.
@@ -139,6 +140,11 @@ final class OperationContextImpl extends AbstractOperationContext {
     private static final Set<Action.ActionEffect> WRITE_CONFIG = EnumSet.of(Action.ActionEffect.WRITE_CONFIG);
     private static final Set<Action.ActionEffect> WRITE_RUNTIME = EnumSet.of(Action.ActionEffect.WRITE_RUNTIME);
     private static final Set<Action.ActionEffect> ALL_READ_WRITE = EnumSet.of(Action.ActionEffect.READ_CONFIG, Action.ActionEffect.READ_RUNTIME, Action.ActionEffect.WRITE_CONFIG, Action.ActionEffect.WRITE_RUNTIME);
+    /**
+     * System property enabling operations that affect the runtime to only wait for stability of the services they
+     * installed or changed, rather than for stability of the whole service container.
+     */
+    static final String SCOPED_STABILITY_PROPERTY = "jboss.as.management.scoped-stability";
 
     private final ModelControllerImpl modelController;
     private final EnumSet<ContextFlag> contextFlags;
@@ -180,6 +186,12 @@ final class OperationContextImpl extends AbstractOperationContext {
     /** The step that acquired the container monitor  */
     private Step containerMonitorStep;
     private boolean notifiedModificationBegun;
+    /** Tracks the services installed or changed by this operation if {@link #SCOPED_STABILITY_PROPERTY} is enabled */
+    private final StabilityMonitor scopedStabilityMonitor;
+    /** Whether this operation removed services, in which case it must wait for stability of the whole container */
+    private volatile boolean removedServices;
+    /** Whether the wait for stability of the whole container before the first runtime change was put off */
+    private boolean initialStabilityDeferred;
     private volatile Boolean requiresModelUpdateAuthorization;
     private volatile boolean readOnly = true;
 
@@ -197,6 +209,9 @@ final class OperationContextImpl extends AbstractOperationContext {
     private final boolean capabilitiesAlreadyBroken;
     private final boolean partialModel;
 
+    /** The operation whose effect on the model gets persisted, or {@code null} if the persister must store the full model */
+    private volatile ModelNode persistableOperation;
+
     private volatile ExecutionStatus executionStatus = ExecutionStatus.EXECUTING;
 
 
@@ -230,6 +245,8 @@ final class OperationContextImpl extends AbstractOperationContext {
         this.hostServerGroupTracker = hostServerGroupTracker;
         this.blockingTimeoutConfig = blockingTimeoutConfig != null && blockingTimeoutConfig.isDefined() ? blockingTimeoutConfig : null;
         this.activeOperationResource = new ActiveOperationResource();
+        this.scopedStabilityMonitor = !booting && Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(SCOPED_STABILITY_PROPERTY, "false"))
+                ? new StabilityMonitor() : null;
         this.accessAuditContext = accessAuditContext;
         this.partialModel = partialModel;
         if(runningMode == RunningMode.ADMIN_ONLY) {
@@ -464,8 +481,14 @@ final class OperationContextImpl extends AbstractOperationContext {
                 // the ContainerStateMonitor may not have gotten the notification causing it to untick
                 executionStatus = ExecutionStatus.AWAITING_STABILITY;
                 waitForRemovals();
-                ContainerStateMonitor.ContainerStateChangeReport changeReport =
-                        modelController.awaitContainerStateChangeReport(timeout, TimeUnit.MILLISECONDS);
+                final ContainerStateMonitor.ContainerStateChangeReport changeReport;
+                if (isScopedStability()) {
+                    // No removals, so this operation cannot have caused services elsewhere to miss dependencies
+                    awaitScopedStability(timeout);
+                    changeReport = null;
+                } else {
+                    changeReport = modelController.awaitContainerStateChangeReport(timeout, TimeUnit.MILLISECONDS);
+                }
                 // If any services are missing, add a verification handler to see if we caused it
                 if (changeReport != null && !changeReport.getMissingServices().isEmpty()) {
                     ServiceRemovalVerificationHandler removalVerificationHandler = new ServiceRemovalVerificationHandler(changeReport);
@@ -484,6 +507,26 @@ final class OperationContextImpl extends AbstractOperationContext {
         }
     }
 
+    @Override
+    StabilityMonitor getScopedStabilityMonitor() {
+        return scopedStabilityMonitor;
+    }
+
+    /**
+     * Whether this operation only needs to wait for stability of the services it installed or changed. That is
+     * not the case if it removed services, which may leave unrelated dependent services unstable, or if it is
+     * being rolled back.
+     */
+    private boolean isScopedStability() {
+        return scopedStabilityMonitor != null && !removedServices && resultAction != ResultAction.ROLLBACK;
+    }
+
+    private void awaitScopedStability(final long timeout) throws InterruptedException, TimeoutException {
+        if (!scopedStabilityMonitor.awaitStability(timeout, TimeUnit.MILLISECONDS)) {
+            throw new TimeoutException();
+        }
+    }
+
     private void notifyModificationsComplete() {
         if (notifiedModificationBegun) {
             Notification notification = new Notification(RUNTIME_MODIFICATION_COMPLETE,
@@ -517,7 +560,18 @@ final class OperationContextImpl extends AbstractOperationContext {
 
     @Override
     ConfigurationPersister.PersistenceResource createPersistenceResource() throws ConfigurationPersistenceException {
-        return modelController.writeModel(managementModel, affectsModel.keySet());
+        // An operation reading attached streams cannot be re-executed without them
+        final ModelNode operation = getAttachmentStreamCount() == 0 ? persistableOperation : null;
+        return modelController.writeModel(managementModel, affectsModel.keySet(), operation);
+    }
+
+    /**
+     * Records the operation this context executes, so the persister can store just its effect on the model.
+     *
+     * @param operation the operation
+     */
+    void setPersistableOperation(ModelNode operation) {
+        this.persistableOperation = operation;
     }
 
     @Override
@@ -672,8 +726,15 @@ final class OperationContextImpl extends AbstractOperationContext {
     }
 
     private void doRemove(final ServiceController<?> controller) {
+        if (initialStabilityDeferred && resultAction != ResultAction.ROLLBACK) {
+            // A removal can leave services outside this operation's own set unstable, so the wait for
+            // the whole container that was put off must happen before it
+            initialStabilityDeferred = false;
+            awaitInitialStability();
+        }
         final Step removalStep = activeStep;
         removalStep.hasRemovals = true;
+        removedServices = true;
         controller.addListener(new AbstractServiceListener<Object>() {
             public void listenerAdded(final ServiceController<?> controller) {
                 synchronized (realRemovingControllers) {
@@ -740,6 +801,7 @@ final class OperationContextImpl extends AbstractOperationContext {
                 throw ControllerLogger.ROOT_LOGGER.invalidModificationAfterCompletedStep();
             }
             ExecutionStatus originalStatus = executionStatus;
+            final long waitStart = System.nanoTime();
             try {
                 executionStatus = ExecutionStatus.AWAITING_OTHER_OPERATION;
                 // BES 2014/04/22 Ignore blocking timeout here. We risk some bug causing the
@@ -765,6 +827,7 @@ final class OperationContextImpl extends AbstractOperationContext {
                 throw ControllerLogger.ROOT_LOGGER.operationCancelledAsynchronously();
             } finally {
                 executionStatus = originalStatus;
+                recordLockWait(waitStart);
             }
         }
     }
@@ -778,38 +841,14 @@ final class OperationContextImpl extends AbstractOperationContext {
                     throw ControllerLogger.ROOT_LOGGER.invalidModificationAfterCompletedStep();
                 }
                 containerMonitorStep = activeStep;
-                int timeout = getBlockingTimeout().getLocalBlockingTimeout();
-                ExecutionStatus origStatus = executionStatus;
-                try {
-                    executionStatus = ExecutionStatus.AWAITING_STABILITY;
-                    modelController.awaitContainerStability(timeout, TimeUnit.MILLISECONDS, respectInterruption);
-                    notifyModificationBegun();
-                } catch (InterruptedException e) {
-                    if (resultAction != ResultAction.ROLLBACK) {
-                        // We're not on the way out, so we've been cancelled on the way in
-                        cancelled = true;
-                    }
-                    Thread.currentThread().interrupt();
-                    throw ControllerLogger.ROOT_LOGGER.operationCancelledAsynchronously();
-                } catch (TimeoutException te) {
-
-                    getBlockingTimeout().timeoutDetected();
-                    // This is the first step trying to await stability for this op, so if it's
-                    // unstable some previous step must have messed it up and it can't recover.
-                    // So this process must restart.
-                    // The previous op should have set this in {@code releaseStepLocks}; doing it again
-                    // here is just a 2nd line of defense
-                    processState.setRestartRequired();// don't use our restartRequired() method as this is not reversible in rollback
-
-                    // Deliberate log and throw; we want this logged, we need to notify user, and I want slightly
-                    // different messages for both so just throwing a RuntimeException to get the automatic handling
-                    // in AbstractOperationContext.executeStep is not what I wanted
-                    ControllerLogger.MGMT_OP_LOGGER.timeoutAwaitingInitialStability(timeout / 1000, activeStep.operationId.name, activeStep.operationId.address);
-                    setRollbackOnly();
-                    throw new OperationFailedRuntimeException(ControllerLogger.ROOT_LOGGER.timeoutAwaitingInitialStability());
-                } finally {
-                    executionStatus = origStatus;
+                if (scopedStabilityMonitor == null) {
+                    awaitInitialStability();
+                } else {
+                    // Earlier operations waited for stability of their own services before releasing the lock.
+                    // Unless this one removes services, it need not wait for the rest of the container.
+                    initialStabilityDeferred = true;
                 }
+                notifyModificationBegun();
             }
         } else if (!notifiedModificationBegun) {
             // We were asked to lock, but affectsRuntime was set while notifiedModificationBegun wasn't
@@ -819,6 +858,45 @@ final class OperationContextImpl extends AbstractOperationContext {
         }
     }
 
+    /**
+     * Waits for stability of the whole container before this operation first changes the runtime.
+     */
+    private void awaitInitialStability() {
+        int timeout = getBlockingTimeout().getLocalBlockingTimeout();
+        ExecutionStatus origStatus = executionStatus;
+        final long waitStart = System.nanoTime();
+        try {
+            executionStatus = ExecutionStatus.AWAITING_STABILITY;
+            modelController.awaitContainerStability(timeout, TimeUnit.MILLISECONDS, respectInterruption);
+            recordStabilityWait(waitStart);
+        } catch (InterruptedException e) {
+            if (resultAction != ResultAction.ROLLBACK) {
+                // We're not on the way out, so we've been cancelled on the way in
+                cancelled = true;
+            }
+            Thread.currentThread().interrupt();
+            throw ControllerLogger.ROOT_LOGGER.operationCancelledAsynchronously();
+        } catch (TimeoutException te) {
+
+            getBlockingTimeout().timeoutDetected();
+            // This is the first step trying to await stability for this op, so if it's
+            // unstable some previous step must have messed it up and it can't recover.
+            // So this process must restart.
+            // The previous op should have set this in {@code releaseStepLocks}; doing it again
+            // here is just a 2nd line of defense
+            processState.setRestartRequired();// don't use our restartRequired() method as this is not reversible in rollback
+
+            // Deliberate log and throw; we want this logged, we need to notify user, and I want slightly
+            // different messages for both so just throwing a RuntimeException to get the automatic handling
+            // in AbstractOperationContext.executeStep is not what I wanted
+            ControllerLogger.MGMT_OP_LOGGER.timeoutAwaitingInitialStability(timeout / 1000, activeStep.operationId.name, activeStep.operationId.address);
+            setRollbackOnly();
+            throw new OperationFailedRuntimeException(ControllerLogger.ROOT_LOGGER.timeoutAwaitingInitialStability());
+        } finally {
+            executionStatus = origStatus;
+        }
+    }
+
     private void notifyModificationBegun() {
         Notification notification = new Notification(RUNTIME_MODIFICATION_BEGUN,
                 modelController.getModelControllerResourceAddress(managementModel),
@@ -1150,8 +1228,14 @@ final class OperationContextImpl extends AbstractOperationContext {
                 // Any subsequent step that calls getServiceRegistry/getServiceTarget/removeService
                 // is going to have to await the monitor uninterruptibly anyway before proceeding.
                 long timeout = getBlockingTimeout().getLocalBlockingTimeout();
+                final long waitStart = System.nanoTime();
                 try {
-                    modelController.awaitContainerStability(timeout, TimeUnit.MILLISECONDS, true);
+                    if (isScopedStability()) {
+                        awaitScopedStability(timeout);
+                    } else {
+                        modelController.awaitContainerStability(timeout, TimeUnit.MILLISECONDS, true);
+                    }
+                    recordStabilityWait(waitStart);
                 }  catch (InterruptedException e) {
                     interrupted = true;
                     MGMT_OP_LOGGER.interruptedWaitingStability();
@@ -1175,6 +1259,9 @@ final class OperationContextImpl extends AbstractOperationContext {
                 if (this.containerMonitorStep == step) {
                     notifyModificationsComplete();
                     resetContainerStateChanges();
+                    if (scopedStabilityMonitor != null) {
+                        scopedStabilityMonitor.clear();
+                    }
                 }
             } finally {
                 if (interrupted) {
@@ -1193,6 +1280,7 @@ final class OperationContextImpl extends AbstractOperationContext {
     private void resetContainerStateChanges() {
         modelController.logContainerStateChangesAndReset();
         containerMonitorStep = null;
+        initialStabilityDeferred = false;
     }
 
     @Override
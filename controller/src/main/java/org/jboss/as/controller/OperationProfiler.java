@@ -0,0 +1,179 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HANDLER;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Records where the time of a single operation goes: the wall clock and CPU time of each executed step, and the
+ * time spent waiting for the controller lock and for the service container to become stable. A profiler is
+ * only created if the operation sets the {@code profile} operation header, and is only used by the thread
+ * executing the operation.
+ */
+final class OperationProfiler {
+
+    static final String CPU_TIME = "cpu-time";
+    static final String LOCK_WAIT_TIME = "lock-wait-time";
+    static final String STABILITY_WAIT_TIME = "stability-wait-time";
+    static final String STAGE = "stage";
+    static final String WALL_TIME = "wall-time";
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private final boolean cpuTimeSupported = THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() && THREAD_MX_BEAN.isThreadCpuTimeEnabled();
+    private final long startTime = System.nanoTime();
+    private final List<Entry> roots = new ArrayList<>();
+    private Entry current;
+    private long lockWaitTime;
+    private long stabilityWaitTime;
+
+    /**
+     * Record that a step is about to be executed.
+     *
+     * @param operationId the operation executed by the step
+     * @param handler the handler of the step
+     * @param stage the stage the step is executed in
+     * @param parent the profile of the step which added this one, or {@code null} if the step was added by the controller
+     * @return the profile of the step
+     */
+    Entry stepStarted(final AbstractOperationContext.OperationId operationId, final OperationStepHandler handler,
+                      final OperationContext.Stage stage, final Entry parent) {
+        final Entry entry = new Entry(operationId, handler.getClass().getName(), stage, current);
+        if (parent == null) {
+            roots.add(entry);
+        } else {
+            parent.children.add(entry);
+        }
+        current = entry;
+        entry.cpuStart = cpuTimeSupported ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : -1;
+        entry.wallStart = System.nanoTime();
+        return entry;
+    }
+
+    /**
+     * Record that the execution of a step has finished.
+     *
+     * @param entry the profile returned by {@link #stepStarted}
+     */
+    void stepCompleted(final Entry entry) {
+        entry.wallTime = System.nanoTime() - entry.wallStart;
+        if (entry.cpuStart > -1) {
+            entry.cpuTime = THREAD_MX_BEAN.getCurrentThreadCpuTime() - entry.cpuStart;
+        }
+        current = entry.previous;
+    }
+
+    /**
+     * Record time spent waiting for the controller lock.
+     *
+     * @param time the time in nanoseconds
+     */
+    void lockWaited(final long time) {
+        lockWaitTime += time;
+        if (current != null) {
+            current.lockWaitTime += time;
+        }
+    }
+
+    /**
+     * Record time spent waiting for the service container to become stable.
+     *
+     * @param time the time in nanoseconds
+     */
+    void stabilityWaited(final long time) {
+        stabilityWaitTime += time;
+        if (current != null) {
+            current.stabilityWaitTime += time;
+        }
+    }
+
+    /**
+     * Gets the recorded profile. All times are in nanoseconds.
+     *
+     * @return the profile
+     */
+    ModelNode toModelNode() {
+        final ModelNode result = new ModelNode();
+        result.get(WALL_TIME).set(System.nanoTime() - startTime);
+        result.get(LOCK_WAIT_TIME).set(lockWaitTime);
+        result.get(STABILITY_WAIT_TIME).set(stabilityWaitTime);
+        final ModelNode steps = result.get(STEPS).setEmptyList();
+        for (Entry entry : roots) {
+            steps.add(entry.toModelNode());
+        }
+        return result;
+    }
+
+    /**
+     * The profile of a single step.
+     */
+    static final class Entry {
+        private final AbstractOperationContext.OperationId operationId;
+        private final String handler;
+        private final OperationContext.Stage stage;
+        private final Entry previous;
+        private final List<Entry> children = new ArrayList<>(0);
+        private long wallStart;
+        private long cpuStart;
+        private long wallTime = -1;
+        private long cpuTime = -1;
+        private long lockWaitTime;
+        private long stabilityWaitTime;
+
+        private Entry(final AbstractOperationContext.OperationId operationId, final String handler, final OperationContext.Stage stage, final Entry previous) {
+            this.operationId = operationId;
+            this.handler = handler;
+            this.stage = stage;
+            this.previous = previous;
+        }
+
+        private ModelNode toModelNode() {
+            final ModelNode result = new ModelNode();
+            result.get(OP).set(operationId.name == null ? new ModelNode() : new ModelNode(operationId.name));
+            result.get(OP_ADDR).set(operationId.address.toModelNode());
+            result.get(HANDLER).set(handler);
+            result.get(STAGE).set(stage.toString());
+            result.get(WALL_TIME).set(wallTime);
+            result.get(CPU_TIME).set(cpuTime);
+            result.get(LOCK_WAIT_TIME).set(lockWaitTime);
+            result.get(STABILITY_WAIT_TIME).set(stabilityWaitTime);
+            if (!children.isEmpty()) {
+                final ModelNode steps = result.get(STEPS);
+                for (Entry child : children) {
+                    steps.add(child.toModelNode());
+                }
+            }
+            return result;
+        }
+    }
+}
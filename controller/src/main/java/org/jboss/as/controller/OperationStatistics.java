@@ -0,0 +1,127 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Aggregated execution times of the operations executed by a {@link ModelControllerImpl}, keyed by operation name.
+ * Each operation name gets a histogram with fixed millisecond buckets, so recording an operation never allocates
+ * once its name has been seen.
+ */
+final class OperationStatistics {
+
+    static final String COUNT = "count";
+    static final String HISTOGRAM = "histogram";
+    static final String MAX_TIME = "max-time";
+    static final String STABILITY_WAIT_TIME = "stability-wait-time";
+    static final String TOTAL_TIME = "total-time";
+
+    /** Upper bounds, in milliseconds, of all but the last histogram bucket */
+    private static final long[] BUCKETS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000};
+    private static final String UNBOUNDED = "+Inf";
+    /** Bounds the memory used if clients send requests for many non-existent operations */
+    static final int MAX_OPERATION_NAMES = 1024;
+
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Record the execution of an operation.
+     *
+     * @param operationName the name of the operation
+     * @param time the execution time in nanoseconds
+     * @param stabilityWaitTime the part of the execution time spent waiting for service container stability, in nanoseconds
+     */
+    void record(final String operationName, final long time, final long stabilityWaitTime) {
+        Histogram histogram = histograms.get(operationName);
+        if (histogram == null) {
+            if (histograms.size() >= MAX_OPERATION_NAMES) {
+                return;
+            }
+            histogram = histograms.computeIfAbsent(operationName, name -> new Histogram());
+        }
+        histogram.record(TimeUnit.NANOSECONDS.toMillis(time), TimeUnit.NANOSECONDS.toMillis(stabilityWaitTime));
+    }
+
+    /**
+     * Gets the statistics of all operations executed so far. All times are in milliseconds.
+     *
+     * @return the statistics keyed by operation name
+     */
+    ModelNode toModelNode() {
+        final ModelNode result = new ModelNode().setEmptyObject();
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            result.get(entry.getKey()).set(entry.getValue().toModelNode());
+        }
+        return result;
+    }
+
+    private static final class Histogram {
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS.length + 1);
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+        private final AtomicLong stabilityWait = new AtomicLong();
+
+        private void record(final long millis, final long stabilityWaitMillis) {
+            int i = 0;
+            while (i < BUCKETS.length && millis > BUCKETS[i]) {
+                i++;
+            }
+            counts.incrementAndGet(i);
+            total.addAndGet(millis);
+            if (stabilityWaitMillis > 0) {
+                stabilityWait.addAndGet(stabilityWaitMillis);
+            }
+            long previous;
+            while ((previous = max.get()) < millis && !max.compareAndSet(previous, millis)) {
+                // retry
+            }
+        }
+
+        private ModelNode toModelNode() {
+            final ModelNode result = new ModelNode();
+            final ModelNode histogram = new ModelNode();
+            long count = 0;
+            for (int i = 0; i < BUCKETS.length; i++) {
+                final long bucket = counts.get(i);
+                histogram.get(Long.toString(BUCKETS[i])).set(bucket);
+                count += bucket;
+            }
+            final long unbounded = counts.get(BUCKETS.length);
+            histogram.get(UNBOUNDED).set(unbounded);
+            count += unbounded;
+            result.get(COUNT).set(count);
+            result.get(TOTAL_TIME).set(total.get());
+            result.get(MAX_TIME).set(max.get());
+            result.get(STABILITY_WAIT_TIME).set(stabilityWait.get());
+            result.get(HISTOGRAM).set(histogram);
+            return result;
+        }
+    }
+}
@@ -25,12 +25,16 @@ package org.jboss.as.controller;
 import static org.jboss.as.controller.logging.ControllerLogger.MGMT_OP_LOGGER;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.controller.client.OperationResponse;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
@@ -126,6 +130,7 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
             throw ControllerLogger.ROOT_LOGGER.operationContextIsNotAbstractOperationContext();
         }
 
+        final long stageStart = System.nanoTime();
         for (Map.Entry<String, List<ParsedBootOp>> entry : opsBySubsystem.entrySet()) {
             String subsystemName = entry.getKey();
             List<ParsedBootOp> subsystemRuntimeOps = new ArrayList<ParsedBootOp>();
@@ -146,6 +151,7 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
 
             // See if all subsystems succeeded; if not report a failure to context
             checkForSubsystemFailures(context, transactionControls, OperationContext.Stage.MODEL);
+            logBootTimeline(OperationContext.Stage.MODEL, stageStart, transactionControls, opsBySubsystem);
 
             // Add any logging subsystem steps so we get logging early in the boot
             List<ParsedBootOp> loggingOps = runtimeOpsBySubsystem.remove("logging");
@@ -169,8 +175,10 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
                 rootResource.registerChild(PathElement.pathElement(ModelDescriptionConstants.SUBSYSTEM, entry.getKey()), entry.getValue());
             }
 
-            // Add step to execute all the runtime ops recorded by the other subsystem tasks
-            context.addStep(getRuntimeStep(runtimeOpsBySubsystem), OperationContext.Stage.RUNTIME);
+            // Add step to execute all the runtime ops recorded by the other subsystem tasks, starting
+            // with the subsystems whose capabilities the others require
+            context.addStep(getRuntimeStep(orderByCapabilityRequirements((AbstractOperationContext) context, runtimeOpsBySubsystem)),
+                    OperationContext.Stage.RUNTIME);
 
         } catch (InterruptedException e) {
             context.getFailureDescription().set(new ModelNode().set(ControllerLogger.ROOT_LOGGER.subsystemBootInterrupted()));
@@ -242,6 +250,80 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
         committedLatch.countDown();
     }
 
+    private void logBootTimeline(final OperationContext.Stage stage, final long stageStart,
+                                 final Map<String, ParallelBootTransactionControl> transactionControls,
+                                 final Map<String, List<ParsedBootOp>> opsBySubsystem) {
+        if (MGMT_OP_LOGGER.isDebugEnabled()) {
+            for (Map.Entry<String, ParallelBootTransactionControl> entry : transactionControls.entrySet()) {
+                ParallelBootTransactionControl txControl = entry.getValue();
+                MGMT_OP_LOGGER.debugf("Stage %s boot ops for subsystem %s (%d ops) started after [%d] ms and ran for [%d] ms",
+                        stage, entry.getKey(), opsBySubsystem.get(entry.getKey()).size(),
+                        TimeUnit.NANOSECONDS.toMillis(txControl.startTime - stageStart),
+                        TimeUnit.NANOSECONDS.toMillis(txControl.preparedTime - txControl.startTime));
+            }
+        }
+    }
+
+    /**
+     * Orders the subsystems so that those providing capabilities required by other subsystems, directly or
+     * transitively, come first. Subsystems with equally long chains of dependents keep their configuration order.
+     */
+    private Map<String, List<ParsedBootOp>> orderByCapabilityRequirements(final AbstractOperationContext context,
+                                                                          final Map<String, List<ParsedBootOp>> opsBySubsystem) {
+        final Map<String, Set<String>> dependentsBySubsystem = new HashMap<>();
+        for (Map.Entry<PathAddress, Set<PathAddress>> entry : context.getCapabilityRequirementGraph().entrySet()) {
+            final String dependent = getSubsystemName(entry.getKey());
+            if (dependent != null) {
+                for (PathAddress providerAddress : entry.getValue()) {
+                    final String provider = getSubsystemName(providerAddress);
+                    if (provider != null && !provider.equals(dependent)) {
+                        dependentsBySubsystem.computeIfAbsent(provider, name -> new HashSet<>()).add(dependent);
+                    }
+                }
+            }
+        }
+        if (dependentsBySubsystem.isEmpty()) {
+            return opsBySubsystem;
+        }
+
+        final Map<String, Integer> depths = new HashMap<>();
+        final List<String> subsystems = new ArrayList<>(opsBySubsystem.keySet());
+        for (String subsystem : subsystems) {
+            getDependentDepth(subsystem, dependentsBySubsystem, depths, new HashSet<>());
+        }
+        // List.sort is stable, so ties keep the configuration order
+        subsystems.sort((first, second) -> Integer.compare(depths.get(second), depths.get(first)));
+
+        final Map<String, List<ParsedBootOp>> result = new LinkedHashMap<>();
+        for (String subsystem : subsystems) {
+            result.put(subsystem, opsBySubsystem.get(subsystem));
+        }
+        MGMT_OP_LOGGER.debugf("Executing subsystem runtime operations in order %s", result.keySet());
+        return result;
+    }
+
+    private static int getDependentDepth(final String subsystem, final Map<String, Set<String>> dependentsBySubsystem,
+                                         final Map<String, Integer> depths, final Set<String> visiting) {
+        Integer depth = depths.get(subsystem);
+        if (depth != null) {
+            return depth;
+        }
+        if (!visiting.add(subsystem)) {
+            // A requirement cycle; capability validation will have reported it
+            return 0;
+        }
+        int result = 0;
+        Set<String> dependents = dependentsBySubsystem.get(subsystem);
+        if (dependents != null) {
+            for (String dependent : dependents) {
+                result = Math.max(result, getDependentDepth(dependent, dependentsBySubsystem, depths, visiting) + 1);
+            }
+        }
+        visiting.remove(subsystem);
+        depths.put(subsystem, result);
+        return result;
+    }
+
     private OperationStepHandler getRuntimeStep(final Map<String, List<ParsedBootOp>> runtimeOpsBySubsystem) {
 
         return new OperationStepHandler() {
@@ -263,7 +345,7 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
                     throw ControllerLogger.ROOT_LOGGER.operationContextIsNotAbstractOperationContext();
                 }
 
-
+                final long stageStart = System.nanoTime();
                 for (Map.Entry<String, List<ParsedBootOp>> entry : runtimeOpsBySubsystem.entrySet()) {
                     String subsystemName = entry.getKey();
                     final ParallelBootTransactionControl txControl = new ParallelBootTransactionControl(preparedLatch, committedLatch, completeLatch);
@@ -280,6 +362,7 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
 
                     // See if all subsystems succeeded; if not report a failure to context
                     checkForSubsystemFailures(context, transactionControls, OperationContext.Stage.RUNTIME);
+                    logBootTimeline(OperationContext.Stage.RUNTIME, stageStart, transactionControls, runtimeOpsBySubsystem);
 
                 } catch (InterruptedException e) {
                     context.getFailureDescription().set(new ModelNode().set(ControllerLogger.ROOT_LOGGER.subsystemBootInterrupted()));
@@ -347,6 +430,7 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
         public void run() {
             boolean interrupted = false;
             ParallelBootOperationContext operationContext = null;
+            transactionControl.startTime = System.nanoTime();
             try {
                 operationContext = new ParallelBootOperationContext(transactionControl, processState,
                         primaryContext, runtimeOps, controllingThread, controller, lockId, controller.getAuditLogger(),
@@ -405,6 +489,9 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
         private OperationResponse response;
         private ModelController.OperationTransaction transaction;
         private boolean signalled;
+        // Written by the subsystem task before it counts down the prepared latch
+        private long startTime;
+        private long preparedTime;
 
         public ParallelBootTransactionControl(CountDownLatch preparedLatch, CountDownLatch committedLatch, CountDownLatch completeLatch) {
             this.preparedLatch = preparedLatch;
@@ -416,6 +503,7 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
         public void operationFailed(ModelNode response) {
             if (!signalled) {
                 this.response = OperationResponse.Factory.createSimple(response);
+                preparedTime = System.nanoTime();
                 preparedLatch.countDown();
                 completeLatch.countDown();
                 signalled = true;
@@ -426,6 +514,7 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
         public void operationPrepared(ModelController.OperationTransaction transaction, ModelNode result) {
             if (!signalled) {
                 this.transaction = transaction;
+                preparedTime = System.nanoTime();
                 preparedLatch.countDown();
                 signalled = true;
 
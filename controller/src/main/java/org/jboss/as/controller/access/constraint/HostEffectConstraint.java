@@ -173,6 +173,31 @@ public class HostEffectConstraint extends AbstractConstraint implements Constrai
         return other instanceof HostEffectConstraint && (readOnly || readOnlyConstraint != null);
     }
 
+    /**
+     * Constraints required by targets affecting the same hosts are equal, so decisions made for one apply to the
+     * other. A user constraint can have its hosts changed, so it is only equal to itself.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        HostEffectConstraint other = (HostEffectConstraint) o;
+        return !user && !other.user && global == other.global
+                && hostsHolder.specific.equals(other.hostsHolder.specific);
+    }
+
+    @Override
+    public int hashCode() {
+        if (user) {
+            return System.identityHashCode(this);
+        }
+        return 31 * hostsHolder.specific.hashCode() + (global ? 1 : 0);
+    }
+
     // Scoping Constraint
 
     @Override
@@ -222,6 +222,38 @@ public class ServerGroupEffectConstraint extends AbstractConstraint implements C
         return other instanceof ServerGroupEffectConstraint && (readOnly || readOnlyConstraint != null);
     }
 
+    /**
+     * Constraints required by targets with the same server group effect are equal, so decisions made for one apply to
+     * the other. A user constraint can have its groups changed, so it is only equal to itself.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ServerGroupEffectConstraint other = (ServerGroupEffectConstraint) o;
+        return !user && !other.user && global == other.global && nonServerHost == other.nonServerHost
+                && unassigned == other.unassigned && groupAdd == other.groupAdd && groupRemove == other.groupRemove
+                && groupsHolder.specific.equals(other.groupsHolder.specific);
+    }
+
+    @Override
+    public int hashCode() {
+        if (user) {
+            return System.identityHashCode(this);
+        }
+        int result = groupsHolder.specific.hashCode();
+        result = 31 * result + (global ? 1 : 0);
+        result = 31 * result + (nonServerHost ? 1 : 0);
+        result = 31 * result + (unassigned ? 1 : 0);
+        result = 31 * result + (groupAdd ? 1 : 0);
+        result = 31 * result + (groupRemove ? 1 : 0);
+        return result;
+    }
+
     // Scoping Constraint
 
     @Override
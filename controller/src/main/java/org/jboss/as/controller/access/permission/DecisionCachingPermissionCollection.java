@@ -0,0 +1,124 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.access.permission;
+
+import java.security.Permission;
+import java.security.PermissionCollection;
+import java.util.Enumeration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.access.Action;
+import org.jboss.as.controller.access.constraint.Constraint;
+import org.jboss.as.controller.logging.ControllerLogger;
+
+/**
+ * Read-only {@link PermissionCollection} that remembers whether a delegate collection implies a
+ * {@link SimpleManagementPermission}.
+ * <p>
+ * Decisions are keyed by the action effect and each of the permission's constraints. Constraint factories return
+ * shared instances for the common required constraints, with whatever sensitivity or application type configuration
+ * applies to the target already folded into which instance is returned, so repeated checks of equivalent targets find
+ * the stored decision without building any new objects. The constraints scoping a target to specific hosts or server
+ * groups are created per target, but are equal to those of targets with the same effect. Any other constraint created
+ * for a single target never matches a later check; the number of stored decisions is bounded so they cannot
+ * accumulate.
+ * </p>
+ * <p>
+ * The delegate must not change once wrapped. A collection is discarded along with the permissions it wraps when the
+ * access control configuration that produced them changes.
+ * </p>
+ */
+public final class DecisionCachingPermissionCollection extends PermissionCollection {
+
+    private static final int MAX_NODES = 4096;
+
+    private final PermissionCollection delegate;
+    private final AtomicInteger nodeCount = new AtomicInteger();
+    private volatile Node[] roots;
+
+    public DecisionCachingPermissionCollection(PermissionCollection delegate) {
+        this.delegate = delegate;
+        this.roots = createRoots();
+        setReadOnly();
+    }
+
+    @Override
+    public void add(Permission permission) {
+        // Read-only from construction, as the decisions are only valid for the delegate as wrapped
+        throw ControllerLogger.ROOT_LOGGER.permissionCollectionIsReadOnly();
+    }
+
+    @Override
+    public boolean implies(Permission permission) {
+        if (permission == null || permission.getClass() != SimpleManagementPermission.class) {
+            return delegate.implies(permission);
+        }
+        SimpleManagementPermission required = (SimpleManagementPermission) permission;
+        Node[] current = roots;
+        Node node = current[required.getActionEffect().ordinal()];
+        for (Constraint constraint : required.getConstraints()) {
+            Node child = node.children.get(constraint);
+            if (child == null) {
+                if (nodeCount.incrementAndGet() > MAX_NODES) {
+                    // Mostly single use constraints; start over rather than evaluate the trimming
+                    nodeCount.set(0);
+                    roots = createRoots();
+                    return delegate.implies(permission);
+                }
+                Node created = new Node();
+                child = node.children.putIfAbsent(constraint, created);
+                if (child == null) {
+                    child = created;
+                }
+            }
+            node = child;
+        }
+        Boolean implied = node.implied;
+        if (implied == null) {
+            implied = delegate.implies(permission);
+            node.implied = implied;
+        }
+        return implied;
+    }
+
+    @Override
+    public Enumeration<Permission> elements() {
+        return delegate.elements();
+    }
+
+    private static Node[] createRoots() {
+        Action.ActionEffect[] effects = Action.ActionEffect.values();
+        Node[] result = new Node[effects.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = new Node();
+        }
+        return result;
+    }
+
+    private static final class Node {
+        private final ConcurrentMap<Constraint, Node> children = new ConcurrentHashMap<>(4);
+        private volatile Boolean implied;
+    }
+}
@@ -25,9 +25,9 @@ package org.jboss.as.controller.access.permission;
 import java.security.Permission;
 import java.security.PermissionCollection;
 import java.util.Enumeration;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.controller.access.Action;
@@ -42,7 +42,7 @@ public class ManagementPermissionCollection extends PermissionCollection {
     private final Class<? extends ManagementPermission> type;
 
     private final String name;
-    private final Map<Action.ActionEffect, ManagementPermission> permissions = new HashMap<Action.ActionEffect, ManagementPermission>();
+    private final Map<Action.ActionEffect, ManagementPermission> permissions = new ConcurrentHashMap<Action.ActionEffect, ManagementPermission>();
 
     public ManagementPermissionCollection(Class<? extends ManagementPermission> type) {
         this(null, type);
@@ -61,9 +61,7 @@ public class ManagementPermissionCollection extends PermissionCollection {
 
         if (type.equals(permission.getClass())) {
             ManagementPermission mperm = (ManagementPermission) permission;
-            synchronized (permissions) {
-                permissions.put(mperm.getActionEffect(), mperm);
-            }
+            permissions.put(mperm.getActionEffect(), mperm);
         } else {
             throw ControllerLogger.ROOT_LOGGER.incompatiblePermissionType(permission.getClass());
         }
@@ -74,10 +72,7 @@ public class ManagementPermissionCollection extends PermissionCollection {
         if (permission instanceof ManagementPermission) {
             ManagementPermission mperm = (ManagementPermission) permission;
             Action.ActionEffect actionEffect = mperm.getActionEffect();
-            ManagementPermission provided;
-            synchronized (permissions) {
-                provided = permissions.get(actionEffect);
-            }
+            ManagementPermission provided = permissions.get(actionEffect);
             if (provided == null) {
                 ControllerLogger.ACCESS_LOGGER.tracef("Permission collection '%s' does not provide a permission for %s", name, actionEffect);
                 return false;
@@ -112,8 +107,6 @@ public class ManagementPermissionCollection extends PermissionCollection {
     }
 
     private Iterator<ManagementPermission> iterator() {
-        synchronized (permissions) {
-            return permissions.values().iterator();
-        }
+        return permissions.values().iterator();
     }
 }
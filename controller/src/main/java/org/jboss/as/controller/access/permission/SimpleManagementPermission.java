@@ -87,6 +87,11 @@ public class SimpleManagementPermission extends ManagementPermission {
         return getActionEffect().hashCode();
     }
 
+    /** The constraints, for {@link DecisionCachingPermissionCollection}; must not be modified */
+    Constraint[] getConstraints() {
+        return constraints;
+    }
+
     @Override
     public String getActions() {
         return getActionEffect().toString();
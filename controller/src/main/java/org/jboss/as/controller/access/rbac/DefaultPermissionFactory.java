@@ -24,7 +24,6 @@ package org.jboss.as.controller.access.rbac;
 
 import java.security.Permission;
 import java.security.PermissionCollection;
-import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -35,6 +34,8 @@ import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.jboss.as.controller.access.Action;
 import org.jboss.as.controller.access.AuthorizerConfiguration;
@@ -58,6 +59,7 @@ import org.jboss.as.controller.access.constraint.ServerGroupEffectConstraint;
 import org.jboss.as.controller.access.constraint.TopRoleConstraint;
 import org.jboss.as.controller.access.permission.AllPermissionsCollection;
 import org.jboss.as.controller.access.permission.CombinationManagementPermission;
+import org.jboss.as.controller.access.permission.DecisionCachingPermissionCollection;
 import org.jboss.as.controller.access.permission.ManagementPermission;
 import org.jboss.as.controller.access.permission.ManagementPermissionCollection;
 import org.jboss.as.controller.access.permission.PermissionFactory;
@@ -174,8 +176,7 @@ public class DefaultPermissionFactory implements PermissionFactory, AuthorizerCo
                 result.add(cmp);
             }
         }
-        currentPerms.storePermissions(roles, result);
-        return result;
+        return currentPerms.storePermissions(roles, result);
     }
 
     private PermissionCollection checkAllPermissions(Set<String> roles) {
@@ -431,8 +432,8 @@ public class DefaultPermissionFactory implements PermissionFactory, AuthorizerCo
     }
 
     private static class PermsHolder {
-        private final Map<Set<String>, PermissionCollection> permsByRoleSet =
-                Collections.synchronizedMap(new HashMap<Set<String>, PermissionCollection>());
+        private final ConcurrentMap<Set<String>, PermissionCollection> permsByRoleSet =
+                new ConcurrentHashMap<Set<String>, PermissionCollection>();
         private final Map<String, ManagementPermissionCollection> permsByRole =
                 new HashMap<String, ManagementPermissionCollection>();
         private final ConstraintFactory[] constraintFactories;
@@ -446,8 +447,14 @@ public class DefaultPermissionFactory implements PermissionFactory, AuthorizerCo
             return permsByRoleSet.get(roleSet);
         }
 
-        private void storePermissions(Set<String> roleSet, PermissionCollection perms) {
-            permsByRoleSet.put(roleSet, perms);
+        /**
+         * Stores the permissions for a role set, wrapped so the decisions made with them are remembered until this
+         * holder is discarded following a change to the configuration.
+         */
+        private PermissionCollection storePermissions(Set<String> roleSet, PermissionCollection perms) {
+            PermissionCollection cached = perms == NO_PERMISSIONS ? perms : new DecisionCachingPermissionCollection(perms);
+            PermissionCollection existing = permsByRoleSet.putIfAbsent(roleSet, cached);
+            return existing == null ? cached : existing;
         }
     }
 
@@ -33,6 +33,8 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
 
 /**
  *  All methods on this class should be called with {@link org.jboss.as.controller.audit.ManagedAuditLoggerImpl}'s lock taken.
@@ -90,11 +92,18 @@ public abstract class AbstractFileAuditLogHandler extends AuditLogHandler {
 
     @Override
     void writeLogItem(String formattedItem) throws IOException {
+        writeLogItems(Collections.singletonList(formattedItem));
+    }
+
+    @Override
+    void writeLogItems(List<String> formattedItems) throws IOException {
         final FileOutputStream fos = new FileOutputStream(file, true);
         final BufferedOutputStream output = new BufferedOutputStream(fos);
         try {
-            output.write(formattedItem.getBytes());
-            output.write(LINE_TERMINATOR);
+            for (String formattedItem : formattedItems) {
+                output.write(formattedItem.getBytes());
+                output.write(LINE_TERMINATOR);
+            }
 
             //Flush and force the file to sync
             output.flush();
@@ -0,0 +1,401 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.audit;
+
+import static java.security.AccessController.doPrivileged;
+
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.jboss.threads.JBossThreadFactory;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Hands audit log items over to a dedicated thread which formats them and writes them to the handlers, so that
+ * management operations and JMX calls do not wait for disk or syslog I/O.
+ * <p>
+ * Items are passed through a bounded ring buffer in which callers claim a slot without locking. If the buffer
+ * is full the item is dropped and counted rather than blocking the caller. The writer thread drains whatever
+ * is available and, depending on the {@link FlushPolicy}, commits each item on its own, commits each batch with
+ * a single flush and sync, or keeps collecting items for the flush interval before committing them together.
+ * <p>
+ * The writer thread is started when the first item is queued and runs until {@link #stop(long)} is called by
+ * the owning logger when its handlers are stopped; a later item starts a new thread.
+ * <p>
+ * The asynchronous mode is off by default and is enabled with the {@code jboss.as.management.audit-log.async}
+ * system property.
+ */
+final class AsyncAuditLogWriter implements Runnable {
+
+    static final String ASYNC_PROPERTY = "jboss.as.management.audit-log.async";
+    static final String QUEUE_LENGTH_PROPERTY = "jboss.as.management.audit-log.queue-length";
+    static final String FLUSH_POLICY_PROPERTY = "jboss.as.management.audit-log.flush-policy";
+    static final String FLUSH_INTERVAL_PROPERTY = "jboss.as.management.audit-log.flush-interval";
+
+    static final int DEFAULT_QUEUE_LENGTH = 1024;
+    static final FlushPolicy DEFAULT_FLUSH_POLICY = FlushPolicy.BATCH;
+    /** In ms */
+    static final long DEFAULT_FLUSH_INTERVAL = 1000;
+
+    /** How long, in ms, to wait on stop for the queued items to be written */
+    static final long STOP_TIMEOUT = 5000;
+
+    /**
+     * When the items taken from the queue are committed to the handlers.
+     */
+    enum FlushPolicy {
+        /** Each item is written, flushed and synced on its own */
+        ITEM,
+        /** The items available when the writer thread wakes up are written, flushed and synced together */
+        BATCH,
+        /** Items are collected for the flush interval after the first one arrives, and then written, flushed and synced together */
+        TIME;
+
+        @Override
+        public String toString() {
+            return name().toLowerCase(Locale.ENGLISH);
+        }
+    }
+
+    /**
+     * Writes the items taken from the queue to the handlers.
+     */
+    interface BatchWriter {
+        /**
+         * Writes a batch of items.
+         *
+         * @param batch the items, in the order they were logged
+         * @param groupCommit {@code true} if each handler should commit all its items from the batch together,
+         *                    {@code false} if each item should be committed on its own
+         */
+        void writeBatch(List<QueuedItem> batch, boolean groupCommit);
+    }
+
+    private final Settings settings;
+    private final BatchWriter batchWriter;
+    private final RingBuffer<QueuedItem> buffer;
+    private final AtomicLong droppedItems = new AtomicLong();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile Thread thread;
+    /** Set by the writer thread while it is parked waiting for items */
+    private volatile boolean waiting;
+    private volatile boolean stopped;
+    /** Whether we have warned about the queue being full since the last successful batch */
+    private volatile boolean dropping;
+
+    AsyncAuditLogWriter(Settings settings, BatchWriter batchWriter) {
+        this.settings = settings;
+        this.batchWriter = batchWriter;
+        this.buffer = new RingBuffer<>(settings.getQueueLength());
+    }
+
+    /**
+     * Queues an item for writing.
+     *
+     * @param item the item
+     * @return {@code true} if the item was queued, {@code false} if it was dropped because the queue is full
+     */
+    boolean offer(QueuedItem item) {
+        if (!buffer.offer(item)) {
+            droppedItems.incrementAndGet();
+            if (!dropping) {
+                dropping = true;
+                ControllerLogger.MGMT_OP_LOGGER.auditLogQueueFull(settings.getQueueLength());
+            }
+            return false;
+        }
+        if (started.compareAndSet(false, true)) {
+            start();
+        } else if (waiting) {
+            LockSupport.unpark(thread);
+        }
+        return true;
+    }
+
+    int getQueueDepth() {
+        return buffer.size();
+    }
+
+    long getDroppedItemCount() {
+        return droppedItems.get();
+    }
+
+    /**
+     * Stops the writer thread once it has written the items already queued, waiting up to {@code timeout} ms for it to finish.
+     * Items queued afterwards start a new thread.
+     */
+    void stop(long timeout) {
+        final Thread thread = this.thread;
+        if (thread == null) {
+            return;
+        }
+        stopped = true;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void start() {
+        final Thread thread = doPrivileged(new PrivilegedAction<Thread>() {
+            @Override
+            public Thread run() {
+                JBossThreadFactory factory = new JBossThreadFactory(new ThreadGroup("management-audit-log-thread"), Boolean.TRUE, null, "%G - %t", null, null);
+                return factory.newThread(AsyncAuditLogWriter.this);
+            }
+        });
+        this.thread = thread;
+        thread.start();
+    }
+
+    @Override
+    public void run() {
+        final int maxBatchSize = settings.getQueueLength();
+        final List<QueuedItem> batch = new ArrayList<>();
+        for (;;) {
+            if (buffer.drainTo(batch, maxBatchSize) == 0) {
+                if (stopped) {
+                    exit();
+                    return;
+                }
+                await(0);
+                continue;
+            }
+            if (settings.getFlushPolicy() == FlushPolicy.TIME) {
+                final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settings.getFlushInterval());
+                long remaining;
+                while (!stopped && batch.size() < maxBatchSize && (remaining = deadline - System.nanoTime()) > 0) {
+                    await(remaining);
+                    buffer.drainTo(batch, maxBatchSize - batch.size());
+                }
+            }
+            try {
+                batchWriter.writeBatch(batch, settings.getFlushPolicy() != FlushPolicy.ITEM);
+            } catch (RuntimeException e) {
+                ControllerLogger.MGMT_OP_LOGGER.failedToUpdateAuditLog(e);
+            } finally {
+                batch.clear();
+                dropping = false;
+            }
+        }
+    }
+
+    /**
+     * Called by the writer thread when it has been stopped and the queue is empty. Lets the next item queued start
+     * a new thread, and starts one straight away if an item was queued after the queue was seen to be empty.
+     */
+    private void exit() {
+        thread = null;
+        stopped = false;
+        started.set(false);
+        if (!buffer.isEmpty() && started.compareAndSet(false, true)) {
+            start();
+        }
+    }
+
+    /**
+     * Parks the writer thread until an item is queued, {@link #stop(long)} is called, or {@code nanos} elapse
+     *
+     * @param nanos the maximum time to wait, or {@code 0} to wait until woken up
+     */
+    private void await(long nanos) {
+        waiting = true;
+        try {
+            // Check again now that producers can see we are waiting, so we do not miss a wake up
+            if (buffer.isEmpty() && !stopped) {
+                if (nanos > 0) {
+                    LockSupport.parkNanos(this, nanos);
+                } else {
+                    LockSupport.park(this);
+                }
+            }
+        } finally {
+            waiting = false;
+        }
+    }
+
+    /**
+     * An item waiting to be written, along with the handlers it should be written to.
+     */
+    static final class QueuedItem {
+        private final AuditLogItem item;
+        private final List<AuditLogHandler> handlers;
+
+        QueuedItem(AuditLogItem item, List<AuditLogHandler> handlers) {
+            this.item = item;
+            this.handlers = handlers;
+        }
+
+        AuditLogItem getItem() {
+            return item;
+        }
+
+        List<AuditLogHandler> getHandlers() {
+            return handlers;
+        }
+    }
+
+    /**
+     * The configuration of the asynchronous writer.
+     */
+    static final class Settings {
+        private final int queueLength;
+        private final FlushPolicy flushPolicy;
+        private final long flushInterval;
+
+        Settings(int queueLength, FlushPolicy flushPolicy, long flushInterval) {
+            this.queueLength = queueLength;
+            this.flushPolicy = flushPolicy;
+            this.flushInterval = flushInterval;
+        }
+
+        /**
+         * Reads the settings from the system properties.
+         *
+         * @return the settings, or {@code null} if the audit log should be written synchronously
+         */
+        static Settings fromSystemProperties() {
+            if (!Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(ASYNC_PROPERTY, "false"))) {
+                return null;
+            }
+            final int queueLength = (int) resolvePositive(QUEUE_LENGTH_PROPERTY, DEFAULT_QUEUE_LENGTH, Integer.MAX_VALUE);
+            final long flushInterval = resolvePositive(FLUSH_INTERVAL_PROPERTY, DEFAULT_FLUSH_INTERVAL, Long.MAX_VALUE);
+            FlushPolicy flushPolicy = DEFAULT_FLUSH_POLICY;
+            final String policyValue = WildFlySecurityManager.getPropertyPrivileged(FLUSH_POLICY_PROPERTY, null);
+            if (policyValue != null) {
+                try {
+                    flushPolicy = FlushPolicy.valueOf(policyValue.trim().toUpperCase(Locale.ENGLISH));
+                } catch (IllegalArgumentException e) {
+                    ControllerLogger.MGMT_OP_LOGGER.invalidAuditLogProperty(policyValue, FLUSH_POLICY_PROPERTY, DEFAULT_FLUSH_POLICY.toString());
+                }
+            }
+            return new Settings(queueLength, flushPolicy, flushInterval);
+        }
+
+        private static long resolvePositive(String property, long defaultValue, long maxValue) {
+            final String value = WildFlySecurityManager.getPropertyPrivileged(property, null);
+            if (value == null) {
+                return defaultValue;
+            }
+            long number = -1;
+            try {
+                number = Long.parseLong(value.trim());
+            } catch (NumberFormatException nfe) {
+                // ignored
+            }
+            if (number > 0 && number <= maxValue) {
+                return number;
+            }
+            ControllerLogger.MGMT_OP_LOGGER.invalidAuditLogProperty(value, property, String.valueOf(defaultValue));
+            return defaultValue;
+        }
+
+        int getQueueLength() {
+            return queueLength;
+        }
+
+        FlushPolicy getFlushPolicy() {
+            return flushPolicy;
+        }
+
+        long getFlushInterval() {
+            return flushInterval;
+        }
+    }
+
+    /**
+     * A bounded ring buffer for any number of producers and a single consumer. Producers claim a slot by advancing
+     * the tail with a CAS and then publish their element into it; the consumer takes published elements in order,
+     * clearing each slot before advancing the head past it.
+     */
+    static final class RingBuffer<E> {
+        private final int capacity;
+        private final int mask;
+        private final AtomicReferenceArray<E> slots;
+        /** The sequence of the next slot to be claimed by a producer */
+        private final AtomicLong tail = new AtomicLong();
+        /** The sequence of the next slot to be consumed. Only written by the consumer */
+        private volatile long head;
+
+        RingBuffer(int capacity) {
+            assert capacity > 0 : "capacity must be positive";
+            this.capacity = capacity;
+            // round up to a power of two so the slot index can be masked out of the sequence
+            final int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+            this.mask = size - 1;
+            this.slots = new AtomicReferenceArray<>(size);
+        }
+
+        boolean offer(E element) {
+            long sequence;
+            do {
+                sequence = tail.get();
+                if (sequence - head >= capacity) {
+                    return false;
+                }
+            } while (!tail.compareAndSet(sequence, sequence + 1));
+            slots.set((int) sequence & mask, element);
+            return true;
+        }
+
+        /** Only to be called by the consumer */
+        int drainTo(Collection<? super E> target, int maxElements) {
+            long sequence = head;
+            int count = 0;
+            while (count < maxElements) {
+                final int index = (int) sequence & mask;
+                final E element = slots.get(index);
+                if (element == null) {
+                    // Either empty, or the producer which claimed the slot has not published into it yet
+                    break;
+                }
+                slots.set(index, null);
+                target.add(element);
+                head = ++sequence;
+                count++;
+            }
+            return count;
+        }
+
+        int size() {
+            final long head = this.head;
+            return (int) Math.min(tail.get() - head, capacity);
+        }
+
+        boolean isEmpty() {
+            final long head = this.head;
+            return tail.get() == head;
+        }
+    }
+}
@@ -88,6 +88,42 @@ abstract class AuditLogHandler {
         }
     }
 
+    /**
+     * Formats an item for a batch which will be passed to {@link #writeFormattedLogItems(List)}. Like
+     * {@link #writeLogItem(AuditLogItem)} the caller must clear the formatter once all handlers have formatted the item.
+     *
+     * @param item the log item
+     * @return the formatted item, or {@code null} if formatting failed
+     */
+    String formatLogItem(AuditLogItem item) {
+        try {
+            return item.format(formatter);
+        } catch (Throwable t) {
+            getFailureCountHandler().failure(t);
+            return null;
+        }
+    }
+
+    /**
+     * Writes a batch of formatted items, committing them together where the handler supports that.
+     *
+     * @param formattedItems the formatted items
+     */
+    void writeFormattedLogItems(List<String> formattedItems) {
+        FailureCountHandler fch = getFailureCountHandler();
+        try {
+            initialize();
+            writeLogItems(formattedItems);
+            fch.success();
+        } catch (Throwable t) {
+            fch.failure(t);
+        }
+    }
+
+    AuditLogItemFormatter getFormatter() {
+        return formatter;
+    }
+
     void recycle() {
         this.failureCount = 0;
         stop();
@@ -133,6 +169,12 @@ abstract class AuditLogHandler {
     abstract void stop();
     abstract void writeLogItem(String formattedItem) throws IOException;
 
+    void writeLogItems(List<String> formattedItems) throws IOException {
+        for (String formattedItem : formattedItems) {
+            writeLogItem(formattedItem);
+        }
+    }
+
     List<ModelNode> listLastEntries() {
         return Collections.emptyList();
     }
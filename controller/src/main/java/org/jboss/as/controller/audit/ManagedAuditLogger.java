@@ -200,6 +200,24 @@ public interface ManagedAuditLogger extends AuditLogger {
         return Collections.emptyList();
     }
 
+    /**
+     * Gets the number of log items waiting to be written by the asynchronous writer
+     *
+     * @return the number of queued log items, or {@code 0} if the log items are written synchronously
+     */
+    default int getQueueDepth() {
+        return 0;
+    }
+
+    /**
+     * Gets the number of log items the asynchronous writer has dropped because its queue was full
+     *
+     * @return the number of dropped log items, or {@code 0} if the log items are written synchronously
+     */
+    default long getDroppedItemCount() {
+        return 0;
+    }
+
     /**
      * Callback for the controller to call before the controller is booted
      */
@@ -210,6 +228,17 @@ public interface ManagedAuditLogger extends AuditLogger {
      */
     void bootDone();
 
+    /**
+     * Callback for the controller to call when it is stopped. Writes out the log items still waiting to be written by
+     * the asynchronous writer and stops its thread; a new one is started if anything is logged afterwards, e.g. once the
+     * controller is reloaded.
+     * <p>
+     * The default implementation does nothing.
+     * </p>
+     */
+    default void stop() {
+    }
+
     /**
      * <p>The audit log handler updater. Additive changes will be used for the audit log record as a result of
      * management operations causing updates here. Removals and updates will not take effect until the current audit log
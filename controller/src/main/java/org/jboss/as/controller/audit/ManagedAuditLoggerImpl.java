@@ -30,6 +30,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -75,8 +76,23 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
       * Must be reset to false when handler updates need to be performed */
     private final AtomicBoolean runDisabledFastPath = new AtomicBoolean(false);
 
+    /** Whether items can be queued for the asynchronous writer without taking the lock.
+      * Only set with lock held, once booting is over, the logger is logging and there are no pending handler updates
+      * Must be reset to false whenever any of that changes */
+    private final AtomicBoolean runAsyncFastPath = new AtomicBoolean(false);
+
+    /** The handlers items queued on the async fast path are written to. Only changed with lock held */
+    private volatile List<AuditLogHandler> asyncFastPathHandlers;
+
+    /** The shared handler generation asyncFastPathHandlers was taken at. Only changed with lock held */
+    private volatile int asyncFastPathGeneration;
+
     public ManagedAuditLoggerImpl(String asVersion, boolean server) {
-        config = new CoreAuditLogConfiguration(asVersion, server);
+        this(asVersion, server, AsyncAuditLogWriter.Settings.fromSystemProperties());
+    }
+
+    ManagedAuditLoggerImpl(String asVersion, boolean server, AsyncAuditLogWriter.Settings asyncSettings) {
+        config = new CoreAuditLogConfiguration(asVersion, server, asyncSettings);
         childImpls = new ArrayList<ManagedAuditLoggerImpl>();
     }
 
@@ -92,6 +108,15 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         if (runDisabledFastPath.get())
             return;
 
+        if (isAsyncFastPath()) {
+            if (!readOnly || config.isLogReadOnly()) {
+                queueLogItem(
+                        AuditLogItem.createModelControllerItem(config.getAsVersion(), readOnly, false, resultAction, userId, domainUUID,
+                                accessMechanism, remoteAddress, resultantModel, operations), asyncFastPathHandlers);
+            }
+            return;
+        }
+
         config.lock();
         try {
             if (skipLogging(readOnly)) {
@@ -104,6 +129,7 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
             handleLoggingException(e);
         } finally {
             applyHandlerUpdates();
+            updateAsyncFastPath();
             config.unlock();
         }
     }
@@ -114,6 +140,15 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         if (runDisabledFastPath.get())
             return;
 
+        if (isAsyncFastPath()) {
+            if (!readOnly || config.isLogReadOnly()) {
+                queueLogItem(
+                        AuditLogItem.createMethodAccessItem(config.getAsVersion(), readOnly, false, userId, domainUUID, accessMechanism,
+                                remoteAddress, methodName, methodSignature, methodParams, error), asyncFastPathHandlers);
+            }
+            return;
+        }
+
         config.lock();
         try {
             if (skipLogging(readOnly)) {
@@ -126,6 +161,7 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
             handleLoggingException(e);
         } finally {
             applyHandlerUpdates();
+            updateAsyncFastPath();
             config.unlock();
         }
     }
@@ -231,6 +267,7 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
                 queuedItems.clear();
             }
             runDisabledFastPath.set(false);
+            runAsyncFastPath.set(false);
         } finally {
             config.unlock();
         }
@@ -244,10 +281,10 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
                 queuedItems.add(item);
                 break;
             case LOGGING:
-                writeLogItem(item);
+                writeOrQueueLogItem(item);
                 break;
             case DISABLE_NEXT:
-                writeLogItem(item);
+                writeOrQueueLogItem(item);
                 config.setLoggerStatus(Status.DISABLED);
             case DISABLED:
                 // switch to the fast path for the next event
@@ -256,6 +293,38 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         }
     }
 
+    /** protected by config's audit lock */
+    private void writeOrQueueLogItem(AuditLogItem item) throws IOException {
+        if (config.isAsync()) {
+            queueLogItem(item, config.getReferencedHandlers());
+        } else {
+            writeLogItem(item);
+        }
+    }
+
+    private void queueLogItem(AuditLogItem item, List<AuditLogHandler> handlers) {
+        config.getAsyncWriter().offer(new AsyncAuditLogWriter.QueuedItem(item, handlers));
+    }
+
+    private boolean isAsyncFastPath() {
+        // The configured handlers are shared with the other configurations, so changes made through them
+        // do not reset our flag; check they have not changed since we took the snapshot
+        return runAsyncFastPath.get() && asyncFastPathGeneration == config.getHandlerGeneration();
+    }
+
+    /** Call with lock taken */
+    private void updateAsyncFastPath() {
+        if (config.isAsync() && handlerUpdateTask == null && !config.isBooting() && config.getLoggerStatus() == Status.LOGGING) {
+            if (!isAsyncFastPath()) {
+                asyncFastPathHandlers = config.getReferencedHandlers();
+                asyncFastPathGeneration = config.getHandlerGeneration();
+                runAsyncFastPath.set(true);
+            }
+        } else {
+            runAsyncFastPath.set(false);
+        }
+    }
+
     /** protected by config's audit lock */
     private void writeLogItem(AuditLogItem item) throws IOException{
         Set<String> formatterNames = new HashSet<String>();
@@ -294,6 +363,7 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
             }
             handlerUpdateTask.addHandler(handler);
             runDisabledFastPath.set(false);
+            runAsyncFastPath.set(false);
         } finally {
             config.unlock();
         }
@@ -310,6 +380,7 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
                 }
                 handlerUpdateTask.replaceHandler(handler);
                 runDisabledFastPath.set(false);
+                runAsyncFastPath.set(false);
             }
         } finally {
             config.unlock();
@@ -325,6 +396,7 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
             }
             handlerUpdateTask.removeHandler(name);
             runDisabledFastPath.set(false);
+            runAsyncFastPath.set(false);
         } finally {
             config.unlock();
         }
@@ -339,6 +411,7 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
             }
             handlerUpdateTask.addHandlerReference(referenceAddress);
             runDisabledFastPath.set(false);
+            runAsyncFastPath.set(false);
         } finally {
             config.unlock();
         }
@@ -353,6 +426,7 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
             }
             handlerUpdateTask.removeHandlerReference(referenceAddress);
             runDisabledFastPath.set(false);
+            runAsyncFastPath.set(false);
         } finally {
             config.unlock();
         }
@@ -517,6 +591,16 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         }
     }
 
+    @Override
+    public int getQueueDepth() {
+        return config.isAsync() ? config.getAsyncWriter().getQueueDepth() : 0;
+    }
+
+    @Override
+    public long getDroppedItemCount() {
+        return config.isAsync() ? config.getAsyncWriter().getDroppedItemCount() : 0;
+    }
+
     @Override
     public void updateInMemoryHandlerMaxHistory(String name, int maxHistory) {
         config.lock();
@@ -569,6 +653,17 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
             handlerReferences.remove(name);
         }
 
+        /** The handlers with a reference from this configuration, whether or not they are currently active */
+        List<AuditLogHandler> getReferencedHandlers() {
+            List<AuditLogHandler> list = new ArrayList<>();
+            for (Map.Entry<String, AuditLogHandler> handlerEntry : sharedConfiguration.getConfiguredHandlers().entrySet()) {
+                if (hasHandlerReference(handlerEntry.getKey())) {
+                    list.add(handlerEntry.getValue());
+                }
+            }
+            return list;
+        }
+
         List<AuditLogHandler> getHandlersForLogging(){
             List<AuditLogHandler> list = new ArrayList<>();
             for (Map.Entry<String, AuditLogHandler> handlerEntry : sharedConfiguration.getConfiguredHandlers().entrySet()) {
@@ -595,6 +690,18 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
             return sharedConfiguration.isServer();
         }
 
+        boolean isAsync() {
+            return sharedConfiguration.getAsyncWriter() != null;
+        }
+
+        AsyncAuditLogWriter getAsyncWriter() {
+            return sharedConfiguration.getAsyncWriter();
+        }
+
+        int getHandlerGeneration() {
+            return sharedConfiguration.getHandlerGeneration();
+        }
+
         /** Call with lock taken */
         AuditLogItemFormatter getFormatter(String name) {
             return sharedConfiguration.getFormatter(name);
@@ -665,8 +772,8 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
      */
     private static class CoreAuditLogConfiguration extends ManagedAuditLogConfiguration {
 
-        CoreAuditLogConfiguration(String asVersion, boolean server) {
-            super(new SharedConfiguration(asVersion, server), true, false);
+        CoreAuditLogConfiguration(String asVersion, boolean server, AsyncAuditLogWriter.Settings asyncSettings) {
+            super(new SharedConfiguration(asVersion, server, asyncSettings), true, false);
         }
 
         @Override
@@ -750,10 +857,16 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         /** Guarded by auditLock - whether we are boothing or not */
         private boolean booting = true;
 
+        /** Only changed with auditLock held - incremented whenever configuredHandlers changes */
+        private volatile int handlerGeneration;
+
+        /** Writes the log items on its own thread, or {@code null} if they are written synchronously */
+        private final AsyncAuditLogWriter asyncWriter;
 
-        SharedConfiguration(String asVersion, boolean server) {
+        SharedConfiguration(String asVersion, boolean server, AsyncAuditLogWriter.Settings asyncSettings) {
             this.asVersion = asVersion;
             this.server = server;
+            this.asyncWriter = asyncSettings == null ? null : new AsyncAuditLogWriter(asyncSettings, this::writeQueuedItems);
         }
 
         public void recycleHandler(String name) {
@@ -799,12 +912,71 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
 
         void putConfiguredHandler(AuditLogHandler handler) {
             configuredHandlers.put(handler.getName(), handler);
+            handlerGeneration++;
         }
 
         AuditLogHandler removeConfiguredHandler(String name) {
+            handlerGeneration++;
             return configuredHandlers.remove(name);
         }
 
+        int getHandlerGeneration() {
+            return handlerGeneration;
+        }
+
+        AsyncAuditLogWriter getAsyncWriter() {
+            return asyncWriter;
+        }
+
+        /**
+         * Called by the async writer thread to write a batch of queued items. Each item goes to the handlers that
+         * were referenced when it was logged, which may since have been removed or replaced.
+         */
+        private void writeQueuedItems(List<AsyncAuditLogWriter.QueuedItem> batch, boolean groupCommit) {
+            lock();
+            try {
+                final Set<AuditLogHandler> handlers = new LinkedHashSet<>();
+                final Map<AuditLogHandler, List<String>> formattedItems = new HashMap<>();
+                for (AsyncAuditLogWriter.QueuedItem queued : batch) {
+                    try {
+                        for (AuditLogHandler handler : queued.getHandlers()) {
+                            if (!handler.isActive()) {
+                                continue;
+                            }
+                            handlers.add(handler);
+                            if (groupCommit) {
+                                final String formattedItem = handler.formatLogItem(queued.getItem());
+                                if (formattedItem != null) {
+                                    formattedItems.computeIfAbsent(handler, h -> new ArrayList<>()).add(formattedItem);
+                                }
+                            } else {
+                                handler.writeLogItem(queued.getItem());
+                            }
+                        }
+                    } finally {
+                        for (AuditLogHandler handler : queued.getHandlers()) {
+                            final AuditLogItemFormatter formatter = handler.getFormatter();
+                            if (formatter != null) {
+                                formatter.clear();
+                            }
+                        }
+                    }
+                }
+                for (AuditLogHandler handler : handlers) {
+                    final List<String> items = formattedItems.get(handler);
+                    if (items != null) {
+                        handler.writeFormattedLogItems(items);
+                    }
+                    if (configuredHandlers.get(handler.getName()) != handler) {
+                        // It was removed or replaced after these items were logged, and stopped at that point
+                        handler.stop();
+                    }
+                }
+            } finally {
+                unlock();
+            }
+        }
+
         void setBooting(boolean booting) {
             this.booting = booting;
         }
@@ -1001,9 +1173,19 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
                 childImpls.clear();
             }
             config.setLoggerStatus(Status.QUEUEING);
+            runAsyncFastPath.set(false);
         } finally {
             config.unlock();
         }
     }
 
+    @Override
+    public void stop() {
+        final AsyncAuditLogWriter asyncWriter = config.getAsyncWriter();
+        if (asyncWriter != null) {
+            // Not with the lock held, since the writer thread needs it to write out the queued items
+            asyncWriter.stop(AsyncAuditLogWriter.STOP_TIMEOUT);
+        }
+    }
+
  }
@@ -26,6 +26,7 @@ import org.jboss.as.controller.services.path.PathManagerService;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
 
 /**
  *  All methods on this class should be called with {@link org.jboss.as.controller.audit.ManagedAuditLoggerImpl}'s lock taken.
@@ -83,10 +84,12 @@ public class SizeRotatingFileAuditLogHandler extends AbstractFileAuditLogHandler
     }
 
     @Override
-    void writeLogItem(String formattedItem) throws IOException {
-        super.writeLogItem(formattedItem);
-        currentSize += formattedItem.getBytes().length;
-        currentSize += LINE_TERMINATOR.length;
+    void writeLogItems(List<String> formattedItems) throws IOException {
+        super.writeLogItems(formattedItems);
+        for (String formattedItem : formattedItems) {
+            currentSize += formattedItem.getBytes().length;
+            currentSize += LINE_TERMINATOR.length;
+        }
     }
 
     @Override
@@ -150,6 +150,7 @@ public class ModelDescriptionConstants {
     public static final String DOMAIN_RESULTS = "domain-results";
     public static final String DOMAIN_ROLLOUT = "domain-rollout";
     public static final String DOMAIN_UUID = "domain-uuid";
+    public static final String DROPPED_ITEMS = "dropped-items";
     public static final String DYNAMIC = "dynamic";
     public static final String DUMP_SERVICES = "dump-services";
     public static final String ENABLE = "enable";
@@ -267,6 +268,9 @@ public class ModelDescriptionConstants {
     public static final String MASTER = "master";
     public static final String MAX = "max";
     public static final String MAX_BACKUP_INDEX = "max-backup-index";
+    public static final String MAX_CONCURRENT_HOSTS = "max-concurrent-hosts";
+    public static final String MAX_CONCURRENT_PERCENTAGE = "max-concurrent-percentage";
+    public static final String MAX_CONCURRENT_SERVERS = "max-concurrent-servers";
     public static final String MAX_FAILED_SERVERS = "max-failed-servers";
     public static final String MAX_FAILURE_COUNT = "max-failure-count";
     public static final String MAX_FAILURE_PERCENTAGE = "max-failure-percentage";
@@ -308,6 +312,7 @@ public class ModelDescriptionConstants {
     public static final String OPERATION_DATE = "operation-date";
     public static final String OPERATION_HEADERS = "operation-headers";
     public static final String OPERATION_NAME = "operation-name";
+    public static final String OPERATION_STATISTICS = "operation-statistics";
     public static final String OPERATIONS = "operations";
     public static final String OPTIONS = "options";
     public static final String OPERATOR = "operator";
@@ -343,6 +348,7 @@ public class ModelDescriptionConstants {
     public static final String PROVIDER = "provider";
     public static final String PROXIES = "proxies";
     public static final String QUERY = "query";
+    public static final String QUEUE_DEPTH = "queue-depth";
     public static final String READ = "read";
     public static final String READ_ATTRIBUTE_OPERATION = "read-attribute";
     public static final String READ_ATTRIBUTE_GROUP_OPERATION = "read-attribute-group";
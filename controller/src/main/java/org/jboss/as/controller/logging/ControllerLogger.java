@@ -3416,4 +3416,47 @@ public interface ControllerLogger extends BasicLogger {
 
     @Message(id = 417, value = "Cannot add more than one jvm. Add of '%s' attempted, but '%s' already exists")
     OperationFailedException cannotAddMoreThanOneJvmForServerOrHost(PathAddress requested, PathAddress existing);
+
+    @LogMessage(level = Level.WARN)
+    @Message(id = 418, value = "Invalid value %s for property %s. Default value of %s will be used.")
+    void invalidAuditLogProperty(String sysPropValue, String sysPropName, String defaultUsed);
+
+    @LogMessage(level = Level.WARN)
+    @Message(id = 419, value = "The management audit log queue is full (%d items); audit log items will be dropped until it has been drained")
+    void auditLogQueueFull(int capacity);
+
+    @LogMessage(level = INFO)
+    @Message(id = 420, value = "Replaying %d management operations from configuration journal %s")
+    void replayingConfigurationJournal(int count, String journal);
+
+    @LogMessage(level = Level.WARN)
+    @Message(id = 421, value = "Configuration journal %s ends with an incomplete record, which will be ignored")
+    void incompleteConfigurationJournalRecord(String journal);
+
+    @LogMessage(level = Level.WARN)
+    @Message(id = 422, value = "Failed to append to configuration journal %s; the complete configuration will be stored instead")
+    void failedToAppendToConfigurationJournal(@Cause Throwable cause, String journal);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 423, value = "Failed to compact configuration journal %s into the configuration file; the journal will be kept")
+    void failedToCompactConfigurationJournal(@Cause Throwable cause, String journal);
+
+    @LogMessage(level = Level.WARN)
+    @Message(id = 424, value = "Discarding configuration journal %s as it does not apply to the booted configuration file %s")
+    void discardingConfigurationJournal(String journal, String bootFile);
+
+    @Message(id = 425, value = "Failed to read configuration journal %s")
+    ConfigurationPersistenceException failedToReadConfigurationJournal(@Cause Throwable cause, String journal);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 426, value = "Failed to clear configuration journal %s; it no longer applies to the configuration file and will be discarded on the next boot")
+    void failedToClearConfigurationJournal(@Cause Throwable cause, String journal);
+
+    @LogMessage(level = INFO)
+    @Message(id = 427, value = "Configuration journal %s has been compacted into the configuration file after it was replayed; it is kept as %s in case any of its operations failed during boot")
+    void keptReplayedConfigurationJournal(String journal, String replayedJournal);
+
+    @LogMessage(level = Level.WARN)
+    @Message(id = 428, value = "Failed to keep configuration journal %s as %s after it was replayed; it will be deleted")
+    void failedToKeepConfigurationJournal(@Cause Throwable cause, String journal, String replayedJournal);
 }
@@ -22,6 +22,8 @@
 
 package org.jboss.as.controller.persistence;
 
+import static org.jboss.as.controller.logging.ControllerLogger.ROOT_LOGGER;
+
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -29,9 +31,11 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import javax.xml.namespace.QName;
 
 import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.registry.Resource;
 import org.jboss.dmr.ModelNode;
 import org.jboss.staxmapper.XMLElementReader;
 import org.jboss.staxmapper.XMLElementWriter;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * An XML configuration persister which backs up the old file before overwriting it.
@@ -40,8 +44,15 @@ import org.jboss.staxmapper.XMLElementWriter;
  */
 public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
 
+    /**
+     * System property setting the window in ms within which committed configuration changes are merged into a single
+     * write of the configuration file. Unless it is set, every commit writes the file itself.
+     */
+    public static final String COALESCING_WINDOW_PROPERTY = "jboss.config.persistence.coalescing-window";
+
     ConfigurationFile configurationFile;
     private final AtomicBoolean successfulBoot = new AtomicBoolean();
+    private final PersistenceCoalescer coalescer;
 
     /**
      * Construct a new instance.
@@ -54,6 +65,7 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
     public BackupXmlConfigurationPersister(final ConfigurationFile file, final QName rootElement, final XMLElementReader<List<ModelNode>> rootParser, final XMLElementWriter<ModelMarshallingContext> rootDeparser) {
         super(file.getBootFile(), rootElement, rootParser, rootDeparser, false);
         this.configurationFile = file;
+        this.coalescer = createCoalescer(file);
     }
 
     /**
@@ -69,9 +81,10 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
                                            final XMLElementWriter<ModelMarshallingContext> rootDeparser, boolean reload, boolean allowEmpty) {
         super(file.getBootFile(), rootElement, rootParser, rootDeparser, isSuppressLoad(file, reload, allowEmpty));
         this.configurationFile = file;
+        this.coalescer = createCoalescer(file);
     }
 
-    private static boolean isSuppressLoad(ConfigurationFile configurationFile, boolean reload, boolean allowEmpty) {
+    static boolean isSuppressLoad(ConfigurationFile configurationFile, boolean reload, boolean allowEmpty) {
         // We suppress load in two conditions:
         // 1) Initial boot where the interaction policy says to ignore the config
         // 2) Any case where allowEmpty is true and the boot file is empty
@@ -84,6 +97,24 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
         return initialEmpty && !reload;
     }
 
+    private PersistenceCoalescer createCoalescer(ConfigurationFile configurationFile) {
+        final String value = WildFlySecurityManager.getPropertyPrivileged(COALESCING_WINDOW_PROPERTY, null);
+        if (value == null) {
+            return null;
+        }
+        long window = -1;
+        try {
+            window = Long.parseLong(value.trim());
+        } catch (NumberFormatException nfe) {
+            // ignored
+        }
+        if (window < 0) {
+            ROOT_LOGGER.invalidSystemPropertyValue(value, COALESCING_WINDOW_PROPERTY, 0);
+            window = 0;
+        }
+        return new PersistenceCoalescer(window, configurationFile, this);
+    }
+
     public void registerAdditionalRootElement(final QName anotherRoot, final XMLElementReader<List<ModelNode>> parser){
         super.registerAdditionalRootElement(anotherRoot, parser);
     }
@@ -109,11 +140,29 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
         return new ConfigurationFilePersistenceResource(model, configurationFile, this);
     }
 
+    @Override
+    public PersistenceResource store(final Resource rootResource, Set<PathAddress> affectedAddresses, ModelNode operation) throws ConfigurationPersistenceException {
+        if (coalescer == null || !successfulBoot.get()) {
+            return super.store(rootResource, affectedAddresses, operation);
+        }
+        return coalescer.store(rootResource);
+    }
+
     @Override
     public String snapshot() throws ConfigurationPersistenceException {
+        if (coalescer != null) {
+            coalescer.flush();
+        }
         return configurationFile.snapshot();
     }
 
+    @Override
+    public void shutdown() {
+        if (coalescer != null) {
+            coalescer.shutdown();
+        }
+    }
+
     @Override
     public SnapshotInfo listSnapshots() {
         return configurationFile.listSnapshots();
@@ -38,7 +38,7 @@ public class ConfigurationFilePersistenceResource extends AbstractFilePersistenc
 
     private final ConfigurationFile configurationFile;
     protected final File fileName;
-
+    private volatile boolean written;
 
     ConfigurationFilePersistenceResource(final ModelNode model, final ConfigurationFile configurationFile,
                                          final AbstractConfigurationPersister persister) throws ConfigurationPersistenceException {
@@ -70,6 +70,7 @@ public class ConfigurationFilePersistenceResource extends AbstractFilePersistenc
                 configurationFile.commitTempFile(tempFileName);
             }
             configurationFile.fileWritten();
+            written = true;
         } catch (ConfigurationPersistenceException e) {
            MGMT_OP_LOGGER.errorf(e, e.toString());
         } finally {
@@ -79,4 +80,13 @@ public class ConfigurationFilePersistenceResource extends AbstractFilePersistenc
             }
         }
     }
+
+    /**
+     * Gets whether {@link #commit()} successfully replaced the configuration file.
+     *
+     * @return {@code true} if the configuration file was written
+     */
+    boolean isWritten() {
+        return written;
+    }
 }
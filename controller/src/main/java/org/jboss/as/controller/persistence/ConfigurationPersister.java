@@ -28,6 +28,7 @@ import java.util.List;
 import java.util.Set;
 
 import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.registry.Resource;
 import org.jboss.dmr.ModelNode;
 
 /**
@@ -52,6 +53,18 @@ public interface ConfigurationPersister {
          * Discard the changes.
          */
         void rollback();
+
+        /**
+         * Waits until the changes committed by {@link #commit()} have been flushed to permanent storage. Callers
+         * should invoke this once they no longer hold the controller lock, so that the changes committed by other
+         * operations in the meantime can be flushed together with these. The default implementation does nothing,
+         * as {@link #commit()} flushes the changes itself.
+         *
+         * @throws ConfigurationPersistenceException if the changes could not be flushed. They remain in effect in the
+         *                                           running process, but are lost on restart unless a later write succeeds
+         */
+        default void awaitFlushed() throws ConfigurationPersistenceException {
+        }
     }
 
     /**
@@ -64,6 +77,23 @@ public interface ConfigurationPersister {
      */
     PersistenceResource store(ModelNode model, Set<PathAddress> affectedAddresses) throws ConfigurationPersistenceException;
 
+    /**
+     * Persist the configuration model held by the given resource tree, which is the result of executing the given
+     * operation. The default implementation reads the model from the tree and delegates to
+     * {@link #store(org.jboss.dmr.ModelNode, java.util.Set)}; persisters able to record just the effect of the
+     * operation can override this to avoid reading and marshalling the complete model.
+     *
+     * @param rootResource the root of the resource tree to persist. The tree will not be modified once it is passed in
+     * @param affectedAddresses the addresses affected by the operation
+     * @param operation the operation that produced the model, or {@code null} if it is not known or cannot be
+     *                  re-executed on its own, e.g. because it refers to attached input streams
+     *
+     * @return callback to use to control whether the stored model should be flushed to persistent storage
+     */
+    default PersistenceResource store(Resource rootResource, Set<PathAddress> affectedAddresses, ModelNode operation) throws ConfigurationPersistenceException {
+        return store(Resource.Tools.readModel(rootResource), affectedAddresses);
+    }
+
     /**
      * Marshals the given configuration model to XML, writing to the given stream.
      *
@@ -85,6 +115,14 @@ public interface ConfigurationPersister {
      */
     void successfulBoot() throws ConfigurationPersistenceException;
 
+    /**
+     * Called when the controller using this persister is stopped, e.g. for a reload or on shutdown. Persisters which
+     * write committed changes in the background must write them out before returning. The default implementation
+     * does nothing.
+     */
+    default void shutdown() {
+    }
+
     /**
      * Take a snapshot of the current configuration
      *
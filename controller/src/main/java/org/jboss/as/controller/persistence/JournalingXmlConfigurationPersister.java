@@ -0,0 +1,629 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static java.security.AccessController.doPrivileged;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.BYTES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CONTENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FULL_REPLACE_DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INPUT_STREAM_INDEX;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.URL;
+import static org.jboss.as.controller.logging.ControllerLogger.ROOT_LOGGER;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.namespace.QName;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.staxmapper.XMLElementReader;
+import org.jboss.staxmapper.XMLElementWriter;
+import org.jboss.threads.JBossThreadFactory;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * A {@link BackupXmlConfigurationPersister} which, instead of marshalling the complete model for each management
+ * operation, appends the operation to a journal file next to the configuration file. The journal is compacted into the
+ * configuration file in the background once it has been idle for a while, once it holds a given number of operations,
+ * before a snapshot is taken, and when the persister is {@link #shutdown() shut down}. On boot the journalled operations
+ * are replayed after the operations parsed from the configuration file; once they have been compacted the replayed
+ * journal is kept next to the configuration file, since an operation which failed when it was replayed is not part of
+ * the model that was written.
+ * <p>
+ * Each journal starts with a header holding a digest of the configuration file it was started on. Writing the
+ * configuration file and removing the journal cannot be done atomically, so a journal whose header no longer matches
+ * the configuration file is one left behind by a crash after its operations were written, and is discarded rather than
+ * replayed.
+ * <p>
+ * Operations which cannot be re-executed on their own, such as those uploading deployment content, are not journalled;
+ * the complete model is stored for them as usual.
+ */
+public class JournalingXmlConfigurationPersister extends BackupXmlConfigurationPersister {
+
+    /** System property enabling the journal, {@code false} by default */
+    public static final String JOURNAL_PROPERTY = "jboss.server.config.journal";
+    /** System property setting the number of journalled operations which triggers an immediate compaction */
+    public static final String MAX_ENTRIES_PROPERTY = "jboss.server.config.journal.max-entries";
+    /** System property setting the time in ms the journal may be idle before it is compacted */
+    public static final String COMPACTION_DELAY_PROPERTY = "jboss.server.config.journal.compaction-delay";
+
+    static final int DEFAULT_MAX_ENTRIES = 100;
+    static final long DEFAULT_COMPACTION_DELAY = 5000;
+
+    /** Identifies the header of a journal file */
+    private static final int JOURNAL_MAGIC = 0x4A524E4C;
+    private static final String DIGEST_ALGORITHM = "SHA-1";
+
+    /** The suffix appended to the configuration file name to get the journal file name */
+    public static final String JOURNAL_SUFFIX = ".journal";
+    /** The suffix appended to the journal file name to get the name of the file a journal replayed on boot is kept in */
+    public static final String REPLAYED_SUFFIX = ".replayed";
+
+    /**
+     * Operations whose effect cannot be reproduced by replaying them at boot, or which explicitly ask for the
+     * configuration file to be written.
+     */
+    private static final Set<String> NON_REPLAYABLE_OPERATIONS = new HashSet<>(Arrays.asList(
+            "add-content", "remove-content", "explode", FULL_REPLACE_DEPLOYMENT, "replace-deployment", "write-config"));
+
+    /** Guards the journal file and the state below */
+    private final Object journalLock = new Object();
+    private final File journalFile;
+    private final int maxJournalEntries;
+    private final long compactionDelay;
+    private final boolean journalEnabled;
+    private final boolean suppressLoad;
+
+    // All guarded by journalLock
+    private boolean booted;
+    private boolean replayed;
+    private boolean shutdown;
+    private int journalEntries;
+    private Resource latestRoot;
+    private ScheduledFuture<?> scheduledCompaction;
+    /** Runs the compactions; created when the first one is scheduled and shut down with the persister */
+    private ScheduledExecutorService compactionExecutor;
+
+    /**
+     * Construct a new instance, configuring the compaction from the {@link #MAX_ENTRIES_PROPERTY} and
+     * {@link #COMPACTION_DELAY_PROPERTY} system properties.
+     *
+     * @param file the configuration base file
+     * @param rootElement the root element of the configuration file
+     * @param rootParser the root model parser
+     * @param rootDeparser the root model deparser
+     * @param reload {@code true} if this is a reload
+     * @param allowEmpty {@code true} if it is ok if {@code ConfigurationFile.getBootFile()} points to an empty file
+     */
+    public JournalingXmlConfigurationPersister(final ConfigurationFile file, final QName rootElement, final XMLElementReader<List<ModelNode>> rootParser,
+                                               final XMLElementWriter<ModelMarshallingContext> rootDeparser, boolean reload, boolean allowEmpty) {
+        this(file, rootElement, rootParser, rootDeparser, reload, allowEmpty,
+                (int) resolvePositive(MAX_ENTRIES_PROPERTY, DEFAULT_MAX_ENTRIES, Integer.MAX_VALUE),
+                resolvePositive(COMPACTION_DELAY_PROPERTY, DEFAULT_COMPACTION_DELAY, Long.MAX_VALUE));
+    }
+
+    /**
+     * Construct a new instance.
+     *
+     * @param file the configuration base file
+     * @param rootElement the root element of the configuration file
+     * @param rootParser the root model parser
+     * @param rootDeparser the root model deparser
+     * @param reload {@code true} if this is a reload
+     * @param allowEmpty {@code true} if it is ok if {@code ConfigurationFile.getBootFile()} points to an empty file
+     * @param maxJournalEntries the number of journalled operations which triggers an immediate compaction
+     * @param compactionDelay the time in ms the journal may be idle before it is compacted
+     */
+    public JournalingXmlConfigurationPersister(final ConfigurationFile file, final QName rootElement, final XMLElementReader<List<ModelNode>> rootParser,
+                                               final XMLElementWriter<ModelMarshallingContext> rootDeparser, boolean reload, boolean allowEmpty,
+                                               final int maxJournalEntries, final long compactionDelay) {
+        super(file, rootElement, rootParser, rootDeparser, reload, allowEmpty);
+        final File mainFile = file.getMainFile();
+        final File journalDir = FilePersistenceUtils.isParentFolderWritable(mainFile) ? mainFile.getParentFile() : file.getConfigurationDir();
+        this.journalFile = new File(journalDir, mainFile.getName() + JOURNAL_SUFFIX);
+        this.maxJournalEntries = maxJournalEntries;
+        this.compactionDelay = compactionDelay;
+        // A read-only configuration is never written back, so there is nothing to journal
+        this.journalEnabled = !file.getInteractionPolicy().isReadOnly();
+        this.suppressLoad = isSuppressLoad(file, reload, allowEmpty);
+    }
+
+    /**
+     * Gets whether the {@link #JOURNAL_PROPERTY} system property enables the journal.
+     *
+     * @return {@code true} if configuration changes should be journalled
+     */
+    public static boolean isJournalEnabled() {
+        return Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(JOURNAL_PROPERTY, "false"));
+    }
+
+    @Override
+    public List<ModelNode> load() throws ConfigurationPersistenceException {
+        final List<ModelNode> updates = super.load();
+        if (!journalEnabled) {
+            return updates;
+        }
+        synchronized (journalLock) {
+            // Only the file the journal was written against can be combined with it; anything else, e.g. a
+            // configuration being discarded or a different boot file, makes the journal stale
+            if (journalFile.exists() && !suppressLoad && configurationFile.getBootFile().equals(configurationFile.getMainFile())) {
+                final List<ModelNode> journalled = readJournal();
+                if (!journalled.isEmpty()) {
+                    ROOT_LOGGER.replayingConfigurationJournal(journalled.size(), journalFile.getName());
+                    updates.addAll(journalled);
+                    journalEntries = journalled.size();
+                    replayed = true;
+                }
+            }
+        }
+        return updates;
+    }
+
+    @Override
+    public void successfulBoot() throws ConfigurationPersistenceException {
+        super.successfulBoot();
+        if (journalEnabled) {
+            synchronized (journalLock) {
+                if (!booted) {
+                    booted = true;
+                    if (replayed) {
+                        compact(true);
+                    } else if (journalFile.exists()) {
+                        if (journalFile.length() > 0) {
+                            ROOT_LOGGER.discardingConfigurationJournal(journalFile.getName(), configurationFile.getBootFile().getName());
+                        }
+                        deleteJournal();
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public PersistenceResource store(final ModelNode model, Set<PathAddress> affectedAddresses) throws ConfigurationPersistenceException {
+        return storeModel(model, affectedAddresses, null);
+    }
+
+    @Override
+    public PersistenceResource store(final Resource rootResource, final Set<PathAddress> affectedAddresses, final ModelNode operation) throws ConfigurationPersistenceException {
+        if (!journalEnabled) {
+            return super.store(rootResource, affectedAddresses, operation);
+        }
+        synchronized (journalLock) {
+            if (!booted) {
+                // Boot operations are already in the configuration file or the journal, but the resulting model
+                // is what a compaction of the replayed journal has to write
+                return new PersistenceResource() {
+                    @Override
+                    public void commit() {
+                        synchronized (journalLock) {
+                            latestRoot = rootResource;
+                        }
+                    }
+
+                    @Override
+                    public void rollback() {
+                    }
+                };
+            }
+        }
+        if (operation == null || !isReplayable(operation)) {
+            return storeModel(Resource.Tools.readModel(rootResource), affectedAddresses, rootResource);
+        }
+        final ModelNode journalled = operation.clone();
+        journalled.remove(OPERATION_HEADERS);
+        return new JournalPersistenceResource(rootResource, journalled);
+    }
+
+    private PersistenceResource storeModel(final ModelNode model, final Set<PathAddress> affectedAddresses, final Resource rootResource) throws ConfigurationPersistenceException {
+        final PersistenceResource delegate = super.store(model, affectedAddresses);
+        if (!journalEnabled || !(delegate instanceof ConfigurationFilePersistenceResource)) {
+            return delegate;
+        }
+        return new FullPersistenceResource((ConfigurationFilePersistenceResource) delegate, rootResource);
+    }
+
+    @Override
+    public String snapshot() throws ConfigurationPersistenceException {
+        synchronized (journalLock) {
+            compact(false);
+        }
+        return super.snapshot();
+    }
+
+    /**
+     * Compacts whatever is still journalled into the configuration file, and stops the background compaction.
+     * Operations committed afterwards are still journalled, and are replayed on the next boot.
+     */
+    @Override
+    public void shutdown() {
+        final ScheduledExecutorService executor;
+        synchronized (journalLock) {
+            if (booted) {
+                compact(false);
+            }
+            shutdown = true;
+            executor = compactionExecutor;
+            compactionExecutor = null;
+        }
+        if (executor != null) {
+            executor.shutdown();
+        }
+        super.shutdown();
+    }
+
+    /**
+     * Gets whether the effect of an operation on the model can be reproduced by executing it again at boot.
+     *
+     * @param operation the operation
+     * @return {@code true} if the operation can be journalled
+     */
+    static boolean isReplayable(final ModelNode operation) {
+        final String name = operation.get(OP).asString();
+        if (NON_REPLAYABLE_OPERATIONS.contains(name)) {
+            return false;
+        }
+        if (operation.hasDefined(CONTENT) && operation.get(CONTENT).getType() == ModelType.LIST) {
+            for (ModelNode item : operation.get(CONTENT).asList()) {
+                if (item.hasDefined(URL) || item.hasDefined(BYTES) || item.hasDefined(INPUT_STREAM_INDEX)) {
+                    return false;
+                }
+            }
+        }
+        if (COMPOSITE.equals(name) && operation.hasDefined(STEPS)) {
+            for (ModelNode step : operation.get(STEPS).asList()) {
+                if (!isReplayable(step)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    File getJournalFile() {
+        return journalFile;
+    }
+
+    File getReplayedJournalFile() {
+        return new File(journalFile.getParentFile(), journalFile.getName() + REPLAYED_SUFFIX);
+    }
+
+    /**
+     * Writes the latest model to the configuration file and, if that succeeded, removes the journal. Must be called
+     * holding {@link #journalLock}.
+     *
+     * @param keepJournal {@code true} if the journal should be kept in the {@link #getReplayedJournalFile() replayed
+     *                    journal file} rather than deleted
+     */
+    private void compact(final boolean keepJournal) {
+        assert Thread.holdsLock(journalLock);
+        if (scheduledCompaction != null) {
+            scheduledCompaction.cancel(false);
+            scheduledCompaction = null;
+        }
+        if (journalEntries == 0 || latestRoot == null || shutdown) {
+            return;
+        }
+        try {
+            final ConfigurationFilePersistenceResource resource = new ConfigurationFilePersistenceResource(Resource.Tools.readModel(latestRoot), configurationFile, this);
+            resource.commit();
+            if (resource.isWritten()) {
+                if (keepJournal) {
+                    keepJournal();
+                } else {
+                    deleteJournal();
+                }
+            }
+        } catch (ConfigurationPersistenceException e) {
+            ROOT_LOGGER.failedToCompactConfigurationJournal(e, journalFile.getName());
+        }
+    }
+
+    /** Must be called holding {@link #journalLock} */
+    private void scheduleCompaction() {
+        if (shutdown) {
+            // Left for the next boot to replay
+            return;
+        }
+        final boolean immediate = journalEntries >= maxJournalEntries;
+        if (scheduledCompaction != null) {
+            if (!immediate) {
+                return;
+            }
+            scheduledCompaction.cancel(false);
+        }
+        scheduledCompaction = getCompactionExecutor().schedule(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (journalLock) {
+                    scheduledCompaction = null;
+                    compact(false);
+                }
+            }
+        }, immediate ? 0 : compactionDelay, TimeUnit.MILLISECONDS);
+    }
+
+    /** Must be called holding {@link #journalLock} */
+    private void appendToJournal(final ModelNode operation) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        operation.writeExternal(new DataOutputStream(bytes));
+        // Everything not journalled is in the configuration file, so a new journal applies to its current content.
+        // It replaces whatever is left of a journal which could not be removed.
+        final byte[] header = journalEntries == 0 ? digestConfigurationFile() : null;
+        try (FileOutputStream fos = new FileOutputStream(journalFile, header == null)) {
+            final DataOutputStream output = new DataOutputStream(fos);
+            if (header != null) {
+                output.writeInt(JOURNAL_MAGIC);
+                output.writeShort(header.length);
+                output.write(header);
+            }
+            output.writeInt(bytes.size());
+            bytes.writeTo(output);
+            output.flush();
+            fos.getFD().sync();
+        }
+    }
+
+    /**
+     * Reads the journalled operations, or none if the journal does not apply to the current content of the configuration
+     * file. Must be called holding {@link #journalLock}.
+     */
+    private List<ModelNode> readJournal() throws ConfigurationPersistenceException {
+        final List<ModelNode> operations = new ArrayList<>();
+        long validLength;
+        boolean incomplete = false;
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(journalFile)))) {
+            try {
+                if (input.readInt() != JOURNAL_MAGIC) {
+                    return operations;
+                }
+                final byte[] header = new byte[input.readUnsignedShort()];
+                input.readFully(header);
+                if (!Arrays.equals(header, digestConfigurationFile())) {
+                    // The configuration file was written after the journal was started, but the process
+                    // stopped before the journal was removed
+                    return operations;
+                }
+                validLength = 6 + header.length;
+            } catch (EOFException e) {
+                // Cut short while the first operation was appended, so no operation was ever persisted
+                return operations;
+            }
+            for (;;) {
+                final int first = input.read();
+                if (first < 0) {
+                    break;
+                }
+                final byte[] record;
+                try {
+                    final int length = (first << 24) | (input.readUnsignedByte() << 16) | input.readUnsignedShort();
+                    if (length < 0 || validLength + 4 + length > journalFile.length()) {
+                        throw new EOFException();
+                    }
+                    record = new byte[length];
+                    input.readFully(record);
+                } catch (EOFException e) {
+                    // A record cut short by a crash while it was being appended. Its operation was never
+                    // reported as persisted, so it can be dropped.
+                    incomplete = true;
+                    break;
+                }
+                final ModelNode operation = new ModelNode();
+                operation.readExternal(new DataInputStream(new ByteArrayInputStream(record)));
+                operations.add(operation);
+                validLength += 4 + record.length;
+            }
+        } catch (IOException e) {
+            throw ROOT_LOGGER.failedToReadConfigurationJournal(e, journalFile.getName());
+        }
+        if (incomplete) {
+            ROOT_LOGGER.incompleteConfigurationJournalRecord(journalFile.getName());
+            // Cut the partial record so operations journalled from now on can be read back
+            try (RandomAccessFile file = new RandomAccessFile(journalFile, "rw")) {
+                file.setLength(validLength);
+            } catch (IOException e) {
+                throw ROOT_LOGGER.failedToReadConfigurationJournal(e, journalFile.getName());
+            }
+        }
+        return operations;
+    }
+
+    /**
+     * Computes the digest of the current content of the configuration file, which a journal's header refers to.
+     */
+    private byte[] digestConfigurationFile() throws IOException {
+        final MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        final File mainFile = configurationFile.getMainFile();
+        if (mainFile.exists()) {
+            try (DigestInputStream input = new DigestInputStream(new FileInputStream(mainFile), messageDigest)) {
+                final byte[] buffer = new byte[8192];
+                while (input.read(buffer) != -1) {
+                    // just digest
+                }
+            }
+        }
+        return messageDigest.digest();
+    }
+
+    /**
+     * Moves the journal to the replayed journal file, replacing the one kept from an earlier boot. Must be called
+     * holding {@link #journalLock}.
+     */
+    private void keepJournal() {
+        final File replayedJournal = getReplayedJournalFile();
+        try {
+            Files.move(journalFile.toPath(), replayedJournal.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            journalEntries = 0;
+            ROOT_LOGGER.keptReplayedConfigurationJournal(journalFile.getName(), replayedJournal.getName());
+        } catch (IOException e) {
+            ROOT_LOGGER.failedToKeepConfigurationJournal(e, journalFile.getName(), replayedJournal.getName());
+            deleteJournal();
+        }
+    }
+
+    /** Must be called holding {@link #journalLock} */
+    private void deleteJournal() {
+        journalEntries = 0;
+        if (journalFile.exists() && !journalFile.delete()) {
+            // Its header may still match the configuration file, e.g. if a different file was booted
+            try (RandomAccessFile file = new RandomAccessFile(journalFile, "rw")) {
+                file.setLength(0);
+            } catch (IOException e) {
+                ROOT_LOGGER.failedToClearConfigurationJournal(e, journalFile.getName());
+            }
+        }
+    }
+
+    private static long resolvePositive(String property, long defaultValue, long maxValue) {
+        final String value = WildFlySecurityManager.getPropertyPrivileged(property, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        long number = -1;
+        try {
+            number = Long.parseLong(value.trim());
+        } catch (NumberFormatException nfe) {
+            // ignored
+        }
+        if (number > 0 && number <= maxValue) {
+            return number;
+        }
+        ROOT_LOGGER.invalidSystemPropertyValue(value, property, (int) defaultValue);
+        return defaultValue;
+    }
+
+    /** Must be called holding {@link #journalLock} */
+    private ScheduledExecutorService getCompactionExecutor() {
+        if (compactionExecutor == null) {
+            compactionExecutor = doPrivileged(new PrivilegedAction<ScheduledExecutorService>() {
+                @Override
+                public ScheduledExecutorService run() {
+                    JBossThreadFactory factory = new JBossThreadFactory(new ThreadGroup("configuration-journal-thread"), Boolean.TRUE, null, "%G - %t", null, null);
+                    return Executors.newSingleThreadScheduledExecutor(factory);
+                }
+            });
+        }
+        return compactionExecutor;
+    }
+
+    /** Appends the operation to the journal on commit */
+    private class JournalPersistenceResource implements PersistenceResource {
+        private final Resource rootResource;
+        private final ModelNode operation;
+
+        private JournalPersistenceResource(final Resource rootResource, final ModelNode operation) {
+            this.rootResource = rootResource;
+            this.operation = operation;
+        }
+
+        @Override
+        public void commit() {
+            synchronized (journalLock) {
+                latestRoot = rootResource;
+                try {
+                    appendToJournal(operation);
+                    journalEntries++;
+                    scheduleCompaction();
+                } catch (IOException e) {
+                    ROOT_LOGGER.failedToAppendToConfigurationJournal(e, journalFile.getName());
+                    // Whatever was already journalled is part of the latest model, so writing it supersedes the journal
+                    journalEntries++;
+                    compact(false);
+                }
+            }
+        }
+
+        @Override
+        public void rollback() {
+        }
+    }
+
+    /** Writes the complete model to the configuration file on commit, which supersedes the journal */
+    private class FullPersistenceResource implements PersistenceResource {
+        private final ConfigurationFilePersistenceResource delegate;
+        private final Resource rootResource;
+
+        private FullPersistenceResource(final ConfigurationFilePersistenceResource delegate, final Resource rootResource) {
+            this.delegate = delegate;
+            this.rootResource = rootResource;
+        }
+
+        @Override
+        public void commit() {
+            synchronized (journalLock) {
+                if (rootResource != null) {
+                    latestRoot = rootResource;
+                }
+                delegate.commit();
+                if (delegate.isWritten()) {
+                    if (scheduledCompaction != null) {
+                        scheduledCompaction.cancel(false);
+                        scheduledCompaction = null;
+                    }
+                    deleteJournal();
+                }
+            }
+        }
+
+        @Override
+        public void rollback() {
+            delegate.rollback();
+        }
+    }
+}
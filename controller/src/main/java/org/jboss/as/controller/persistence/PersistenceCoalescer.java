@@ -0,0 +1,231 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static java.security.AccessController.doPrivileged;
+import static org.jboss.as.controller.logging.ControllerLogger.MGMT_OP_LOGGER;
+import static org.jboss.as.controller.logging.ControllerLogger.ROOT_LOGGER;
+
+import java.security.PrivilegedAction;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.threads.JBossThreadFactory;
+
+/**
+ * Merges the configuration changes committed within a time window into a single marshal-and-write of the
+ * configuration file. Committing only records the latest model; the file is written by a background thread once the
+ * window has passed, and every committer waits for that write in {@link ConfigurationPersister.PersistenceResource#awaitFlushed()},
+ * so changes are still durable when the operation returns, or the committer is told they are not. Commits arriving
+ * while a write is in progress are merged into the next one.
+ * <p>
+ * The background thread belongs to the persister and is stopped by {@link #shutdown()}; from then on each commit
+ * writes the file itself.
+ */
+final class PersistenceCoalescer {
+
+    private final long window;
+    private final ConfigurationFile configurationFile;
+    private final AbstractConfigurationPersister persister;
+    /** Serializes the writes, so a newer model can never be overwritten by an older one */
+    private final Object writeLock = new Object();
+
+    // All guarded by this
+    private Resource pendingRoot;
+    /** The generation of the latest commit */
+    private long committed;
+    /** The generation of the latest commit whose write has been attempted */
+    private long flushed;
+    /** The generation of the latest commit which has been written. Each write holds the complete model, so this covers all earlier commits too */
+    private long written;
+    /** Why the latest failed write failed */
+    private ConfigurationPersistenceException failure;
+    private boolean flushScheduled;
+    private boolean shutdown;
+    private ScheduledExecutorService executor;
+
+    PersistenceCoalescer(final long window, final ConfigurationFile configurationFile, final AbstractConfigurationPersister persister) {
+        this.window = window;
+        this.configurationFile = configurationFile;
+        this.persister = persister;
+    }
+
+    /**
+     * Creates a persistence resource which, on commit, hands the given tree to the next coalesced write.
+     *
+     * @param rootResource the root of the resource tree to persist. The tree must not be modified afterwards
+     * @return the persistence resource
+     */
+    ConfigurationPersister.PersistenceResource store(final Resource rootResource) {
+        return new ConfigurationPersister.PersistenceResource() {
+
+            private volatile long generation;
+
+            @Override
+            public void commit() {
+                generation = enqueue(rootResource);
+            }
+
+            @Override
+            public void rollback() {
+            }
+
+            @Override
+            public void awaitFlushed() throws ConfigurationPersistenceException {
+                final long generation = this.generation;
+                if (generation > 0) {
+                    PersistenceCoalescer.this.awaitFlushed(generation);
+                }
+            }
+        };
+    }
+
+    private long enqueue(final Resource rootResource) {
+        final long generation;
+        final boolean flushNow;
+        synchronized (this) {
+            pendingRoot = rootResource;
+            generation = ++committed;
+            flushNow = shutdown;
+            if (!flushNow && !flushScheduled) {
+                flushScheduled = true;
+                schedule();
+            }
+        }
+        if (flushNow) {
+            flush();
+        }
+        return generation;
+    }
+
+    private synchronized void awaitFlushed(final long generation) throws ConfigurationPersistenceException {
+        boolean interrupted = false;
+        try {
+            while (flushed < generation) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (written < generation) {
+            // The write this commit joined failed, and no later write has succeeded since
+            throw failure;
+        }
+    }
+
+    /**
+     * Writes the latest committed model, if it has not been written yet.
+     */
+    void flush() {
+        synchronized (writeLock) {
+            final Resource rootResource;
+            final long generation;
+            synchronized (this) {
+                rootResource = pendingRoot;
+                generation = committed;
+                pendingRoot = null;
+            }
+            if (rootResource == null) {
+                return;
+            }
+            ConfigurationPersistenceException writeFailure = null;
+            try {
+                final ConfigurationFilePersistenceResource resource = new ConfigurationFilePersistenceResource(Resource.Tools.readModel(rootResource), configurationFile, persister);
+                resource.commit();
+                if (!resource.isWritten()) {
+                    // The cause has already been logged
+                    writeFailure = ROOT_LOGGER.failedToStoreConfiguration(null);
+                }
+            } catch (ConfigurationPersistenceException e) {
+                MGMT_OP_LOGGER.failedToStoreConfiguration(e, configurationFile.getMainFile().getName());
+                writeFailure = e;
+            } catch (RuntimeException e) {
+                MGMT_OP_LOGGER.failedToStoreConfiguration(e, configurationFile.getMainFile().getName());
+                writeFailure = ROOT_LOGGER.failedToStoreConfiguration(e);
+            } finally {
+                synchronized (this) {
+                    flushed = generation;
+                    if (writeFailure == null) {
+                        written = generation;
+                    } else {
+                        failure = writeFailure;
+                    }
+                    if (pendingRoot != null && !shutdown) {
+                        // Committed while this write was in progress; give those a window of their own
+                        schedule();
+                    } else {
+                        // Once shut down, whoever committed writes it
+                        flushScheduled = false;
+                    }
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes out what has been committed and stops the background thread. Later commits are written straight away.
+     */
+    void shutdown() {
+        final ScheduledExecutorService executor;
+        synchronized (this) {
+            shutdown = true;
+            executor = this.executor;
+            this.executor = null;
+        }
+        flush();
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /** Must be called holding this */
+    private void schedule() {
+        if (executor == null) {
+            executor = doPrivileged(new PrivilegedAction<ScheduledExecutorService>() {
+                @Override
+                public ScheduledExecutorService run() {
+                    JBossThreadFactory factory = new JBossThreadFactory(new ThreadGroup("configuration-persistence-thread"), Boolean.TRUE, null, "%G - %t", null, null);
+                    final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, factory);
+                    // Writes still scheduled on shutdown have nothing left to do
+                    executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+                    return executor;
+                }
+            });
+        }
+        executor.schedule(new Runnable() {
+            @Override
+            public void run() {
+                flush();
+            }
+        }, window, TimeUnit.MILLISECONDS);
+    }
+}
@@ -86,7 +86,7 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
         if(provider == null) {
             return null;
         }
-        return provider.get(address.getValue());
+        return share(provider, address, provider.get(address.getValue()));
     }
 
     @Override
@@ -103,13 +103,39 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
 
     @Override
     public Resource requireChild(final PathElement address) {
-        final Resource resource = getChild(address);
+        final ResourceProvider provider = getProvider(address.getKey());
+        final Resource resource;
+        if (provider instanceof DefaultResourceProvider) {
+            // Navigating for update, so take our own copy of a shared child
+            resource = ((DefaultResourceProvider) provider).getForUpdate(address.getValue());
+        } else {
+            resource = provider == null ? null : provider.get(address.getValue());
+        }
         if(resource == null) {
             throw new NoSuchResourceException(address);
         }
         return resource;
     }
 
+    /**
+     * Gets the child registered with this resource without wrapping it if it is still shared.
+     */
+    private Resource getRegisteredChild(final PathElement address) {
+        final ResourceProvider provider = getProvider(address.getKey());
+        return provider == null ? null : provider.get(address.getValue());
+    }
+
+    /**
+     * Wraps a child that is still shared with the resource this one was {@link #copyProvidersOnWrite(AbstractModelResource) copied}
+     * from, so that it is only copied once it is modified.
+     */
+    private Resource share(final ResourceProvider provider, final PathElement address, final Resource resource) {
+        if (resource != null && provider instanceof DefaultResourceProvider && ((DefaultResourceProvider) provider).isShared(address.getValue())) {
+            return new SharedResource(this, address, resource);
+        }
+        return resource;
+    }
+
     @Override
     public boolean hasChildren(final String childType) {
         final ResourceProvider provider = getProvider(childType);
@@ -145,7 +171,7 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
         }
         final Set<ResourceEntry> children = new LinkedHashSet<ResourceEntry>();
         for(final String name : provider.children()) {
-            final Resource resource = provider.get(name);
+            final Resource resource = share(provider, PathElement.pathElement(childType, name), provider.get(name));
             children.add(new DelegateResource(resource) {
                 @Override
                 public String getName() {
@@ -250,9 +276,62 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
         }
     }
 
+    /**
+     * Registers copies of this resource's providers with the given {@code copy}. Unlike {@link #cloneProviders(AbstractModelResource)}
+     * the children held by the default providers are not cloned; they are shared with this resource and only copied
+     * once they are modified or {@link #requireChild(PathElement) navigated to for update} via the copy. Until then
+     * the copy hands them out {@link SharedResource wrapped}. Other providers are cloned.
+     *
+     * @param copy the resource to register the copied providers with
+     */
+    protected void copyProvidersOnWrite(AbstractModelResource copy) {
+        synchronized (children) {
+            for (final Map.Entry<String, ResourceProvider> entry : children.entrySet()) {
+                final ResourceProvider provider = entry.getValue();
+                if (provider instanceof DefaultResourceProvider) {
+                    copy.registerResourceProvider(entry.getKey(), ((DefaultResourceProvider) provider).copyOnWrite());
+                } else {
+                    copy.registerResourceProvider(entry.getKey(), provider.clone());
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops the default providers from copying the children they still share with the providers they were
+     * {@link #copyProvidersOnWrite(AbstractModelResource) copied} from, and does the same for the children that
+     * were copied or added since.
+     */
+    protected void endProvidersCopyOnWrite() {
+        synchronized (children) {
+            for (final ResourceProvider provider : children.values()) {
+                if (provider instanceof DefaultResourceProvider) {
+                    ((DefaultResourceProvider) provider).endCopyOnWrite();
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets whether all the children are registered with this resource, rather than provided by a
+     * {@link ResourceProvider.Tool#addResourceProvider(String, ResourceProvider, Resource) custom provider}.
+     */
+    boolean hasDefaultProvidersOnly() {
+        synchronized (children) {
+            for (final ResourceProvider provider : children.values()) {
+                if (!(provider instanceof DefaultResourceProvider)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
     private class DefaultResourceProvider implements ResourceProvider {
 
         private final Map<String, Resource> children = new LinkedHashMap<String, Resource>();
+        /** Names of the children still shared with the provider this one was copied from */
+        private final Set<String> shared = new HashSet<String>();
 
         protected DefaultResourceProvider() {
         }
@@ -278,6 +357,27 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
             }
         }
 
+        boolean isShared(String name) {
+            synchronized (children) {
+                return shared.contains(name);
+            }
+        }
+
+        /**
+         * Gets a child that is about to be modified, copying it first if it is still shared.
+         */
+        Resource getForUpdate(String name) {
+            synchronized (children) {
+                Resource resource = children.get(name);
+                if (resource != null && shared.remove(name)) {
+                    // First update since this provider was copied; take our own copy before handing it out
+                    resource = Tools.copyOnWrite(resource);
+                    children.put(name, resource);
+                }
+                return resource;
+            }
+        }
+
         @Override
         public boolean hasChildren() {
             return ! children().isEmpty();
@@ -327,6 +427,8 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
         @Override
         public Resource remove(String name) {
             synchronized (children) {
+                // Don't hand out a resource that is still shared
+                getForUpdate(name);
                 return children.remove(name);
             }
         }
@@ -341,6 +443,194 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
             }
             return provider;
         }
+
+        void endCopyOnWrite() {
+            synchronized (children) {
+                for (final Map.Entry<String, Resource> entry : children.entrySet()) {
+                    if (!shared.contains(entry.getKey())) {
+                        Tools.endCopyOnWrite(entry.getValue());
+                    }
+                }
+                shared.clear();
+            }
+        }
+
+        ResourceProvider copyOnWrite() {
+            final DefaultResourceProvider provider = new DefaultResourceProvider();
+            synchronized (children) {
+                provider.children.putAll(children);
+                provider.shared.addAll(children.keySet());
+            }
+            return provider;
+        }
+    }
+
+    /**
+     * A child that is still shared with the resource its parent was {@link #copyProvidersOnWrite(AbstractModelResource) copied}
+     * from. Reads go to the shared resource, or to the parent's copy of it once there is one. The first call of a
+     * method that modifies it, or that navigates to one of its children for update, replaces it with a copy in its
+     * parent, copying any shared ancestors first.
+     */
+    static final class SharedResource implements Resource {
+        /** Either the copy that holds this child or the shared resource wrapping it */
+        private final Resource parent;
+        private final PathElement address;
+        private final Resource shared;
+        private Resource copy;
+
+        private SharedResource(final Resource parent, final PathElement address, final Resource shared) {
+            this.parent = parent;
+            this.address = address;
+            this.shared = shared;
+        }
+
+        /**
+         * Gets the resource to read from: our copy, the parent's copy of this child if someone else made one, or the
+         * shared resource.
+         */
+        Resource current() {
+            if (copy != null) {
+                return copy;
+            }
+            final Resource parentCurrent;
+            if (parent instanceof SharedResource) {
+                final SharedResource sharedParent = (SharedResource) parent;
+                parentCurrent = sharedParent.current();
+                if (parentCurrent == sharedParent.shared) {
+                    // Our parent has not been copied, so neither have we
+                    return shared;
+                }
+            } else {
+                parentCurrent = parent;
+            }
+            final Resource child = parentCurrent instanceof AbstractModelResource
+                    ? ((AbstractModelResource) parentCurrent).getRegisteredChild(address) : parentCurrent.getChild(address);
+            return child == null ? shared : child;
+        }
+
+        private Resource copy() {
+            if (copy == null) {
+                final Resource parentCopy = parent instanceof SharedResource ? ((SharedResource) parent).copy() : parent;
+                // If this child was removed meanwhile, modify a copy of our own
+                copy = parentCopy.hasChild(address) ? parentCopy.requireChild(address) : Tools.copyOnWrite(shared);
+            }
+            return copy;
+        }
+
+        @Override
+        public ModelNode getModel() {
+            return current().getModel();
+        }
+
+        @Override
+        public void writeModel(ModelNode newModel) {
+            copy().writeModel(newModel);
+        }
+
+        @Override
+        public boolean isModelDefined() {
+            return current().isModelDefined();
+        }
+
+        @Override
+        public boolean hasChild(PathElement element) {
+            return current().hasChild(element);
+        }
+
+        @Override
+        public Resource getChild(PathElement element) {
+            final Resource current = current();
+            if (current != shared) {
+                return current.getChild(element);
+            }
+            final Resource child = shared.getChild(element);
+            return child == null ? null : new SharedResource(this, element, child);
+        }
+
+        @Override
+        public Resource requireChild(PathElement element) {
+            return copy().requireChild(element);
+        }
+
+        @Override
+        public boolean hasChildren(String childType) {
+            return current().hasChildren(childType);
+        }
+
+        @Override
+        public Resource navigate(PathAddress address) {
+            return Tools.navigate(this, address);
+        }
+
+        @Override
+        public Set<String> getChildTypes() {
+            return current().getChildTypes();
+        }
+
+        @Override
+        public Set<String> getChildrenNames(String childType) {
+            return current().getChildrenNames(childType);
+        }
+
+        @Override
+        public Set<ResourceEntry> getChildren(final String childType) {
+            final Resource current = current();
+            if (current != shared) {
+                return current.getChildren(childType);
+            }
+            final Set<ResourceEntry> children = new LinkedHashSet<ResourceEntry>();
+            for (final ResourceEntry entry : shared.getChildren(childType)) {
+                final PathElement element = entry.getPathElement();
+                children.add(new DelegateResource(new SharedResource(this, element, entry)) {
+                    @Override
+                    public String getName() {
+                        return element.getValue();
+                    }
+
+                    @Override
+                    public PathElement getPathElement() {
+                        return element;
+                    }
+                });
+            }
+            return children;
+        }
+
+        @Override
+        public void registerChild(PathElement address, Resource resource) {
+            copy().registerChild(address, resource);
+        }
+
+        @Override
+        public void registerChild(PathElement address, int index, Resource resource) {
+            copy().registerChild(address, index, resource);
+        }
+
+        @Override
+        public Resource removeChild(PathElement address) {
+            return copy().removeChild(address);
+        }
+
+        @Override
+        public Set<String> getOrderedChildTypes() {
+            return current().getOrderedChildTypes();
+        }
+
+        @Override
+        public boolean isRuntime() {
+            return current().isRuntime();
+        }
+
+        @Override
+        public boolean isProxy() {
+            return current().isProxy();
+        }
+
+        @SuppressWarnings({"CloneDoesntCallSuperClone"})
+        @Override
+        public Resource clone() {
+            return current().clone();
+        }
     }
 
     abstract static class DelegateResource implements ResourceEntry {
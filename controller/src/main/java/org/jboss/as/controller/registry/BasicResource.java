@@ -31,7 +31,9 @@ import org.jboss.dmr.ModelNode;
  * Standard {@link Resource} implementation.
  *
  * <p>Concurrency note: if a thread needs to modify a BasicResource, it must use the clone() method to obtain its
- * own copy of the resource. That instance cannot be made visible to other threads until all writes are complete.</p>
+ * own copy of the resource. That instance cannot be made visible to other threads until all writes are complete.
+ * Alternatively {@link Resource.Tools#copyOnWrite(Resource)} can be used to obtain a copy that only copies the
+ * descendants that are actually updated via the copy.</p>
  *
  * @author Emanuel Muckenhuber
  */
@@ -73,17 +75,43 @@ class BasicResource extends AbstractModelResource implements Resource {
     @SuppressWarnings({"CloneDoesntCallSuperClone"})
     @Override
     public Resource clone() {
-        final BasicResource clone = new BasicResource(isRuntime(), getOrderedChildTypes());
+        final BasicResource clone = copyModel();
+        cloneProviders(clone);
+        return clone;
+    }
+
+    /**
+     * Creates a copy of this resource that shares all children with it until they are updated via the copy.
+     *
+     * @return the copy. Will not be {@code null}
+     *
+     * @see Resource.Tools#copyOnWrite(Resource)
+     */
+    Resource copyOnWrite() {
+        final BasicResource copy = copyModel();
+        copyProvidersOnWrite(copy);
+        return copy;
+    }
+
+    /** Creates a new resource with a copy of this resource's model but no children */
+    private BasicResource copyModel() {
+        final BasicResource copy = new BasicResource(isRuntime(), getOrderedChildTypes());
         for (;;) {
             try {
-                clone.writeModel(model);
+                copy.writeModel(model);
                 break;
             } catch (ConcurrentModificationException ignore) {
                 // TODO horrible hack :(
             }
         }
-        cloneProviders(clone);
-        return clone;
+        return copy;
+    }
+
+    /**
+     * @see Resource.Tools#endCopyOnWrite(Resource)
+     */
+    void endCopyOnWrite() {
+        endProvidersCopyOnWrite();
     }
 
 }
@@ -315,6 +315,87 @@ public interface Resource extends Cloneable {
             return r;
         }
 
+        /**
+         * Creates a copy of {@code resource} that can be modified without affecting the original. Unlike
+         * {@link Resource#clone()} the tree is not copied up front; a descendant is only copied the first time it
+         * is modified via the copy, or navigated to with {@link Resource#requireChild(PathElement)}, so only the
+         * resources along the paths that are actually updated are copied and all others remain shared with the
+         * original. Descendants reached via {@link Resource#getChild(PathElement)} or
+         * {@link Resource#getChildren(String)} are read from the original until then, so their
+         * {@link Resource#getModel() models} must not be modified directly.
+         * <p>
+         * The original must not be modified after this call, as any changes to descendants not yet accessed via the
+         * copy would be visible in the copy as well.
+         * </p>
+         * <p>
+         * Resources that are not standard {@link Factory#create() resource implementations} are {@link Resource#clone() cloned}.
+         * </p>
+         *
+         * @param resource the resource to copy. Cannot be {@code null}
+         * @return the copy. Will not be {@code null}
+         */
+        public static Resource copyOnWrite(final Resource resource) {
+            if (resource.getClass() == BasicResource.class) {
+                return ((BasicResource) resource).copyOnWrite();
+            }
+            return resource.clone();
+        }
+
+        /**
+         * Ends the copy-on-write state of a resource {@link #copyOnWrite(Resource) copied} from another once the
+         * copy is no longer going to be modified, e.g. when a copied management model is published. Descendants not
+         * updated via the copy remain shared with the original, but are no longer copied when they are updated, so
+         * readers of the copy see the same instances as readers of the original.
+         *
+         * @param resource the copy. Cannot be {@code null}
+         */
+        public static void endCopyOnWrite(final Resource resource) {
+            if (resource.getClass() == BasicResource.class) {
+                ((BasicResource) resource).endCopyOnWrite();
+            }
+        }
+
+        /**
+         * Gets whether two resources are the same instance, looking through the {@link ResourceEntry} wrappers
+         * that {@link Resource#getChildren(String)} hands out. As published management models are
+         * {@link #copyOnWrite(Resource) copied on write}, a standard resource that is the same as in an earlier
+         * model is unchanged, as are its descendants.
+         *
+         * @param resource a resource. May be {@code null}
+         * @param other another resource. May be {@code null}
+         * @return {@code true} if both are the same resource
+         *
+         * @see #isStandardResource(Resource)
+         */
+        public static boolean isSameResource(final Resource resource, final Resource other) {
+            return unwrap(resource) == unwrap(other);
+        }
+
+        /**
+         * Gets whether a resource is a standard {@link Factory#create() resource implementation} without any
+         * {@link ResourceProvider custom providers}. Unlike other resources, which may provide their children
+         * dynamically, it only has the children registered with it.
+         *
+         * @param resource the resource. Cannot be {@code null}
+         * @return {@code true} if it is a standard resource
+         */
+        public static boolean isStandardResource(final Resource resource) {
+            final Resource unwrapped = unwrap(resource);
+            return unwrapped.getClass() == BasicResource.class && ((BasicResource) unwrapped).hasDefaultProvidersOnly();
+        }
+
+        private static Resource unwrap(Resource resource) {
+            for (;;) {
+                if (resource instanceof AbstractModelResource.DelegateResource) {
+                    resource = ((AbstractModelResource.DelegateResource) resource).delegate;
+                } else if (resource instanceof AbstractModelResource.SharedResource) {
+                    resource = ((AbstractModelResource.SharedResource) resource).current();
+                } else {
+                    return resource;
+                }
+            }
+        }
+
     }
 
     /**
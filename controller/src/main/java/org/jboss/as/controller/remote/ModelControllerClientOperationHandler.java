@@ -56,6 +56,7 @@ import org.jboss.as.controller.ModelController;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.client.OperationResponse;
 import org.jboss.as.controller.client.impl.ModelControllerProtocol;
+import org.jboss.as.controller.client.impl.ModelNodeCodec;
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.core.security.AccessMechanism;
 import org.jboss.as.protocol.StreamUtils;
@@ -294,7 +295,7 @@ public class ModelControllerClientOperationHandler implements ManagementRequestH
                         MGMT_OP_LOGGER.tracef("Transmitting response for %d", context.getOperationId());
                         output = responseContext.writeMessage(response);
                         output.write(ModelControllerProtocol.PARAM_RESPONSE);
-                        result.writeExternal(output);
+                        ModelNodeCodec.writeModelNode(result, output, response);
                         output.writeByte(ManagementProtocol.RESPONSE_END);
                         output.close();
                     } catch (IOException e) {
@@ -194,7 +194,9 @@ public class ResponseAttachmentInputStreamSupport {
             TimedStreamEntry timedStreamEntry = entry.getValue();
             //noinspection SynchronizationOnLocalVariableOrMethodParameter
             synchronized (timedStreamEntry) { // ensure there's no race with a request that got a ref before we removed it
-                closeStreamEntry(timedStreamEntry, key.requestId, key.index);
+                if (!timedStreamEntry.claimed) {
+                    closeStreamEntry(timedStreamEntry, key.requestId, key.index);
+                }
             }
         }
     }
@@ -216,7 +218,9 @@ public class ResponseAttachmentInputStreamSupport {
                 InputStreamKey key = entry.getKey();
                 //noinspection SynchronizationOnLocalVariableOrMethodParameter
                 synchronized (timedStreamEntry) { // ensure there's no race with a request that got a ref before we removed it
-                    closeStreamEntry(timedStreamEntry, key.requestId, key.index);
+                    if (!timedStreamEntry.claimed) {
+                        closeStreamEntry(timedStreamEntry, key.requestId, key.index);
+                    }
                 }
             }
         }
@@ -287,15 +291,20 @@ public class ResponseAttachmentInputStreamSupport {
                             // and been cleaned up.
                             handleMissingStream(requestId, index, output);
                         } else {
+                            final boolean closed;
                             //noinspection SynchronizationOnLocalVariableOrMethodParameter
                             synchronized (entry) { // lock out any gc work
-                                if (entry.closed) {
-                                    // Just cleaned up
-                                    handleMissingStream(requestId, index, output);
-                                } else {
-                                    handleRequest(entry, output);
-                                    entry.timestamp.set(System.currentTimeMillis());
-                                }
+                                // Once claimed, gc and shutdown leave closing the entry to us, so the lock
+                                // need not be held while reading, which can block for a following stream
+                                closed = entry.closed;
+                                entry.claimed = true;
+                            }
+                            if (closed) {
+                                // Just cleaned up
+                                handleMissingStream(requestId, index, output);
+                            } else {
+                                handleRequest(entry, output);
+                                entry.timestamp.set(System.currentTimeMillis());
                             }
                         }
                         output.writeByte(ManagementProtocol.RESPONSE_END);
@@ -320,34 +329,37 @@ public class ResponseAttachmentInputStreamSupport {
         @Override
         void handleRequest(TimedStreamEntry entry, FlushableDataOutput output) throws IOException {
 
-            //noinspection SynchronizationOnLocalVariableOrMethodParameter
-            synchronized (entry) {
-                InputStream input = entry.streamEntry.getStream();
-                int read = 0;
-                byte[] buffer = new byte[BUFFER_SIZE];
-                do {
-                    // Set the timestamp on each loop so if there are blocking delays reading or writing
-                    // they don't accumulate
-                    entry.timestamp.set(System.currentTimeMillis());
-
-                    int totalRead = 0;
-                    int remaining = BUFFER_SIZE;
-                    // Read a full buffer if possible before sending
-                    while (remaining > 0 && (read = input.read(buffer, totalRead, remaining)) != -1) {
-                        totalRead += read;
-                        remaining -= read;
-                    }
-                    if (totalRead > 0) {
-                        output.writeByte(ModelControllerProtocol.PARAM_INPUTSTREAM_LENGTH);
-                        output.writeInt(totalRead);
-                        output.writeByte(ModelControllerProtocol.PARAM_INPUTSTREAM_CONTENTS);
-                        output.write(buffer, 0, totalRead);
+            InputStream input = entry.streamEntry.getStream();
+            // A following stream is sent as its bytes become available, and ends if we are shut down
+            final boolean following = input instanceof FollowingInputStream;
+            int read = 0;
+            byte[] buffer = new byte[BUFFER_SIZE];
+            do {
+                // Set the timestamp on each loop so if there are blocking delays reading or writing
+                // they don't accumulate
+                entry.timestamp.set(System.currentTimeMillis());
+
+                int totalRead = 0;
+                int remaining = BUFFER_SIZE;
+                // Read a full buffer if possible before sending
+                while (remaining > 0 && (read = input.read(buffer, totalRead, remaining)) != -1) {
+                    totalRead += read;
+                    remaining -= read;
+                    if (following && input.available() == 0) {
+                        break;
                     }
+                }
+                if (totalRead > 0) {
+                    output.writeByte(ModelControllerProtocol.PARAM_INPUTSTREAM_LENGTH);
+                    output.writeInt(totalRead);
+                    output.writeByte(ModelControllerProtocol.PARAM_INPUTSTREAM_CONTENTS);
+                    output.write(buffer, 0, totalRead);
+                    output.flush();
+                }
 
-                } while (read > -1);
+            } while (read > -1 && !(following && stopped));
 
-                output.writeByte(ModelControllerProtocol.PARAM_END);
-            }
+            output.writeByte(ModelControllerProtocol.PARAM_END);
         }
 
         @Override
@@ -362,6 +374,8 @@ public class ResponseAttachmentInputStreamSupport {
         private final OperationResponse.StreamEntry streamEntry;
         private final AtomicLong timestamp;
         private boolean closed;
+        /** Whether a request to read or close the stream has taken it over, including closing it */
+        private boolean claimed;
 
         private TimedStreamEntry(OperationResponse.StreamEntry streamEntry, AtomicLong timestamp) {
             this.streamEntry = streamEntry;
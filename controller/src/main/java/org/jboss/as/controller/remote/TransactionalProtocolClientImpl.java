@@ -52,6 +52,7 @@ import org.jboss.as.controller.client.OperationMessageHandler;
 import org.jboss.as.controller.client.OperationResponse;
 import org.jboss.as.controller.client.impl.AbstractDelegatingAsyncFuture;
 import org.jboss.as.controller.client.impl.ModelControllerProtocol;
+import org.jboss.as.controller.client.impl.ModelNodeCodec;
 import org.jboss.as.controller.client.impl.OperationResponseProxy;
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.protocol.StreamUtils;
@@ -198,8 +199,7 @@ class TransactionalProtocolClientImpl implements ManagementRequestHandlerFactory
         public void handleRequest(final DataInput input, final ActiveOperation.ResultHandler<OperationResponse> resultHandler, final ManagementRequestContext<ExecuteRequestContext> context) throws IOException {
             ControllerLogger.MGMT_OP_LOGGER.tracef("received response to ExecuteRequest for %d", context.getOperationId());
             final byte responseType = input.readByte();
-            final ModelNode response = new ModelNode();
-            response.readExternal(input);
+            final ModelNode response = ModelNodeCodec.readModelNode(input, context.getRequestHeader());
             // If not prepared the operation failed
             final boolean prepared = responseType == ModelControllerProtocol.PARAM_OPERATION_PREPARED;
             final ExecuteRequestContext executeRequestContext = context.getAttachment();
@@ -283,8 +283,7 @@ class TransactionalProtocolClientImpl implements ManagementRequestHandlerFactory
             ControllerLogger.MGMT_OP_LOGGER.tracef("received response to CompleteTxRequest (%s) for %d", status != ModelControllerProtocol.PARAM_ROLLBACK, context.getOperationId());
             // We only accept operationCompleted responses
             expectHeader(input, ModelControllerProtocol.PARAM_OPERATION_COMPLETED);
-            final ModelNode responseNode = new ModelNode();
-            responseNode.readExternal(input);
+            final ModelNode responseNode = ModelNodeCodec.readModelNode(input, context.getRequestHeader());
             // Complete the operation
             resultHandler.done(createOperationResponse(responseNode, channelAssociation, context.getOperationId()));
         }
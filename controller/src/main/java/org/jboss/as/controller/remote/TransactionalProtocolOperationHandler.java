@@ -44,6 +44,7 @@ import org.jboss.as.controller.client.Operation;
 import org.jboss.as.controller.client.OperationMessageHandler;
 import org.jboss.as.controller.client.OperationResponse;
 import org.jboss.as.controller.client.impl.ModelControllerProtocol;
+import org.jboss.as.controller.client.impl.ModelNodeCodec;
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.protocol.StreamUtils;
 import org.jboss.as.protocol.mgmt.ActiveOperation;
@@ -611,7 +612,7 @@ public class TransactionalProtocolOperationHandler implements ManagementRequestH
                     // response type
                     output.writeByte(responseType);
                     // operation result
-                    response.writeExternal(output);
+                    ModelNodeCodec.writeModelNode(response, output, header);
                     // response end
                     output.writeByte(ManagementProtocol.RESPONSE_END);
                     output.close();
@@ -23,6 +23,10 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REM
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
 
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.capability.registry.CapabilityScope;
+import org.jboss.as.controller.capability.registry.RegistrationPoint;
+import org.jboss.as.controller.capability.registry.RuntimeCapabilityRegistration;
+import org.jboss.as.controller.capability.registry.RuntimeRequirementRegistration;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
 import org.jboss.as.controller.operations.global.GlobalNotifications;
@@ -42,6 +46,8 @@ import org.xnio.XnioWorker;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * @author Tomaz Cerar (c) 2015 Red Hat Inc.
@@ -275,4 +281,22 @@ public class CapabilityRegistryTestCase extends AbstractControllerTestBase {
         executeCheckNoFailure(createOperation(REMOVE, TEST_ADDRESS1));
         Assert.assertEquals(0, capabilityRegistry.getCapabilities().size());
     }
+
+    @Test
+    public void testRequirementGraph() {
+        CapabilityRegistry registry = new CapabilityRegistry(true);
+        registry.registerCapability(new RuntimeCapabilityRegistration(IO_WORKER_RUNTIME_CAPABILITY, CapabilityScope.GLOBAL,
+                new RegistrationPoint(TEST_ADDRESS1, null)));
+        registry.registerCapability(new RuntimeCapabilityRegistration(TEST_CAPABILITY2, CapabilityScope.GLOBAL,
+                new RegistrationPoint(TEST_ADDRESS2, null)));
+        registry.registerAdditionalCapabilityRequirement(new RuntimeRequirementRegistration(IO_WORKER_RUNTIME_CAPABILITY.getName(),
+                TEST_CAPABILITY2.getName(), CapabilityScope.GLOBAL, new RegistrationPoint(TEST_ADDRESS2, null)));
+        // Requirements for capabilities nobody provides are left out
+        registry.registerAdditionalCapabilityRequirement(new RuntimeRequirementRegistration(TEST_CAPABILITY3.getName(),
+                TEST_CAPABILITY2.getName(), CapabilityScope.GLOBAL, new RegistrationPoint(TEST_ADDRESS2, null)));
+
+        Map<PathAddress, Set<PathAddress>> graph = registry.getRequirementGraph();
+        Assert.assertEquals(1, graph.size());
+        Assert.assertEquals(Collections.singleton(TEST_ADDRESS1), graph.get(TEST_ADDRESS2));
+    }
 }
@@ -444,6 +444,44 @@ public class ExpressionResolverUnitTestCase {
         }
     }
 
+    @Test
+    public void testRepeatedResolutionFollowsProperties() throws OperationFailedException {
+        ModelNode node = expression("a-${test.property.repeat}-b-${test.property.repeat.other:x}");
+        try {
+            System.setProperty("test.property.repeat", "one");
+            assertEquals("a-one-b-x", ExpressionResolver.TEST_RESOLVER.resolveExpressions(node).asString());
+            System.setProperty("test.property.repeat", "two");
+            System.setProperty("test.property.repeat.other", "y");
+            assertEquals("a-two-b-y", ExpressionResolver.TEST_RESOLVER.resolveExpressions(node).asString());
+            System.setProperty("test.property.repeat", "${test.property.repeat.other}");
+            assertEquals("a-y-b-y", ExpressionResolver.TEST_RESOLVER.resolveExpressions(node).asString());
+            System.clearProperty("test.property.repeat");
+            assertEquals(node, ExpressionResolver.SIMPLE_LENIENT.resolveExpressions(node));
+        } finally {
+            System.clearProperty("test.property.repeat");
+            System.clearProperty("test.property.repeat.other");
+        }
+        try {
+            ExpressionResolver.TEST_RESOLVER.resolveExpressions(node);
+            fail("Did not fail with OFE: " + node);
+        } catch (OperationFailedException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testTreeWithoutExpressionsIsCopied() throws OperationFailedException {
+        ModelNode node = new ModelNode();
+        node.get("map", "a").set("b");
+        node.get("list").add("c").add(new ModelNode().set("d", "${not.resolved}"));
+        ModelNode resolved = ExpressionResolver.TEST_RESOLVER.resolveExpressions(node);
+        assertEquals(node, resolved);
+        resolved.get("map", "a").set("changed");
+        resolved.get("list").get(0).set("changed");
+        assertEquals("b", node.get("map", "a").asString());
+        assertEquals("c", node.get("list").get(0).asString());
+    }
+
     private ModelNode expression(String str) {
         return new ModelNode(new ValueExpression(str));
     }
@@ -29,6 +29,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CHI
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CORE_SERVICE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HANDLER;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MANAGEMENT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MANAGEMENT_OPERATIONS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
@@ -36,9 +37,11 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_REQUIRES_RELOAD;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_REQUIRES_RESTART;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_STATISTICS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROCESS_STATE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_CHILDREN_NAMES_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_CHILDREN_RESOURCES_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_CHILDREN_TYPES_OPERATION;
@@ -52,17 +55,26 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUN
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUNTIME_MODIFICATION_COMPLETE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUNTIME_UPDATE_SKIPPED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVICE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
@@ -104,6 +116,7 @@ public class ModelControllerImplUnitTestCase {
     private ServiceContainer container;
     private ModelController controller;
     private AtomicBoolean sharedState;
+    private Resource managementOperationsResource;
     private ServiceNotificationHandler notificationHandler;
 
     public static void toggleRuntimeState(AtomicBoolean state) {
@@ -124,6 +137,7 @@ public class ModelControllerImplUnitTestCase {
         sharedState = svc.getSharedState();
         svc.awaitStartup(30, TimeUnit.SECONDS);
         controller = svc.getValue();
+        managementOperationsResource = svc.modelControllerResource;
         ModelNode setup = Util.getEmptyOperation("setup", new ModelNode());
         controller.execute(setup, null, null, null);
         notificationHandler = new ServiceNotificationHandler();
@@ -158,6 +172,47 @@ public class ModelControllerImplUnitTestCase {
         notificationHandler.validate(0);
     }
 
+    @Test
+    public void testProfiledExecution() throws Exception {
+        ModelNode op = getOperation("good", "attr1", 5);
+        op.get(OPERATION_HEADERS, PROFILE).set(true);
+        ModelNode result = controller.execute(op, null, null, null);
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        ModelNode profile = result.get(RESPONSE_HEADERS, PROFILE);
+        assertTrue(profile.toString(), profile.get(OperationProfiler.WALL_TIME).asLong() > 0);
+        assertTrue(profile.toString(), profile.get(OperationProfiler.LOCK_WAIT_TIME).asLong() >= 0);
+        List<ModelNode> steps = profile.get(STEPS).asList();
+        assertFalse(profile.toString(), steps.isEmpty());
+        // The controller's prepare step adds the step executing the operation handler
+        ModelNode step = steps.get(0).get(STEPS).get(0);
+        assertEquals("good", step.get(OP).asString());
+        assertEquals(OperationContext.Stage.MODEL.toString(), step.get(OperationProfiler.STAGE).asString());
+        assertEquals(ModelStageGoodHandler.class.getName(), step.get(HANDLER).asString());
+        assertTrue(step.toString(), step.get(OperationProfiler.WALL_TIME).asLong() >= 0);
+
+        // Operations are only profiled on request
+        result = controller.execute(getOperation("good", "attr1", 1), null, null, null);
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        assertFalse(result.get(RESPONSE_HEADERS).hasDefined(PROFILE));
+    }
+
+    @Test
+    public void testOperationStatistics() throws Exception {
+        ModelNode result = controller.execute(getOperation("good", "attr1", 5), null, null, null);
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        result = controller.execute(getOperation("good", "attr1", 1), null, null, null);
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        result = controller.execute(getOperation("bad", "attr1", 5), null, null, null);
+        assertEquals(FAILED, result.get(OUTCOME).asString());
+
+        ModelNode statistics = managementOperationsResource.getModel().get(OPERATION_STATISTICS);
+        assertEquals(statistics.toString(), 1, statistics.get("setup", OperationStatistics.COUNT).asLong());
+        assertEquals(statistics.toString(), 2, statistics.get("good", OperationStatistics.COUNT).asLong());
+        // failed operations are recorded as well
+        assertEquals(statistics.toString(), 1, statistics.get("bad", OperationStatistics.COUNT).asLong());
+        assertTrue(statistics.toString(), statistics.get("good", OperationStatistics.HISTOGRAM).isDefined());
+    }
+
     /**
      * Test successfully updating the model but then having the caller roll back the transaction.
      */
@@ -321,6 +376,110 @@ public class ModelControllerImplUnitTestCase {
         notificationHandler.validate(0);
     }
 
+    @Test
+    public void testGoodServiceScopedStability() throws Exception {
+        // An unrelated service that never finishes starting must not hold up the operation
+        final CountDownLatch latch = new CountDownLatch(1);
+        installUnrelatedService(latch);
+        System.setProperty(OperationContextImpl.SCOPED_STABILITY_PROPERTY, "true");
+        try {
+            long start = System.nanoTime();
+            ModelNode result = controller.execute(getOperation("good-service", "attr1", 5), null, null, null);
+            assertEquals(SUCCESS, result.get(OUTCOME).asString());
+            assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 30);
+
+            ServiceController<?> sc = container.getService(ServiceName.JBOSS.append("good-service"));
+            assertNotNull(sc);
+            assertEquals(ServiceController.State.UP, sc.getState());
+            notificationHandler.validate(1);
+        } finally {
+            System.clearProperty(OperationContextImpl.SCOPED_STABILITY_PROPERTY);
+            latch.countDown();
+        }
+    }
+
+    @Test
+    public void testRemoveServiceScopedStability() throws Exception {
+        ModelNode result = controller.execute(getOperation("good-service", "attr1", 5), null, null, null);
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        notificationHandler.validate(1);
+
+        // A removal must wait for the whole container to be stable before it is made
+        final CountDownLatch latch = new CountDownLatch(1);
+        installUnrelatedService(latch);
+        System.setProperty(OperationContextImpl.SCOPED_STABILITY_PROPERTY, "true");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ModelNode> future = executor.submit(new Callable<ModelNode>() {
+                @Override
+                public ModelNode call() throws Exception {
+                    return controller.execute(getOperation("remove-good-service", "attr1", 6), null, null, null);
+                }
+            });
+            try {
+                future.get(500, TimeUnit.MILLISECONDS);
+                fail("Operation did not wait for container stability");
+            } catch (TimeoutException expected) {
+                // expected
+            }
+            ServiceController<?> sc = container.getService(ServiceName.JBOSS.append("good-service"));
+            assertNotNull(sc);
+            assertEquals(ServiceController.Mode.ACTIVE, sc.getMode());
+
+            latch.countDown();
+            result = future.get(30, TimeUnit.SECONDS);
+            assertEquals(SUCCESS, result.get(OUTCOME).asString());
+            assertNull(container.getService(ServiceName.JBOSS.append("good-service")));
+        } finally {
+            System.clearProperty(OperationContextImpl.SCOPED_STABILITY_PROPERTY);
+            latch.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testGoodServiceTxRollbackScopedStability() throws Exception {
+        // Rolling back removes services, so the operation must wait for the whole container
+        final CountDownLatch latch = new CountDownLatch(1);
+        installUnrelatedService(latch);
+        System.setProperty(OperationContextImpl.SCOPED_STABILITY_PROPERTY, "true");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ModelNode> future = executor.submit(new Callable<ModelNode>() {
+                @Override
+                public ModelNode call() throws Exception {
+                    return controller.execute(getOperation("good-service", "attr1", 5), null, RollbackTransactionControl.INSTANCE, null);
+                }
+            });
+            try {
+                future.get(500, TimeUnit.MILLISECONDS);
+                fail("Operation did not wait for container stability");
+            } catch (TimeoutException expected) {
+                // expected
+            }
+
+            latch.countDown();
+            ModelNode result = future.get(30, TimeUnit.SECONDS);
+            assertEquals(FAILED, result.get(OUTCOME).asString());
+            assertTrue(result.get(ROLLED_BACK).asBoolean());
+            assertNull(container.getService(ServiceName.JBOSS.append("good-service")));
+        } finally {
+            System.clearProperty(OperationContextImpl.SCOPED_STABILITY_PROPERTY);
+            latch.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private void installUnrelatedService(final CountDownLatch latch) {
+        // Install the service through the controller, so the container-wide monitor tracks it, and only then
+        // activate it, so it stays starting until the latch is released
+        UnrelatedServiceHandler.startLatch = latch;
+        ModelNode result = controller.execute(getOperation("unrelated-service", "attr1", 1), null, null, null);
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        container.getRequiredService(UnrelatedServiceHandler.SERVICE_NAME).setMode(ServiceController.Mode.ACTIVE);
+        notificationHandler.validate(1);
+    }
+
     @Test
     public void testGoodServiceTxRollback() throws Exception {
         ModelNode result = controller.execute(getOperation("good-service", "attr1", 5), null, RollbackTransactionControl.INSTANCE, null);
@@ -687,8 +846,11 @@ public class ModelControllerImplUnitTestCase {
 
     static class ModelControllerService extends TestModelControllerService {
 
+        private volatile Resource modelControllerResource;
+
         @Override
         protected void initModel(ManagementModel managementModel, Resource modelControllerResource) {
+            this.modelControllerResource = modelControllerResource;
             ManagementResourceRegistration rootRegistration = managementModel.getRootResourceRegistration();
             rootRegistration.registerOperationHandler(getOD("setup"), new ModelControllerImplUnitTestCase.SetupHandler(),true);
             rootRegistration.registerOperationHandler(getOD("composite"), CompositeOperationHandler.INSTANCE,true);
@@ -699,6 +861,8 @@ public class ModelControllerImplUnitTestCase {
             rootRegistration.registerOperationHandler(getOD("runtimeException"), new ModelControllerImplUnitTestCase.RuntimeStageThrowsExceptionHandler(state),true);
             rootRegistration.registerOperationHandler(getOD("operationFailedException"), new ModelControllerImplUnitTestCase.RuntimeStageThrowsOFEHandler(),true);
             rootRegistration.registerOperationHandler(getOD("good-service"), new ModelControllerImplUnitTestCase.GoodServiceHandler(),true);
+            rootRegistration.registerOperationHandler(getOD("remove-good-service"), new ModelControllerImplUnitTestCase.RemoveGoodServiceHandler(),true);
+            rootRegistration.registerOperationHandler(getOD("unrelated-service"), new ModelControllerImplUnitTestCase.UnrelatedServiceHandler(),true);
             rootRegistration.registerOperationHandler(getOD("bad-service"), new ModelControllerImplUnitTestCase.BadServiceHandler(),true);
             rootRegistration.registerOperationHandler(getOD("remove-bad-service"), new ModelControllerImplUnitTestCase.RemoveBadServiceHandler(),true);
             rootRegistration.registerOperationHandler(getOD("missing-service"), new ModelControllerImplUnitTestCase.MissingServiceHandler(),true);
@@ -920,6 +1084,75 @@ public class ModelControllerImplUnitTestCase {
         }
     }
 
+    public static class RemoveGoodServiceHandler implements OperationStepHandler {
+        @Override
+        public void execute(OperationContext context, ModelNode operation) {
+
+            String name = operation.require("name").asString();
+            ModelNode attr = context.readResourceForUpdate(PathAddress.EMPTY_ADDRESS).getModel().get(name);
+            final int current = attr.asInt();
+            attr.set(operation.require("value"));
+
+            context.addStep(new OperationStepHandler() {
+
+                @Override
+                public void execute(final OperationContext context, ModelNode operation) {
+
+                    context.getResult().set(current);
+                    final ServiceName svcName = ServiceName.JBOSS.append("good-service");
+                    context.removeService(svcName);
+
+                    context.completeStep(new OperationContext.RollbackHandler() {
+                        @Override
+                        public void handleRollback(OperationContext context, ModelNode operation) {
+                            context.getServiceTarget().addService(svcName, Service.NULL).install();
+                        }
+                    });
+                }
+            }, OperationContext.Stage.RUNTIME);
+
+            context.completeStep(OperationContext.RollbackHandler.NOOP_ROLLBACK_HANDLER);
+        }
+    }
+
+    public static class UnrelatedServiceHandler implements OperationStepHandler {
+        static final ServiceName SERVICE_NAME = ServiceName.JBOSS.append("unrelated-service");
+        static volatile CountDownLatch startLatch = new CountDownLatch(0);
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) {
+            context.addStep(new OperationStepHandler() {
+
+                @Override
+                public void execute(final OperationContext context, ModelNode operation) {
+                    final CountDownLatch latch = startLatch;
+                    context.getServiceTarget().addService(SERVICE_NAME, new Service<Void>() {
+                        @Override
+                        public void start(StartContext context) throws StartException {
+                            try {
+                                latch.await(30, TimeUnit.SECONDS);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        }
+
+                        @Override
+                        public void stop(StopContext context) {
+                        }
+
+                        @Override
+                        public Void getValue() {
+                            return null;
+                        }
+                    }).setInitialMode(ServiceController.Mode.NEVER).install();
+                    context.completeStep(OperationContext.RollbackHandler.NOOP_ROLLBACK_HANDLER);
+                }
+            }, OperationContext.Stage.RUNTIME);
+
+            context.completeStep(OperationContext.RollbackHandler.NOOP_ROLLBACK_HANDLER);
+        }
+    }
+
     public static class MissingServiceHandler implements OperationStepHandler {
         @Override
         public void execute(OperationContext context, ModelNode operation) {
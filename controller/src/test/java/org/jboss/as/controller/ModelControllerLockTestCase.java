@@ -3,6 +3,7 @@ package org.jboss.as.controller;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
@@ -294,4 +295,92 @@ public class ModelControllerLockTestCase {
         t2.join();
         assertTrue(lock.lockInterruptibly(OP2, DEFAULT_TIMEOUT, DEFAULT_TIMEUNIT));
     }
+
+    @Test
+    public void testQueuedExclusiveBlocksShared() throws InterruptedException {
+        final ModelControllerLock lock = new ModelControllerLock();
+        lock.lockShared(OP1);
+
+        final CountDownLatch acquired = new CountDownLatch(1);
+        Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                lock.lock(OP2);
+                acquired.countDown();
+                lock.unlock(OP2);
+            }
+        });
+        writer.start();
+        long end = System.currentTimeMillis() + 10000;
+        while (writer.getState() != Thread.State.WAITING && System.currentTimeMillis() < end) {
+            Thread.sleep(1);
+        }
+
+        // A new reader waits behind the queued writer, but the writer still waits for the existing reader
+        assertFalse(lock.lockSharedInterruptibly(OP3, DEFAULT_TIMEOUT, DEFAULT_TIMEUNIT));
+        assertFalse(acquired.await(DEFAULT_TIMEOUT, DEFAULT_TIMEUNIT));
+        lock.unlockShared(OP1);
+        assertTrue(acquired.await(10, TimeUnit.SECONDS));
+        writer.join();
+        assertTrue(lock.lockSharedInterruptibly(OP3, DEFAULT_TIMEOUT, DEFAULT_TIMEUNIT));
+    }
+
+    @Test
+    public void testReentrantExclusiveNotBlockedByQueue() throws InterruptedException {
+        final ModelControllerLock lock = new ModelControllerLock();
+        lock.lock(OP1);
+
+        Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                lock.lock(OP2);
+                lock.unlock(OP2);
+            }
+        });
+        writer.start();
+        long end = System.currentTimeMillis() + 10000;
+        while (writer.getState() != Thread.State.WAITING && System.currentTimeMillis() < end) {
+            Thread.sleep(1);
+        }
+
+        assertTrue(lock.lockInterruptibly(OP1, DEFAULT_TIMEOUT, DEFAULT_TIMEUNIT));
+        assertFalse(lock.detectDeadlockAndGetLock(OP3));
+        lock.unlock(OP1);
+        lock.unlock(OP1);
+        writer.join();
+    }
+
+    @Test
+    public void testReentrantSharedNotBlockedByQueue() throws InterruptedException {
+        final ModelControllerLock lock = new ModelControllerLock();
+        lock.lockShared(OP1);
+
+        final CountDownLatch acquired = new CountDownLatch(1);
+        Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                lock.lock(OP2);
+                acquired.countDown();
+                lock.unlock(OP2);
+            }
+        });
+        writer.start();
+        long end = System.currentTimeMillis() + 10000;
+        while (writer.getState() != Thread.State.WAITING && System.currentTimeMillis() < end) {
+            Thread.sleep(1);
+        }
+
+        // The existing reader may re-acquire although a writer is queued, but a new reader may not
+        assertTrue(lock.lockSharedInterruptibly(OP1, DEFAULT_TIMEOUT, DEFAULT_TIMEUNIT));
+        assertFalse(lock.lockSharedInterruptibly(OP3, DEFAULT_TIMEOUT, DEFAULT_TIMEUNIT));
+        lock.unlockShared(OP1);
+        assertFalse(acquired.await(DEFAULT_TIMEOUT, DEFAULT_TIMEUNIT));
+        lock.unlockShared(OP1);
+        assertTrue(acquired.await(10, TimeUnit.SECONDS));
+        writer.join();
+
+        // Once it has released all its holds, the reader takes its turn like anybody else
+        lock.lockShared(OP1);
+        lock.unlockShared(OP1);
+    }
 }
@@ -0,0 +1,98 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.OperationStatistics.COUNT;
+import static org.jboss.as.controller.OperationStatistics.HISTOGRAM;
+import static org.jboss.as.controller.OperationStatistics.MAX_OPERATION_NAMES;
+import static org.jboss.as.controller.OperationStatistics.MAX_TIME;
+import static org.jboss.as.controller.OperationStatistics.STABILITY_WAIT_TIME;
+import static org.jboss.as.controller.OperationStatistics.TOTAL_TIME;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link OperationStatistics}.
+ */
+public class OperationStatisticsUnitTestCase {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void testNoOperations() {
+        final ModelNode model = new OperationStatistics().toModelNode();
+        assertEquals(0, model.keys().size());
+    }
+
+    @Test
+    public void testHistogramBuckets() {
+        final OperationStatistics statistics = new OperationStatistics();
+        statistics.record("op", 0, 0);
+        // bucket bounds are inclusive
+        statistics.record("op", MILLIS, 0);
+        // times are truncated to milliseconds
+        statistics.record("op", 2 * MILLIS - 1, 0);
+        statistics.record("op", 3 * MILLIS, MILLIS);
+        statistics.record("op", 30000 * MILLIS, 0);
+        statistics.record("op", 30001 * MILLIS, 2 * MILLIS);
+
+        final ModelNode op = statistics.toModelNode().get("op");
+        final ModelNode histogram = op.get(HISTOGRAM);
+        assertEquals(Arrays.asList("1", "2", "5", "10", "25", "50", "100", "250", "500", "1000", "2500", "5000", "10000", "30000", "+Inf"),
+                new ArrayList<>(histogram.keys()));
+        assertEquals(3, histogram.get("1").asLong());
+        assertEquals(0, histogram.get("2").asLong());
+        assertEquals(1, histogram.get("5").asLong());
+        assertEquals(0, histogram.get("10000").asLong());
+        assertEquals(1, histogram.get("30000").asLong());
+        assertEquals(1, histogram.get("+Inf").asLong());
+
+        assertEquals(6, op.get(COUNT).asLong());
+        assertEquals(60006, op.get(TOTAL_TIME).asLong());
+        assertEquals(30001, op.get(MAX_TIME).asLong());
+        assertEquals(3, op.get(STABILITY_WAIT_TIME).asLong());
+    }
+
+    @Test
+    public void testOperationNamesCapped() {
+        final OperationStatistics statistics = new OperationStatistics();
+        for (int i = 0; i < MAX_OPERATION_NAMES; i++) {
+            statistics.record("op-" + i, MILLIS, 0);
+        }
+        statistics.record("one-too-many", MILLIS, 0);
+        // operations that were already seen are still recorded
+        statistics.record("op-0", MILLIS, 0);
+
+        final ModelNode model = statistics.toModelNode();
+        assertEquals(MAX_OPERATION_NAMES, model.keys().size());
+        assertFalse(model.has("one-too-many"));
+        assertEquals(2, model.get("op-0", COUNT).asLong());
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.access.permission;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.security.Permission;
+import java.security.PermissionCollection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Set;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.access.Action;
+import org.jboss.as.controller.access.HostEffect;
+import org.jboss.as.controller.access.ServerGroupEffect;
+import org.jboss.as.controller.access.TargetResource;
+import org.jboss.as.controller.access.constraint.AbstractConstraint;
+import org.jboss.as.controller.access.constraint.Constraint;
+import org.jboss.as.controller.access.constraint.HostEffectConstraint;
+import org.jboss.as.controller.access.constraint.ServerGroupEffectConstraint;
+import org.junit.Test;
+
+public class DecisionCachingPermissionCollectionTestCase {
+
+    private static final TestConstraint ALLOWED = new TestConstraint(true);
+    private static final TestConstraint DENIED = new TestConstraint(false);
+
+    @Test
+    public void testDecisionsAreRemembered() {
+        CountingPermissionCollection delegate = new CountingPermissionCollection();
+        PermissionCollection cached = new DecisionCachingPermissionCollection(delegate);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(cached.implies(new SimpleManagementPermission(Action.ActionEffect.ADDRESS, ALLOWED, ALLOWED)));
+            assertFalse(cached.implies(new SimpleManagementPermission(Action.ActionEffect.ADDRESS, ALLOWED, DENIED)));
+            assertTrue(cached.implies(new SimpleManagementPermission(Action.ActionEffect.READ_CONFIG, ALLOWED, ALLOWED)));
+        }
+        assertEquals(3, delegate.count);
+    }
+
+    @Test
+    public void testDistinctConstraintsAreEvaluated() {
+        CountingPermissionCollection delegate = new CountingPermissionCollection();
+        PermissionCollection cached = new DecisionCachingPermissionCollection(delegate);
+
+        assertTrue(cached.implies(new SimpleManagementPermission(Action.ActionEffect.ADDRESS, ALLOWED)));
+        assertFalse(cached.implies(new SimpleManagementPermission(Action.ActionEffect.ADDRESS, new TestConstraint(false))));
+        assertTrue(cached.implies(new SimpleManagementPermission(Action.ActionEffect.ADDRESS, new TestConstraint(true))));
+        assertEquals(3, delegate.count);
+    }
+
+    @Test
+    public void testDecisionsAreBounded() {
+        CountingPermissionCollection delegate = new CountingPermissionCollection();
+        PermissionCollection cached = new DecisionCachingPermissionCollection(delegate);
+
+        // Single use constraints must not stop the collection from answering correctly
+        for (int i = 0; i < 10000; i++) {
+            boolean allowed = i % 2 == 0;
+            assertEquals(allowed, cached.implies(new SimpleManagementPermission(Action.ActionEffect.ADDRESS, new TestConstraint(allowed))));
+        }
+        assertTrue(cached.implies(new SimpleManagementPermission(Action.ActionEffect.ADDRESS, ALLOWED)));
+        assertTrue(cached.implies(new SimpleManagementPermission(Action.ActionEffect.ADDRESS, ALLOWED)));
+        assertEquals(10001, delegate.count);
+    }
+
+    @Test
+    public void testScopedConstraintsAreRemembered() {
+        CountingPermissionCollection delegate = new CountingPermissionCollection(
+                new HostEffectConstraint(Collections.singletonList("a")),
+                new ServerGroupEffectConstraint(Collections.singletonList("main")));
+        PermissionCollection cached = new DecisionCachingPermissionCollection(delegate);
+
+        // The factories create new constraints for each target
+        assertNotSame(scopedPermission("a", "main").getConstraints()[0], scopedPermission("a", "main").getConstraints()[0]);
+        assertNotSame(scopedPermission("a", "main").getConstraints()[1], scopedPermission("a", "main").getConstraints()[1]);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(cached.implies(scopedPermission("a", "main")));
+            assertFalse(cached.implies(scopedPermission("b", "main")));
+            assertFalse(cached.implies(scopedPermission("a", "other")));
+        }
+        assertEquals(3, delegate.count);
+    }
+
+    @Test
+    public void testReadOnly() {
+        PermissionCollection cached = new DecisionCachingPermissionCollection(new CountingPermissionCollection());
+        assertTrue(cached.isReadOnly());
+        try {
+            cached.add(new SimpleManagementPermission(Action.ActionEffect.ADDRESS, ALLOWED));
+            fail("add() should fail");
+        } catch (SecurityException expected) {
+            // good
+        }
+    }
+
+    // ---
+
+    private static SimpleManagementPermission scopedPermission(final String host, final String serverGroup) {
+        HostEffect hostEffect = new HostEffect() {
+            @Override
+            public PathAddress getResourceAddress() {
+                return PathAddress.EMPTY_ADDRESS;
+            }
+
+            @Override
+            public boolean isHostEffectGlobal() {
+                return false;
+            }
+
+            @Override
+            public boolean isServerEffect() {
+                return true;
+            }
+
+            @Override
+            public Set<String> getAffectedHosts() {
+                return Collections.singleton(host);
+            }
+        };
+        ServerGroupEffect serverGroupEffect = new ServerGroupEffect() {
+            @Override
+            public PathAddress getResourceAddress() {
+                return PathAddress.EMPTY_ADDRESS;
+            }
+
+            @Override
+            public boolean isServerGroupEffectGlobal() {
+                return false;
+            }
+
+            @Override
+            public boolean isServerGroupEffectUnassigned() {
+                return false;
+            }
+
+            @Override
+            public Set<String> getAffectedServerGroups() {
+                return Collections.singleton(serverGroup);
+            }
+
+            @Override
+            public boolean isServerGroupAdd() {
+                return false;
+            }
+
+            @Override
+            public boolean isServerGroupRemove() {
+                return false;
+            }
+        };
+        TargetResource target = TargetResource.forDomain(PathAddress.EMPTY_ADDRESS, null, null, serverGroupEffect, hostEffect);
+        Action.ActionEffect effect = Action.ActionEffect.WRITE_CONFIG;
+        return new SimpleManagementPermission(effect,
+                HostEffectConstraint.FACTORY.getRequiredConstraint(effect, null, target),
+                ServerGroupEffectConstraint.FACTORY.getRequiredConstraint(effect, null, target));
+    }
+
+    private static final class TestConstraint extends AbstractConstraint {
+        private final boolean allowed;
+
+        private TestConstraint(boolean allowed) {
+            this.allowed = allowed;
+        }
+
+        @Override
+        public boolean violates(Constraint other, Action.ActionEffect actionEffect) {
+            return !allowed;
+        }
+    }
+
+    private static final class CountingPermissionCollection extends PermissionCollection {
+        private final Constraint[] userConstraints;
+        private int count;
+
+        /**
+         * @param userConstraints the constraints to check the required ones against; if there are none each required
+         *                        constraint is checked against itself
+         */
+        private CountingPermissionCollection(Constraint... userConstraints) {
+            this.userConstraints = userConstraints;
+        }
+
+        @Override
+        public void add(Permission permission) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean implies(Permission permission) {
+            count++;
+            SimpleManagementPermission required = (SimpleManagementPermission) permission;
+            for (Constraint constraint : required.getConstraints()) {
+                if (userConstraints.length == 0 && constraint.violates(constraint, required.getActionEffect())) {
+                    return false;
+                }
+                for (Constraint userConstraint : userConstraints) {
+                    if (userConstraint.violates(constraint, required.getActionEffect())) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Enumeration<Permission> elements() {
+            return Collections.emptyEnumeration();
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.audit;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.jboss.as.controller.OperationContext.ResultAction;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.audit.AsyncAuditLogWriter.FlushPolicy;
+import org.jboss.as.controller.audit.AsyncAuditLogWriter.QueuedItem;
+import org.jboss.as.controller.audit.AsyncAuditLogWriter.RingBuffer;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.services.path.PathManagerService;
+import org.jboss.as.core.security.AccessMechanism;
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the asynchronous audit log writer.
+ */
+public class AsyncAuditLogWriterUnitTestCase {
+
+    private static final long TIMEOUT = TimeUnit.SECONDS.toMillis(10);
+
+    private final File logDir = createTempDir();
+    private final File logFile = new File(logDir, "audit-log.log");
+    private final List<AsyncAuditLogWriter> writers = new ArrayList<>();
+
+    @After
+    public void cleanup() {
+        for (AsyncAuditLogWriter writer : writers) {
+            writer.stop(TIMEOUT);
+        }
+        for (String fileName : logDir.list()) {
+            new File(logDir, fileName).delete();
+        }
+        logDir.delete();
+    }
+
+    @Test
+    public void testRingBufferIsBounded() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(3);
+        Assert.assertTrue(buffer.isEmpty());
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(buffer.offer(i));
+        }
+        Assert.assertFalse(buffer.offer(3));
+        Assert.assertEquals(3, buffer.size());
+
+        List<Integer> drained = new ArrayList<>();
+        Assert.assertEquals(2, buffer.drainTo(drained, 2));
+        Assert.assertEquals(1, buffer.size());
+        Assert.assertTrue(buffer.offer(4));
+        Assert.assertTrue(buffer.offer(5));
+        Assert.assertFalse(buffer.offer(6));
+
+        Assert.assertEquals(3, buffer.drainTo(drained, 10));
+        Assert.assertEquals(0, buffer.drainTo(drained, 10));
+        Assert.assertTrue(buffer.isEmpty());
+        Assert.assertEquals(Arrays.asList(0, 1, 2, 4, 5), drained);
+    }
+
+    @Test
+    public void testItemsDroppedWhenQueueFull() throws Exception {
+        final CountDownLatch blockWriter = new CountDownLatch(1);
+        final List<QueuedItem> written = Collections.synchronizedList(new ArrayList<>());
+        AsyncAuditLogWriter writer = new AsyncAuditLogWriter(new AsyncAuditLogWriter.Settings(2, FlushPolicy.BATCH, 1000), (batch, groupCommit) -> {
+            try {
+                blockWriter.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            written.addAll(batch);
+        });
+        writers.add(writer);
+
+        // The writer thread takes the first item and then blocks writing it
+        Assert.assertTrue(writer.offer(createQueuedItem()));
+        waitFor(() -> writer.getQueueDepth() == 0);
+
+        Assert.assertTrue(writer.offer(createQueuedItem()));
+        Assert.assertTrue(writer.offer(createQueuedItem()));
+        Assert.assertFalse(writer.offer(createQueuedItem()));
+        Assert.assertEquals(2, writer.getQueueDepth());
+        Assert.assertEquals(1, writer.getDroppedItemCount());
+
+        blockWriter.countDown();
+        waitFor(() -> written.size() == 3);
+        Assert.assertEquals(0, writer.getQueueDepth());
+        Assert.assertEquals(1, writer.getDroppedItemCount());
+    }
+
+    @Test
+    public void testStopWritesQueuedItemsAndRestarts() throws Exception {
+        final List<QueuedItem> written = Collections.synchronizedList(new ArrayList<>());
+        AsyncAuditLogWriter writer = new AsyncAuditLogWriter(new AsyncAuditLogWriter.Settings(64, FlushPolicy.TIME, 60000), (batch, groupCommit) -> written.addAll(batch));
+        writers.add(writer);
+
+        // With a long flush interval the items are only written early because the writer is stopped
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(writer.offer(createQueuedItem()));
+        }
+        writer.stop(TIMEOUT);
+        Assert.assertEquals(3, written.size());
+        Assert.assertEquals(0, writer.getQueueDepth());
+
+        // The next item starts a new writer thread
+        Assert.assertTrue(writer.offer(createQueuedItem()));
+        writer.stop(TIMEOUT);
+        Assert.assertEquals(4, written.size());
+    }
+
+    @Test
+    public void testPerItemFlush() throws Exception {
+        testAsyncLogging(FlushPolicy.ITEM);
+    }
+
+    @Test
+    public void testPerBatchFlush() throws Exception {
+        testAsyncLogging(FlushPolicy.BATCH);
+    }
+
+    @Test
+    public void testTimedFlush() throws Exception {
+        testAsyncLogging(FlushPolicy.TIME);
+    }
+
+    private void testAsyncLogging(FlushPolicy flushPolicy) throws Exception {
+        ManagedAuditLoggerImpl auditLogger = new ManagedAuditLoggerImpl("1.0.0", true, new AsyncAuditLogWriter.Settings(64, flushPolicy, 50));
+
+        auditLogger.addFormatter(new JsonAuditLogItemFormatter("json", false, " - ", "yyyy-MM-dd HH:mm:ss", true, true, true));
+        auditLogger.getUpdater().addHandler(new FileAuditLogHandler("file", "json", 10, new PathManagerService() {}, logFile.getPath(), null, false));
+        auditLogger.getUpdater().addHandlerReference(PathAddress.pathAddress(PathElement.pathElement("handler", "file")));
+        auditLogger.setLoggerStatus(AuditLogger.Status.LOGGING);
+        auditLogger.bootDone();
+
+        final int count = 20;
+        for (int i = 0; i < count; i++) {
+            ModelNode op = Util.createEmptyOperation("test-op-" + i, PathAddress.EMPTY_ADDRESS);
+            auditLogger.log(false, ResultAction.KEEP, "user", null, AccessMechanism.NATIVE, null, null, Collections.singletonList(op));
+        }
+        // Read-only operations are not logged by default
+        auditLogger.log(true, ResultAction.KEEP, "user", null, AccessMechanism.NATIVE, null, null,
+                Collections.singletonList(Util.createEmptyOperation("read-only-op", PathAddress.EMPTY_ADDRESS)));
+
+        waitFor(() -> readLines().size() >= count && auditLogger.getQueueDepth() == 0);
+        List<String> lines = readLines();
+        Assert.assertEquals(count, lines.size());
+        for (int i = 0; i < count; i++) {
+            Assert.assertTrue(lines.get(i), lines.get(i).contains("\"test-op-" + i + "\""));
+        }
+        Assert.assertEquals(0, auditLogger.getDroppedItemCount());
+        Assert.assertEquals(0, auditLogger.getHandlerFailureCount("file"));
+        auditLogger.stop();
+    }
+
+    private List<String> readLines() {
+        try {
+            return logFile.exists() ? Files.readAllLines(logFile.toPath(), StandardCharsets.UTF_8) : Collections.emptyList();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static QueuedItem createQueuedItem() {
+        return new QueuedItem(AuditLogItem.createModelControllerItem("1.0.0", false, false, ResultAction.KEEP, "user", null,
+                AccessMechanism.NATIVE, null, null, Collections.emptyList()), Collections.emptyList());
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        final long end = System.currentTimeMillis() + TIMEOUT;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > end) {
+                Assert.fail("Timed out waiting for the audit log writer");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static File createTempDir() {
+        try {
+            File tempFile = File.createTempFile("test-audit-log", "");
+            if (!tempFile.delete() || !tempFile.mkdir()) {
+                throw new IOException("Couldn't create temp directory.");
+            }
+            return tempFile;
+        } catch (Exception e) {
+            throw new RuntimeException("Couldn't create temp directory.", e);
+        }
+    }
+}
@@ -0,0 +1,336 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CONTENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INPUT_STREAM_INDEX;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
+import org.jboss.staxmapper.XMLElementReader;
+import org.jboss.staxmapper.XMLElementWriter;
+import org.jboss.staxmapper.XMLExtendedStreamReader;
+import org.jboss.staxmapper.XMLExtendedStreamWriter;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link JournalingXmlConfigurationPersister}.
+ */
+public class JournalingXmlConfigurationPersisterTestCase {
+
+    static final String NAMESPACE = "urn:jboss:test:journal:1.0";
+    static final QName ROOT = new QName(NAMESPACE, "config");
+    static final String PROPERTY = "property";
+
+    private File configDir;
+    private File configFile;
+    private final List<JournalingXmlConfigurationPersister> persisters = new ArrayList<>();
+
+    @Before
+    public void createConfiguration() throws Exception {
+        File tgt = new File("target");
+        if (!tgt.exists()) {
+            Assert.fail("target/ does not exist");
+        }
+        configDir = new File(tgt, "journal-test-configs");
+        delete(configDir);
+        Assert.assertTrue(configDir.mkdirs());
+        configFile = new File(configDir, "standard.xml");
+        Files.write(configFile.toPath(), ("<config xmlns=\"" + NAMESPACE + "\"/>").getBytes(StandardCharsets.UTF_8));
+    }
+
+    @After
+    public void deleteConfiguration() {
+        for (JournalingXmlConfigurationPersister persister : persisters) {
+            persister.shutdown();
+        }
+        delete(configDir);
+    }
+
+    @Test
+    public void testJournalReplayedAndCompactedOnBoot() throws Exception {
+        JournalingXmlConfigurationPersister persister = boot(100);
+        Resource root = Resource.Factory.create();
+        ModelNode operation = addProperty(root, "a", "1");
+        operation.get(OPERATION_HEADERS, "rollback-on-runtime-failure").set(true);
+        store(persister, root, operation);
+
+        File journal = persister.getJournalFile();
+        Assert.assertTrue(journal.exists());
+        Assert.assertFalse(readConfigFile().contains("name=\"a\""));
+
+        // Reboot
+        persister = createPersister(100);
+        List<ModelNode> bootOperations = persister.load();
+        Assert.assertEquals(1, bootOperations.size());
+        ModelNode expected = operation.clone();
+        expected.remove(OPERATION_HEADERS);
+        Assert.assertEquals(expected, bootOperations.get(0));
+
+        // The model resulting from the boot operations gets written out once boot completes
+        store(persister, root, null);
+        persister.successfulBoot();
+        Assert.assertFalse(journal.exists());
+        Assert.assertTrue(readConfigFile().contains("name=\"a\""));
+
+        // The replayed journal is kept, in case its operations did not all succeed during boot
+        File replayedJournal = persister.getReplayedJournalFile();
+        Assert.assertTrue(replayedJournal.exists());
+        Assert.assertTrue(replayedJournal.length() > 0);
+
+        Assert.assertEquals(1, createPersister(100).load().size());
+    }
+
+    @Test
+    public void testShutdownCompactsJournal() throws Exception {
+        JournalingXmlConfigurationPersister persister = boot(100);
+        Resource root = Resource.Factory.create();
+        store(persister, root, addProperty(root, "a", "1"));
+        Assert.assertTrue(persister.getJournalFile().exists());
+
+        persister.shutdown();
+        Assert.assertFalse(persister.getJournalFile().exists());
+        Assert.assertTrue(readConfigFile().contains("name=\"a\""));
+        Assert.assertFalse(persister.getReplayedJournalFile().exists());
+
+        // Anything committed after shutdown is left in the journal for the next boot
+        store(persister, root, addProperty(root, "b", "2"));
+        Assert.assertTrue(persister.getJournalFile().exists());
+        Assert.assertFalse(readConfigFile().contains("name=\"b\""));
+        Assert.assertEquals(2, createPersister(100).load().size());
+    }
+
+    @Test
+    public void testNonReplayableOperationWritesConfiguration() throws Exception {
+        JournalingXmlConfigurationPersister persister = boot(100);
+        Resource root = Resource.Factory.create();
+        store(persister, root, addProperty(root, "a", "1"));
+        Assert.assertTrue(persister.getJournalFile().exists());
+
+        ModelNode composite = new ModelNode();
+        composite.get(OP).set(COMPOSITE);
+        composite.get(OP_ADDR).setEmptyList();
+        composite.get(STEPS).add(addProperty(root, "b", "2"));
+        composite.get(STEPS).get(0).get(CONTENT).add().get(INPUT_STREAM_INDEX).set(0);
+        Assert.assertFalse(JournalingXmlConfigurationPersister.isReplayable(composite));
+        store(persister, root, composite);
+
+        Assert.assertFalse(persister.getJournalFile().exists());
+        String config = readConfigFile();
+        Assert.assertTrue(config.contains("name=\"a\""));
+        Assert.assertTrue(config.contains("name=\"b\""));
+    }
+
+    @Test
+    public void testIncompleteRecordIgnored() throws Exception {
+        JournalingXmlConfigurationPersister persister = boot(100);
+        Resource root = Resource.Factory.create();
+        ModelNode operation = addProperty(root, "a", "1");
+        store(persister, root, operation);
+        File journal = persister.getJournalFile();
+        long length = journal.length();
+        try (FileOutputStream fos = new FileOutputStream(journal, true)) {
+            fos.write(new byte[] {0, 0, 1});
+        }
+
+        persister = createPersister(100);
+        List<ModelNode> bootOperations = persister.load();
+        Assert.assertEquals(1, bootOperations.size());
+        Assert.assertEquals(operation, bootOperations.get(0));
+        Assert.assertEquals(length, journal.length());
+    }
+
+    @Test
+    public void testCrashAfterCompaction() throws Exception {
+        JournalingXmlConfigurationPersister persister = boot(100);
+        Resource root = Resource.Factory.create();
+        store(persister, root, addProperty(root, "a", "1"));
+        File journal = persister.getJournalFile();
+        byte[] journalled = Files.readAllBytes(journal.toPath());
+
+        // Simulate the process stopping after the configuration file was written but before the journal was removed
+        persister.shutdown();
+        Assert.assertTrue(readConfigFile().contains("name=\"a\""));
+        Assert.assertFalse(journal.exists());
+        Files.write(journal.toPath(), journalled);
+
+        // Replaying the add on top of the configuration file which already contains it would fail the boot
+        persister = createPersister(100);
+        Assert.assertEquals(1, persister.load().size());
+        persister.successfulBoot();
+        Assert.assertFalse(journal.exists());
+        Assert.assertFalse(persister.getReplayedJournalFile().exists());
+
+        // The next journal applies to the compacted configuration file
+        store(persister, root, addProperty(root, "b", "2"));
+        Assert.assertEquals(2, createPersister(100).load().size());
+    }
+
+    @Test
+    public void testCrashAfterFullWrite() throws Exception {
+        JournalingXmlConfigurationPersister persister = boot(100);
+        Resource root = Resource.Factory.create();
+        store(persister, root, addProperty(root, "a", "1"));
+        File journal = persister.getJournalFile();
+        byte[] journalled = Files.readAllBytes(journal.toPath());
+
+        ModelNode operation = addProperty(root, "b", "2");
+        operation.get(CONTENT).add().get(INPUT_STREAM_INDEX).set(0);
+        store(persister, root, operation);
+        Assert.assertFalse(journal.exists());
+        Files.write(journal.toPath(), journalled);
+
+        Assert.assertEquals(2, createPersister(100).load().size());
+    }
+
+    @Test
+    public void testCompactionWhenJournalFull() throws Exception {
+        JournalingXmlConfigurationPersister persister = boot(2);
+        Resource root = Resource.Factory.create();
+        store(persister, root, addProperty(root, "a", "1"));
+        Assert.assertTrue(persister.getJournalFile().exists());
+        store(persister, root, addProperty(root, "b", "2"));
+
+        long end = System.currentTimeMillis() + 10000;
+        while (persister.getJournalFile().exists() && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        Assert.assertFalse(persister.getJournalFile().exists());
+        String config = readConfigFile();
+        Assert.assertTrue(config.contains("name=\"a\""));
+        Assert.assertTrue(config.contains("name=\"b\""));
+    }
+
+    @Test
+    public void testSnapshotCompactsJournal() throws Exception {
+        JournalingXmlConfigurationPersister persister = boot(100);
+        Resource root = Resource.Factory.create();
+        store(persister, root, addProperty(root, "a", "1"));
+
+        String snapshot = persister.snapshot();
+        Assert.assertFalse(persister.getJournalFile().exists());
+        Assert.assertTrue(new String(Files.readAllBytes(new File(snapshot).toPath()), StandardCharsets.UTF_8).contains("name=\"a\""));
+    }
+
+    private JournalingXmlConfigurationPersister boot(int maxJournalEntries) throws Exception {
+        JournalingXmlConfigurationPersister persister = createPersister(maxJournalEntries);
+        Assert.assertTrue(persister.load().isEmpty());
+        persister.successfulBoot();
+        return persister;
+    }
+
+    private JournalingXmlConfigurationPersister createPersister(int maxJournalEntries) {
+        ConfigurationFile file = new ConfigurationFile(configDir, "standard.xml", null, ConfigurationFile.InteractionPolicy.STANDARD);
+        JournalingXmlConfigurationPersister persister = new JournalingXmlConfigurationPersister(file, ROOT, new TestParser(), new TestDeparser(), false, false, maxJournalEntries, 60000);
+        persisters.add(persister);
+        return persister;
+    }
+
+    private static void store(ConfigurationPersister persister, Resource root, ModelNode operation) throws Exception {
+        // Like the controller, hand over a tree which is not modified afterwards
+        Resource published = root.clone();
+        persister.store(published, Collections.<PathAddress>emptySet(), operation).commit();
+    }
+
+    private static ModelNode addProperty(Resource root, String name, String value) {
+        Resource resource = Resource.Factory.create();
+        resource.getModel().get(VALUE).set(value);
+        root.registerChild(PathElement.pathElement(PROPERTY, name), resource);
+
+        ModelNode operation = new ModelNode();
+        operation.get(OP).set(ADD);
+        operation.get(OP_ADDR).set(PathAddress.pathAddress(PROPERTY, name).toModelNode());
+        operation.get(VALUE).set(value);
+        return operation;
+    }
+
+    private String readConfigFile() throws Exception {
+        return new String(Files.readAllBytes(configFile.toPath()), StandardCharsets.UTF_8);
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    static class TestParser implements XMLElementReader<List<ModelNode>> {
+        @Override
+        public void readElement(XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
+            while (reader.nextTag() != END_ELEMENT) {
+                ModelNode operation = new ModelNode();
+                operation.get(OP).set(ADD);
+                operation.get(OP_ADDR).set(PathAddress.pathAddress(PROPERTY, reader.getAttributeValue(null, "name")).toModelNode());
+                operation.get(VALUE).set(reader.getAttributeValue(null, VALUE));
+                operations.add(operation);
+                reader.nextTag();
+            }
+        }
+    }
+
+    static class TestDeparser implements XMLElementWriter<ModelMarshallingContext> {
+        @Override
+        public void writeContent(XMLExtendedStreamWriter writer, ModelMarshallingContext context) throws XMLStreamException {
+            writer.writeStartElement(ROOT.getLocalPart());
+            writer.writeDefaultNamespace(NAMESPACE);
+            ModelNode model = context.getModelNode();
+            if (model.hasDefined(PROPERTY)) {
+                for (Property property : model.get(PROPERTY).asPropertyList()) {
+                    writer.writeEmptyElement(PROPERTY);
+                    writer.writeAttribute("name", property.getName());
+                    writer.writeAttribute(VALUE, property.getValue().get(VALUE).asString());
+                }
+            }
+            writer.writeEndElement();
+        }
+    }
+}
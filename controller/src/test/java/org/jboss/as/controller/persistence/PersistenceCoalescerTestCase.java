@@ -0,0 +1,199 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
+import static org.jboss.as.controller.persistence.JournalingXmlConfigurationPersisterTestCase.NAMESPACE;
+import static org.jboss.as.controller.persistence.JournalingXmlConfigurationPersisterTestCase.PROPERTY;
+import static org.jboss.as.controller.persistence.JournalingXmlConfigurationPersisterTestCase.ROOT;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.persistence.ConfigurationPersister.PersistenceResource;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLElementWriter;
+import org.jboss.staxmapper.XMLExtendedStreamWriter;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the coalesced writes of a {@link BackupXmlConfigurationPersister}.
+ */
+public class PersistenceCoalescerTestCase {
+
+    private File configDir;
+    private File configFile;
+    private final List<ConfigurationPersister> persisters = new ArrayList<>();
+
+    @Before
+    public void createConfiguration() throws Exception {
+        File tgt = new File("target");
+        if (!tgt.exists()) {
+            Assert.fail("target/ does not exist");
+        }
+        configDir = new File(tgt, "coalescing-test-configs");
+        delete(configDir);
+        Assert.assertTrue(configDir.mkdirs());
+        configFile = new File(configDir, "standard.xml");
+        Files.write(configFile.toPath(), ("<config xmlns=\"" + NAMESPACE + "\"/>").getBytes(StandardCharsets.UTF_8));
+        System.setProperty(BackupXmlConfigurationPersister.COALESCING_WINDOW_PROPERTY, "500");
+    }
+
+    @After
+    public void deleteConfiguration() {
+        System.clearProperty(BackupXmlConfigurationPersister.COALESCING_WINDOW_PROPERTY);
+        for (ConfigurationPersister persister : persisters) {
+            persister.shutdown();
+        }
+        delete(configDir);
+    }
+
+    @Test
+    public void testCommitsWithinWindowWrittenOnce() throws Exception {
+        ConfigurationFile file = new ConfigurationFile(configDir, "standard.xml", null, ConfigurationFile.InteractionPolicy.STANDARD);
+        BackupXmlConfigurationPersister persister = new BackupXmlConfigurationPersister(file, ROOT,
+                new JournalingXmlConfigurationPersisterTestCase.TestParser(), new JournalingXmlConfigurationPersisterTestCase.TestDeparser(), false, false);
+        Assert.assertTrue(persister.load().isEmpty());
+        persister.successfulBoot();
+
+        Resource root = Resource.Factory.create();
+        List<PersistenceResource> committed = new ArrayList<>();
+        for (String name : new String[] {"a", "b", "c"}) {
+            Resource resource = Resource.Factory.create();
+            resource.getModel().get(VALUE).set(name);
+            root.registerChild(PathElement.pathElement(PROPERTY, name), resource);
+            PersistenceResource persistence = persister.store(root.clone(), Collections.<PathAddress>emptySet(), null);
+            persistence.commit();
+            committed.add(persistence);
+        }
+        Assert.assertFalse(readConfigFile().contains("name=\"a\""));
+
+        committed.get(0).awaitFlushed();
+        String config = readConfigFile();
+        Assert.assertTrue(config.contains("name=\"a\""));
+        Assert.assertTrue(config.contains("name=\"b\""));
+        Assert.assertTrue(config.contains("name=\"c\""));
+        committed.get(2).awaitFlushed();
+
+        // The file replaced by each write is moved to the history
+        File[] history = new File(configDir, "standard_xml_history/current").listFiles();
+        Assert.assertNotNull(history);
+        Assert.assertEquals(1, history.length);
+    }
+
+    @Test
+    public void testFailedWriteReportedToAllCommitters() throws Exception {
+        BackupXmlConfigurationPersister persister = createPersister(new JournalingXmlConfigurationPersisterTestCase.TestDeparser() {
+            @Override
+            public void writeContent(XMLExtendedStreamWriter writer, ModelMarshallingContext context) throws XMLStreamException {
+                ModelNode model = context.getModelNode();
+                if (model.hasDefined(PROPERTY) && model.get(PROPERTY).hasDefined("fail")) {
+                    throw new XMLStreamException("fail");
+                }
+                super.writeContent(writer, context);
+            }
+        });
+
+        Resource root = Resource.Factory.create();
+        PersistenceResource first = commit(persister, root, "a");
+        PersistenceResource second = commit(persister, root, "fail");
+        for (PersistenceResource persistence : new PersistenceResource[] {first, second}) {
+            try {
+                persistence.awaitFlushed();
+                Assert.fail("The failed write was reported as flushed");
+            } catch (ConfigurationPersistenceException expected) {
+                // expected
+            }
+        }
+        Assert.assertFalse(readConfigFile().contains("name=\"a\""));
+
+        // A later write holds the complete model, so it makes the earlier changes durable as well
+        root.removeChild(PathElement.pathElement(PROPERTY, "fail"));
+        PersistenceResource third = commit(persister, root, "b");
+        third.awaitFlushed();
+        first.awaitFlushed();
+        String config = readConfigFile();
+        Assert.assertTrue(config.contains("name=\"a\""));
+        Assert.assertTrue(config.contains("name=\"b\""));
+    }
+
+    @Test
+    public void testShutdownWritesPendingCommits() throws Exception {
+        BackupXmlConfigurationPersister persister = createPersister(new JournalingXmlConfigurationPersisterTestCase.TestDeparser());
+        Resource root = Resource.Factory.create();
+        commit(persister, root, "a");
+        Assert.assertFalse(readConfigFile().contains("name=\"a\""));
+
+        persister.shutdown();
+        Assert.assertTrue(readConfigFile().contains("name=\"a\""));
+
+        // Once shut down, each commit writes the file itself
+        commit(persister, root, "b");
+        Assert.assertTrue(readConfigFile().contains("name=\"b\""));
+    }
+
+    private BackupXmlConfigurationPersister createPersister(XMLElementWriter<ModelMarshallingContext> deparser) throws Exception {
+        ConfigurationFile file = new ConfigurationFile(configDir, "standard.xml", null, ConfigurationFile.InteractionPolicy.STANDARD);
+        BackupXmlConfigurationPersister persister = new BackupXmlConfigurationPersister(file, ROOT,
+                new JournalingXmlConfigurationPersisterTestCase.TestParser(), deparser, false, false);
+        persisters.add(persister);
+        Assert.assertTrue(persister.load().isEmpty());
+        persister.successfulBoot();
+        return persister;
+    }
+
+    private static PersistenceResource commit(ConfigurationPersister persister, Resource root, String name) throws Exception {
+        Resource resource = Resource.Factory.create();
+        resource.getModel().get(VALUE).set(name);
+        root.registerChild(PathElement.pathElement(PROPERTY, name), resource);
+        PersistenceResource persistence = persister.store(root.clone(), Collections.<PathAddress>emptySet(), null);
+        persistence.commit();
+        return persistence;
+    }
+
+    private String readConfigFile() throws Exception {
+        return new String(Files.readAllBytes(configFile.toPath()), StandardCharsets.UTF_8);
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
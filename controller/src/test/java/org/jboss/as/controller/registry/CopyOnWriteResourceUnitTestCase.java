@@ -0,0 +1,189 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link Resource.Tools#copyOnWrite(Resource)}.
+ */
+public class CopyOnWriteResourceUnitTestCase {
+
+    private static final PathElement A = PathElement.pathElement("type", "a");
+    private static final PathElement B = PathElement.pathElement("type", "b");
+    private static final PathElement C = PathElement.pathElement("type", "c");
+    private static final PathElement CHILD = PathElement.pathElement("child", "x");
+
+    private Resource original;
+
+    @Before
+    public void setup() {
+        original = Resource.Factory.create();
+        original.getModel().get("attr").set("root");
+        for (PathElement pe : Arrays.asList(A, B, C)) {
+            Resource child = Resource.Factory.create();
+            child.getModel().get("attr").set(pe.getValue());
+            Resource grandChild = Resource.Factory.create();
+            grandChild.getModel().get("attr").set(pe.getValue() + "-x");
+            child.registerChild(CHILD, grandChild);
+            original.registerChild(pe, child);
+        }
+    }
+
+    @Test
+    public void testWriteDoesNotAffectOriginal() {
+        Resource copy = Resource.Tools.copyOnWrite(original);
+        copy.getModel().get("attr").set("changed");
+        copy.navigate(PathAddress.pathAddress(B, CHILD)).getModel().get("attr").set("changed");
+        copy.requireChild(C).registerChild(PathElement.pathElement("child", "y"), Resource.Factory.create());
+        copy.removeChild(A);
+
+        assertEquals("root", original.getModel().get("attr").asString());
+        assertEquals("b-x", original.navigate(PathAddress.pathAddress(B, CHILD)).getModel().get("attr").asString());
+        assertEquals(Collections.singleton("x"), original.requireChild(C).getChildrenNames("child"));
+        assertTrue(original.hasChild(A));
+
+        assertEquals("changed", copy.getModel().get("attr").asString());
+        assertEquals("changed", copy.navigate(PathAddress.pathAddress(B, CHILD)).getModel().get("attr").asString());
+        assertEquals(2, copy.requireChild(C).getChildrenNames("child").size());
+        assertFalse(copy.hasChild(A));
+        assertEquals(Resource.Tools.readModel(original.requireChild(C).requireChild(CHILD)),
+                Resource.Tools.readModel(copy.requireChild(C).requireChild(CHILD)));
+    }
+
+    @Test
+    public void testUpdatedChildrenAreCopiedOnce() {
+        Resource copy = Resource.Tools.copyOnWrite(original);
+        Resource copiedB = copy.requireChild(B);
+        assertNotSame(original.requireChild(B), copiedB);
+        assertSame(copiedB, copy.requireChild(B));
+        for (Resource.ResourceEntry entry : copy.getChildren("type")) {
+            Resource resource = copy.requireChild(entry.getPathElement());
+            resource.getModel().get("touched").set(true);
+        }
+        assertTrue(copiedB.getModel().get("touched").asBoolean());
+        for (Resource.ResourceEntry entry : original.getChildren("type")) {
+            assertFalse(entry.getModel().has("touched"));
+        }
+    }
+
+    @Test
+    public void testReadsDoNotCopy() {
+        Resource copy = Resource.Tools.copyOnWrite(original);
+        for (Resource.ResourceEntry entry : copy.getChildren("type")) {
+            assertTrue(Resource.Tools.isSameResource(original.getChild(entry.getPathElement()), entry));
+            for (Resource.ResourceEntry child : entry.getChildren("child")) {
+                assertSame(original.getChild(entry.getPathElement()).getChild(CHILD).getModel(), child.getModel());
+            }
+        }
+        Resource a = copy.getChild(A);
+        assertTrue(Resource.Tools.isSameResource(original.getChild(A), a));
+        assertTrue(Resource.Tools.isSameResource(original.getChild(A).getChild(CHILD), a.getChild(CHILD)));
+        assertEquals("a-x", a.getChild(CHILD).getModel().get("attr").asString());
+
+        // Once copied for update, the resources handed out earlier read the copy
+        copy.requireChild(A).getModel().get("attr").set("changed");
+        assertEquals("changed", a.getModel().get("attr").asString());
+        assertEquals("a", original.getChild(A).getModel().get("attr").asString());
+        assertTrue(Resource.Tools.isSameResource(original.getChild(A).getChild(CHILD), a.getChild(CHILD)));
+    }
+
+    @Test
+    public void testWriteViaSharedChild() {
+        Resource copy = Resource.Tools.copyOnWrite(original);
+        Resource grandChild = copy.getChild(B).getChild(CHILD);
+        Resource c = copy.getChild(C);
+        ModelNode model = new ModelNode();
+        model.get("attr").set("changed");
+        grandChild.writeModel(model);
+        c.registerChild(PathElement.pathElement("child", "y"), Resource.Factory.create());
+
+        assertEquals("changed", grandChild.getModel().get("attr").asString());
+        assertEquals("changed", copy.navigate(PathAddress.pathAddress(B, CHILD)).getModel().get("attr").asString());
+        assertEquals("b-x", original.navigate(PathAddress.pathAddress(B, CHILD)).getModel().get("attr").asString());
+        assertEquals(2, copy.getChild(C).getChildrenNames("child").size());
+        assertEquals(2, c.getChildrenNames("child").size());
+        assertEquals(Collections.singleton("x"), original.getChild(C).getChildrenNames("child"));
+        assertFalse(Resource.Tools.isSameResource(original.getChild(B), copy.getChild(B)));
+        assertTrue(Resource.Tools.isSameResource(original.getChild(A), copy.getChild(A)));
+    }
+
+    @Test
+    public void testRemovedChildIsNotShared() {
+        Resource copy = Resource.Tools.copyOnWrite(original);
+        Resource removed = copy.removeChild(A);
+        removed.getModel().get("attr").set("changed");
+        assertEquals("a", original.requireChild(A).getModel().get("attr").asString());
+        assertNull(copy.getChild(A));
+    }
+
+    @Test
+    public void testOrderPreserved() {
+        Resource copy = Resource.Tools.copyOnWrite(original);
+        copy.requireChild(B).getModel().get("attr").set("changed");
+        assertEquals(Arrays.asList("a", "b", "c"), new ArrayList<>(copy.getChildrenNames("type")));
+    }
+
+    @Test
+    public void testEndCopyOnWrite() {
+        Resource copy = Resource.Tools.copyOnWrite(original);
+        copy.requireChild(B).requireChild(CHILD).getModel().get("attr").set("changed");
+        Resource.Tools.endCopyOnWrite(copy);
+
+        assertTrue(Resource.Tools.isSameResource(original.requireChild(A), copy.requireChild(A)));
+        assertTrue(Resource.Tools.isSameResource(original.requireChild(C).requireChild(CHILD), copy.requireChild(C).requireChild(CHILD)));
+        assertFalse(Resource.Tools.isSameResource(original.requireChild(B), copy.requireChild(B)));
+        assertFalse(Resource.Tools.isSameResource(original.requireChild(B).requireChild(CHILD), copy.requireChild(B).requireChild(CHILD)));
+        // the sibling of the changed resource is still the original's
+        Resource copiedB = copy.requireChild(B);
+        copiedB.registerChild(PathElement.pathElement("child", "y"), Resource.Factory.create());
+        assertEquals(Collections.singleton("x"), original.requireChild(B).getChildrenNames("child"));
+        assertTrue(Resource.Tools.isStandardResource(copy.getChildren("type").iterator().next()));
+    }
+
+    @Test
+    public void testCloneOfCopy() {
+        Resource copy = Resource.Tools.copyOnWrite(original);
+        copy.requireChild(A).getModel().get("attr").set("changed");
+        Resource clone = copy.clone();
+        assertEquals(Resource.Tools.readModel(copy), Resource.Tools.readModel(clone));
+        clone.requireChild(C).getModel().get("attr").set("cloned");
+        assertEquals("c", copy.requireChild(C).getModel().get("attr").asString());
+        assertEquals("c", original.requireChild(C).getModel().get("attr").asString());
+    }
+}
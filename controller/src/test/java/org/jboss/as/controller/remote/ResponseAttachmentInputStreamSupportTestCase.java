@@ -29,9 +29,12 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.controller.client.OperationResponse;
 import org.jboss.as.controller.client.impl.ModelControllerProtocol;
@@ -229,6 +232,85 @@ public class ResponseAttachmentInputStreamSupportTestCase {
         Assert.assertEquals(ManagementProtocol.RESPONSE_END, di.readByte());
     }
 
+    @Test
+    public void testReadHandlerFollowingStream() throws IOException {
+
+        ResponseAttachmentInputStreamSupport testee = new ResponseAttachmentInputStreamSupport();
+        OperationResponse.StreamEntry followingEntry = new MockStreamEntry(new FollowingChunkedInputStream(2, 0, 3, -1));
+        OperationResponse.StreamEntry plainEntry = new MockStreamEntry(new ChunkedInputStream(2, 0, 3));
+        testee.registerStreams(1, Arrays.asList(followingEntry, plainEntry));
+
+        // Each chunk of a following stream is sent and flushed as soon as it is read
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        MockFlushableDataOutput mfdo = new MockFlushableDataOutput(baos);
+        testee.getReadHandler().handleRequest(getDataInput(1, 0), new MockResultHandler(), new MockManagementRequestContext(mfdo));
+
+        Assert.assertEquals(1, ((MockStreamEntry) followingEntry).closeCount);
+        Assert.assertTrue("Flush count: " + mfdo.flushCount, mfdo.flushCount >= 2);
+        DataInput di = new DataInputStream(new ByteArrayInputStream(baos.toByteArray()));
+        assertChunk(di, 2);
+        assertChunk(di, 3);
+        Assert.assertEquals(ModelControllerProtocol.PARAM_END, di.readByte());
+        Assert.assertEquals(ManagementProtocol.RESPONSE_END, di.readByte());
+
+        // Other streams still fill the buffer before sending
+        baos = new ByteArrayOutputStream();
+        mfdo = new MockFlushableDataOutput(baos);
+        testee.getReadHandler().handleRequest(getDataInput(1, 1), new MockResultHandler(), new MockManagementRequestContext(mfdo));
+
+        Assert.assertEquals(1, ((MockStreamEntry) plainEntry).closeCount);
+        di = new DataInputStream(new ByteArrayInputStream(baos.toByteArray()));
+        assertChunk(di, 5);
+        Assert.assertEquals(ModelControllerProtocol.PARAM_END, di.readByte());
+        Assert.assertEquals(ManagementProtocol.RESPONSE_END, di.readByte());
+    }
+
+    @Test
+    public void testShutdownDuringFollowingRead() throws Exception {
+
+        final ResponseAttachmentInputStreamSupport testee = new ResponseAttachmentInputStreamSupport();
+        final ChunkedInputStream stream = new FollowingChunkedInputStream(2);
+        final MockStreamEntry streamEntry = new MockStreamEntry(stream);
+        testee.registerStreams(1, Arrays.asList((OperationResponse.StreamEntry) streamEntry));
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final MockResultHandler mrh = new MockResultHandler();
+        Thread reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    testee.getReadHandler().handleRequest(getDataInput(1, 0), mrh,
+                            new MockManagementRequestContext(new MockFlushableDataOutput(baos)));
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        reader.start();
+        // Wait for the read to be in progress, after which the stream only returns 0 bytes
+        Assert.assertTrue(stream.exhausted.await(10, TimeUnit.SECONDS));
+
+        // Shutdown neither blocks behind the read nor closes the stream under it, but ends the read
+        testee.shutdown();
+        reader.join(TimeUnit.SECONDS.toMillis(10));
+        Assert.assertFalse(reader.isAlive());
+
+        Assert.assertEquals(1, streamEntry.closeCount);
+        Assert.assertEquals(1, mrh.result);
+        DataInput di = new DataInputStream(new ByteArrayInputStream(baos.toByteArray()));
+        assertChunk(di, 2);
+        Assert.assertEquals(ModelControllerProtocol.PARAM_END, di.readByte());
+        Assert.assertEquals(ManagementProtocol.RESPONSE_END, di.readByte());
+    }
+
+    private static void assertChunk(DataInput di, int expectedLength) throws IOException {
+        Assert.assertEquals(ModelControllerProtocol.PARAM_INPUTSTREAM_LENGTH, di.readByte());
+        int length = di.readInt();
+        Assert.assertEquals(expectedLength, length);
+        Assert.assertEquals(ModelControllerProtocol.PARAM_INPUTSTREAM_CONTENTS, di.readByte());
+        di.readFully(new byte[length]);
+    }
+
     private static DataInput getDataInput(int operationId, int streamIndex) throws IOException {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         DataOutputStream dos = new DataOutputStream(baos);
@@ -243,6 +325,7 @@ public class ResponseAttachmentInputStreamSupportTestCase {
     private static final class MockFlushableDataOutput extends DataOutputStream implements FlushableDataOutput {
 
         private int closeCount;
+        private int flushCount;
 
         /**
          * Creates a new data output stream to write data to the specified
@@ -257,6 +340,12 @@ public class ResponseAttachmentInputStreamSupportTestCase {
             super(out);
         }
 
+        @Override
+        public void flush() throws IOException {
+            super.flush();
+            flushCount++;
+        }
+
         @Override
         public void close() throws IOException {
             super.close();
@@ -379,4 +468,72 @@ public class ResponseAttachmentInputStreamSupportTestCase {
             closeCount++;
         }
     }
+
+    /**
+     * Returns reads of the given sizes, where 0 is a read that found nothing yet and -1 the end of the stream, and
+     * then reports the end of the stream. Nothing is ever reported as available.
+     */
+    private static class ChunkedInputStream extends InputStream {
+
+        private final int[] reads;
+        private final CountDownLatch exhausted = new CountDownLatch(1);
+        volatile boolean closed;
+        private int next;
+
+        private ChunkedInputStream(int... reads) {
+            this.reads = reads;
+        }
+
+        @Override
+        public int read() throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (closed) {
+                return -1;
+            }
+            if (next < reads.length) {
+                return Math.min(len, reads[next++]);
+            }
+            exhausted.countDown();
+            return readAfterLastChunk();
+        }
+
+        int readAfterLastChunk() throws IOException {
+            return -1;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+        }
+    }
+
+    /**
+     * A {@link ChunkedInputStream} that after its last chunk waits for more, returning 0 bytes now and then, until closed.
+     */
+    private static final class FollowingChunkedInputStream extends ChunkedInputStream implements FollowingInputStream {
+
+        private FollowingChunkedInputStream(int... reads) {
+            super(reads);
+        }
+
+        @Override
+        int readAfterLastChunk() throws IOException {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+            return closed ? -1 : 0;
+        }
+    }
 }
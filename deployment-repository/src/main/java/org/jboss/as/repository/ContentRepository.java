@@ -21,20 +21,24 @@
  */
 package org.jboss.as.repository;
 
+import static java.lang.Integer.getInteger;
 import static java.lang.Long.getLong;
 import static java.lang.System.getSecurityManager;
 import static java.security.AccessController.doPrivileged;
 
-import java.io.BufferedInputStream;
-import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.security.DigestOutputStream;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.PrivilegedAction;
@@ -42,6 +46,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Stream;
 
 import org.jboss.as.repository.logging.DeploymentRepositoryLogger;
@@ -73,6 +78,12 @@ public interface ContentRepository {
      */
     long OBSOLETE_CONTENT_TIMEOUT = getSecurityManager() == null ? getLong(Factory.UNSUPPORTED_PROPERTY, 300000L) : doPrivileged((PrivilegedAction<Long>) () -> getLong(Factory.UNSUPPORTED_PROPERTY, 300000L));
 
+    /**
+     * The maximum number of {@link #addContent(InputStream)} calls that may copy content into the repository concurrently.
+     */
+    int MAX_CONCURRENT_UPLOADS = getSecurityManager() == null ? getInteger(Factory.MAX_CONCURRENT_UPLOADS_PROPERTY, Runtime.getRuntime().availableProcessors())
+            : doPrivileged((PrivilegedAction<Integer>) () -> getInteger(Factory.MAX_CONCURRENT_UPLOADS_PROPERTY, Runtime.getRuntime().availableProcessors()));
+
     String DELETED_CONTENT = "deleted-contents";
     String MARKED_CONTENT = "marked-contents";
 
@@ -150,8 +161,9 @@ public interface ContentRepository {
          */
         @Deprecated
         private static final String UNSUPPORTED_PROPERTY = "org.wildfly.unsupported.content.repository.obsolescence";
+        private static final String MAX_CONCURRENT_UPLOADS_PROPERTY = "org.wildfly.content.repository.max-concurrent-uploads";
         public static void addService(final ServiceTarget serviceTarget, final File repoRoot) {
-            ContentRepositoryImpl contentRepository = new ContentRepositoryImpl(repoRoot, OBSOLETE_CONTENT_TIMEOUT);
+            ContentRepositoryImpl contentRepository = new ContentRepositoryImpl(repoRoot, OBSOLETE_CONTENT_TIMEOUT, MAX_CONCURRENT_UPLOADS);
             serviceTarget.addService(SERVICE_NAME, contentRepository).install();
         }
 
@@ -160,7 +172,11 @@ public interface ContentRepository {
         }
 
         static ContentRepository create(final File repoRoot, long timeout) {
-            return new ContentRepositoryImpl(repoRoot, timeout);
+            return create(repoRoot, timeout, MAX_CONCURRENT_UPLOADS);
+        }
+
+        static ContentRepository create(final File repoRoot, long timeout, int maxConcurrentUploads) {
+            return new ContentRepositoryImpl(repoRoot, timeout, maxConcurrentUploads);
         }
 
         /**
@@ -171,13 +187,20 @@ public interface ContentRepository {
         private static class ContentRepositoryImpl implements ContentRepository, Service<ContentRepository> {
 
             protected static final String CONTENT = "content";
+            private static final int BUFFER_SIZE = 64 * 1024;
+            private static final int HASH_LOCK_COUNT = 64;
             private final File repoRoot;
-            protected final MessageDigest messageDigest;
+            /** Each uploading thread gets its own digest so concurrent uploads don't block each other */
+            private final ThreadLocal<MessageDigest> messageDigest = ThreadLocal.withInitial(ContentRepositoryImpl::createMessageDigest);
+            /** Bounds the number of uploads copying content at the same time */
+            private final Semaphore uploadPermits;
+            /** Serializes storing and removing content with the same hash, without a repository-wide lock */
+            private final Object[] hashLocks = new Object[HASH_LOCK_COUNT];
             private final Map<String, Set<ContentReference>> contentHashReferences = new HashMap<String, Set<ContentReference>>();
             private final Map<String, Long> obsoleteContents = new HashMap<String, Long>();
             private final long obsolescenceTimeout;
 
-            protected ContentRepositoryImpl(final File repoRoot, long obsolescenceTimeout) {
+            protected ContentRepositoryImpl(final File repoRoot, long obsolescenceTimeout, int maxConcurrentUploads) {
                 if (repoRoot == null) {
                     throw DeploymentRepositoryLogger.ROOT_LOGGER.nullVar("repoRoot");
                 }
@@ -192,8 +215,17 @@ public interface ContentRepository {
                 }
                 this.repoRoot = repoRoot;
                 this.obsolescenceTimeout = obsolescenceTimeout;
+                this.uploadPermits = new Semaphore(maxConcurrentUploads > 0 ? maxConcurrentUploads : Integer.MAX_VALUE, true);
+                for (int i = 0; i < hashLocks.length; i++) {
+                    hashLocks[i] = new Object();
+                }
+                // Fail fast if SHA-1 is not available
+                messageDigest.get();
+            }
+
+            private static MessageDigest createMessageDigest() {
                 try {
-                    this.messageDigest = MessageDigest.getInstance("SHA-1");
+                    return MessageDigest.getInstance("SHA-1");
                 } catch (NoSuchAlgorithmException e) {
                     throw DeploymentRepositoryLogger.ROOT_LOGGER.cannotObtainSha1(e, MessageDigest.class.getSimpleName());
                 }
@@ -203,43 +235,59 @@ public interface ContentRepository {
             public byte[] addContent(InputStream stream) throws IOException {
                 byte[] sha1Bytes;
                 Path tmp = File.createTempFile(CONTENT, ".tmp", repoRoot).toPath();
-                OutputStream fos = Files.newOutputStream(tmp);
-                synchronized (messageDigest) {
-                    messageDigest.reset();
-                    try {
-                        DigestOutputStream dos = new DigestOutputStream(fos, messageDigest);
-                        BufferedInputStream bis = new BufferedInputStream(stream);
-                        byte[] bytes = new byte[8192];
-                        int read;
-                        while ((read = bis.read(bytes)) > -1) {
-                            dos.write(bytes, 0, read);
+                try {
+                    uploadPermits.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    Files.deleteIfExists(tmp);
+                    throw new InterruptedIOException();
+                }
+                try {
+                    final MessageDigest digest = messageDigest.get();
+                    digest.reset();
+                    // Hash the content in the same pass as we copy it to the temp file
+                    try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                        final ReadableByteChannel in = Channels.newChannel(stream);
+                        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                        while (in.read(buffer) > -1) {
+                            buffer.flip();
+                            digest.update(buffer.array(), buffer.arrayOffset(), buffer.limit());
+                            while (buffer.hasRemaining()) {
+                                out.write(buffer);
+                            }
+                            buffer.clear();
                         }
-                        fos.flush();
-                        fos.close();
-                        fos = null;
-                    } finally {
-                        safeClose(fos);
                     }
-                    sha1Bytes = messageDigest.digest();
+                    sha1Bytes = digest.digest();
+                } finally {
+                    uploadPermits.release();
                 }
-                final Path realFile = getDeploymentContentFile(sha1Bytes, true);
-                if (hasContent(sha1Bytes)) {
-                    // we've already got this content
-                    try {
-                        Files.deleteIfExists(tmp);
-                    } catch (IOException ioex) {
-                        DeploymentRepositoryLogger.ROOT_LOGGER.cannotDeleteTempFile(ioex, tmp.toAbsolutePath().toString());
-                        tmp.toFile().deleteOnExit();
+                // Concurrent uploads of the same content must not both move into the same permanent file
+                synchronized (getHashLock(sha1Bytes)) {
+                    final Path realFile = getDeploymentContentFile(sha1Bytes, true);
+                    if (hasContent(sha1Bytes)) {
+                        // we've already got this content
+                        try {
+                            Files.deleteIfExists(tmp);
+                        } catch (IOException ioex) {
+                            DeploymentRepositoryLogger.ROOT_LOGGER.cannotDeleteTempFile(ioex, tmp.toAbsolutePath().toString());
+                            tmp.toFile().deleteOnExit();
+                        }
+                        DeploymentRepositoryLogger.ROOT_LOGGER.debugf("Content was already present in repository at location %s", realFile.toAbsolutePath().toString());
+                    } else {
+                        moveTempToPermanent(tmp, realFile);
+                        DeploymentRepositoryLogger.ROOT_LOGGER.contentAdded(realFile.toAbsolutePath().toString());
                     }
-                    DeploymentRepositoryLogger.ROOT_LOGGER.debugf("Content was already present in repository at location %s", realFile.toAbsolutePath().toString());
-                } else {
-                    moveTempToPermanent(tmp, realFile);
-                    DeploymentRepositoryLogger.ROOT_LOGGER.contentAdded(realFile.toAbsolutePath().toString());
                 }
 
                 return sha1Bytes;
             }
 
+            private Object getHashLock(byte[] hash) {
+                // SHA-1 bytes are evenly distributed so the first one is as good a spread as any
+                return hash.length == 0 ? hashLocks[0] : hashLocks[(hash[0] & 0xff) % hashLocks.length];
+            }
+
             @Override
             public void addContentReference(ContentReference reference) {
                 synchronized (contentHashReferences) {
@@ -319,6 +367,8 @@ public interface ContentRepository {
                 Path localTmp = permanentFile.resolveSibling("tmp");
                 try {
                     Files.move(tmpFile, permanentFile);
+                } catch (FileAlreadyExistsException ignored) {
+                    // Stored meanwhile from outside this repository; content with the same hash is the same content
                 } catch (IOException ioex) {
                     // AS7-3574. Try to avoid writing the permanent file bit by bit in we crash in the middle.
                     // Copy tmpFile to another tmpfile in the same dir as the permanent file (and thus same filesystem)
@@ -364,13 +414,17 @@ public interface ContentRepository {
                     }
                 }
 
-                Path file;
                 if (!HashUtil.isEachHexHashInTable(reference.getHexHash())) {
                     String identifier = reference.getContentIdentifier();
-                    file = Paths.get(identifier);
-                } else
-                    file = getDeploymentContentFile(reference.getHash(), true);
+                    deleteContentFile(Paths.get(identifier));
+                } else {
+                    synchronized (getHashLock(reference.getHash())) {
+                        deleteContentFile(getDeploymentContentFile(reference.getHash(), true));
+                    }
+                }
+            }
 
+            private void deleteContentFile(Path file) {
                 try {
                     Files.deleteIfExists(file);
                 } catch (IOException ex) {
@@ -466,16 +520,6 @@ public interface ContentRepository {
                 return localReferences;
             }
 
-            protected static void safeClose(final Closeable closeable) {
-                if (closeable != null) {
-                    try {
-                        closeable.close();
-                    } catch (Exception ignore) {
-                        //
-                    }
-                }
-            }
-
             @Override
             public void start(StartContext context) throws StartException {
                 DeploymentRepositoryLogger.ROOT_LOGGER.debugf("%s started", ContentRepository.class.getSimpleName());
@@ -26,6 +26,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -35,10 +36,19 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
 
 import org.jboss.vfs.VirtualFile;
 import org.junit.After;
@@ -110,6 +120,68 @@ public class ContentRepositoryTest {
         }
     }
 
+    /**
+     * Test of addContent method, of class ContentRepository, with concurrent callers adding the same content.
+     */
+    @Test
+    public void testAddSameContentConcurrently() throws Exception {
+        repository = ContentRepository.Factory.create(rootDir, 0L, 0);
+        final byte[] bytes = Files.readAllBytes(new File(this.getClass().getClassLoader().getResource("overlay.xhtml").toURI()).toPath());
+        final int callers = 16;
+        final CyclicBarrier barrier = new CyclicBarrier(callers);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<byte[]>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    barrier.await();
+                    return repository.addContent(new ByteArrayInputStream(bytes));
+                }));
+            }
+            for (Future<byte[]> result : results) {
+                assertThat(HashUtil.bytesToHexString(result.get()), is("0c40ffacd15b0f66d5081a93407d3ff5e3c65a71"));
+            }
+            Path content = rootDir.toPath().resolve("0c").resolve("40ffacd15b0f66d5081a93407d3ff5e3c65a71");
+            assertTrue(Arrays.equals(bytes, Files.readAllBytes(content.resolve("content"))));
+            try (Stream<Path> files = Files.list(content)) {
+                assertThat(files.count(), is(1L));
+            }
+            try (Stream<Path> files = Files.list(rootDir.toPath())) {
+                assertFalse(files.anyMatch(path -> path.getFileName().toString().endsWith(".tmp")));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Test of addContent method, of class ContentRepository, with concurrent callers.
+     */
+    @Test
+    public void testAddContentConcurrently() throws Exception {
+        repository = ContentRepository.Factory.create(rootDir, 0L, 2);
+        final byte[] bytes = Files.readAllBytes(new File(this.getClass().getClassLoader().getResource("overlay.xhtml").toURI()).toPath());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<byte[]>> results = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                final byte[] content = Arrays.copyOf(bytes, bytes.length + (i % 4));
+                results.add(executor.submit(() -> repository.addContent(new ByteArrayInputStream(content))));
+            }
+            Set<String> hashes = new HashSet<>();
+            for (Future<byte[]> result : results) {
+                hashes.add(HashUtil.bytesToHexString(result.get()));
+            }
+            assertThat(hashes.size(), is(4));
+            assertThat(hashes.contains("0c40ffacd15b0f66d5081a93407d3ff5e3c65a71"), is(true));
+            for (String hash : hashes) {
+                assertTrue(repository.hasContent(HashUtil.hexStringToByteArray(hash)));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     /**
      * Test of addContentReference method, of class ContentRepository.
      */
@@ -34,6 +34,7 @@ import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition
 import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition.RUNTIME_FAILURE_CAUSES_ROLLBACK;
 import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition.SCAN_ENABLED;
 import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition.SCAN_INTERVAL;
+import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition.SCAN_MODE;
 
 import java.io.File;
 import java.io.IOException;
@@ -109,6 +110,7 @@ class DeploymentScannerAdd implements OperationStepHandler {
             final boolean autoDeployXml = AUTO_DEPLOY_XML.resolveModelAttribute(context, operation).asBoolean();
             final long deploymentTimeout = DEPLOYMENT_TIMEOUT.resolveModelAttribute(context, operation).asLong();
             final int scanInterval = SCAN_INTERVAL.resolveModelAttribute(context, operation).asInt();
+            final ScanMode scanMode = ScanMode.forName(SCAN_MODE.resolveModelAttribute(context, operation).asString());
 
             final ScheduledExecutorService scheduledExecutorService = createScannerExecutorService();
 
@@ -126,6 +128,7 @@ class DeploymentScannerAdd implements OperationStepHandler {
                 bootTimeScanner.setAutoDeployZippedContent(autoDeployZip);
                 bootTimeScanner.setAutoDeployXMLContent(autoDeployXml);
                 bootTimeScanner.setDeploymentTimeout(deploymentTimeout);
+                bootTimeScanner.setScanMode(scanMode);
                 bootTimeScanner.setScanInterval(scanInterval);
             } else {
                 bootTimeScanner = null;
@@ -224,6 +227,7 @@ class DeploymentScannerAdd implements OperationStepHandler {
         final String path = DeploymentScannerDefinition.PATH.resolveModelAttribute(context, model).asString();
         final Boolean enabled = SCAN_ENABLED.resolveModelAttribute(context, model).asBoolean();
         final Integer interval = SCAN_INTERVAL.resolveModelAttribute(context, model).asInt();
+        final ScanMode scanMode = ScanMode.forName(SCAN_MODE.resolveModelAttribute(context, model).asString());
         final String relativeTo = operation.hasDefined(CommonAttributes.RELATIVE_TO) ? RELATIVE_TO.resolveModelAttribute(context, model).asString() : null;
         final Boolean autoDeployZip = AUTO_DEPLOY_ZIPPED.resolveModelAttribute(context, model).asBoolean();
         final Boolean autoDeployExp = AUTO_DEPLOY_EXPLODED.resolveModelAttribute(context, model).asBoolean();
@@ -231,7 +235,7 @@ class DeploymentScannerAdd implements OperationStepHandler {
         final Long deploymentTimeout = DEPLOYMENT_TIMEOUT.resolveModelAttribute(context, model).asLong();
         final Boolean rollback = RUNTIME_FAILURE_CAUSES_ROLLBACK.resolveModelAttribute(context, model).asBoolean();
         final ServiceTarget serviceTarget = context.getServiceTarget();
-        DeploymentScannerService.addService(serviceTarget, address, relativeTo, path, interval, TimeUnit.MILLISECONDS,
+        DeploymentScannerService.addService(serviceTarget, address, relativeTo, path, interval, TimeUnit.MILLISECONDS, scanMode,
                 autoDeployZip, autoDeployExp, autoDeployXml, enabled, deploymentTimeout, rollback, bootTimeScanner, executorService);
 
     }
@@ -56,7 +56,7 @@ class DeploymentScannerParser_2_0 implements XMLStreamConstants, XMLElementReade
      */
     @Override
     public void writeContent(XMLExtendedStreamWriter writer, SubsystemMarshallingContext context) throws XMLStreamException {
-        context.startSubsystemElement(Namespace.CURRENT.getUriString(), false);
+        context.startSubsystemElement(Namespace.DEPLOYMENT_SCANNER_2_0.getUriString(), false);
         ModelNode scanners = context.getModelNode();
         for (final Property list : scanners.asPropertyList()) {
 
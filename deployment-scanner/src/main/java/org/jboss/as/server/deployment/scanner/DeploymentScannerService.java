@@ -64,6 +64,7 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
     private final PathAddress resourceAddress;
     private final long interval;
     private TimeUnit unit = TimeUnit.MILLISECONDS;
+    private final ScanMode scanMode;
     private final boolean enabled;
     private final boolean autoDeployZipped;
     private final boolean autoDeployExploded;
@@ -114,6 +115,7 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
      * @param path              the path
      * @param scanInterval      the scan interval
      * @param unit              the unit of {@code scanInterval}
+     * @param scanMode          how changes to the scanned directory are detected
      * @param autoDeployZip     whether zipped content should be auto-deployed
      * @param autoDeployExploded whether exploded content should be auto-deployed
      * @param autoDeployXml     whether xml content should be auto-deployed
@@ -125,10 +127,10 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
      * @return the controller for the deployment scanner service
      */
     public static ServiceController<DeploymentScanner> addService(final ServiceTarget serviceTarget, final PathAddress resourceAddress, final String relativeTo, final String path,
-                                                                  final int scanInterval, TimeUnit unit, final boolean autoDeployZip,
+                                                                  final int scanInterval, TimeUnit unit, final ScanMode scanMode, final boolean autoDeployZip,
                                                                   final boolean autoDeployExploded, final boolean autoDeployXml, final boolean scanEnabled, final long deploymentTimeout, boolean rollbackOnRuntimeFailure,
                                                                   final FileSystemDeploymentService bootTimeService, final ScheduledExecutorService scheduledExecutorService) {
-        final DeploymentScannerService service = new DeploymentScannerService(resourceAddress, relativeTo, path, scanInterval, unit, autoDeployZip,
+        final DeploymentScannerService service = new DeploymentScannerService(resourceAddress, relativeTo, path, scanInterval, unit, scanMode, autoDeployZip,
                 autoDeployExploded, autoDeployXml, scanEnabled, deploymentTimeout, rollbackOnRuntimeFailure, bootTimeService);
         final ServiceName serviceName = getServiceName(resourceAddress.getLastElement().getValue());
 
@@ -142,7 +144,7 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
                 .install();
     }
 
-    private DeploymentScannerService(PathAddress resourceAddress, final String relativeTo, final String path, final int interval, final TimeUnit unit, final boolean autoDeployZipped,
+    private DeploymentScannerService(PathAddress resourceAddress, final String relativeTo, final String path, final int interval, final TimeUnit unit, final ScanMode scanMode, final boolean autoDeployZipped,
                                      final boolean autoDeployExploded, final boolean autoDeployXml, final boolean enabled, final long deploymentTimeout,
                                      final boolean rollbackOnRuntimeFailure, final FileSystemDeploymentService bootTimeService) {
         this.resourceAddress = resourceAddress;
@@ -150,6 +152,7 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
         this.path = path;
         this.interval = interval;
         this.unit = unit;
+        this.scanMode = scanMode;
         this.autoDeployZipped = autoDeployZipped;
         this.autoDeployExploded = autoDeployExploded;
         this.autoDeployXml = autoDeployXml;
@@ -187,6 +190,7 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
                 final FileSystemDeploymentService scanner = new FileSystemDeploymentService(resourceAddress, relativeTo, new File(pathName),
                         relativePath, factory, scheduledExecutorValue.getValue(), controlledProcessStateServiceValue.getValue());
 
+                scanner.setScanMode(scanMode);
                 scanner.setScanInterval(unit.toMillis(interval));
                 scanner.setAutoDeployExplodedContent(autoDeployExploded);
                 scanner.setAutoDeployZippedContent(autoDeployZipped);
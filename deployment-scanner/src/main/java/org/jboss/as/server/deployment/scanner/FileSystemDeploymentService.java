@@ -21,6 +21,9 @@
  */
 package org.jboss.as.server.deployment.scanner;
 
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ARCHIVE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CANCELLED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
@@ -56,6 +59,9 @@ import java.nio.file.DirectoryStream;
 import java.nio.file.DirectoryStream.Filter;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -123,8 +129,24 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
      */
     static final long DEFAULT_DEPLOYMENT_TIMEOUT = 600;
 
+    /**
+     * Period, in ms, at which pending file system change events are checked in {@link ScanMode#WATCH} mode. A scan
+     * is only triggered once a check finds no further events, so a burst of changes results in a single scan.
+     */
+    static final long WATCH_CHECK_INTERVAL = 500;
+
+    /**
+     * Max period, in ms, a scan is postponed in {@link ScanMode#WATCH} mode while file system changes keep being reported
+     */
+    static final long MAX_WATCH_DELAY = 10 * WATCH_CHECK_INTERVAL;
+
     private File deploymentDir;
     private long scanInterval = 0;
+    private ScanMode scanMode = ScanMode.POLL;
+    private WatchService watchService;
+    private final Map<WatchKey, Path> watchedDirectories = new HashMap<WatchKey, Path>();
+    private long watchChangesPendingSince = -1;
+    private long lastWatchScan;
     private volatile boolean scanEnabled = false;
     private volatile boolean firstScan = true;
     private ScheduledFuture<?> scanTask;
@@ -258,6 +280,24 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
 
     private final DeploymentScanRunnable scanRunnable = new DeploymentScanRunnable();
 
+    private class WatchScanRunnable implements Runnable {
+
+        @Override
+        public void run() {
+            try {
+                if (isWatchScanDue()) {
+                    scan();
+                }
+            } catch (RejectedExecutionException e) {
+                //Do nothing as this happens if a scan occurs during a reload of shutdown of a server.
+            } catch (Exception e) {
+                ROOT_LOGGER.scanException(e, deploymentDir.getAbsolutePath());
+            }
+        }
+    }
+
+    private final WatchScanRunnable watchScanRunnable = new WatchScanRunnable();
+
     FileSystemDeploymentService(final PathAddress resourceAddress, final String relativeTo, final File deploymentDir, final File relativeToDir,
                                 final DeploymentOperations.Factory deploymentOperationsFactory,
                                 final ScheduledExecutorService scheduledExecutor,
@@ -375,6 +415,14 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
         startScan();
     }
 
+    synchronized void setScanMode(ScanMode scanMode) {
+        if (scanMode != this.scanMode) {
+            cancelScan();
+            this.scanMode = scanMode;
+            startScan();
+        }
+    }
+
     @Override
     public void setDeploymentTimeout(long deploymentTimeout) {
         this.deploymentTimeout = deploymentTimeout;
@@ -1190,7 +1238,12 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
 
     private synchronized void startScan() {
         if (scanEnabled) {
-            if (scanInterval > 0) {
+            if (scanMode == ScanMode.WATCH && startWatching()) {
+                // Make the first check trigger a scan, as the content may have changed before we started watching
+                watchChangesPendingSince = 0;
+                lastWatchScan = System.currentTimeMillis();
+                scanTask = scheduledExecutor.scheduleWithFixedDelay(watchScanRunnable, 0, WATCH_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+            } else if (scanInterval > 0) {
                 scanTask = scheduledExecutor.scheduleWithFixedDelay(scanRunnable, 0, scanInterval, TimeUnit.MILLISECONDS);
             } else {
                 scanTask = scheduledExecutor.schedule(scanRunnable, scanInterval, TimeUnit.MILLISECONDS);
@@ -1214,6 +1267,102 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
             scanTask.cancel(true);
             scanTask = null;
         }
+        stopWatching();
+    }
+
+    /**
+     * Starts watching the deployment directory for changes. Invoke with the object monitor held.
+     *
+     * @return {@code true} if the directory is being watched, {@code false} if the file system doesn't support it
+     */
+    private boolean startWatching() {
+        try {
+            watchService = deploymentDir.toPath().getFileSystem().newWatchService();
+            watchDirectory(deploymentDir.toPath());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            ROOT_LOGGER.cannotWatchDirectory(e, deploymentDir.getAbsolutePath());
+            stopWatching();
+            return false;
+        }
+    }
+
+    /**
+     * Invoke with the object monitor held
+     */
+    private void stopWatching() {
+        safeClose(watchService);
+        watchService = null;
+        watchedDirectories.clear();
+        watchChangesPendingSince = -1;
+    }
+
+    /**
+     * Registers {@code directory} and the subdirectories {@link #scanDirectory(File, String, ScanContext)} would
+     * descend into with the watch service. Exploded deployments are not watched; changes to their content are
+     * picked up by the periodic full scan, while their markers are in a watched directory.
+     * Invoke with the object monitor held.
+     */
+    private void watchDirectory(final Path directory) throws IOException {
+        watchedDirectories.put(directory.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), directory);
+        for (File child : listDirectoryChildren(directory.toFile(), filter)) {
+            final String fileName = child.getName();
+            if (child.isDirectory() && !isEEArchive(fileName)
+                    && !WEB_INF.equalsIgnoreCase(fileName) && !META_INF.equalsIgnoreCase(fileName)) {
+                watchDirectory(child.toPath());
+            }
+        }
+    }
+
+    /**
+     * Drains the events reported by the watch service and determines whether a scan should be performed now.
+     *
+     * @return {@code true} if changes were reported and no further changes arrived since the last check, or if the
+     *         periodic full scan is due
+     */
+    private synchronized boolean isWatchScanDue() {
+        if (watchService == null) {
+            return false;
+        }
+        boolean changed = false;
+        WatchKey key;
+        while ((key = watchService.poll()) != null) {
+            final Path directory = watchedDirectories.get(key);
+            for (WatchEvent<?> event : key.pollEvents()) {
+                changed = true;
+                if (event.kind() == ENTRY_CREATE && directory != null) {
+                    final Path child = directory.resolve((Path) event.context());
+                    if (Files.isDirectory(child) && !isEEArchive(child.getFileName().toString())) {
+                        try {
+                            watchDirectory(child);
+                        } catch (IOException | RuntimeException e) {
+                            // Fall back to the periodic full scan for that directory
+                            ROOT_LOGGER.cannotWatchDirectory(e, child.toString());
+                        }
+                    }
+                }
+            }
+            if (!key.reset()) {
+                // The directory is gone
+                watchedDirectories.remove(key);
+            }
+        }
+        final long now = System.currentTimeMillis();
+        if (changed && watchChangesPendingSince < 0) {
+            watchChangesPendingSince = now;
+        }
+        final boolean due;
+        if (watchChangesPendingSince >= 0) {
+            // Wait for the changes to settle, but not forever
+            due = !changed || now - watchChangesPendingSince >= MAX_WATCH_DELAY;
+        } else {
+            due = scanInterval > 0 && now - lastWatchScan >= scanInterval;
+        }
+        if (due) {
+            watchChangesPendingSince = -1;
+            lastWatchScan = now;
+        }
+        return due;
     }
 
     private ModelNode getCompositeUpdate(final List<ModelNode> updates) {
@@ -0,0 +1,54 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.scanner;
+
+import java.util.Locale;
+
+/**
+ * How a {@link FileSystemDeploymentService} detects changes to the content of its deployment directory.
+ */
+enum ScanMode {
+
+    /** Scan the deployment directory every scan interval */
+    POLL("poll"),
+    /**
+     * Only scan the deployment directory once the file system reports changes, plus a full reconciliation scan
+     * every scan interval
+     */
+    WATCH("watch");
+
+    private final String name;
+
+    ScanMode(final String name) {
+        this.name = name;
+    }
+
+    static ScanMode forName(final String name) {
+        return valueOf(name.toUpperCase(Locale.ENGLISH));
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
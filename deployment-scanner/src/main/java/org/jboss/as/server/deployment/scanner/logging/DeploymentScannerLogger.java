@@ -424,4 +424,8 @@ public interface DeploymentScannerLogger extends BasicLogger {
 
     @Message(id = 40, value = "Could not find relative-to path entry for %s")
     OperationFailedException pathEntryNotFound(String pathName);
+
+    @LogMessage(level = WARN)
+    @Message(id = 41, value = "Cannot watch %s for changes; it will be scanned every scan-interval instead")
+    void cannotWatchDirectory(@Cause Throwable cause, String path);
 }
@@ -38,5 +38,11 @@ public class DeploymentScannerParsingTestCase extends AbstractSubsystemBaseTest
     protected String getSubsystemXml() throws IOException {
         return SUBSYSTEM_XML;
     }
+
+    @Override
+    public void testSubsystem() throws Exception {
+        // The current namespace is written
+        standardSubsystemTest(null, false);
+    }
 }
 
@@ -1792,6 +1792,72 @@ public class FileSystemDeploymentServiceUnitTestCase {
         assertThat(ts.controller.deployed.keySet(), hasItems("foo.war", "failure.ear"));
     }
 
+    @Test
+    public void testWatchModeScansOnChanges() throws Exception {
+        CapturingTaskExecutor myExecutor = new CapturingTaskExecutor();
+        MockServerController sc = new MockServerController(myExecutor);
+        TesteeSet ts = createTestee(sc, myExecutor);
+        File war = createFile("foo.war");
+        File dodeploy = createFile("foo.war" + FileSystemDeploymentService.DO_DEPLOY);
+        File deployed = new File(tmpDir, "foo.war" + FileSystemDeploymentService.DEPLOYED);
+        ts.testee.setScanMode(ScanMode.WATCH);
+        Runnable watchTask = myExecutor.getPeriodicTask();
+        assertTrue(watchTask != null);
+
+        // The first check scans, as the directory may have changed before it was watched
+        ts.controller.addCompositeSuccessResponse(1);
+        watchTask.run();
+        assertTrue(war.exists());
+        assertFalse(dodeploy.exists());
+        assertTrue(deployed.exists());
+
+        // Changes are scanned once the watch service has reported them and they have settled. How soon the events
+        // are reported depends on the file system, so check as the scheduled task would until a generous deadline
+        File war2 = createFile("bar.war");
+        File dodeploy2 = createFile("bar.war" + FileSystemDeploymentService.DO_DEPLOY);
+        File deployed2 = new File(tmpDir, "bar.war" + FileSystemDeploymentService.DEPLOYED);
+        ts.controller.addCompositeSuccessResponse(1);
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(60);
+        while (!deployed2.exists()) {
+            assertTrue("bar.war was not deployed", System.currentTimeMillis() < deadline);
+            Thread.sleep(FileSystemDeploymentService.WATCH_CHECK_INTERVAL);
+            watchTask.run();
+        }
+        assertTrue(war2.exists());
+        assertFalse(dodeploy2.exists());
+        assertTrue(deployed2.exists());
+        ts.testee.stopScanner();
+    }
+
+    @BMRule(name = "Test watch service failure",
+            targetClass = "FileSystem",
+            targetMethod = "newWatchService",
+            targetLocation = "AT ENTRY",
+            isOverriding = true,
+            action = "throw new java.io.IOException(\"Thanks Byteman\")"
+    )
+    @Test
+    public void testWatchModeFallsBackToPolling() throws Exception {
+        CapturingTaskExecutor myExecutor = new CapturingTaskExecutor();
+        MockServerController sc = new MockServerController(myExecutor);
+        TesteeSet ts = createTestee(sc, myExecutor);
+        ts.testee.setScanInterval(5000);
+        ts.testee.setScanMode(ScanMode.WATCH);
+        Runnable pollTask = myExecutor.getPeriodicTask();
+        assertTrue(pollTask != null);
+
+        // Polling scans on every run, without waiting for changes to settle
+        File war = createFile("foo.war");
+        File dodeploy = createFile("foo.war" + FileSystemDeploymentService.DO_DEPLOY);
+        File deployed = new File(tmpDir, "foo.war" + FileSystemDeploymentService.DEPLOYED);
+        ts.controller.addCompositeSuccessResponse(1);
+        pollTask.run();
+        assertTrue(war.exists());
+        assertFalse(dodeploy.exists());
+        assertTrue(deployed.exists());
+        ts.testee.stopScanner();
+    }
+
     @Test
     public void testArchivePatterns() throws Exception {
         Pattern pattern = FileSystemDeploymentService.ARCHIVE_PATTERN;
@@ -2267,6 +2333,26 @@ public class FileSystemDeploymentServiceUnitTestCase {
         }
     }
 
+    /** Holds on to the task scheduled with a fixed delay instead of running it */
+    private static class CapturingTaskExecutor extends DiscardTaskExecutor {
+
+        private volatile Runnable periodicTask;
+
+        private CapturingTaskExecutor() {
+            super(true);
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+            periodicTask = command;
+            return null;
+        }
+
+        Runnable getPeriodicTask() {
+            return periodicTask;
+        }
+    }
+
     private static class CallOnGetFuture<T> implements AsyncFuture<T> {
         final Callable<T> callable;
 
@@ -35,10 +35,12 @@ import io.undertow.util.Methods;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.concurrent.Executor;
 
 import org.jboss.as.controller.ControlledProcessState;
 import org.jboss.as.controller.ControlledProcessStateService;
 import org.jboss.as.controller.ModelController;
+import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.domain.http.server.cors.CorsUtil;
 import org.jboss.as.domain.http.server.security.SubjectDoAsHandler;
 
@@ -59,11 +61,15 @@ class DomainApiCheckHandler implements HttpHandler {
     private final Collection<String> allowedOrigins = new ArrayList<String>();
 
 
-    DomainApiCheckHandler(final ModelController modelController, final ControlledProcessStateService controlledProcessStateService, final Collection<String> allowedOrigins) {
+    DomainApiCheckHandler(final ModelController modelController, final ControlledProcessStateService controlledProcessStateService, final Collection<String> allowedOrigins,
+                          final Executor managementExecutor, final Executor readOnlyExecutor,
+                          final ImmutableManagementResourceRegistration rootRegistration) {
         this.controlledProcessStateService = controlledProcessStateService;
-        domainApiHandler = new BlockingHandler(new SubjectDoAsHandler(new EncodingHandler.Builder().build(Collections.<String,Object>emptyMap()).wrap(new DomainApiHandler(modelController))));
-        addContentHandler = new BlockingHandler(new SubjectDoAsHandler(new DomainApiUploadHandler(modelController)));
-        genericOperationHandler = new BlockingHandler(new SubjectDoAsHandler(new EncodingHandler.Builder().build(Collections.<String,Object>emptyMap()).wrap(new DomainApiGenericOperationHandler(modelController))));
+        // The domain API handler parses requests in an IO worker and dispatches them to the executor for their kind
+        // of operation. Uploads and generic operations are handled in the management executor altogether.
+        domainApiHandler = new BlockingHandler(new SubjectDoAsHandler(new EncodingHandler.Builder().build(Collections.<String,Object>emptyMap()).wrap(new DomainApiHandler(modelController, managementExecutor, readOnlyExecutor, rootRegistration))));
+        addContentHandler = InExecutorHandler.wrap(managementExecutor, new BlockingHandler(new SubjectDoAsHandler(new DomainApiUploadHandler(modelController))));
+        genericOperationHandler = InExecutorHandler.wrap(managementExecutor, new BlockingHandler(new SubjectDoAsHandler(new EncodingHandler.Builder().build(Collections.<String,Object>emptyMap()).wrap(new DomainApiGenericOperationHandler(modelController)))));
         if (allowedOrigins != null) {
             for (String allowedOrigin : allowedOrigins) {
                 this.allowedOrigins.add(CorsUtil.sanitizeDefaultPort(allowedOrigin));
@@ -54,6 +54,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.Executor;
 
 import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
@@ -69,8 +70,11 @@ import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.client.OperationBuilder;
 import org.jboss.as.controller.client.OperationMessageHandler;
 import org.jboss.as.controller.client.OperationResponse;
+import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
+import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.core.security.AccessMechanism;
 import org.jboss.as.domain.http.server.logging.HttpServerLogger;
+import org.jboss.as.domain.http.server.security.SubjectDoAsHandler;
 import org.jboss.as.protocol.StreamUtils;
 import org.jboss.dmr.ModelNode;
 import org.xnio.IoUtils;
@@ -120,16 +124,22 @@ class DomainApiHandler implements HttpHandler {
     }
 
     private final ModelController modelController;
+    private final Executor managementExecutor;
+    private final Executor readOnlyExecutor;
+    private final ImmutableManagementResourceRegistration rootRegistration;
 
-    DomainApiHandler(ModelController modelController) {
+    DomainApiHandler(ModelController modelController, Executor managementExecutor, Executor readOnlyExecutor,
+                     ImmutableManagementResourceRegistration rootRegistration) {
         this.modelController = modelController;
+        this.managementExecutor = managementExecutor;
+        this.readOnlyExecutor = readOnlyExecutor;
+        this.rootRegistration = rootRegistration;
     }
 
     @Override
     public void handleRequest(final HttpServerExchange exchange) {
 
         final ModelNode dmr;
-        final OperationResponse response;
 
         final HeaderMap requestHeaders = exchange.getRequestHeaders();
         final boolean cachable;
@@ -163,6 +173,20 @@ class DomainApiHandler implements HttpHandler {
             return;
         }
 
+        // The request is parsed by an IO worker, but executed by the management executor for its kind of operation,
+        // so that slow operations do not hold up cheap reads. GET requests are always read-only.
+        final Executor executor = get || isReadOnly(rootRegistration, dmr) ? readOnlyExecutor : managementExecutor;
+        exchange.dispatch(executor, new SubjectDoAsHandler(new HttpHandler() {
+            @Override
+            public void handleRequest(HttpServerExchange exchange) {
+                executeOperation(exchange, dmr, cachable, encode, streamIndex, operationParameterBuilder);
+            }
+        }));
+    }
+
+    private void executeOperation(final HttpServerExchange exchange, final ModelNode dmr, final boolean cachable, final boolean encode,
+                                  final int streamIndex, final OperationParameter.Builder operationParameterBuilder) {
+        final OperationResponse response;
         final ResponseCallback callback = new ResponseCallback() {
             @Override
             void doSendResponse(final OperationResponse response) {
@@ -356,6 +380,29 @@ class DomainApiHandler implements HttpHandler {
         }
     }
 
+    /**
+     * Determine whether an operation only reads the model, according to the {@link OperationEntry.Flag#READ_ONLY}
+     * flag of its registration. Such operations are executed by the read-only executor.
+     *
+     * @param rootRegistration the root resource registration, or {@code null} if it is not available
+     * @param operation the operation to be executed
+     * @return {@code true} if the operation is known to be read-only, {@code false} otherwise
+     */
+    static boolean isReadOnly(final ImmutableManagementResourceRegistration rootRegistration, final ModelNode operation) {
+        if (rootRegistration == null || !operation.hasDefined(OP)) {
+            return false;
+        }
+        final PathAddress address;
+        try {
+            address = PathAddress.pathAddress(operation.get(OP_ADDR));
+        } catch (IllegalArgumentException e) {
+            // Invalid address; let the controller report it
+            return false;
+        }
+        final OperationEntry entry = rootRegistration.getOperationEntry(address, operation.get(OP).asString());
+        return entry != null && entry.getFlags().contains(OperationEntry.Flag.READ_ONLY);
+    }
+
     /**
      * Determine whether the prepared response should be sent, before the operation completed. This is needed in order
      * that operations like :reload() can be executed without causing communication failures.
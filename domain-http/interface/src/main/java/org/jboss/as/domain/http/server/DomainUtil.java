@@ -25,11 +25,17 @@ import static io.undertow.util.Headers.HOST;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
 
 import java.io.BufferedOutputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
 import io.undertow.io.IoCallback;
 import io.undertow.io.Sender;
@@ -38,6 +44,7 @@ import io.undertow.util.HeaderMap;
 import io.undertow.util.HeaderValues;
 import io.undertow.util.Headers;
 import org.jboss.as.controller.client.OperationResponse;
+import org.jboss.as.domain.http.server.logging.HttpServerLogger;
 import org.jboss.dmr.ModelNode;
 import org.xnio.IoUtils;
 
@@ -48,6 +55,9 @@ import org.xnio.IoUtils;
  */
 public class DomainUtil {
 
+    private static final String GZIP = "gzip";
+    private static final int BUFFER_SIZE = 8 * 1024;
+
     public static void writeResponse(final HttpServerExchange exchange, final int status, ModelNode response,
             OperationParameter operationParameter) {
 
@@ -64,13 +74,101 @@ public class DomainUtil {
             // is not send as part of the response but expressed with the HTTP status code.
             response = response.get(RESULT);
         }
+        // The response is streamed, so its length is unknown and it is sent with chunked transfer encoding
+        final boolean gzip = acceptsGzip(exchange.getRequestHeaders().get(Headers.ACCEPT_ENCODING));
+        if (gzip) {
+            responseHeaders.put(Headers.CONTENT_ENCODING, GZIP);
+        }
+        responseHeaders.add(Headers.VARY, Headers.ACCEPT_ENCODING_STRING);
+
+        final ModelNode body = response;
+        final Runnable writeTask = new Runnable() {
+            @Override
+            public void run() {
+                writeResponseBody(exchange, body, operationParameter, gzip);
+            }
+        };
+        if (exchange.isInIoThread()) {
+            exchange.dispatch(writeTask);
+        } else {
+            writeTask.run();
+        }
+    }
+
+    /**
+     * Serializes the model node directly into the response, rather than into a string or byte array first.
+     */
+    private static void writeResponseBody(final HttpServerExchange exchange, final ModelNode modelNode,
+            final OperationParameter operationParameter, final boolean gzip) {
+        exchange.startBlocking();
+        OutputStream out = exchange.getOutputStream();
         try {
-            byte[] data = getResponseBytes(response, operationParameter);
-            responseHeaders.put(Headers.CONTENT_LENGTH, data.length);
-            exchange.getResponseSender().send(ByteBuffer.wrap(data));
+            if (gzip) {
+                out = new GZIPOutputStream(out, BUFFER_SIZE);
+            }
+            if (operationParameter.isEncode()) {
+                final BufferedOutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+                modelNode.writeBase64(buffered);
+                buffered.flush();
+            } else {
+                final PrintWriter print = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE));
+                modelNode.writeJSONString(print, !operationParameter.isPretty());
+                print.flush();
+                if (print.checkError()) {
+                    throw new IOException();
+                }
+            }
+            // Closing the stream completes the chunked response
+            out.close();
         } catch (IOException e) {
-            throw new RuntimeException(e);
+            HttpServerLogger.ROOT_LOGGER.responseWriteError(e);
+            if (!exchange.isResponseStarted()) {
+                exchange.setStatusCode(500);
+            }
+            IoUtils.safeClose(out);
+        }
+    }
+
+    /**
+     * Whether the values of an {@code Accept-Encoding} header allow a gzip encoded response, either by naming gzip
+     * or through the {@code *} wildcard. Only a quality value of 0 rules a coding out.
+     *
+     * @param values the header values, or {@code null} if there is no such header
+     * @return {@code true} if the response may be gzip encoded
+     */
+    static boolean acceptsGzip(final Collection<String> values) {
+        if (values == null) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String value : values) {
+            for (String coding : value.split(",")) {
+                final String[] parts = coding.split(";");
+                final String name = parts[0].trim();
+                if (GZIP.equalsIgnoreCase(name)) {
+                    // Named explicitly, which takes precedence over the wildcard
+                    return !isZeroQuality(parts);
+                } else if ("*".equals(name)) {
+                    wildcard = !isZeroQuality(parts);
+                }
+            }
+        }
+        return wildcard;
+    }
+
+    private static boolean isZeroQuality(final String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            final String parameter = parts[i].replace(" ", "").toLowerCase(Locale.ENGLISH);
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Float.parseFloat(parameter.substring(2)) <= 0;
+                } catch (NumberFormatException e) {
+                    // Not a valid quality value, don't rely on it
+                    return true;
+                }
+            }
         }
+        return false;
     }
 
     static void writeResponse(final HttpServerExchange exchange,
@@ -118,6 +216,7 @@ public class DomainUtil {
 
             @Override
             public void onException(HttpServerExchange exchange, Sender sender, IOException exception) {
+                HttpServerLogger.ROOT_LOGGER.responseWriteError(exception);
                 IoUtils.safeClose(operationResponse);
                 if (!exchange.isResponseStarted()) {
                     exchange.setStatusCode(500);
@@ -155,19 +254,6 @@ public class DomainUtil {
         return "application/octet-stream";
     }
 
-    private static byte[] getResponseBytes(final ModelNode modelNode, final OperationParameter operationParameter) throws IOException {
-        if (operationParameter.isEncode()) {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            BufferedOutputStream out = new BufferedOutputStream(baos);
-            modelNode.writeBase64(out);
-            out.flush();
-            return baos.toByteArray();
-        } else {
-            String json = modelNode.toJSONString(!operationParameter.isPretty());
-            return json.getBytes(StandardCharsets.UTF_8);
-        }
-    }
-
     public static void writeCacheHeaders(final HttpServerExchange exchange, final int status, final OperationParameter operationParameter) {
         final HeaderMap responseHeaders = exchange.getResponseHeaders();
 
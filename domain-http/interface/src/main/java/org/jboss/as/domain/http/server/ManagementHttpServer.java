@@ -70,6 +70,7 @@ import io.undertow.server.protocol.http.HttpOpenListener;
 import io.undertow.util.Headers;
 import org.jboss.as.controller.ControlledProcessStateService;
 import org.jboss.as.controller.ModelController;
+import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.domain.http.server.cors.CorsHttpHandler;
 import org.jboss.as.domain.http.server.logging.HttpServerLogger;
 import org.jboss.as.domain.http.server.security.AnonymousMechanism;
@@ -162,6 +163,25 @@ public class ManagementHttpServer {
                                               ModelController modelController, SecurityRealm securityRealm, ControlledProcessStateService controlledProcessStateService,
                                               ConsoleMode consoleMode, String consoleSlot, final ChannelUpgradeHandler upgradeHandler,
                                               ManagementHttpRequestProcessor managementHttpRequestProcessor, Collection<String> allowedOrigins, XnioWorker worker, Executor managementExecutor) throws IOException, StartException {
+        return create(bindAddress, secureBindAddress, backlog, modelController, securityRealm, controlledProcessStateService, consoleMode,
+                consoleSlot, upgradeHandler, managementHttpRequestProcessor, allowedOrigins, worker, managementExecutor, managementExecutor);
+    }
+
+    public static ManagementHttpServer create(InetSocketAddress bindAddress, InetSocketAddress secureBindAddress, int backlog,
+                                              ModelController modelController, SecurityRealm securityRealm, ControlledProcessStateService controlledProcessStateService,
+                                              ConsoleMode consoleMode, String consoleSlot, final ChannelUpgradeHandler upgradeHandler,
+                                              ManagementHttpRequestProcessor managementHttpRequestProcessor, Collection<String> allowedOrigins, XnioWorker worker,
+                                              Executor managementExecutor, Executor readOnlyExecutor) throws IOException, StartException {
+        return create(bindAddress, secureBindAddress, backlog, modelController, securityRealm, controlledProcessStateService, consoleMode,
+                consoleSlot, upgradeHandler, managementHttpRequestProcessor, allowedOrigins, worker, managementExecutor, readOnlyExecutor, null);
+    }
+
+    public static ManagementHttpServer create(InetSocketAddress bindAddress, InetSocketAddress secureBindAddress, int backlog,
+                                              ModelController modelController, SecurityRealm securityRealm, ControlledProcessStateService controlledProcessStateService,
+                                              ConsoleMode consoleMode, String consoleSlot, final ChannelUpgradeHandler upgradeHandler,
+                                              ManagementHttpRequestProcessor managementHttpRequestProcessor, Collection<String> allowedOrigins, XnioWorker worker,
+                                              Executor managementExecutor, Executor readOnlyExecutor,
+                                              ImmutableManagementResourceRegistration rootRegistration) throws IOException, StartException {
 
         SSLContext sslContext = null;
         SslClientAuthMode sslClientAuthMode = null;
@@ -193,7 +213,8 @@ public class ManagementHttpServer {
         }
 
         setupOpenListener(openListener, modelController, consoleMode, consoleSlot, controlledProcessStateService,
-                secureRedirectPort, securityRealm, upgradeHandler, managementHttpRequestProcessor, allowedOrigins, managementExecutor);
+                secureRedirectPort, securityRealm, upgradeHandler, managementHttpRequestProcessor, allowedOrigins, managementExecutor, readOnlyExecutor,
+                rootRegistration);
         return new ManagementHttpServer(openListener, bindAddress, secureBindAddress, sslContext, sslClientAuthMode, worker);
     }
 
@@ -202,7 +223,8 @@ public class ManagementHttpServer {
                                           String consoleSlot, ControlledProcessStateService controlledProcessStateService,
                                           int secureRedirectPort, SecurityRealm securityRealm,
                                           final ChannelUpgradeHandler upgradeHandler, final ManagementHttpRequestProcessor managementHttpRequestProcessor,
-                                          final Collection<String> allowedOrigins, Executor managementExecutor) {
+                                          final Collection<String> allowedOrigins, Executor managementExecutor, Executor readOnlyExecutor,
+                                          ImmutableManagementResourceRegistration rootRegistration) {
 
         CanonicalPathHandler canonicalPathHandler = new CanonicalPathHandler();
         ManagementHttpRequestHandler managementHttpRequestHandler = new ManagementHttpRequestHandler(managementHttpRequestProcessor, canonicalPathHandler);
@@ -240,10 +262,8 @@ public class ManagementHttpServer {
         }
 
         ManagementRootConsoleRedirectHandler rootConsoleRedirectHandler = new ManagementRootConsoleRedirectHandler(consoleHandler);
-        HttpHandler domainApiHandler = InExecutorHandler.wrap(
-                managementExecutor,
-                new DomainApiCheckHandler(modelController, controlledProcessStateService, allowedOrigins)
-        );
+        HttpHandler domainApiHandler = new DomainApiCheckHandler(modelController, controlledProcessStateService, allowedOrigins,
+                managementExecutor, readOnlyExecutor, rootRegistration);
         pathHandler.addPrefixPath("/", rootConsoleRedirectHandler);
         if (consoleHandler != null) {
             HttpHandler readinessHandler = new RedirectReadinessHandler(securityRealm, consoleHandler.getHandler(),
@@ -94,4 +94,8 @@ public interface HttpServerLogger extends BasicLogger {
 
     @Message(id = 13, value = "Invalid useStreamIndex value '%d'. The operation response had %d streams attached.")
     String invalidUseStreamAsResponseIndex(int index, int available);
+
+    @LogMessage(level = WARN)
+    @Message(id = 14, value = "Failed writing the response to a management request")
+    void responseWriteError(@Cause Throwable cause);
 }
@@ -0,0 +1,119 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.domain.http.server;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ProcessType;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests which operations {@link DomainApiHandler} routes to the read-only executor.
+ */
+public class DomainApiHandlerTestCase {
+
+    private static final PathElement TEST_SUBSYSTEM = PathElement.pathElement(SUBSYSTEM, "test");
+    private static final OperationStepHandler NOOP = new OperationStepHandler() {
+        @Override
+        public void execute(OperationContext context, ModelNode operation) {
+        }
+    };
+
+    private static ManagementResourceRegistration rootRegistration;
+
+    @BeforeClass
+    public static void setupRegistration() {
+        rootRegistration = ManagementResourceRegistration.Factory.forProcessType(ProcessType.EMBEDDED_SERVER)
+                .createRegistration(new SimpleResourceDefinition(null, new NonResolvingResourceDescriptionResolver()));
+        registerOperation(rootRegistration, "check-config", true);
+        registerOperation(rootRegistration, "write-config", false);
+        final ManagementResourceRegistration subsystem = rootRegistration.registerSubModel(
+                new SimpleResourceDefinition(TEST_SUBSYSTEM, new NonResolvingResourceDescriptionResolver()));
+        registerOperation(subsystem, "list-state", true);
+        registerOperation(subsystem, "read-and-reset", false);
+    }
+
+    @Test
+    public void testReadOnlyFlag() {
+        Assert.assertTrue(DomainApiHandler.isReadOnly(rootRegistration, operation("check-config")));
+        Assert.assertFalse(DomainApiHandler.isReadOnly(rootRegistration, operation("write-config")));
+        Assert.assertTrue(DomainApiHandler.isReadOnly(rootRegistration, operation("list-state", TEST_SUBSYSTEM)));
+        // Not read-only just because of its name
+        Assert.assertFalse(DomainApiHandler.isReadOnly(rootRegistration, operation("read-and-reset", TEST_SUBSYSTEM)));
+    }
+
+    @Test
+    public void testInheritedOperation() {
+        rootRegistration.registerOperationHandler(new SimpleOperationDefinitionBuilder("inherited-check",
+                new NonResolvingResourceDescriptionResolver()).setReadOnly().build(), NOOP, true);
+        Assert.assertTrue(DomainApiHandler.isReadOnly(rootRegistration, operation("inherited-check", TEST_SUBSYSTEM)));
+    }
+
+    @Test
+    public void testUnknownOperation() {
+        Assert.assertFalse(DomainApiHandler.isReadOnly(rootRegistration, operation("read-resource")));
+        Assert.assertFalse(DomainApiHandler.isReadOnly(rootRegistration, operation("list-state")));
+        Assert.assertFalse(DomainApiHandler.isReadOnly(rootRegistration,
+                operation("check-config", PathElement.pathElement(SUBSYSTEM, "other"), PathElement.pathElement("type", "x"))));
+        Assert.assertFalse(DomainApiHandler.isReadOnly(rootRegistration, new ModelNode()));
+    }
+
+    @Test
+    public void testInvalidAddress() {
+        final ModelNode operation = operation("check-config");
+        operation.get(OP_ADDR).set("not-an-address");
+        Assert.assertFalse(DomainApiHandler.isReadOnly(rootRegistration, operation));
+    }
+
+    @Test
+    public void testNoRegistration() {
+        Assert.assertFalse(DomainApiHandler.isReadOnly(null, operation("check-config")));
+    }
+
+    private static void registerOperation(final ManagementResourceRegistration registration, final String name, final boolean readOnly) {
+        final SimpleOperationDefinitionBuilder builder = new SimpleOperationDefinitionBuilder(name, new NonResolvingResourceDescriptionResolver());
+        if (readOnly) {
+            builder.setReadOnly();
+        }
+        registration.registerOperationHandler(builder.build(), NOOP);
+    }
+
+    private static ModelNode operation(final String name, final PathElement... address) {
+        final ModelNode operation = new ModelNode();
+        operation.get(OP).set(name);
+        operation.get(OP_ADDR).set(PathAddress.pathAddress(address).toModelNode());
+        return operation;
+    }
+}
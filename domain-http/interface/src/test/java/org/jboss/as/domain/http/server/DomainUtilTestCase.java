@@ -0,0 +1,76 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.domain.http.server;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the parsing of the {@code Accept-Encoding} header by {@link DomainUtil}.
+ */
+public class DomainUtilTestCase {
+
+    @Test
+    public void testGzip() {
+        Assert.assertFalse(DomainUtil.acceptsGzip(null));
+        Assert.assertFalse(DomainUtil.acceptsGzip(Collections.<String>emptyList()));
+        Assert.assertTrue(acceptsGzip("gzip"));
+        Assert.assertTrue(acceptsGzip("deflate, gzip;q=0.5"));
+        Assert.assertFalse(acceptsGzip("deflate, identity"));
+        Assert.assertTrue(DomainUtil.acceptsGzip(Arrays.asList("deflate", "gzip")));
+    }
+
+    @Test
+    public void testZeroQuality() {
+        Assert.assertFalse(acceptsGzip("gzip;q=0"));
+        Assert.assertFalse(acceptsGzip("gzip; q=0.000"));
+        Assert.assertFalse(acceptsGzip("deflate, gzip ; q = 0.0"));
+        Assert.assertTrue(acceptsGzip("gzip;q=0.001"));
+        Assert.assertFalse(acceptsGzip("gzip;q=invalid"));
+    }
+
+    @Test
+    public void testWildcard() {
+        Assert.assertTrue(acceptsGzip("*"));
+        Assert.assertTrue(acceptsGzip("deflate, *;q=0.1"));
+        Assert.assertFalse(acceptsGzip("*;q=0"));
+        // An explicit gzip coding takes precedence over the wildcard
+        Assert.assertFalse(acceptsGzip("gzip;q=0, *"));
+        Assert.assertFalse(acceptsGzip("*, gzip;q=0"));
+        Assert.assertTrue(acceptsGzip("*;q=0, gzip"));
+    }
+
+    @Test
+    public void testMixedCase() {
+        Assert.assertTrue(acceptsGzip("GZip"));
+        Assert.assertTrue(acceptsGzip("GZIP;Q=1"));
+        Assert.assertFalse(acceptsGzip("Gzip;Q=0"));
+        Assert.assertFalse(acceptsGzip("*;Q=0"));
+    }
+
+    private static boolean acceptsGzip(final String header) {
+        return DomainUtil.acceptsGzip(Collections.singletonList(header));
+    }
+}
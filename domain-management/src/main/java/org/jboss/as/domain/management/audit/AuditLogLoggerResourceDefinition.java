@@ -25,6 +25,7 @@ package org.jboss.as.domain.management.audit;
 import java.util.Arrays;
 import java.util.List;
 
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.AbstractWriteAttributeHandler;
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.ModelOnlyWriteAttributeHandler;
@@ -74,6 +75,16 @@ public class AuditLogLoggerResourceDefinition extends SimpleResourceDefinition {
 
     static final List<SimpleAttributeDefinition> ATTRIBUTE_DEFINITIONS = Arrays.asList(LOG_BOOT, LOG_READ_ONLY, ENABLED);
 
+    public static final SimpleAttributeDefinition QUEUE_DEPTH = new SimpleAttributeDefinitionBuilder(ModelDescriptionConstants.QUEUE_DEPTH, ModelType.INT)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition DROPPED_ITEMS = new SimpleAttributeDefinitionBuilder(ModelDescriptionConstants.DROPPED_ITEMS, ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    private static final AttributeDefinition[] RUNTIME_ATTRIBUTES = new AttributeDefinition[] {QUEUE_DEPTH, DROPPED_ITEMS};
+
     private final boolean executeRuntime;
     private final ManagedAuditLogger auditLogger;
 
@@ -101,6 +112,13 @@ public class AuditLogLoggerResourceDefinition extends SimpleResourceDefinition {
 
         resourceRegistration.registerReadWriteAttribute(LOG_READ_ONLY, null, new AuditLogReadOnlyWriteAttributeHandler(auditLogger));
         resourceRegistration.registerReadWriteAttribute(ENABLED, null, new AuditLogEnabledWriteAttributeHandler(auditLogger, executeRuntime));
+
+        if (executeRuntime) {
+            //The queue is only used by the audit logger of this process, not by the one configured for the managed servers
+            for (AttributeDefinition def : RUNTIME_ATTRIBUTES) {
+                resourceRegistration.registerMetric(def, new AuditLogRuntimeAttributeHandler(auditLogger));
+            }
+        }
     }
 
     @Override
@@ -222,6 +240,24 @@ public class AuditLogLoggerResourceDefinition extends SimpleResourceDefinition {
         }
     }
 
+    private static class AuditLogRuntimeAttributeHandler extends AbstractRuntimeOnlyHandler {
+        private final ManagedAuditLogger auditLogger;
+
+        AuditLogRuntimeAttributeHandler(ManagedAuditLogger auditLogger) {
+            this.auditLogger = auditLogger;
+        }
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            String attr = operation.require(ModelDescriptionConstants.NAME).asString();
+            if (attr.equals(QUEUE_DEPTH.getName())) {
+                context.getResult().set(auditLogger.getQueueDepth());
+            } else if (attr.equals(DROPPED_ITEMS.getName())) {
+                context.getResult().set(auditLogger.getDroppedItemCount());
+            }
+        }
+    }
+
     private static class AuditLogEnabledWriteAttributeHandler extends AbstractWriteAttributeHandler<ManagedAuditLogger.Status> {
 
         private final ManagedAuditLogger auditLogger;
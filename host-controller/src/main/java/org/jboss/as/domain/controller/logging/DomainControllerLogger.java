@@ -768,4 +768,36 @@ public interface DomainControllerLogger extends BasicLogger {
     @LogMessage(level = Level.INFO)
     @Message(id = 83, value = "Timed out after %d ms awaiting final response from server %s on host %s; remote process has been notified to cancel operation")
     void timedOutAwaitingFinalResponse(int patient, String serverName, String hostName);
+
+    @LogMessage(level = Level.WARN)
+    @Message(id = 84, value = "The domain controller left out the resource %s, which the local domain model no longer matches; it will be requested in full")
+    void unchangedDomainResourceMismatch(String address);
+
+    @Message(id = 85, value = "Server group %s: %d of %d servers prepared (%d failed), %d in progress")
+    String serverGroupRolloutProgress(String serverGroupName, int prepared, int total, int failed, int inProgress);
+
+    /**
+     * A message indicating an invalid rollout plan. The server group, represented by the {@code name} parameter, has an
+     * invalid value and must be greater than 0.
+     *
+     * @param name         the name of the group.
+     * @param propertyName the name of the property.
+     * @param value        the invalid value.
+     *
+     * @return the message.
+     */
+    @Message(id = 86, value = "Invalid rollout plan. Server group %s has a %s value of %s; must be greater than 0.")
+    String invalidRolloutPlanNotPositive(String name, String propertyName, int value);
+
+    /**
+     * A message indicating an invalid rollout plan. The server group, represented by the {@code name} parameter, sets
+     * a concurrency window and also rolls out to its servers one at a time.
+     *
+     * @param name         the name of the group.
+     * @param rolling      the name of the property that makes the rollout go one server at a time.
+     *
+     * @return the message.
+     */
+    @Message(id = 87, value = "Invalid rollout plan. Server group %s sets a concurrency window, which cannot be combined with %s set to true.")
+    String invalidRolloutPlanRollingWindow(String name, String rolling);
 }
@@ -0,0 +1,349 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.controller.ModelVersion;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.dmr.Property;
+
+/**
+ * Digest of the domain model of a slave host controller, which the slave sends along with its host info when
+ * registering with the domain controller, so that the domain controller can leave out the parts of the domain model
+ * the slave already has.
+ * <p>
+ * The digest consists of a hash of each resource subtree in the top {@link #DEPTH} levels of the domain model. The
+ * hash of a subtree covers the address, model and ordered child types of each resource in it, i.e. what
+ * {@link ReadMasterDomainModelUtil} describes. Models are hashed independent of the order of their keys, and children
+ * independent of their order unless they are of an ordered child type.
+ * </p>
+ * <p>
+ * The digest carries a {@link #VERSION version}. A domain controller that does not support the version of the
+ * digest, or that does not know about digests at all, sends the whole domain model as before.
+ * </p>
+ * <p>
+ * The domain controller keeps the hashes of its own subtrees in a {@link HashCache}, so that they are not computed
+ * again for each slave that registers.
+ * </p>
+ */
+public final class DomainModelDigest {
+
+    /** The key of the digest in the host info */
+    public static final String DOMAIN_MODEL_DIGEST = "domain-model-digest";
+
+    static final int VERSION = 1;
+    /** The number of levels of the domain model for which subtree hashes are included */
+    static final int DEPTH = 2;
+
+    private static final String DIGEST_VERSION = "digest-version";
+    private static final String RESOURCES = "resources";
+    private static final String ALGORITHM = "SHA-256";
+
+    private final ModelNode resources;
+
+    private DomainModelDigest(final ModelNode resources) {
+        this.resources = resources;
+    }
+
+    /**
+     * Creates the digest of a domain model.
+     *
+     * @param domainRoot the root resource of the domain model
+     * @return the digest, or an undefined node if the domain model has no resources to digest
+     */
+    public static ModelNode create(final Resource domainRoot) {
+        return create(domainRoot, Collections.<PathAddress>emptySet());
+    }
+
+    /**
+     * Creates the digest of a domain model, leaving out the given subtrees so that the domain controller sends them
+     * in full.
+     *
+     * @param domainRoot the root resource of the domain model
+     * @param excluded the addresses of the subtrees to leave out
+     * @return the digest, or an undefined node if the domain model has no resources to digest
+     */
+    public static ModelNode create(final Resource domainRoot, final Set<PathAddress> excluded) {
+        final ModelNode resources = new ModelNode();
+        addDigests(PathAddress.EMPTY_ADDRESS, domainRoot, excluded, resources);
+        final ModelNode digest = new ModelNode();
+        if (resources.isDefined()) {
+            digest.get(DIGEST_VERSION).set(VERSION);
+            digest.get(RESOURCES).set(resources);
+        }
+        return digest;
+    }
+
+    /**
+     * Reads a digest sent by a slave host controller.
+     *
+     * @param digest the digest. May be {@code null}
+     * @return the digest, or {@code null} if there is none or it has a version that is not supported
+     */
+    static DomainModelDigest read(final ModelNode digest) {
+        if (digest == null || !digest.hasDefined(DIGEST_VERSION) || digest.get(DIGEST_VERSION).asInt() != VERSION
+                || !digest.hasDefined(RESOURCES)) {
+            return null;
+        }
+        return new DomainModelDigest(digest.get(RESOURCES));
+    }
+
+    /**
+     * Gets whether the slave has the same subtree as the given one.
+     *
+     * @param address the address of the subtree
+     * @param resource the resource at the root of the subtree
+     * @param cache the cache of the domain controller's hashes
+     * @param version the management model version the subtree was transformed for, or {@code null} if the hash
+     *                should not be cached
+     * @return the hash of the subtree if the slave has the same subtree, {@code null} otherwise
+     */
+    String getUnchangedHash(final PathAddress address, final Resource resource, final HashCache cache, final ModelVersion version) {
+        if (address.size() == 0 || address.size() > DEPTH) {
+            return null;
+        }
+        final String key = address.toCLIStyleString();
+        if (!resources.hasDefined(key)) {
+            return null;
+        }
+        final String hash = version == null ? hash(address, resource) : cache.hash(version, address, resource);
+        return hash.equals(resources.get(key).asString()) ? hash : null;
+    }
+
+    /**
+     * Computes the hash of a subtree of the domain model.
+     *
+     * @param address the address of the subtree
+     * @param resource the resource at the root of the subtree
+     * @return the hash, as a hex string
+     */
+    static String hash(final PathAddress address, final Resource resource) {
+        final MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (DataOutputStream out = new DataOutputStream(new DigestOutputStream(new NullOutputStream(), messageDigest))) {
+            writeString(out, address.toCLIStyleString());
+            writeSubtree(out, address, resource);
+        } catch (IOException e) {
+            // Not thrown by the null output stream
+            throw new IllegalStateException(e);
+        }
+        return HashUtil.bytesToHexString(messageDigest.digest());
+    }
+
+    static boolean isDescribed(final PathAddress address, final Resource resource) {
+        return !resource.isProxy() && !resource.isRuntime()
+                && (address.size() == 0 || !address.getElement(0).getKey().equals(HOST));
+    }
+
+    private static void addDigests(final PathAddress address, final Resource resource, final Set<PathAddress> excluded,
+                                   final ModelNode resources) {
+        for (String childType : resource.getChildTypes()) {
+            for (Resource.ResourceEntry entry : resource.getChildren(childType)) {
+                final PathAddress childAddress = address.append(entry.getPathElement());
+                if (isDescribed(childAddress, entry) && !excluded.contains(childAddress)) {
+                    resources.get(childAddress.toCLIStyleString()).set(hash(childAddress, entry));
+                    if (childAddress.size() < DEPTH) {
+                        addDigests(childAddress, entry, excluded, resources);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void writeSubtree(final DataOutputStream out, final PathAddress address, final Resource resource) throws IOException {
+        writeModel(out, resource.getModel());
+        final Set<String> orderedChildTypes = resource.getOrderedChildTypes();
+        for (String type : new TreeSet<>(orderedChildTypes)) {
+            writeString(out, type);
+        }
+        for (String type : new TreeSet<>(resource.getChildTypes())) {
+            final List<Resource.ResourceEntry> children = new ArrayList<>(resource.getChildren(type));
+            if (!orderedChildTypes.contains(type)) {
+                Collections.sort(children, (a, b) -> a.getName().compareTo(b.getName()));
+            }
+            for (Resource.ResourceEntry child : children) {
+                final PathElement element = child.getPathElement();
+                final PathAddress childAddress = address.append(element);
+                if (isDescribed(childAddress, child)) {
+                    out.writeByte('/');
+                    writeString(out, element.getKey());
+                    writeString(out, element.getValue());
+                    writeSubtree(out, childAddress, child);
+                    out.writeByte('.');
+                }
+            }
+        }
+    }
+
+    private static void writeModel(final DataOutputStream out, final ModelNode model) throws IOException {
+        final ModelType type = model.getType();
+        writeString(out, type.name());
+        switch (type) {
+            case UNDEFINED:
+                break;
+            case OBJECT:
+                final Set<String> keys = new TreeSet<>(model.keys());
+                out.writeInt(keys.size());
+                for (String key : keys) {
+                    writeString(out, key);
+                    writeModel(out, model.get(key));
+                }
+                break;
+            case LIST:
+                final List<ModelNode> list = model.asList();
+                out.writeInt(list.size());
+                for (ModelNode element : list) {
+                    writeModel(out, element);
+                }
+                break;
+            case PROPERTY:
+                final Property property = model.asProperty();
+                writeString(out, property.getName());
+                writeModel(out, property.getValue());
+                break;
+            default:
+                writeString(out, model.asString());
+        }
+    }
+
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Whether two subtrees are the same, as far as their hashes are concerned. Resources which are not described
+     * must be present in both subtrees, but their content is not compared.
+     */
+    private static boolean isSameSubtree(final PathAddress address, final Resource one, final Resource two) {
+        if (!one.getModel().equals(two.getModel()) || !one.getChildTypes().equals(two.getChildTypes())) {
+            return false;
+        }
+        final Set<String> orderedChildTypes = one.getOrderedChildTypes();
+        if (!orderedChildTypes.equals(two.getOrderedChildTypes())) {
+            return false;
+        }
+        for (String type : one.getChildTypes()) {
+            final Set<String> names = one.getChildrenNames(type);
+            if (orderedChildTypes.contains(type)
+                    ? !new ArrayList<>(names).equals(new ArrayList<>(two.getChildrenNames(type)))
+                    : !names.equals(two.getChildrenNames(type))) {
+                return false;
+            }
+            for (String name : names) {
+                final PathElement element = PathElement.pathElement(type, name);
+                final PathAddress childAddress = address.append(element);
+                final Resource child = one.getChild(element);
+                final Resource other = two.getChild(element);
+                final boolean described = isDescribed(childAddress, child);
+                if (described != isDescribed(childAddress, other)
+                        || (described && !isSameSubtree(childAddress, child, other))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hashes of the domain controller's subtrees, per management model version of the slaves the domain model was
+     * transformed for. A hash is used for as long as the subtree it was computed for is unchanged, which is much
+     * cheaper to check than computing the hash again.
+     */
+    static final class HashCache {
+
+        private final Map<ModelVersion, Map<PathAddress, HashedSubtree>> hashes = new ConcurrentHashMap<>();
+
+        /**
+         * Gets the hash of a subtree, computing it if the cached one is missing or out of date.
+         *
+         * @param version the management model version the subtree was transformed for
+         * @param address the address of the subtree
+         * @param resource the resource at the root of the subtree. Must not be modified afterwards
+         * @return the hash, as a hex string
+         */
+        String hash(final ModelVersion version, final PathAddress address, final Resource resource) {
+            Map<PathAddress, HashedSubtree> versionHashes = hashes.get(version);
+            if (versionHashes == null) {
+                versionHashes = new ConcurrentHashMap<>();
+                final Map<PathAddress, HashedSubtree> existing = hashes.putIfAbsent(version, versionHashes);
+                if (existing != null) {
+                    versionHashes = existing;
+                }
+            }
+            final HashedSubtree cached = versionHashes.get(address);
+            if (cached != null && isSameSubtree(address, cached.resource, resource)) {
+                return cached.hash;
+            }
+            final String hash = DomainModelDigest.hash(address, resource);
+            versionHashes.put(address, new HashedSubtree(resource, hash));
+            return hash;
+        }
+    }
+
+    private static final class HashedSubtree {
+        private final Resource resource;
+        private final String hash;
+
+        private HashedSubtree(final Resource resource, final String hash) {
+            this.resource = resource;
+            this.hash = hash;
+        }
+    }
+
+    private static final class NullOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
@@ -38,11 +38,18 @@ class ReadDomainModelHandler implements OperationStepHandler {
     private final Transformers transformers;
     private final Transformers.ResourceIgnoredTransformationRegistry ignoredTransformationRegistry;
     private final boolean lock;
+    private final ModelNode slaveDomainModelDigest;
 
     public ReadDomainModelHandler(final Transformers.ResourceIgnoredTransformationRegistry ignoredTransformationRegistry, final Transformers transformers, final boolean lock) {
+        this(ignoredTransformationRegistry, transformers, lock, null);
+    }
+
+    ReadDomainModelHandler(final Transformers.ResourceIgnoredTransformationRegistry ignoredTransformationRegistry, final Transformers transformers,
+                           final boolean lock, final ModelNode slaveDomainModelDigest) {
         this.transformers = transformers;
         this.ignoredTransformationRegistry = ignoredTransformationRegistry != null ? ignoredTransformationRegistry : Transformers.DEFAULT;
         this.lock = lock;
+        this.slaveDomainModelDigest = slaveDomainModelDigest;
     }
 
     public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
@@ -54,7 +61,7 @@ class ReadDomainModelHandler implements OperationStepHandler {
 
         final Transformers.TransformationInputs transformationInputs = new Transformers.TransformationInputs(context);
         final ReadMasterDomainModelUtil readUtil = ReadMasterDomainModelUtil.readMasterDomainResourcesForInitialConnect(transformers,
-                transformationInputs, ignoredTransformationRegistry, transformationInputs.getRootResource());
+                transformationInputs, ignoredTransformationRegistry, transformationInputs.getRootResource(), slaveDomainModelDigest);
         context.getResult().set(readUtil.getDescribedResources());
     }
 
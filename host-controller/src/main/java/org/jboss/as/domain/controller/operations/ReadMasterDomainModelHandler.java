@@ -65,16 +65,20 @@ public class ReadMasterDomainModelHandler implements OperationStepHandler {
         }
 
         final Transformers.ResourceIgnoredTransformationRegistry ignoredTransformationRegistry;
+        final ModelNode slaveDomainModelDigest;
         final Resource resource = context.readResourceFromRoot(PathAddress.EMPTY_ADDRESS);
         // The host info is only null in the tests
         if (hostInfo == null) {
             ignoredTransformationRegistry = Transformers.DEFAULT;
+            slaveDomainModelDigest = null;
         } else {
             final ReadMasterDomainModelUtil.RequiredConfigurationHolder rc = hostInfo.populateRequiredConfigurationHolder(resource, extensionRegistry);
             ignoredTransformationRegistry = ReadMasterDomainModelUtil.createHostIgnoredRegistry(hostInfo, rc);
+            // Leave out what the slave already has
+            slaveDomainModelDigest = hostInfo.getDomainModelDigest();
         }
 
-        final OperationStepHandler handler = new ReadDomainModelHandler(ignoredTransformationRegistry, transformers, lock);
+        final OperationStepHandler handler = new ReadDomainModelHandler(ignoredTransformationRegistry, transformers, lock, slaveDomainModelDigest);
         context.addStep(handler, OperationContext.Stage.MODEL);
     }
 
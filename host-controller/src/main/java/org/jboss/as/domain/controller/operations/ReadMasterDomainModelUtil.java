@@ -36,6 +36,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
+import org.jboss.as.controller.ModelVersion;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
@@ -43,7 +44,9 @@ import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.extension.ExtensionRegistry;
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.controller.transform.TransformationTarget;
 import org.jboss.as.controller.transform.Transformers;
+import org.jboss.as.domain.controller.logging.DomainControllerLogger;
 import org.jboss.as.host.controller.IgnoredNonAffectedServerGroupsUtil;
 import org.jboss.as.host.controller.mgmt.HostInfo;
 import org.jboss.dmr.ModelNode;
@@ -65,11 +68,31 @@ public class ReadMasterDomainModelUtil {
 
     public static final String ORDERED_CHILD_TYPES_PROPERTY = "ordered-child-types";
 
+    /**
+     * Key of the hash of a resource subtree which is left out of the described resources, as the slave host
+     * already has it
+     *
+     * @see DomainModelDigest
+     */
+    public static final String DOMAIN_RESOURCE_DIGEST = "domain-resource-digest";
+
+    private static final DomainModelDigest.HashCache MASTER_HASHES = new DomainModelDigest.HashCache();
+
     private final Set<PathElement> newRootResources = new HashSet<>();
 
     private volatile List<ModelNode> describedResources;
 
+    private final DomainModelDigest slaveDigest;
+
+    private final ModelVersion slaveVersion;
+
     private ReadMasterDomainModelUtil() {
+        this(null, null);
+    }
+
+    private ReadMasterDomainModelUtil(final DomainModelDigest slaveDigest, final ModelVersion slaveVersion) {
+        this.slaveDigest = slaveDigest;
+        this.slaveVersion = slaveVersion;
     }
 
     /**
@@ -85,9 +108,30 @@ public class ReadMasterDomainModelUtil {
                                                                                 final Transformers.TransformationInputs transformationInputs,
                                                                                 final Transformers.ResourceIgnoredTransformationRegistry ignoredTransformationRegistry,
                                                                                 final Resource domainRoot) throws OperationFailedException {
+        return readMasterDomainResourcesForInitialConnect(transformers, transformationInputs, ignoredTransformationRegistry, domainRoot, null);
+    }
+
+    /**
+     * Used to read the domain model when a slave host connects to the DC, leaving out the resource subtrees
+     * the slave already has
+     *
+     *  @param transformers the transformers for the host
+     *  @param transformationInputs parameters for the transformation
+     *  @param ignoredTransformationRegistry registry of resources ignored by the transformation target
+     *  @param domainRoot the root resource for the domain resource tree
+     *  @param slaveDomainModelDigest the {@link DomainModelDigest digest} of the slave's domain model, or {@code null}
+     * @return a read master domain model util instance
+     */
+    static ReadMasterDomainModelUtil readMasterDomainResourcesForInitialConnect(final Transformers transformers,
+                                                                                final Transformers.TransformationInputs transformationInputs,
+                                                                                final Transformers.ResourceIgnoredTransformationRegistry ignoredTransformationRegistry,
+                                                                                final Resource domainRoot,
+                                                                                final ModelNode slaveDomainModelDigest) throws OperationFailedException {
 
         Resource transformedResource = transformers.transformRootResource(transformationInputs, domainRoot, ignoredTransformationRegistry);
-        ReadMasterDomainModelUtil util = new ReadMasterDomainModelUtil();
+        final TransformationTarget target = transformers.getTarget();
+        ReadMasterDomainModelUtil util = new ReadMasterDomainModelUtil(DomainModelDigest.read(slaveDomainModelDigest),
+                target == null ? null : target.getVersion());
         util.describedResources = util.describeAsNodeList(PathAddress.EMPTY_ADDRESS, transformedResource, false);
         return util;
     }
@@ -129,6 +173,17 @@ public class ReadMasterDomainModelUtil {
         if (base.size() == 1) {
             newRootResources.add(base.getLastElement());
         }
+        if (slaveDigest != null) {
+            final String hash = slaveDigest.getUnchangedHash(base, resource, MASTER_HASHES, slaveVersion);
+            if (hash != null) {
+                // The slave has this subtree already, just tell it to keep it
+                final ModelNode unchanged = new ModelNode();
+                unchanged.get(DOMAIN_RESOURCE_ADDRESS).set(base.toModelNode());
+                unchanged.get(DOMAIN_RESOURCE_DIGEST).set(hash);
+                nodes.add(unchanged);
+                return;
+            }
+        }
         final ModelNode description = new ModelNode();
         description.get(DOMAIN_RESOURCE_ADDRESS).set(base.toModelNode());
         description.get(DOMAIN_RESOURCE_MODEL).set(resource.getModel());
@@ -148,6 +203,40 @@ public class ReadMasterDomainModelUtil {
     }
 
 
+    /**
+     * Replaces the resource subtrees the DC left out of the result of the {@code ReadMasterDomainModelHandler}, as
+     * the slave already had them, with the descriptions of the slave's own resources. If the slave's domain model
+     * no longer matches a subtree the DC left out, the subtree is added to {@code mismatched} instead; the slave
+     * then needs to leave it out of its {@link DomainModelDigest digest} and have the DC send it in full.
+     *
+     * @param result the described resources
+     * @param domainRoot the root resource of the slave's domain model
+     * @param mismatched set to which the addresses of the subtrees that could not be expanded are added
+     * @return the described resources, which are only complete if no subtree was added to {@code mismatched}
+     */
+    public static List<ModelNode> expandUnchangedResources(final List<ModelNode> result, final Resource domainRoot,
+                                                           final Set<PathAddress> mismatched) {
+        final List<ModelNode> expanded = new ArrayList<>(result.size());
+        for (ModelNode model : result) {
+            if (!model.hasDefined(DOMAIN_RESOURCE_DIGEST)) {
+                expanded.add(model);
+                continue;
+            }
+            final PathAddress address = PathAddress.pathAddress(model.require(DOMAIN_RESOURCE_ADDRESS));
+            Resource resource = domainRoot;
+            for (PathElement element : address) {
+                resource = resource == null ? null : resource.getChild(element);
+            }
+            if (resource == null || !DomainModelDigest.hash(address, resource).equals(model.get(DOMAIN_RESOURCE_DIGEST).asString())) {
+                DomainControllerLogger.ROOT_LOGGER.unchangedDomainResourceMismatch(address.toCLIStyleString());
+                mismatched.add(address);
+                continue;
+            }
+            new ReadMasterDomainModelUtil().describe(address, resource, expanded, false);
+        }
+        return expanded;
+    }
+
     /**
      * Create a resource based on the result of the {@code ReadMasterDomainModelHandler}.
      *
@@ -77,6 +77,7 @@ import org.jboss.as.domain.controller.ServerIdentity;
 import org.jboss.as.domain.controller.logging.DomainControllerLogger;
 import org.jboss.as.domain.controller.plan.RolloutPlanController;
 import org.jboss.as.domain.controller.plan.ServerTaskExecutor;
+import org.jboss.as.domain.controller.resources.DomainRootDefinition;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.Property;
 import org.jboss.threads.AsyncFuture;
@@ -477,6 +478,7 @@ public class DomainRolloutStepHandler implements OperationStepHandler {
                 throw new OperationFailedException(DomainControllerLogger.HOST_CONTROLLER_LOGGER.invalidRolloutPlanLess(prop.getName(), MAX_FAILED_SERVERS, max));
             }
         }
+        DomainRootDefinition.RolloutPlanValidator.validateConcurrencyWindow(prop.getName(), plan);
     }
 
     private ModelNode getDefaultRolloutPlan(Map<String, Map<ServerIdentity, ModelNode>> opsByGroup) {
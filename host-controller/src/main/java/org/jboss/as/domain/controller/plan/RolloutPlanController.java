@@ -28,6 +28,9 @@ package org.jboss.as.domain.controller.plan;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CONCURRENT_GROUPS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.GRACEFUL_SHUTDOWN_TIMEOUT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.IN_SERIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_CONCURRENT_HOSTS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_CONCURRENT_PERCENTAGE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_CONCURRENT_SERVERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_FAILED_SERVERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_FAILURE_PERCENTAGE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLBACK_ACROSS_GROUPS;
@@ -133,8 +136,24 @@ public class RolloutPlanController {
                     }
                     ServerUpdatePolicy policy = new ServerUpdatePolicy(parent, serverGroupName, servers, maxFailures);
 
-                    seriesTasks.add(rollingGroup ? new RollingServerGroupUpdateTask(groupTasks, policy, taskExecutor, subject, blockingTimeout)
-                        : new ConcurrentServerGroupUpdateTask(groupTasks, policy, taskExecutor, subject, blockingTimeout));
+                    if (policyNode.hasDefined(MAX_CONCURRENT_SERVERS) || policyNode.hasDefined(MAX_CONCURRENT_PERCENTAGE)
+                            || policyNode.hasDefined(MAX_CONCURRENT_HOSTS)) {
+                        int maxServers = servers.size();
+                        if (policyNode.hasDefined(MAX_CONCURRENT_PERCENTAGE)) {
+                            int pct = policyNode.get(MAX_CONCURRENT_PERCENTAGE).asInt();
+                            maxServers = Math.min(maxServers, (servers.size() * pct) / 100);
+                        }
+                        if (policyNode.hasDefined(MAX_CONCURRENT_SERVERS)) {
+                            maxServers = Math.min(maxServers, policyNode.get(MAX_CONCURRENT_SERVERS).asInt());
+                        }
+                        final int maxHosts = policyNode.hasDefined(MAX_CONCURRENT_HOSTS) ? policyNode.get(MAX_CONCURRENT_HOSTS).asInt() : Integer.MAX_VALUE;
+                        // the plan was validated, only a percentage of a small group can round down to no servers
+                        seriesTasks.add(new WindowedServerGroupUpdateTask(groupTasks, policy, taskExecutor, subject, blockingTimeout,
+                                Math.max(1, maxServers), maxHosts));
+                    } else {
+                        seriesTasks.add(rollingGroup ? new RollingServerGroupUpdateTask(groupTasks, policy, taskExecutor, subject, blockingTimeout)
+                            : new ConcurrentServerGroupUpdateTask(groupTasks, policy, taskExecutor, subject, blockingTimeout));
+                    }
 
                     updatePolicies.put(serverGroupName, policy);
 
@@ -176,6 +176,15 @@ public abstract class ServerTaskExecutor {
         }
     }
 
+    /**
+     * Report the progress of the rollout to the caller of the domain operation.
+     *
+     * @param message the progress message
+     */
+    void reportProgress(final String message) {
+        context.report(MessageSeverity.INFO, message);
+    }
+
     static class ServerOperationListener extends BlockingQueueOperationListener<ServerOperation> {
 
         @Override
@@ -0,0 +1,217 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.plan;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.security.auth.Subject;
+
+import org.jboss.as.controller.BlockingTimeout;
+import org.jboss.as.controller.remote.TransactionalProtocolClient;
+import org.jboss.as.domain.controller.ServerIdentity;
+import org.jboss.as.domain.controller.logging.DomainControllerLogger;
+
+/**
+ * Rollout task which keeps a bounded window of servers in flight. As soon as a server reports its prepared
+ * result the next server is started, so that a group is neither updated all at once nor strictly one server
+ * at a time. The servers of a host are started one after another, and optionally only a limited number of
+ * hosts are updated at the same time.
+ */
+class WindowedServerGroupUpdateTask extends AbstractServerGroupRolloutTask implements Runnable {
+
+    private final int maxServers;
+    private final int maxHosts;
+
+    /**
+     * Create the task.
+     *
+     * @param tasks the server tasks
+     * @param updatePolicy the update policy of the server group
+     * @param executor the server task executor
+     * @param subject the subject of the caller
+     * @param blockingTimeout the blocking timeout
+     * @param maxServers the maximum number of servers with an outstanding prepared result
+     * @param maxHosts the maximum number of hosts with an outstanding prepared result
+     */
+    WindowedServerGroupUpdateTask(List<ServerUpdateTask> tasks, ServerUpdatePolicy updatePolicy, ServerTaskExecutor executor,
+                                  Subject subject, BlockingTimeout blockingTimeout, int maxServers, int maxHosts) {
+        super(tasks, updatePolicy, executor, subject, blockingTimeout);
+        assert maxServers > 0 : "maxServers must be positive";
+        assert maxHosts > 0 : "maxHosts must be positive";
+        this.maxServers = maxServers;
+        this.maxHosts = maxHosts;
+    }
+
+    @Override
+    public void execute() {
+        final Map<String, Deque<ServerUpdateTask>> pending = new LinkedHashMap<>();
+        for (final ServerUpdateTask task : tasks) {
+            final String hostName = task.getServerIdentity().getHostName();
+            Deque<ServerUpdateTask> hostTasks = pending.get(hostName);
+            if (hostTasks == null) {
+                hostTasks = new ArrayDeque<>();
+                pending.put(hostName, hostTasks);
+            }
+            hostTasks.add(task);
+        }
+        final int total = tasks.size();
+        final Map<ServerIdentity, ServerUpdateTask> outstanding = new HashMap<>();
+        final Map<ServerIdentity, Long> deadlines = new HashMap<>();
+        final Map<ServerIdentity, Integer> timeouts = new HashMap<>();
+        final Map<String, Integer> hostsInFlight = new HashMap<>();
+        final ServerTaskExecutor.ServerOperationListener listener = new ServerTaskExecutor.ServerOperationListener();
+        int prepared = 0;
+        int failed = 0;
+        boolean interrupted = false;
+        while (!interrupted) {
+            // Fill the window
+            ServerUpdateTask task;
+            while (outstanding.size() < maxServers && (task = nextTask(pending, hostsInFlight)) != null) {
+                final ServerIdentity identity = task.getServerIdentity();
+                if (Thread.currentThread().isInterrupted()) {
+                    interrupted = true;
+                    break;
+                }
+                if (!updatePolicy.canUpdateServer(identity)) {
+                    DomainControllerLogger.HOST_CONTROLLER_LOGGER.tracef("Skipping server update task for %s", identity);
+                    continue;
+                }
+                final int timeout = executor.executeTask(listener, task);
+                if (timeout > -1) {
+                    outstanding.put(identity, task);
+                    deadlines.put(identity, System.currentTimeMillis() + timeout);
+                    timeouts.put(identity, timeout);
+                    final Integer count = hostsInFlight.get(identity.getHostName());
+                    hostsInFlight.put(identity.getHostName(), count == null ? 1 : count + 1);
+                }
+            }
+            if (interrupted || outstanding.isEmpty()) {
+                break;
+            }
+            final long remaining = Collections.min(deadlines.values()) - System.currentTimeMillis();
+            try {
+                final TransactionalProtocolClient.PreparedOperation<ServerTaskExecutor.ServerOperation> result = remaining > 0
+                        ? listener.retrievePreparedOperation(remaining, TimeUnit.MILLISECONDS) : null;
+                if (result != null) {
+                    final ServerIdentity identity = result.getOperation().getIdentity();
+                    if (outstanding.remove(identity) == null) {
+                        // Already timed out and cancelled
+                        continue;
+                    }
+                    deadlines.remove(identity);
+                    timeouts.remove(identity);
+                    release(hostsInFlight, identity);
+                    recordPreparedOperation(identity, result);
+                    prepared++;
+                    if (result.getPreparedResult().has(FAILURE_DESCRIPTION)) {
+                        failed++;
+                    }
+                } else {
+                    final long now = System.currentTimeMillis();
+                    final Iterator<Map.Entry<ServerIdentity, Long>> i = deadlines.entrySet().iterator();
+                    while (i.hasNext()) {
+                        final Map.Entry<ServerIdentity, Long> entry = i.next();
+                        if (entry.getValue() <= now) {
+                            final ServerIdentity identity = entry.getKey();
+                            final ServerUpdateTask timedOut = outstanding.remove(identity);
+                            final int timeout = timeouts.remove(identity);
+                            i.remove();
+                            release(hostsInFlight, identity);
+                            DomainControllerLogger.HOST_CONTROLLER_LOGGER.timedOutAwaitingPreparedResponse(getClass().getSimpleName(), timeout, Collections.singleton(identity));
+                            executor.cancelTask(identity);
+                            handlePreparePhaseTimeout(identity, timedOut, timeout);
+                            prepared++;
+                            failed++;
+                        }
+                    }
+                }
+                executor.reportProgress(DomainControllerLogger.HOST_CONTROLLER_LOGGER.serverGroupRolloutProgress(updatePolicy.getServerGroupName(),
+                        prepared, total, failed, outstanding.size()));
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted) {
+            if (!outstanding.isEmpty()) {
+                DomainControllerLogger.HOST_CONTROLLER_LOGGER.interruptedAwaitingPreparedResponse(getClass().getSimpleName(), outstanding.keySet());
+                for (ServerIdentity identity : outstanding.keySet()) {
+                    executor.cancelTask(identity);
+                }
+            }
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Get the next task to start. Servers of hosts which already have servers in flight come first, so that the
+     * updates of a host are sent as one batch; a new host is only picked if the host window allows it.
+     */
+    private ServerUpdateTask nextTask(final Map<String, Deque<ServerUpdateTask>> pending, final Map<String, Integer> hostsInFlight) {
+        for (final String hostName : hostsInFlight.keySet()) {
+            final ServerUpdateTask task = poll(pending, hostName);
+            if (task != null) {
+                return task;
+            }
+        }
+        if (hostsInFlight.size() < maxHosts) {
+            final Iterator<String> i = pending.keySet().iterator();
+            if (i.hasNext()) {
+                return poll(pending, i.next());
+            }
+        }
+        return null;
+    }
+
+    private static ServerUpdateTask poll(final Map<String, Deque<ServerUpdateTask>> pending, final String hostName) {
+        final Deque<ServerUpdateTask> hostTasks = pending.get(hostName);
+        if (hostTasks == null) {
+            return null;
+        }
+        final ServerUpdateTask task = hostTasks.poll();
+        if (hostTasks.isEmpty()) {
+            pending.remove(hostName);
+        }
+        return task;
+    }
+
+    private static void release(final Map<String, Integer> hostsInFlight, final ServerIdentity identity) {
+        final String hostName = identity.getHostName();
+        final Integer count = hostsInFlight.get(hostName);
+        if (count == null || count <= 1) {
+            hostsInFlight.remove(hostName);
+        } else {
+            hostsInFlight.put(hostName, count - 1);
+        }
+    }
+}
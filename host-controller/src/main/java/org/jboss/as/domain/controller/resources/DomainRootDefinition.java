@@ -25,6 +25,9 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CON
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DOMAIN;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.IN_SERIES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MANAGEMENT_CLIENT_CONTENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_CONCURRENT_HOSTS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_CONCURRENT_PERCENTAGE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_CONCURRENT_SERVERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_FAILED_SERVERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_FAILURE_PERCENTAGE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLBACK_ACROSS_GROUPS;
@@ -113,6 +116,7 @@ import org.jboss.as.server.services.net.InterfaceRemoveHandler;
 import org.jboss.as.server.services.net.InterfaceResourceDefinition;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
+import org.jboss.dmr.Property;
 
 /**
  * {@link org.jboss.as.controller.ResourceDefinition} for the root resource in the domain-wide model.
@@ -360,7 +364,8 @@ public class DomainRootDefinition extends SimpleResourceDefinition {
     }
 
     public static class RolloutPlanValidator extends AbstractParameterValidator {
-        private static final List<String> ALLOWED_SERVER_GROUP_CHILDREN = Arrays.asList(ROLLING_TO_SERVERS, MAX_FAILURE_PERCENTAGE, MAX_FAILED_SERVERS);
+        private static final List<String> ALLOWED_SERVER_GROUP_CHILDREN = Arrays.asList(ROLLING_TO_SERVERS, MAX_FAILURE_PERCENTAGE, MAX_FAILED_SERVERS,
+                MAX_CONCURRENT_SERVERS, MAX_CONCURRENT_PERCENTAGE, MAX_CONCURRENT_HOSTS);
         @Override
         public void validateParameter(String parameterName, ModelNode plan) throws OperationFailedException {
             if(plan == null) {
@@ -406,11 +411,15 @@ public class DomainRootDefinition extends SimpleResourceDefinition {
                     if(groupKeys.size() != 1) {
                         throw new OperationFailedException(DomainControllerLogger.ROOT_LOGGER.serverGroupExpectsSingleChild(plan.toString()));
                     }
-                    validateInSeriesServerGroup(serverGroup.asProperty().getValue());
+                    final Property serverGroupPlan = serverGroup.asProperty();
+                    validateInSeriesServerGroup(serverGroupPlan.getValue());
+                    validateConcurrencyWindow(serverGroupPlan.getName(), serverGroupPlan.getValue());
                 } else if(group.hasDefined(CONCURRENT_GROUPS)) {
                     final ModelNode concurrent = group.get(CONCURRENT_GROUPS);
                     for(ModelNode child: concurrent.asList()) {
-                        validateInSeriesServerGroup(child.asProperty().getValue());
+                        final Property serverGroupPlan = child.asProperty();
+                        validateInSeriesServerGroup(serverGroupPlan.getValue());
+                        validateConcurrencyWindow(serverGroupPlan.getName(), serverGroupPlan.getValue());
                     }
                 } else {
                     throw new OperationFailedException(DomainControllerLogger.ROOT_LOGGER.unexpectedInSeriesGroup(plan.toString()));
@@ -429,6 +438,39 @@ public class DomainRootDefinition extends SimpleResourceDefinition {
                 }
             }
         }
+
+        /**
+         * Validates the concurrency window of a server group in a rollout plan. The servers and hosts in the window must
+         * be at least one, the percentage of servers must be between 0 and 100, and a window cannot be combined with
+         * rolling to the servers one at a time.
+         *
+         * @param serverGroupName the name of the server group
+         * @param serverGroup the rollout plan of the server group
+         * @throws OperationFailedException if the window is invalid
+         */
+        public static void validateConcurrencyWindow(String serverGroupName, ModelNode serverGroup) throws OperationFailedException {
+            if (!serverGroup.hasDefined(MAX_CONCURRENT_SERVERS) && !serverGroup.hasDefined(MAX_CONCURRENT_PERCENTAGE)
+                    && !serverGroup.hasDefined(MAX_CONCURRENT_HOSTS)) {
+                return;
+            }
+            if (serverGroup.hasDefined(ROLLING_TO_SERVERS) && serverGroup.get(ROLLING_TO_SERVERS).asBoolean()) {
+                throw new OperationFailedException(DomainControllerLogger.ROOT_LOGGER.invalidRolloutPlanRollingWindow(serverGroupName, ROLLING_TO_SERVERS));
+            }
+            for (String name : Arrays.asList(MAX_CONCURRENT_SERVERS, MAX_CONCURRENT_HOSTS)) {
+                if (serverGroup.hasDefined(name)) {
+                    final int value = serverGroup.get(name).asInt();
+                    if (value < 1) {
+                        throw new OperationFailedException(DomainControllerLogger.ROOT_LOGGER.invalidRolloutPlanNotPositive(serverGroupName, name, value));
+                    }
+                }
+            }
+            if (serverGroup.hasDefined(MAX_CONCURRENT_PERCENTAGE)) {
+                final int value = serverGroup.get(MAX_CONCURRENT_PERCENTAGE).asInt();
+                if (value < 0 || value > 100) {
+                    throw new OperationFailedException(DomainControllerLogger.ROOT_LOGGER.invalidRolloutPlanRange(serverGroupName, MAX_CONCURRENT_PERCENTAGE, value));
+                }
+            }
+        }
     }
 
 }
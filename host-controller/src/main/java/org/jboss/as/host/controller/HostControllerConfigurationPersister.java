@@ -200,6 +200,14 @@ public class HostControllerConfigurationPersister implements ExtensibleConfigura
         }
     }
 
+    @Override
+    public void shutdown() {
+        hostPersister.shutdown();
+        if (domainPersister != null) {
+            domainPersister.shutdown();
+        }
+    }
+
     @Override
     public String snapshot() throws ConfigurationPersistenceException {
         throw new UnsupportedOperationException();
@@ -40,9 +40,11 @@ import javax.net.ssl.SSLContext;
 import javax.security.auth.callback.CallbackHandler;
 
 import org.jboss.as.controller.RunningMode;
+import org.jboss.as.controller.client.impl.ModelNodeCodec;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.remote.TransactionalProtocolClient;
 import org.jboss.as.domain.controller.SlaveRegistrationException;
+import org.jboss.as.domain.controller.operations.DomainModelDigest;
 import org.jboss.as.domain.management.CallbackHandlerFactory;
 import org.jboss.as.domain.management.SecurityRealm;
 import org.jboss.as.host.controller.discovery.DiscoveryOption;
@@ -302,8 +304,9 @@ class RemoteDomainConnection extends FutureManagementChannel {
      *
      * @param result the domain model result
      * @return whether it was applied successfully or not
+     * @throws IOException if registration needs to be retried to have the domain model sent again
      */
-    boolean applyDomainModel(ModelNode result) {
+    boolean applyDomainModel(ModelNode result) throws IOException {
         if(! result.hasDefined(ModelDescriptionConstants.RESULT)) {
             return false;
         }
@@ -335,8 +338,10 @@ class RemoteDomainConnection extends FutureManagementChannel {
          *
          * @param result the read-domain-model operation result
          * @return {@code true} if the model was applied successfully, {@code false} otherwise
+         * @throws IOException if registration needs to be retried to have the domain model sent again, e.g. with
+         *                     parts that could not be taken from the local domain model
          */
-        boolean applyDomainModel(List<ModelNode> result);
+        boolean applyDomainModel(List<ModelNode> result) throws IOException;
 
         /**
          * Event that the registration was completed.
@@ -350,6 +355,13 @@ class RemoteDomainConnection extends FutureManagementChannel {
          * @return the current host metadata
          */
         ModelNode createLocalHostInfo();
+
+        /**
+         * Creates the digest of the local domain model, so the master can leave out what is unchanged.
+         *
+         * @return the digest, or an undefined node if there is no local domain model
+         */
+        ModelNode createDomainModelDigest();
     }
 
     /**
@@ -363,6 +375,10 @@ class RemoteDomainConnection extends FutureManagementChannel {
              output.writeUTF(localHostName);
              ModelNode hostInfo = callback.createLocalHostInfo();
              hostInfo.get(RemoteDomainConnectionService.DOMAIN_CONNECTION_ID).set(pongHandler.getConnectionId());
+             final ModelNode domainModelDigest = callback.createDomainModelDigest();
+             if (domainModelDigest.isDefined()) {
+                 hostInfo.get(DomainModelDigest.DOMAIN_MODEL_DIGEST).set(domainModelDigest);
+             }
              hostInfo.writeExternal(output);
          }
 
@@ -376,8 +392,7 @@ class RemoteDomainConnection extends FutureManagementChannel {
                  resultHandler.failed(new SlaveRegistrationException(SlaveRegistrationException.ErrorCode.parseCode(errorCode), message));
                  return;
              }
-             final ModelNode extensions = new ModelNode();
-             extensions.readExternal(input);
+             final ModelNode extensions = ModelNodeCodec.readModelNode(input, context.getRequestHeader());
              // Enable the send subject
              if (context.getRequestHeader().getVersion() != 1) {
                  channelHandler.getAttachments().attach(TransactionalProtocolClient.SEND_SUBJECT, Boolean.TRUE);
@@ -445,13 +460,21 @@ class RemoteDomainConnection extends FutureManagementChannel {
                  resultHandler.failed(new SlaveRegistrationException(SlaveRegistrationException.ErrorCode.parseCode(errorCode), message));
                  return;
              }
-             final ModelNode domainModel = new ModelNode();
-             domainModel.readExternal(input);
+             final ModelNode domainModel = ModelNodeCodec.readModelNode(input, context.getRequestHeader());
              context.executeAsync(new ManagementRequestContext.AsyncTask<Void>() {
                  @Override
                  public void execute(ManagementRequestContext<Void> voidManagementRequestContext) throws Exception {
                      // Apply the domain model
-                     if (applyDomainModel(domainModel)) {
+                     final boolean applied;
+                     try {
+                         applied = applyDomainModel(domainModel);
+                     } catch (IOException e) {
+                         // Not applied, but registering again should work
+                         channelHandler.executeRequest(context.getOperationId(), new CompleteRegistrationRequest(DomainControllerProtocol.PARAM_ERROR));
+                         resultHandler.failed(e);
+                         return;
+                     }
+                     if (applied) {
                          channelHandler.executeRequest(context.getOperationId(), new CompleteRegistrationRequest(DomainControllerProtocol.PARAM_OK));
                      } else {
                          channelHandler.executeRequest(context.getOperationId(), new CompleteRegistrationRequest(DomainControllerProtocol.PARAM_ERROR));
@@ -39,9 +39,13 @@ import java.io.DataInput;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
@@ -77,7 +81,9 @@ import org.jboss.as.controller.remote.TransactionalProtocolOperationHandler;
 import org.jboss.as.domain.controller.DomainController;
 import org.jboss.as.domain.controller.LocalHostControllerInfo;
 import org.jboss.as.domain.controller.SlaveRegistrationException;
+import org.jboss.as.domain.controller.operations.DomainModelDigest;
 import org.jboss.as.domain.controller.operations.FetchMissingConfigurationHandler;
+import org.jboss.as.domain.controller.operations.ReadMasterDomainModelUtil;
 import org.jboss.as.domain.controller.operations.SyncDomainModelOperationHandler;
 import org.jboss.as.domain.controller.operations.SyncServerGroupOperationHandler;
 import org.jboss.as.domain.controller.operations.coordination.DomainControllerLockIdUtils;
@@ -184,6 +190,8 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
     private final InjectedValue<ScheduledExecutorService> scheduledExecutorInjector = new InjectedValue<>();
     private final ExecutorService executor;
     private final AtomicBoolean domainModelComplete;
+    /** Subtrees of the local domain model the master left out but which no longer matched; sent in full on the next registration */
+    private final Set<PathAddress> mismatchedDomainResources = Collections.newSetFromMap(new ConcurrentHashMap<PathAddress, Boolean>());
 
     private ManagementChannelHandler handler;
     private volatile ResponseAttachmentInputStreamSupport responseAttachmentSupport;
@@ -506,13 +514,18 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
                     return HostInfo.createLocalHostHostInfo(localHostInfo, productConfig, ignoredDomainResourceRegistry, ReadRootResourceHandler.grabDomainResource(operationExecutor).getChildren(HOST).iterator().next());
                 }
 
+                @Override
+                public ModelNode createDomainModelDigest() {
+                    return DomainModelDigest.create(ReadRootResourceHandler.grabDomainResource(operationExecutor), mismatchedDomainResources);
+                }
+
                 @Override
                 public ModelNode resolveSubsystemVersions(ModelNode extensions) {
                     return resolveSubsystems(extensions.asList());
                 }
 
                 @Override
-                public boolean applyDomainModel(final List<ModelNode> bootOperations) {
+                public boolean applyDomainModel(final List<ModelNode> bootOperations) throws IOException {
                     // Apply the model..
                     final HostInfo info = HostInfo.fromModelNode(createLocalHostInfo());
                     return applyRemoteDomainModel(bootOperations, info);
@@ -560,8 +573,18 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
      *
      * @param bootOperations the result of the remote read-domain-model op
      * @return {@code true} if the model was applied successfully, {@code false} otherwise
+     * @throws IOException if the master left out resources the local domain model no longer matches, so that
+     *                     registration needs to be retried to have them sent in full
      */
-    private boolean applyRemoteDomainModel(final List<ModelNode> bootOperations, final HostInfo hostInfo) {
+    private boolean applyRemoteDomainModel(final List<ModelNode> bootOperations, final HostInfo hostInfo) throws IOException {
+        // Fill in the parts the master left out since we already have them
+        final Set<PathAddress> mismatched = new HashSet<>();
+        final List<ModelNode> domainModel = ReadMasterDomainModelUtil.expandUnchangedResources(bootOperations,
+                ReadRootResourceHandler.grabDomainResource(operationExecutor), mismatched);
+        if (!mismatched.isEmpty()) {
+            mismatchedDomainResources.addAll(mismatched);
+            throw HostControllerLogger.ROOT_LOGGER.mismatchedDomainResources(mismatched.size());
+        }
         try {
             HostControllerLogger.ROOT_LOGGER.debug("Applying domain level boot operations provided by master");
             SyncModelParameters parameters =
@@ -570,7 +593,7 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
             final SyncDomainModelOperationHandler handler =
                     new SyncDomainModelOperationHandler(hostInfo, parameters);
             final ModelNode operation = APPLY_DOMAIN_MODEL.clone();
-            operation.get(DOMAIN_MODEL).set(bootOperations);
+            operation.get(DOMAIN_MODEL).set(domainModel);
 
             final ModelNode result = operationExecutor.execute(OperationBuilder.create(operation).build(), OperationMessageHandler.DISCARD, ModelController.OperationTransactionControl.COMMIT, handler);
 
@@ -581,6 +604,8 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
                 HostControllerLogger.ROOT_LOGGER.failedToApplyDomainConfig(outcome, failureDesc);
                 return false;
             } else {
+                // The local domain model is the master's now
+                mismatchedDomainResources.clear();
                 return true;
             }
         } catch (Exception e) {
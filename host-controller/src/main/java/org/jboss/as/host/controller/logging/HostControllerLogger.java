@@ -1322,4 +1322,7 @@ public interface HostControllerLogger extends BasicLogger {
 
     @Message( id = 187, value = "Failed getting the response from the suspend listener for server: %s")
     String suspendListenerFailedMsg(String serverName);
+
+    @Message(id = 188, value = "%d resources the domain controller left out no longer match the local domain model; registering again to have them sent in full")
+    IOException mismatchedDomainResources(int count);
 }
@@ -51,6 +51,7 @@ import org.jboss.as.controller.RunningMode;
 import org.jboss.as.controller.client.Operation;
 import org.jboss.as.controller.client.OperationBuilder;
 import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.controller.client.impl.ModelNodeCodec;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.extension.ExtensionRegistry;
 import org.jboss.as.controller.logging.ControllerLogger;
@@ -72,6 +73,7 @@ import org.jboss.as.protocol.mgmt.ActiveOperation;
 import org.jboss.as.protocol.mgmt.FlushableDataOutput;
 import org.jboss.as.protocol.mgmt.ManagementChannelHandler;
 import org.jboss.as.protocol.mgmt.ManagementProtocol;
+import org.jboss.as.protocol.mgmt.ManagementProtocolHeader;
 import org.jboss.as.protocol.mgmt.ManagementRequestContext;
 import org.jboss.as.protocol.mgmt.ManagementRequestHandler;
 import org.jboss.as.protocol.mgmt.ManagementRequestHandlerFactory;
@@ -519,8 +521,8 @@ public class HostControllerRegistrationHandler implements ManagementRequestHandl
             this.transformers = transformers;
             final ModelNode subsystems = executeBlocking(new IOTask<ModelNode>() {
                 @Override
-                void sendMessage(FlushableDataOutput output) throws IOException {
-                    sendResponse(output, DomainControllerProtocol.PARAM_OK, extensions);
+                void sendMessage(FlushableDataOutput output, ManagementProtocolHeader header) throws IOException {
+                    sendResponse(output, header, DomainControllerProtocol.PARAM_OK, extensions);
                 }
             });
             if(failed) {
@@ -571,8 +573,8 @@ public class HostControllerRegistrationHandler implements ManagementRequestHandl
         private boolean sendResultToHost(ModelController.OperationTransaction transaction, final ModelNode result) {
             final Boolean registered = executeBlocking(new IOTask<Boolean>() {
                 @Override
-                void sendMessage(final FlushableDataOutput output) throws IOException {
-                    sendResponse(output, DomainControllerProtocol.PARAM_OK, result);
+                void sendMessage(final FlushableDataOutput output, final ManagementProtocolHeader header) throws IOException {
+                    sendResponse(output, header, DomainControllerProtocol.PARAM_OK, result);
                 }
             });
             if(! registered) {
@@ -662,7 +664,7 @@ public class HostControllerRegistrationHandler implements ManagementRequestHandl
                     final ManagementResponseHeader header = ManagementResponseHeader.create(responseChannel.getRequestHeader());
                     final FlushableDataOutput output = responseChannel.writeMessage(header);
                     try {
-                        task.sendMessage(output);
+                        task.sendMessage(output, header);
                     } catch (IOException e) {
                         failed(SlaveRegistrationException.ErrorCode.UNKNOWN, DomainControllerLogger.ROOT_LOGGER.failedToSendMessage(e.getMessage()));
                         throw new IllegalStateException(e);
@@ -693,7 +695,7 @@ public class HostControllerRegistrationHandler implements ManagementRequestHandl
             super(null);
         }
 
-        abstract void sendMessage(final FlushableDataOutput output) throws IOException;
+        abstract void sendMessage(final FlushableDataOutput output, final ManagementProtocolHeader header) throws IOException;
 
         @SuppressWarnings("unchecked")
         boolean completeStep(Object result) {
@@ -717,18 +719,18 @@ public class HostControllerRegistrationHandler implements ManagementRequestHandl
         final ManagementResponseHeader header = ManagementResponseHeader.create(context.getRequestHeader());
         final FlushableDataOutput output = context.writeMessage(header);
         try {
-            sendResponse(output, responseType, response);
+            sendResponse(output, header, responseType, response);
         } finally {
             StreamUtils.safeClose(output);
         }
     }
 
-    static void sendResponse(final FlushableDataOutput output, final byte responseType, final ModelNode response) throws IOException {
+    static void sendResponse(final FlushableDataOutput output, final ManagementProtocolHeader header, final byte responseType, final ModelNode response) throws IOException {
         // response type
         output.writeByte(responseType);
         if(response != null) {
             // operation result
-            response.writeExternal(output);
+            ModelNodeCodec.writeModelNode(response, output, header);
         }
         // response end
         output.writeByte(ManagementProtocol.RESPONSE_END);
@@ -47,6 +47,7 @@ import org.jboss.as.controller.ProxyController;
 import org.jboss.as.controller.client.Operation;
 import org.jboss.as.controller.client.OperationBuilder;
 import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.controller.client.impl.ModelNodeCodec;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.domain.controller.DomainController;
 import org.jboss.as.host.controller.ManagedServerOperationsFactory;
@@ -223,10 +224,11 @@ public class ServerToHostProtocolHandler implements ManagementRequestHandlerFact
             final ProxyController controller = serverInventory.serverCommunicationRegistered(serverProcessName, channelHandler);
             try {
                 // Send the boot updates
-                final FlushableDataOutput output = comm.writeMessage(ManagementResponseHeader.create(comm.getRequestHeader()));
+                final ManagementResponseHeader header = ManagementResponseHeader.create(comm.getRequestHeader());
+                final FlushableDataOutput output = comm.writeMessage(header);
                 try {
                     output.write(DomainServerProtocol.PARAM_OK);
-                    updates.writeExternal(output);
+                    ModelNodeCodec.writeModelNode(updates, output, header);
                     output.close();
                 } finally {
                     StreamUtils.safeClose(output);
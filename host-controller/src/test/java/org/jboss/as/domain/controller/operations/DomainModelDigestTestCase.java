@@ -0,0 +1,202 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.domain.controller.operations;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_GROUP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+import static org.jboss.as.domain.controller.operations.ReadMasterDomainModelUtil.DOMAIN_RESOURCE_ADDRESS;
+import static org.jboss.as.domain.controller.operations.ReadMasterDomainModelUtil.DOMAIN_RESOURCE_DIGEST;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jboss.as.controller.ModelVersion;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.host.controller.util.AbstractControllerTestBase.NoopTransformers;
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of leaving the resource subtrees a slave already has out of the domain model sent to it.
+ */
+public class DomainModelDigestTestCase {
+
+    private static final PathElement PROFILE_A = PathElement.pathElement(PROFILE, "a");
+    private static final PathElement PROFILE_B = PathElement.pathElement(PROFILE, "b");
+    private static final PathElement GROUP = PathElement.pathElement(SERVER_GROUP, "group");
+    private static final PathElement LOGGING = PathElement.pathElement(SUBSYSTEM, "logging");
+    private static final PathElement JMX = PathElement.pathElement(SUBSYSTEM, "jmx");
+
+    @Test
+    public void testHashIndependentOfOrder() {
+        final Resource one = Resource.Factory.create();
+        one.getModel().get("x").set(1);
+        one.getModel().get("y").set(2);
+        one.registerChild(LOGGING, Resource.Factory.create());
+        one.registerChild(JMX, Resource.Factory.create());
+
+        final Resource two = Resource.Factory.create();
+        two.getModel().get("y").set(2);
+        two.getModel().get("x").set(1);
+        two.registerChild(JMX, Resource.Factory.create());
+        two.registerChild(LOGGING, Resource.Factory.create());
+
+        final PathAddress address = PathAddress.pathAddress(PROFILE_A);
+        Assert.assertEquals(DomainModelDigest.hash(address, one), DomainModelDigest.hash(address, two));
+
+        two.getChild(JMX).getModel().get("z").set(true);
+        Assert.assertNotEquals(DomainModelDigest.hash(address, one), DomainModelDigest.hash(address, two));
+        Assert.assertNotEquals(DomainModelDigest.hash(address, one), DomainModelDigest.hash(PathAddress.pathAddress(PROFILE_B), one));
+    }
+
+    @Test
+    public void testDigestLeavesOutHosts() {
+        final Resource root = createDomainModel();
+        root.registerChild(PathElement.pathElement(HOST, "slave"), Resource.Factory.create());
+        final ModelNode digest = DomainModelDigest.create(root);
+        Assert.assertTrue(digest.isDefined());
+        final ModelNode resources = digest.get("resources");
+        Assert.assertTrue(resources.hasDefined(PathAddress.pathAddress(PROFILE_A).toCLIStyleString()));
+        Assert.assertTrue(resources.hasDefined(PathAddress.pathAddress(PROFILE_A, LOGGING).toCLIStyleString()));
+        Assert.assertTrue(resources.hasDefined(PathAddress.pathAddress(GROUP).toCLIStyleString()));
+        Assert.assertFalse(resources.hasDefined(PathAddress.pathAddress(HOST, "slave").toCLIStyleString()));
+
+        Assert.assertFalse(DomainModelDigest.create(Resource.Factory.create()).isDefined());
+    }
+
+    @Test
+    public void testUnchangedResourcesLeftOut() throws Exception {
+        final Resource slave = createDomainModel();
+        final ModelNode digest = DomainModelDigest.create(slave);
+
+        final Resource master = createDomainModel();
+        master.getChild(PROFILE_B).getChild(JMX).getModel().get("changed").set(true);
+
+        final List<ModelNode> full = ReadMasterDomainModelUtil.readMasterDomainResourcesForInitialConnect(
+                new NoopTransformers(), null, null, master).getDescribedResources();
+        final List<ModelNode> delta = ReadMasterDomainModelUtil.readMasterDomainResourcesForInitialConnect(
+                new NoopTransformers(), null, null, master, digest).getDescribedResources();
+
+        Assert.assertTrue(delta.size() < full.size());
+        Assert.assertTrue(isLeftOut(delta, PathAddress.pathAddress(PROFILE_A)));
+        Assert.assertTrue(isLeftOut(delta, PathAddress.pathAddress(GROUP)));
+        Assert.assertTrue(isLeftOut(delta, PathAddress.pathAddress(PROFILE_B, LOGGING)));
+        Assert.assertFalse(isLeftOut(delta, PathAddress.pathAddress(PROFILE_B)));
+        Assert.assertFalse(isLeftOut(delta, PathAddress.pathAddress(PROFILE_B, JMX)));
+
+        final Set<PathAddress> mismatched = new HashSet<>();
+        Assert.assertEquals(full, ReadMasterDomainModelUtil.expandUnchangedResources(delta, slave, mismatched));
+        Assert.assertTrue(mismatched.isEmpty());
+    }
+
+    @Test
+    public void testUnsupportedDigestVersion() throws Exception {
+        final Resource root = createDomainModel();
+        final ModelNode digest = DomainModelDigest.create(root);
+        digest.get("digest-version").set(DomainModelDigest.VERSION + 1);
+
+        final List<ModelNode> full = ReadMasterDomainModelUtil.readMasterDomainResourcesForInitialConnect(
+                new NoopTransformers(), null, null, root).getDescribedResources();
+        Assert.assertEquals(full, ReadMasterDomainModelUtil.readMasterDomainResourcesForInitialConnect(
+                new NoopTransformers(), null, null, root, digest).getDescribedResources());
+    }
+
+    @Test
+    public void testExpandChangedResource() throws Exception {
+        final Resource slave = createDomainModel();
+        final Resource master = createDomainModel();
+        final List<ModelNode> delta = ReadMasterDomainModelUtil.readMasterDomainResourcesForInitialConnect(
+                new NoopTransformers(), null, null, master, DomainModelDigest.create(slave)).getDescribedResources();
+
+        final PathAddress changed = PathAddress.pathAddress(PROFILE_A);
+        slave.getChild(PROFILE_A).getModel().get("changed").set(true);
+        final Set<PathAddress> mismatched = new HashSet<>();
+        ReadMasterDomainModelUtil.expandUnchangedResources(delta, slave, mismatched);
+        Assert.assertEquals(Collections.singleton(changed), mismatched);
+
+        // Left out of the next digest, the master sends that subtree in full and the rest can be expanded
+        final List<ModelNode> retried = ReadMasterDomainModelUtil.readMasterDomainResourcesForInitialConnect(
+                new NoopTransformers(), null, null, master, DomainModelDigest.create(slave, mismatched)).getDescribedResources();
+        Assert.assertFalse(isLeftOut(retried, changed));
+        Assert.assertTrue(isLeftOut(retried, PathAddress.pathAddress(PROFILE_B)));
+        final List<ModelNode> full = ReadMasterDomainModelUtil.readMasterDomainResourcesForInitialConnect(
+                new NoopTransformers(), null, null, master).getDescribedResources();
+        mismatched.clear();
+        Assert.assertEquals(full, ReadMasterDomainModelUtil.expandUnchangedResources(retried, slave, mismatched));
+        Assert.assertTrue(mismatched.isEmpty());
+    }
+
+    @Test
+    public void testHashCache() {
+        final DomainModelDigest.HashCache cache = new DomainModelDigest.HashCache();
+        final ModelVersion version = ModelVersion.create(4, 1, 0);
+        final PathAddress address = PathAddress.pathAddress(PROFILE_A);
+
+        final String hash = cache.hash(version, address, createDomainModel().getChild(PROFILE_A));
+        Assert.assertEquals(DomainModelDigest.hash(address, createDomainModel().getChild(PROFILE_A)), hash);
+        // An equal subtree gets the cached hash rather than one computed again
+        Assert.assertSame(hash, cache.hash(version, address, createDomainModel().getChild(PROFILE_A)));
+        Assert.assertNotSame(hash, cache.hash(ModelVersion.create(2, 0, 0), address, createDomainModel().getChild(PROFILE_A)));
+
+        final Resource changed = createDomainModel().getChild(PROFILE_A);
+        changed.getChild(LOGGING).getModel().get("changed").set(true);
+        Assert.assertEquals(DomainModelDigest.hash(address, changed), cache.hash(version, address, changed));
+        final Resource added = createDomainModel().getChild(PROFILE_A);
+        added.registerChild(PathElement.pathElement(SUBSYSTEM, "io"), Resource.Factory.create());
+        Assert.assertEquals(DomainModelDigest.hash(address, added), cache.hash(version, address, added));
+        Assert.assertEquals(hash, cache.hash(version, address, createDomainModel().getChild(PROFILE_A)));
+    }
+
+    private static boolean isLeftOut(final List<ModelNode> described, final PathAddress address) {
+        for (ModelNode node : described) {
+            if (PathAddress.pathAddress(node.get(DOMAIN_RESOURCE_ADDRESS)).equals(address)) {
+                return node.hasDefined(DOMAIN_RESOURCE_DIGEST);
+            }
+        }
+        return false;
+    }
+
+    private static Resource createDomainModel() {
+        final Resource root = Resource.Factory.create();
+        root.getModel().get("name").set("domain");
+        for (PathElement profile : new PathElement[] {PROFILE_A, PROFILE_B}) {
+            final Resource resource = Resource.Factory.create();
+            resource.getModel().get("name").set(profile.getValue());
+            final Resource logging = Resource.Factory.create();
+            logging.getModel().get("add-logging-api-dependencies").set(true);
+            resource.registerChild(LOGGING, logging);
+            resource.registerChild(JMX, Resource.Factory.create());
+            root.registerChild(profile, resource);
+        }
+        final Resource group = Resource.Factory.create();
+        group.getModel().get(PROFILE).set(PROFILE_A.getValue());
+        root.registerChild(GROUP, group);
+        return root;
+    }
+}
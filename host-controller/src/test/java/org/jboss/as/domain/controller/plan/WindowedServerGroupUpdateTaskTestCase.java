@@ -0,0 +1,241 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.domain.controller.plan;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.as.controller.BlockingTimeout;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ProxyController;
+import org.jboss.as.controller.remote.BlockingQueueOperationListener;
+import org.jboss.as.controller.remote.TransactionalProtocolClient;
+import org.jboss.as.controller.transform.OperationResultTransformer;
+import org.jboss.as.domain.controller.ServerIdentity;
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of how the windowed rollout task starts the servers of a group.
+ */
+public class WindowedServerGroupUpdateTaskTestCase {
+
+    private static final String GROUP = "main-server-group";
+    private static final int TIMEOUT = 10000;
+
+    @Test
+    public void testWindowBoundsServersInFlight() {
+        final List<ServerIdentity> servers = servers("host-a", 3, "host-b", 3, "host-c", 2);
+        final TestExecutor executor = new TestExecutor();
+        final ServerUpdatePolicy policy = policy(servers, 0);
+
+        createTask(servers, policy, executor, 2, Integer.MAX_VALUE).execute();
+
+        Assert.assertEquals(new HashSet<>(servers), new HashSet<>(executor.started));
+        Assert.assertEquals(2, executor.maxInFlight);
+        Assert.assertTrue(executor.inFlight.isEmpty());
+        Assert.assertFalse(policy.isFailed());
+        // one progress report per prepared result
+        Assert.assertEquals(servers.size(), executor.progress.size());
+    }
+
+    @Test
+    public void testServersOfHostStartedTogether() {
+        final List<ServerIdentity> servers = servers("host-a", 3, "host-b", 3, "host-c", 2);
+        final TestExecutor executor = new TestExecutor();
+
+        createTask(servers, policy(servers, 0), executor, 2, 1).execute();
+
+        // the window of two servers is only ever filled from a single host
+        Assert.assertEquals(servers, executor.started);
+        Assert.assertEquals(1, executor.maxHostsInFlight);
+        Assert.assertEquals(2, executor.maxInFlight);
+    }
+
+    @Test
+    public void testServerPastItsDeadlineTimesOut() {
+        final List<ServerIdentity> servers = servers("host-a", 2, "host-b", 1);
+        final ServerIdentity unresponsive = servers.get(1);
+        final TestExecutor executor = new TestExecutor();
+        executor.unresponsive.put(unresponsive, 100);
+        final ServerUpdatePolicy policy = policy(servers, 1);
+        final TestBlockingTimeout blockingTimeout = new TestBlockingTimeout();
+
+        final long start = System.currentTimeMillis();
+        createTask(servers, policy, executor, blockingTimeout, 3, Integer.MAX_VALUE).execute();
+
+        // the others did not wait for the unresponsive server's deadline, nor the task for theirs
+        Assert.assertTrue(System.currentTimeMillis() - start < TIMEOUT);
+        Assert.assertEquals(Collections.singletonList(unresponsive.toPathAddress()), blockingTimeout.timedOut);
+        Assert.assertTrue(executor.inFlight.isEmpty());
+        Assert.assertEquals(servers.size(), executor.preparedResults.size());
+        for (ServerTaskExecutor.ServerPreparedResponse response : executor.preparedResults) {
+            final boolean failed = response.getPreparedOperation().getPreparedResult().has(FAILURE_DESCRIPTION);
+            Assert.assertEquals(response.getServerIdentity().equals(unresponsive), failed);
+        }
+        // one failure is tolerated by the policy
+        Assert.assertFalse(policy.isFailed());
+    }
+
+    private static WindowedServerGroupUpdateTask createTask(final List<ServerIdentity> servers, final ServerUpdatePolicy policy,
+                                                            final TestExecutor executor, final int maxServers, final int maxHosts) {
+        return createTask(servers, policy, executor, new TestBlockingTimeout(), maxServers, maxHosts);
+    }
+
+    private static WindowedServerGroupUpdateTask createTask(final List<ServerIdentity> servers, final ServerUpdatePolicy policy,
+                                                            final TestExecutor executor, final BlockingTimeout blockingTimeout,
+                                                            final int maxServers, final int maxHosts) {
+        final ModelNode operation = new ModelNode();
+        operation.get(OP).set(WRITE_ATTRIBUTE_OPERATION);
+        final List<ServerUpdateTask> tasks = new ArrayList<>();
+        for (ServerIdentity server : servers) {
+            tasks.add(new RunningServerUpdateTask(server, operation, policy));
+        }
+        return new WindowedServerGroupUpdateTask(tasks, policy, executor, null, blockingTimeout, maxServers, maxHosts);
+    }
+
+    private static ServerUpdatePolicy policy(final List<ServerIdentity> servers, final int maxFailures) {
+        final ConcurrentGroupServerUpdatePolicy parent = new ConcurrentGroupServerUpdatePolicy(null, Collections.singleton(GROUP));
+        return new ServerUpdatePolicy(parent, GROUP, new LinkedHashSet<>(servers), maxFailures);
+    }
+
+    /**
+     * @param hostsAndCounts pairs of a host name and the number of servers of the group on that host
+     */
+    private static List<ServerIdentity> servers(final Object... hostsAndCounts) {
+        final List<ServerIdentity> servers = new ArrayList<>();
+        for (int i = 0; i < hostsAndCounts.length; i += 2) {
+            final String host = (String) hostsAndCounts[i];
+            for (int j = 1; j <= (Integer) hostsAndCounts[i + 1]; j++) {
+                servers.add(new ServerIdentity(host, GROUP, host + "-server-" + j));
+            }
+        }
+        return servers;
+    }
+
+    /**
+     * Executes server operations by preparing them straight away, except for unresponsive servers, and keeps track of
+     * the servers that have not reported their prepared result to the task yet.
+     */
+    private static class TestExecutor extends ServerTaskExecutor {
+
+        private final Map<ServerIdentity, Integer> unresponsive = new HashMap<>();
+        private final List<ServerIdentity> started = new ArrayList<>();
+        private final Set<ServerIdentity> inFlight = new HashSet<>();
+        private final List<ServerPreparedResponse> preparedResults;
+        private final List<String> progress = new ArrayList<>();
+        private int maxInFlight;
+        private int maxHostsInFlight;
+
+        TestExecutor() {
+            this(new ArrayList<>());
+        }
+
+        private TestExecutor(final List<ServerPreparedResponse> preparedResults) {
+            super(null, new HashMap<>(), preparedResults);
+            this.preparedResults = preparedResults;
+        }
+
+        @Override
+        protected int execute(final TransactionalProtocolClient.TransactionalOperationListener<ServerOperation> listener,
+                              final ServerIdentity identity, final ModelNode operation) {
+            started.add(identity);
+            inFlight.add(identity);
+            maxInFlight = Math.max(maxInFlight, inFlight.size());
+            final Set<String> hosts = new HashSet<>();
+            for (ServerIdentity server : inFlight) {
+                hosts.add(server.getHostName());
+            }
+            maxHostsInFlight = Math.max(maxHostsInFlight, hosts.size());
+
+            final Integer timeout = unresponsive.get(identity);
+            if (timeout != null) {
+                return timeout;
+            }
+            final ModelNode result = new ModelNode();
+            result.get(OUTCOME).set(SUCCESS);
+            final ServerOperation serverOperation = new ServerOperation(identity, operation, null, null, OperationResultTransformer.ORIGINAL_RESULT);
+            listener.operationPrepared(new BlockingQueueOperationListener.FailedOperation<>(serverOperation, result));
+            return TIMEOUT;
+        }
+
+        @Override
+        void recordPreparedOperation(final TransactionalProtocolClient.PreparedOperation<ServerOperation> preparedOperation) {
+            Assert.assertTrue(inFlight.remove(preparedOperation.getOperation().getIdentity()));
+            super.recordPreparedOperation(preparedOperation);
+        }
+
+        @Override
+        void recordOperationPrepareTimeout(final BlockingQueueOperationListener.FailedOperation<ServerOperation> failedOperation) {
+            Assert.assertTrue(inFlight.remove(failedOperation.getOperation().getIdentity()));
+            super.recordOperationPrepareTimeout(failedOperation);
+        }
+
+        @Override
+        void reportProgress(final String message) {
+            progress.add(message);
+        }
+    }
+
+    private static class TestBlockingTimeout implements BlockingTimeout {
+
+        private final List<PathAddress> timedOut = new ArrayList<>();
+
+        @Override
+        public int getLocalBlockingTimeout() {
+            return TIMEOUT;
+        }
+
+        @Override
+        public int getProxyBlockingTimeout(final PathAddress targetAddress, final ProxyController proxyController) {
+            return TIMEOUT;
+        }
+
+        @Override
+        public int getDomainBlockingTimeout(final boolean multipleProxies) {
+            return TIMEOUT;
+        }
+
+        @Override
+        public void timeoutDetected() {
+        }
+
+        @Override
+        public void proxyTimeoutDetected(final PathAddress targetAddress) {
+            timedOut.add(targetAddress);
+        }
+    }
+}
@@ -23,6 +23,9 @@ package org.jboss.as.host.controller;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CONCURRENT_GROUPS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.IN_SERIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_CONCURRENT_HOSTS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_CONCURRENT_PERCENTAGE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_CONCURRENT_SERVERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_FAILED_SERVERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_FAILURE_PERCENTAGE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLBACK_ACROSS_GROUPS;
@@ -171,6 +174,42 @@ public class RolloutPlanValidationUnitTestCase {
         validateRolloutPlanStructure(rolloutPlan);
     }
 
+    @Test
+    public void testServerGroupWithConcurrencyWindow() throws Exception {
+        final ModelNode rolloutPlan = new ModelNode();
+        final ModelNode inSeries = rolloutPlan.get(ROLLOUT_PLAN, IN_SERIES);
+        final ModelNode group = inSeries.add().get(SERVER_GROUP).get("group1");
+        group.get(MAX_CONCURRENT_SERVERS).set(20);
+        group.get(MAX_CONCURRENT_PERCENTAGE).set(10);
+        group.get(MAX_CONCURRENT_HOSTS).set(5);
+        validateRolloutPlanStructure(rolloutPlan);
+    }
+
+    @Test
+    public void testServerGroupWithInvalidConcurrencyWindow() throws Exception {
+        assertInvalidConcurrencyWindow(MAX_CONCURRENT_SERVERS, 0);
+        assertInvalidConcurrencyWindow(MAX_CONCURRENT_SERVERS, -1);
+        assertInvalidConcurrencyWindow(MAX_CONCURRENT_HOSTS, 0);
+        assertInvalidConcurrencyWindow(MAX_CONCURRENT_PERCENTAGE, -10);
+        assertInvalidConcurrencyWindow(MAX_CONCURRENT_PERCENTAGE, 150);
+    }
+
+    @Test
+    public void testRollingServerGroupWithConcurrencyWindow() throws Exception {
+        final ModelNode rolloutPlan = new ModelNode();
+        final ModelNode inSeries = rolloutPlan.get(ROLLOUT_PLAN, IN_SERIES);
+        final ModelNode group = inSeries.add().get(CONCURRENT_GROUPS).get("group1");
+        group.get(ROLLING_TO_SERVERS).set(true);
+        group.get(MAX_CONCURRENT_SERVERS).set(2);
+        try {
+            validateRolloutPlanStructure(rolloutPlan);
+            Assert.fail("window combined with rolling-to-servers");
+        } catch(OperationFailedException expected) {
+        }
+        group.get(ROLLING_TO_SERVERS).set(false);
+        validateRolloutPlanStructure(rolloutPlan);
+    }
+
     @Test
     public void testServerGroupWithUnrecognizedProp() throws Exception {
         final ModelNode rolloutPlan = new ModelNode();
@@ -285,6 +324,17 @@ public class RolloutPlanValidationUnitTestCase {
         validateRolloutPlanStructure(rolloutPlan);
     }
 
+    private void assertInvalidConcurrencyWindow(String name, int value) {
+        final ModelNode rolloutPlan = new ModelNode();
+        final ModelNode inSeries = rolloutPlan.get(ROLLOUT_PLAN, IN_SERIES);
+        inSeries.add().get(SERVER_GROUP).get("group1").get(name).set(value);
+        try {
+            validateRolloutPlanStructure(rolloutPlan);
+            Assert.fail(name + " " + value);
+        } catch(OperationFailedException expected) {
+        }
+    }
+
     private void validateRolloutPlanStructure(ModelNode rolloutPlan) throws OperationFailedException {
         new DomainRootDefinition.RolloutPlanValidator().validateParameter("plan", rolloutPlan);
     }
@@ -0,0 +1,338 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.jmx.model;
+
+import static javax.management.JMX.DEFAULT_VALUE_FIELD;
+import static javax.management.JMX.LEGAL_VALUES_FIELD;
+import static javax.management.JMX.MAX_VALUE_FIELD;
+import static javax.management.JMX.MIN_VALUE_FIELD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ALLOWED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEFAULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXPRESSIONS_ALLOWED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MIN;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REPLY_PROPERTIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUEST_PROPERTIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
+import static org.jboss.as.jmx.model.MBeanInfoFactory.DESC_EXPRESSIONS_ALLOWED;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import javax.management.ImmutableDescriptor;
+import javax.management.openmbean.OpenMBeanParameterInfo;
+import javax.management.openmbean.OpenMBeanParameterInfoSupport;
+import javax.management.openmbean.OpenType;
+import javax.management.openmbean.SimpleType;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.dmr.Property;
+
+/**
+ * Cache of the parts of the {@link javax.management.MBeanInfo} of the model controller MBeans that are derived from
+ * the descriptions of their resources and operations, so that {@link MBeanInfoFactory} does not have to generate the
+ * descriptions and convert their types on every call.
+ * <p>
+ * A cache belongs to a {@link ModelControllerMBeanHelper}, so there is one per set of {@link TypeConverters}. Resource
+ * descriptions are cached by registration, and are regenerated if the default locale or the attributes registered
+ * with the registration have changed. Operation and notification descriptions are cached by their
+ * {@link DescriptionProvider}, which is replaced whenever the operation or notification is registered again.
+ * </p>
+ */
+final class DescriptionCache {
+
+    private static final OpenMBeanParameterInfo[] EMPTY_PARAMETERS = new OpenMBeanParameterInfo[0];
+
+    private final TypeConverters converters;
+    private final Map<ImmutableManagementResourceRegistration, ResourceDescription> resources = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Map<DescriptionProvider, OperationDescription> operations = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Map<DescriptionProvider, Description> notifications = Collections.synchronizedMap(new WeakHashMap<>());
+
+    DescriptionCache(final TypeConverters converters) {
+        this.converters = converters;
+    }
+
+    ResourceDescription getResourceDescription(final ImmutableManagementResourceRegistration registration) {
+        final Locale locale = Locale.getDefault();
+        ResourceDescription description = resources.get(registration);
+        if (description == null || !description.locale.equals(locale) || !description.hasSameAttributes(registration)) {
+            final Map<String, AttributeAccess> attributes = new HashMap<>();
+            for (String name : registration.getAttributeNames(PathAddress.EMPTY_ADDRESS)) {
+                attributes.put(name, registration.getAttributeAccess(PathAddress.EMPTY_ADDRESS, name));
+            }
+            final DescriptionProvider provider = registration.getModelDescription(PathAddress.EMPTY_ADDRESS);
+            description = new ResourceDescription(locale, attributes, provider != null ? provider.getModelDescription(null) : new ModelNode());
+            resources.put(registration, description);
+        }
+        return description;
+    }
+
+    OperationDescription getOperationDescription(final DescriptionProvider provider) {
+        final Locale locale = Locale.getDefault();
+        OperationDescription description = operations.get(provider);
+        if (description == null || !description.locale.equals(locale)) {
+            description = new OperationDescription(locale, provider.getModelDescription(null));
+            operations.put(provider, description);
+        }
+        return description;
+    }
+
+    String getNotificationDescription(final DescriptionProvider provider) {
+        final Locale locale = Locale.getDefault();
+        Description description = notifications.get(provider);
+        if (description == null || !description.locale.equals(locale)) {
+            final ModelNode descriptionModel = provider.getModelDescription(null);
+            description = new Description(locale, descriptionModel.hasDefined(DESCRIPTION) ? descriptionModel.get(DESCRIPTION).asString() : "undefined");
+            notifications.put(provider, description);
+        }
+        return description.description;
+    }
+
+    static String getDescription(ModelNode node) {
+        if (!node.hasDefined(DESCRIPTION)) {
+            return "-";
+        }
+        String description = node.get(DESCRIPTION).asString();
+        if (description.trim().length() == 0) {
+            return "-";
+        }
+        return description;
+    }
+
+    private OpenMBeanParameterInfo[] getParameterInfos(ModelNode opNode) {
+        if (!opNode.hasDefined(REQUEST_PROPERTIES)) {
+            return EMPTY_PARAMETERS;
+        }
+        List<Property> propertyList = opNode.get(REQUEST_PROPERTIES).asPropertyList();
+        List<OpenMBeanParameterInfo> params = new ArrayList<OpenMBeanParameterInfo>(propertyList.size());
+
+        for (Property prop : propertyList) {
+            ModelNode value = prop.getValue();
+            String paramName = NameConverter.convertToCamelCase(prop.getName());
+
+            Map<String, Object> descriptions = new HashMap<String, Object>(4);
+
+            boolean expressionsAllowed = prop.getValue().hasDefined(EXPRESSIONS_ALLOWED) && prop.getValue().get(EXPRESSIONS_ALLOWED).asBoolean();
+            descriptions.put(DESC_EXPRESSIONS_ALLOWED, String.valueOf(expressionsAllowed));
+
+            if (!expressionsAllowed) {
+                Object defaultValue = getIfExists(value, DEFAULT);
+                descriptions.put(DEFAULT_VALUE_FIELD, defaultValue);
+                if (value.has(ALLOWED)) {
+                    if (value.get(TYPE).asType()!=ModelType.LIST){
+                        List<ModelNode> allowed = value.get(ALLOWED).asList();
+                        descriptions.put(LEGAL_VALUES_FIELD, fromModelNodes(allowed));
+                    }
+                } else {
+                    if (value.has(MIN)) {
+                        descriptions.put(MIN_VALUE_FIELD, getIfExistsAsComparable(value, MIN));
+                    }
+                    if (value.has(MAX)) {
+                        descriptions.put(MAX_VALUE_FIELD, getIfExistsAsComparable(value, MAX));
+                    }
+                }
+            }
+
+
+            params.add(
+                    new OpenMBeanParameterInfoSupport(
+                            paramName,
+                            getDescription(prop.getValue()),
+                            converters.convertToMBeanType(value),
+                            new ImmutableDescriptor(descriptions)));
+
+        }
+        return params.toArray(new OpenMBeanParameterInfo[params.size()]);
+    }
+
+    private Set<?> fromModelNodes(final List<ModelNode> nodes) {
+        Set<Object> values = new HashSet<Object>(nodes.size());
+        for (ModelNode node : nodes) {
+            values.add(converters.getConverter(ModelType.STRING,null).fromModelNode(node));
+        }
+        return values;
+    }
+
+    private Object getIfExists(final ModelNode parentNode, final String name) {
+        if (parentNode.has(name)) {
+            ModelNode defaultNode = parentNode.get(name);
+            return converters.fromModelNode(parentNode, defaultNode);
+        } else {
+            return null;
+        }
+    }
+
+    private Comparable<?> getIfExistsAsComparable(final ModelNode parentNode, final String name) {
+        if (parentNode.has(name)) {
+            ModelNode defaultNode = parentNode.get(name);
+            Object value = converters.fromModelNode(parentNode, defaultNode);
+            if (value instanceof Comparable) {
+                return (Comparable<?>) value;
+            }
+        }
+        return null;
+    }
+
+    private OpenType<?> getReturnType(ModelNode opNode) {
+        if (!opNode.hasDefined(REPLY_PROPERTIES)) {
+            return SimpleType.VOID;
+        }
+        if (opNode.get(REPLY_PROPERTIES).asList().size() == 0) {
+            return SimpleType.VOID;
+        }
+
+        //TODO might have more than one REPLY_PROPERTIES?
+        ModelNode reply = opNode.get(REPLY_PROPERTIES);
+        return converters.convertToMBeanType(reply);
+    }
+
+    private static class Description {
+        final Locale locale;
+        final String description;
+
+        Description(final Locale locale, final String description) {
+            this.locale = locale;
+            this.description = description;
+        }
+    }
+
+    /**
+     * The description of a resource and its attributes.
+     */
+    final class ResourceDescription extends Description {
+        private final Map<String, AttributeAccess> attributeAccess;
+        private final Map<String, AttributeDescription> attributes;
+
+        private ResourceDescription(final Locale locale, final Map<String, AttributeAccess> attributeAccess, final ModelNode description) {
+            super(locale, DescriptionCache.getDescription(description));
+            this.attributeAccess = attributeAccess;
+            final Map<String, AttributeDescription> attributes = new LinkedHashMap<>();
+            if (description.hasDefined(ATTRIBUTES)) {
+                for (Property attribute : description.get(ATTRIBUTES).asPropertyList()) {
+                    attributes.put(attribute.getName(), new AttributeDescription(attribute.getValue()));
+                }
+            }
+            this.attributes = Collections.unmodifiableMap(attributes);
+        }
+
+        String getDescription() {
+            return description;
+        }
+
+        private boolean hasSameAttributes(final ImmutableManagementResourceRegistration registration) {
+            final Set<String> names = registration.getAttributeNames(PathAddress.EMPTY_ADDRESS);
+            if (names.size() != attributeAccess.size()) {
+                return false;
+            }
+            for (String name : names) {
+                final AttributeAccess access = attributeAccess.get(name);
+                if (access == null || !access.equals(registration.getAttributeAccess(PathAddress.EMPTY_ADDRESS, name))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Gets the descriptions of the attributes, in the order of the resource description.
+         *
+         * @return the attribute descriptions, keyed by attribute name
+         */
+        Map<String, AttributeDescription> getAttributes() {
+            return attributes;
+        }
+    }
+
+    /**
+     * The description of an attribute, with its type converted to an {@link OpenType}.
+     */
+    final class AttributeDescription {
+        private final String description;
+        private final OpenType<?> openType;
+        private final boolean expressionsAllowed;
+
+        private AttributeDescription(final ModelNode attribute) {
+            this.description = DescriptionCache.getDescription(attribute);
+            this.openType = converters.convertToMBeanType(attribute);
+            this.expressionsAllowed = attribute.hasDefined(EXPRESSIONS_ALLOWED) && attribute.get(EXPRESSIONS_ALLOWED).asBoolean();
+        }
+
+        String getDescription() {
+            return description;
+        }
+
+        OpenType<?> getOpenType() {
+            return openType;
+        }
+
+        boolean isExpressionsAllowed() {
+            return expressionsAllowed;
+        }
+    }
+
+    /**
+     * The description of an operation, with its parameters and reply converted to open types.
+     */
+    final class OperationDescription extends Description {
+        private final OpenMBeanParameterInfo[] parameters;
+        private final OpenType<?> returnType;
+
+        private OperationDescription(final Locale locale, final ModelNode description) {
+            super(locale, DescriptionCache.getDescription(description));
+            this.parameters = getParameterInfos(description);
+            this.returnType = DescriptionCache.this.getReturnType(description);
+        }
+
+        String getDescription() {
+            return description;
+        }
+
+        /**
+         * Gets the parameters.
+         *
+         * @return a copy of the parameters, which the caller may modify
+         */
+        OpenMBeanParameterInfo[] getParameters() {
+            return parameters.length == 0 ? parameters : parameters.clone();
+        }
+
+        OpenType<?> getReturnType() {
+            return returnType;
+        }
+    }
+}
@@ -21,19 +21,8 @@
 */
 package org.jboss.as.jmx.model;
 
-import static javax.management.JMX.DEFAULT_VALUE_FIELD;
-import static javax.management.JMX.LEGAL_VALUES_FIELD;
-import static javax.management.JMX.MAX_VALUE_FIELD;
-import static javax.management.JMX.MIN_VALUE_FIELD;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
-import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ALLOWED;
-import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
-import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEFAULT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DESCRIBE;
-import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DESCRIPTION;
-import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXPRESSIONS_ALLOWED;
-import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX;
-import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MIN;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_CHILDREN_NAMES_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_CHILDREN_RESOURCES_OPERATION;
@@ -42,14 +31,10 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REA
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_OPERATION_NAMES_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_DESCRIPTION_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
-import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REPLY_PROPERTIES;
-import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUEST_PROPERTIES;
-import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -72,13 +57,11 @@ import javax.management.openmbean.OpenMBeanOperationInfo;
 import javax.management.openmbean.OpenMBeanOperationInfoSupport;
 import javax.management.openmbean.OpenMBeanParameterInfo;
 import javax.management.openmbean.OpenMBeanParameterInfoSupport;
-import javax.management.openmbean.OpenType;
 import javax.management.openmbean.SimpleType;
 
 import org.jboss.as.controller.CompositeOperationHandler;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
-import org.jboss.as.controller.descriptions.DescriptionProvider;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.operations.common.ValidateAddressOperationHandler;
 import org.jboss.as.controller.registry.AttributeAccess;
@@ -90,9 +73,6 @@ import org.jboss.as.controller.registry.OperationEntry.Flag;
 import org.jboss.as.jmx.logging.JmxLogger;
 import org.jboss.as.jmx.model.ChildAddOperationFinder.ChildAddOperationEntry;
 import org.jboss.as.server.deployment.DeploymentUploadStreamAttachmentHandler;
-import org.jboss.dmr.ModelNode;
-import org.jboss.dmr.ModelType;
-import org.jboss.dmr.Property;
 
 /**
  *
@@ -104,38 +84,36 @@ public class MBeanInfoFactory {
     private static final String DESC_MBEAN_EXPR_DESCR = "mbean.expression.support.description";
     private static final String DESC_ALTERNATE_MBEAN = "alternate.mbean";
     private static final String DESC_ALTERNATE_MBEAN_DESCR = "alternate.mbean.description";
-    private static final String DESC_EXPRESSIONS_ALLOWED = "expressions.allowed";
+    static final String DESC_EXPRESSIONS_ALLOWED = "expressions.allowed";
     private static final String DESC_EXPRESSIONS_ALLOWED_DESC = "expressions.allowed.description";
 
-    private static final OpenMBeanParameterInfo[] EMPTY_PARAMETERS = new OpenMBeanParameterInfo[0];
     private final ObjectName name;
-    private final TypeConverters converters;
+    private final DescriptionCache descriptionCache;
     private final ConfiguredDomains configuredDomains;
     private final MutabilityChecker mutabilityChecker;
     private final ImmutableManagementResourceRegistration resourceRegistration;
-    private final ModelNode providedDescription;
+    private final DescriptionCache.ResourceDescription providedDescription;
     private final PathAddress pathAddress;
     private final boolean legacy;
 
-    private MBeanInfoFactory(final ObjectName name, final TypeConverters converters, final ConfiguredDomains configuredDomains, final MutabilityChecker mutabilityChecker, final PathAddress address, final ImmutableManagementResourceRegistration resourceRegistration) {
+    private MBeanInfoFactory(final ObjectName name, final DescriptionCache descriptionCache, final ConfiguredDomains configuredDomains, final MutabilityChecker mutabilityChecker, final PathAddress address, final ImmutableManagementResourceRegistration resourceRegistration) {
         this.name = name;
-        this.converters = converters;
+        this.descriptionCache = descriptionCache;
         this.configuredDomains = configuredDomains;
         this.mutabilityChecker = mutabilityChecker;
         this.legacy = configuredDomains.isLegacyDomain(name);
         this.resourceRegistration = resourceRegistration;
-        DescriptionProvider provider = resourceRegistration.getModelDescription(PathAddress.EMPTY_ADDRESS);
-        providedDescription = provider != null ? provider.getModelDescription(null) : new ModelNode();
+        this.providedDescription = descriptionCache.getResourceDescription(resourceRegistration);
         this.pathAddress = address;
     }
 
-    static MBeanInfo createMBeanInfo(final ObjectName name, final TypeConverters converters, final ConfiguredDomains configuredDomains, final MutabilityChecker mutabilityChecker, final PathAddress address, final ImmutableManagementResourceRegistration resourceRegistration) throws InstanceNotFoundException{
-        return new MBeanInfoFactory(name, converters, configuredDomains, mutabilityChecker, address, resourceRegistration).createMBeanInfo();
+    static MBeanInfo createMBeanInfo(final ObjectName name, final DescriptionCache descriptionCache, final ConfiguredDomains configuredDomains, final MutabilityChecker mutabilityChecker, final PathAddress address, final ImmutableManagementResourceRegistration resourceRegistration) throws InstanceNotFoundException{
+        return new MBeanInfoFactory(name, descriptionCache, configuredDomains, mutabilityChecker, address, resourceRegistration).createMBeanInfo();
     }
 
     private MBeanInfo createMBeanInfo() {
         return new OpenMBeanInfoSupport(ModelControllerMBeanHelper.CLASS_NAME,
-                getDescription(providedDescription),
+                providedDescription.getDescription(),
                 getAttributes(),
                 getConstructors(),
                 getOperations(),
@@ -143,34 +121,19 @@ public class MBeanInfoFactory {
                 createMBeanDescriptor());
     }
 
-
-    private String getDescription(ModelNode node) {
-        if (!node.hasDefined(DESCRIPTION)) {
-            return "-";
-        }
-        String description = node.get(DESCRIPTION).asString();
-        if (description.trim().length() == 0) {
-            return "-";
-        }
-        return description;
-    }
-
     private OpenMBeanAttributeInfo[] getAttributes() {
         List<OpenMBeanAttributeInfo> infos = new LinkedList<OpenMBeanAttributeInfo>();
-        if (providedDescription.hasDefined(ATTRIBUTES)) {
-            for (final String name : providedDescription.require(ATTRIBUTES).keys()) {
-                OpenMBeanAttributeInfo attributeInfo = getAttribute(name);
-                if (attributeInfo != null) {
-                    infos.add(getAttribute(name));
-                }
+        for (Map.Entry<String, DescriptionCache.AttributeDescription> entry : providedDescription.getAttributes().entrySet()) {
+            OpenMBeanAttributeInfo attributeInfo = getAttribute(entry.getKey(), entry.getValue());
+            if (attributeInfo != null) {
+                infos.add(attributeInfo);
             }
         }
         return infos.toArray(new OpenMBeanAttributeInfo[infos.size()]);
     }
 
-    private OpenMBeanAttributeInfo getAttribute(String name) {
+    private OpenMBeanAttributeInfo getAttribute(String name, DescriptionCache.AttributeDescription attribute) {
         final String escapedName = NameConverter.convertToCamelCase(name);
-        ModelNode attribute = providedDescription.require(ATTRIBUTES).require(name);
         AttributeAccess access = resourceRegistration.getAttributeAccess(PathAddress.EMPTY_ADDRESS, name);
         if (access == null) {
             // Check for a bogus attribute in the description that's really a child
@@ -183,12 +146,12 @@ public class MBeanInfoFactory {
 
         return new OpenMBeanAttributeInfoSupport(
                 escapedName,
-                getDescription(attribute),
-                converters.convertToMBeanType(attribute),
+                attribute.getDescription(),
+                attribute.getOpenType(),
                 true,
                 writable,
                 false,
-                createAttributeDescriptor(attribute));
+                createAttributeDescriptor(attribute.isExpressionsAllowed()));
     }
 
     private OpenMBeanConstructorInfo[] getConstructors() {
@@ -239,8 +202,8 @@ public class MBeanInfoFactory {
     }
 
     private OpenMBeanOperationInfo getOperation(String name, OpenMBeanParameterInfo addWildcardChildName, OperationEntry entry) {
-        ModelNode opNode = entry.getDescriptionProvider().getModelDescription(null);
-        OpenMBeanParameterInfo[] params = getParameterInfos(opNode);
+        DescriptionCache.OperationDescription opDescription = descriptionCache.getOperationDescription(entry.getDescriptionProvider());
+        OpenMBeanParameterInfo[] params = opDescription.getParameters();
         if (addWildcardChildName != null) {
             OpenMBeanParameterInfo[] newParams = new OpenMBeanParameterInfo[params.length + 1];
             newParams[0] = addWildcardChildName;
@@ -249,105 +212,17 @@ public class MBeanInfoFactory {
         }
         return new OpenMBeanOperationInfoSupport(
                 name,
-                getDescription(opNode),
+                opDescription.getDescription(),
                 params,
-                getReturnType(opNode),
+                opDescription.getReturnType(),
                 entry.getFlags().contains(Flag.READ_ONLY) ? MBeanOperationInfo.INFO : MBeanOperationInfo.UNKNOWN,
                 createOperationDescriptor());
     }
 
-    private OpenMBeanParameterInfo[] getParameterInfos(ModelNode opNode) {
-        if (!opNode.hasDefined(REQUEST_PROPERTIES)) {
-            return EMPTY_PARAMETERS;
-        }
-        List<Property> propertyList = opNode.get(REQUEST_PROPERTIES).asPropertyList();
-        List<OpenMBeanParameterInfo> params = new ArrayList<OpenMBeanParameterInfo>(propertyList.size());
-
-        for (Property prop : propertyList) {
-            ModelNode value = prop.getValue();
-            String paramName = NameConverter.convertToCamelCase(prop.getName());
-
-            Map<String, Object> descriptions = new HashMap<String, Object>(4);
-
-            boolean expressionsAllowed = prop.getValue().hasDefined(EXPRESSIONS_ALLOWED) && prop.getValue().get(EXPRESSIONS_ALLOWED).asBoolean();
-            descriptions.put(DESC_EXPRESSIONS_ALLOWED, String.valueOf(expressionsAllowed));
-
-            if (!expressionsAllowed) {
-                Object defaultValue = getIfExists(value, DEFAULT);
-                descriptions.put(DEFAULT_VALUE_FIELD, defaultValue);
-                if (value.has(ALLOWED)) {
-                    if (value.get(TYPE).asType()!=ModelType.LIST){
-                        List<ModelNode> allowed = value.get(ALLOWED).asList();
-                        descriptions.put(LEGAL_VALUES_FIELD, fromModelNodes(allowed));
-                    }
-                } else {
-                    if (value.has(MIN)) {
-                        descriptions.put(MIN_VALUE_FIELD, getIfExistsAsComparable(value, MIN));
-                    }
-                    if (value.has(MAX)) {
-                        descriptions.put(MAX_VALUE_FIELD, getIfExistsAsComparable(value, MAX));
-                    }
-                }
-            }
-
-
-            params.add(
-                    new OpenMBeanParameterInfoSupport(
-                            paramName,
-                            getDescription(prop.getValue()),
-                            converters.convertToMBeanType(value),
-                            new ImmutableDescriptor(descriptions)));
-
-        }
-        return params.toArray(new OpenMBeanParameterInfo[params.size()]);
-    }
-
-    private Set<?> fromModelNodes(final List<ModelNode> nodes) {
-        Set<Object> values = new HashSet<Object>(nodes.size());
-        for (ModelNode node : nodes) {
-            values.add(converters.getConverter(ModelType.STRING,null).fromModelNode(node));
-        }
-        return values;
-    }
-
-    private Object getIfExists(final ModelNode parentNode, final String name) {
-        if (parentNode.has(name)) {
-            ModelNode defaultNode = parentNode.get(name);
-            return converters.fromModelNode(parentNode, defaultNode);
-        } else {
-            return null;
-        }
-    }
-
-    private Comparable<?> getIfExistsAsComparable(final ModelNode parentNode, final String name) {
-        if (parentNode.has(name)) {
-            ModelNode defaultNode = parentNode.get(name);
-            Object value = converters.fromModelNode(parentNode, defaultNode);
-            if (value instanceof Comparable) {
-                return (Comparable<?>) value;
-            }
-        }
-        return null;
-    }
-
-    private OpenType<?> getReturnType(ModelNode opNode) {
-        if (!opNode.hasDefined(REPLY_PROPERTIES)) {
-            return SimpleType.VOID;
-        }
-        if (opNode.get(REPLY_PROPERTIES).asList().size() == 0) {
-            return SimpleType.VOID;
-        }
-
-        //TODO might have more than one REPLY_PROPERTIES?
-        ModelNode reply = opNode.get(REPLY_PROPERTIES);
-        return converters.convertToMBeanType(reply);
-    }
-
     private MBeanNotificationInfo[] getNotifications() {
         List<MBeanNotificationInfo> notifications = new ArrayList<>();
         for (Map.Entry<String, NotificationEntry> entry : resourceRegistration.getNotificationDescriptions(PathAddress.EMPTY_ADDRESS, true).entrySet()) {
-            ModelNode descriptionModel = entry.getValue().getDescriptionProvider().getModelDescription(null);
-            String description = descriptionModel.get(DESCRIPTION).asString();
+            String description = descriptionCache.getNotificationDescription(entry.getValue().getDescriptionProvider());
             String notificationType = entry.getKey();
             MBeanNotificationInfo info = null;
             if (notificationType.equals(ModelDescriptionConstants.ATTRIBUTE_VALUE_WRITTEN_NOTIFICATION)) {
@@ -371,10 +246,10 @@ public class MBeanInfoFactory {
         return new ImmutableDescriptor(descriptions);
     }
 
-    private Descriptor createAttributeDescriptor(ModelNode attribute) {
+    private Descriptor createAttributeDescriptor(boolean expressionsAllowed) {
         Map<String, String> descriptions = new HashMap<String, String>();
         addMBeanExpressionSupport(descriptions);
-        Boolean allowExpressions = attribute.hasDefined(EXPRESSIONS_ALLOWED) && attribute.get(EXPRESSIONS_ALLOWED).asBoolean();
+        Boolean allowExpressions = expressionsAllowed;
         descriptions.put(DESC_EXPRESSIONS_ALLOWED, allowExpressions.toString());
         descriptions.put(DESC_EXPRESSIONS_ALLOWED_DESC, allowExpressions ?
                 JmxLogger.ROOT_LOGGER.descriptorAttributeExpressionsAllowedTrue() : JmxLogger.ROOT_LOGGER.descriptorAttributeExpressionsAllowedFalse());
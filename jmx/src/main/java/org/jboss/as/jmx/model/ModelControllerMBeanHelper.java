@@ -67,6 +67,7 @@ import org.jboss.as.controller.descriptions.DescriptionProvider;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.controller.registry.OperationEntry.Flag;
+import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.core.security.AccessMechanism;
 import org.jboss.as.jmx.logging.JmxLogger;
 import org.jboss.as.jmx.model.ChildAddOperationFinder.ChildAddOperationEntry;
@@ -92,6 +93,8 @@ public class ModelControllerMBeanHelper {
     private final ConfiguredDomains configuredDomains;
     private final String domain;
     private final ManagementModelIntegration.ManagementModelProvider managementModelProvider;
+    private final ObjectNameIndex objectNameIndex;
+    private final DescriptionCache descriptionCache;
 
     ModelControllerMBeanHelper(TypeConverters converters, ConfiguredDomains configuredDomains, String domain,
                                ModelController controller, MutabilityChecker mutabilityChecker,
@@ -103,10 +106,13 @@ public class ModelControllerMBeanHelper {
         this.accessControlUtil = new ResourceAccessControlUtil(controller);
         this.mutabilityChecker = mutabilityChecker;
         this.managementModelProvider = managementModelProvider;
+        this.objectNameIndex = new ObjectNameIndex(domain);
+        this.descriptionCache = new DescriptionCache(converters);
     }
 
     int getMBeanCount() {
-        return new RootResourceIterator<Integer>(accessControlUtil, getRootResourceAndRegistration().getResource(), new ResourceAction<Integer>() {
+        final Resource rootResource = getRootResourceAndRegistration().getResource();
+        return new RootResourceIterator<Integer>(accessControlUtil, rootResource, new ResourceAction<Integer>() {
             int count;
 
             @Override
@@ -114,6 +120,11 @@ public class ModelControllerMBeanHelper {
                 return isExcludeAddress(address) ? null : ObjectNameAddressUtil.createObjectName(domain, address);
             }
 
+            @Override
+            public ObjectName onAddress(PathAddress address, ObjectName objectName) {
+                return isExcludeAddress(address) ? null : objectName;
+            }
+
             public boolean onResource(ObjectName address) {
                 count++;
                 return true;
@@ -122,11 +133,12 @@ public class ModelControllerMBeanHelper {
             public Integer getResult() {
                 return count;
             }
-        }).iterate();
+        }).iterate(objectNameIndex.refresh(rootResource));
     }
 
     Set<ObjectInstance> queryMBeans(final MBeanServer mbeanServer, final ObjectName name, final QueryExp query) {
-        Set<ObjectInstance> basic = new RootResourceIterator<Set<ObjectInstance>>(accessControlUtil, getRootResourceAndRegistration().getResource(),
+        final Resource rootResource = getRootResourceAndRegistration().getResource();
+        Set<ObjectInstance> basic = query(new RootResourceIterator<Set<ObjectInstance>>(accessControlUtil, rootResource,
                 new ObjectNameMatchResourceAction<Set<ObjectInstance>>(name) {
 
             Set<ObjectInstance> set = new HashSet<ObjectInstance>();
@@ -146,7 +158,7 @@ public class ModelControllerMBeanHelper {
                 }
                 return set;
             }
-        }).iterate();
+        }), rootResource, name);
 
         // Handle any 'query' outside the RootResourceIterator so if the query calls back
         // into us it's not a recursive kind of thing in the ModelController
@@ -173,7 +185,8 @@ public class ModelControllerMBeanHelper {
     }
 
     Set<ObjectName> queryNames(MBeanServer mbeanServer, final ObjectName name, final QueryExp query) {
-        Set<ObjectName> basic = new RootResourceIterator<Set<ObjectName>>(accessControlUtil, getRootResourceAndRegistration().getResource(),
+        final Resource rootResource = getRootResourceAndRegistration().getResource();
+        Set<ObjectName> basic = query(new RootResourceIterator<Set<ObjectName>>(accessControlUtil, rootResource,
                 new ObjectNameMatchResourceAction<Set<ObjectName>>(name) {
 
             Set<ObjectName> set = new HashSet<ObjectName>();
@@ -193,7 +206,7 @@ public class ModelControllerMBeanHelper {
                 }
                 return set;
             }
-        }).iterate();
+        }), rootResource, name);
 
         // Handle any 'query' outside the RootResourceIterator so if the query calls back
         // into us it's not a recursive kind of thing in the ModelController
@@ -218,6 +231,20 @@ public class ModelControllerMBeanHelper {
         return result;
     }
 
+    /**
+     * Runs a query over the resources which can match the given name. Unless it is a pattern for the domain or the
+     * property values, only the resources whose addresses start with its key properties can, so only their subtrees
+     * are visited.
+     */
+    private <T> T query(final RootResourceIterator<T> iterator, final Resource rootResource, final ObjectName name) {
+        final ObjectNameIndex.Node root = objectNameIndex.refresh(rootResource);
+        if (name == null || name.isDomainPattern() || name.isPropertyValuePattern() || name.getKeyPropertyList().isEmpty()
+                || !domain.equals(name.getDomain()) || name.apply(ModelControllerMBeanHelper.createRootObjectName(domain))) {
+            return iterator.iterate(root);
+        }
+        return iterator.iterate(ObjectNameIndex.find(root, name.getKeyPropertyList()));
+    }
+
     /**  Set the mbean server on the QueryExp and try and pass back any previously set one */
     private static MBeanServer setQueryExpServer(QueryExp query, MBeanServer toSet) {
         // We assume the QueryExp is a QueryEval subclass or uses the QueryEval thread local
@@ -255,7 +282,7 @@ public class ModelControllerMBeanHelper {
             throw JmxLogger.ROOT_LOGGER.mbeanNotFound(name);
         }
         final ResourceAccessControl accessControl = accessControlUtil.getResourceAccessWithInstanceNotFoundExceptionIfNotAccessible(name, address, true);
-        return MBeanInfoFactory.createMBeanInfo(name, converters, configuredDomains, mutabilityChecker, address, getMBeanRegistration(address, reg));
+        return MBeanInfoFactory.createMBeanInfo(name, descriptionCache, configuredDomains, mutabilityChecker, address, getMBeanRegistration(address, reg));
     }
 
     Object getAttribute(final ObjectName name, final String attribute)  throws AttributeNotFoundException, InstanceNotFoundException, ReflectionException {
@@ -617,12 +644,16 @@ public class ModelControllerMBeanHelper {
 
         @Override
         public ObjectName onAddress(PathAddress address) {
+            return isExcludeAddress(address) ? null : onAddress(address, ObjectNameAddressUtil.createObjectName(domain, address));
+        }
+
+        @Override
+        public ObjectName onAddress(PathAddress address, ObjectName toMatch) {
             if (isExcludeAddress(address)) {
                 return null;
             }
 
             ObjectName result = null;
-            ObjectName toMatch = ObjectNameAddressUtil.createObjectName(domain, address);
             if (baseName == null) {
                 result = toMatch;
             } else if (address.size() == 0) {
@@ -107,9 +107,7 @@ class ObjectNameAddressUtil {
             return address;
         }
         for (Map.Entry<String, String> entry : properties.entrySet()) {
-            PathElement childElement = PathElement.pathElement(
-                    replaceEscapedCharactersInKey(entry.getKey()),
-                    replaceEscapedCharactersInValue(entry.getValue()));
+            PathElement childElement = toPathElement(entry.getKey(), entry.getValue());
             Resource child = resource.getChild(childElement);
             if (child != null) {
                 Map<String, String> childProps = new HashMap<String, String>(properties);
@@ -123,6 +121,17 @@ class ObjectNameAddressUtil {
         return null;
     }
 
+    /**
+     * Converts a key property of an ObjectName to the PathElement it stands for.
+     *
+     * @param key the escaped key
+     * @param value the escaped value
+     * @return the path element
+     */
+    static PathElement toPathElement(final String key, final String value) {
+        return PathElement.pathElement(replaceEscapedCharactersInKey(key), replaceEscapedCharactersInValue(value));
+    }
+
     /**
      * Straight conversion from an ObjectName to a PathAddress.
      *
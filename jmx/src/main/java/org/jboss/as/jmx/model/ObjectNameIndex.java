@@ -0,0 +1,206 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.jmx.model;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.ObjectName;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.controller.registry.Resource.ResourceEntry;
+
+/**
+ * Index of the {@link ObjectName}s of the resources in the management model, so that the JMX facade does not have to
+ * convert the address of every resource each time it is queried.
+ * <p>
+ * The index is refreshed on query. Since published management models are copied on write, a standard resource
+ * that is the same instance as when the index was last refreshed is unchanged, as are its descendants, so the part of
+ * the index for it is reused as is. Resources whose children may change in place, i.e. proxies, runtime resources,
+ * resources with dynamically provided children and deployments, are not indexed below themselves; their descendants
+ * are read from the model on each query.
+ * </p>
+ * <p>
+ * A name which is not a pattern, or a pattern which only leaves further key properties open, can only match resources
+ * whose addresses start with its key properties, in any order. Those resources are {@link #find(Node, Map) found}
+ * through the index rather than by visiting all of them.
+ * </p>
+ */
+final class ObjectNameIndex {
+
+    private final String domain;
+    /** Guarded by this */
+    private Node root;
+
+    ObjectNameIndex(final String domain) {
+        this.domain = domain;
+    }
+
+    /**
+     * Brings the index up to date with the given model.
+     *
+     * @param rootResource the root resource of the model
+     * @return the root node of the index
+     */
+    synchronized Node refresh(final Resource rootResource) {
+        root = index(rootResource, PathAddress.EMPTY_ADDRESS, root);
+        return root;
+    }
+
+    private Node index(final Resource resource, final PathAddress address, final Node previous) {
+        if (previous != null && previous.isReusable(resource)) {
+            return previous;
+        }
+        final ObjectName name = previous != null ? previous.name : ObjectNameAddressUtil.createObjectName(domain, address);
+        if (!isIndexable(resource, address)) {
+            return new Node(address, name, resource, false, null);
+        }
+        final Map<PathElement, Node> children = new LinkedHashMap<>();
+        for (String type : resource.getChildTypes()) {
+            if (resource.hasChildren(type)) {
+                for (ResourceEntry entry : resource.getChildren(type)) {
+                    final PathElement element = entry.getPathElement();
+                    children.put(element, index(entry, address.append(element), previous == null ? null : previous.getChild(element)));
+                }
+            }
+        }
+        // The root is the model controller's delegating resource, which always reads the latest model
+        final boolean reusable = address.size() > 0;
+        return new Node(address, name, resource, reusable, children);
+    }
+
+    /**
+     * Finds the resources whose addresses consist of exactly the given key properties, in any order.
+     *
+     * @param root the root of the index
+     * @param properties the key properties of an ObjectName, as returned by {@link ObjectName#getKeyPropertyList()}
+     * @return the nodes of the resources found. A resource below a node whose descendants are not indexed gets a
+     *         node of its own, whose descendants are not indexed either
+     */
+    static List<Node> find(final Node root, final Map<String, String> properties) {
+        final List<Node> found = new ArrayList<>();
+        find(root, properties, found);
+        return found;
+    }
+
+    private static void find(final Node node, final Map<String, String> properties, final List<Node> found) {
+        if (properties.isEmpty()) {
+            found.add(node);
+            return;
+        }
+        for (Map.Entry<String, String> entry : properties.entrySet()) {
+            final Node child = node.findChild(ObjectNameAddressUtil.toPathElement(entry.getKey(), entry.getValue()));
+            if (child != null) {
+                final Map<String, String> remaining = new HashMap<>(properties);
+                remaining.remove(entry.getKey());
+                find(child, remaining, found);
+            }
+        }
+    }
+
+    private static boolean isIndexable(final Resource resource, final PathAddress address) {
+        if (address.size() == 0) {
+            return true;
+        }
+        if (address.size() == 1 && DEPLOYMENT.equals(address.getElement(0).getKey())) {
+            // Deployment resources get their runtime children registered after the deployment operation
+            return false;
+        }
+        return !resource.isProxy() && !resource.isRuntime() && Resource.Tools.isStandardResource(resource);
+    }
+
+    /**
+     * A node of the index.
+     */
+    static final class Node {
+        private final PathAddress address;
+        private final ObjectName name;
+        private final Resource resource;
+        private final boolean reusable;
+        private final Map<PathElement, Node> children;
+
+        private Node(final PathAddress address, final ObjectName name, final Resource resource, final boolean reusable, final Map<PathElement, Node> children) {
+            this.address = address;
+            this.name = name;
+            this.resource = resource;
+            this.reusable = reusable;
+            this.children = children;
+        }
+
+        PathAddress getAddress() {
+            return address;
+        }
+
+        ObjectName getObjectName() {
+            return name;
+        }
+
+        /**
+         * Gets the resource, for nodes whose descendants are not indexed.
+         *
+         * @return the resource
+         */
+        Resource getResource() {
+            return resource;
+        }
+
+        /**
+         * Gets whether the descendants of this node are indexed.
+         *
+         * @return {@code true} if {@link #getChildren()} can be used, {@code false} if the descendants have to be
+         *         read from {@link #getResource() the resource}
+         */
+        boolean isIndexed() {
+            return children != null;
+        }
+
+        Collection<Node> getChildren() {
+            return children == null ? Collections.<Node>emptySet() : children.values();
+        }
+
+        private Node getChild(final PathElement element) {
+            return children == null ? null : children.get(element);
+        }
+
+        private Node findChild(final PathElement element) {
+            if (children != null) {
+                return children.get(element);
+            }
+            final Resource child = resource.getChild(element);
+            return child == null ? null : new Node(address.append(element), null, child, false, null);
+        }
+
+        private boolean isReusable(final Resource current) {
+            return reusable && Resource.Tools.isSameResource(resource, current);
+        }
+    }
+}
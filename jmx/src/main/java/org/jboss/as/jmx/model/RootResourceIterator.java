@@ -21,6 +21,8 @@
 */
 package org.jboss.as.jmx.model;
 
+import java.util.Collection;
+
 import javax.management.ObjectName;
 
 import org.jboss.as.controller.PathAddress;
@@ -40,17 +42,68 @@ class RootResourceIterator<T> {
     }
 
     T iterate() {
-        doIterate(rootResource, PathAddress.EMPTY_ADDRESS);
+        doIterate(rootResource, PathAddress.EMPTY_ADDRESS, null);
         return action.getResult();
     }
 
-    private void doIterate(final Resource current, final PathAddress address) {
-        boolean handleChildren = false;
+    /**
+     * Iterates over the resources using an index of their names rather than the root resource.
+     *
+     * @param root the root of the index, refreshed against the root resource
+     * @return the result of the action
+     */
+    T iterate(final ObjectNameIndex.Node root) {
+        doIterate(root);
+        return action.getResult();
+    }
 
-        ObjectName resourceObjectName = action.onAddress(address);
+    /**
+     * Iterates over the subtrees of the given nodes only, which must hold all resources the action is interested in.
+     * As in a full iteration, a subtree is skipped if the action is not interested in one of its ancestors or cannot
+     * access it.
+     *
+     * @param subtrees the nodes at the root of the subtrees
+     * @return the result of the action
+     */
+    T iterate(final Collection<ObjectNameIndex.Node> subtrees) {
+        for (ObjectNameIndex.Node node : subtrees) {
+            if (isReachable(node.getAddress())) {
+                doIterate(node);
+            }
+        }
+        return action.getResult();
+    }
+
+    private boolean isReachable(final PathAddress address) {
+        for (int i = 0; i < address.size(); i++) {
+            final PathAddress ancestor = address.subAddress(0, i);
+            if (action.onAddress(ancestor) == null || !accessControlUtil.getResourceAccess(ancestor, false).isAccessibleResource()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void doIterate(final ObjectNameIndex.Node node) {
+        if (!node.isIndexed()) {
+            doIterate(node.getResource(), node.getAddress(), node.getObjectName());
+        } else if (handleResource(node.getAddress(), node.getObjectName())) {
+            for (ObjectNameIndex.Node child : node.getChildren()) {
+                doIterate(child);
+            }
+        }
+    }
+
+    private boolean handleResource(final PathAddress address, final ObjectName objectName) {
+        ObjectName resourceObjectName = objectName == null ? action.onAddress(address) : action.onAddress(address, objectName);
         if (resourceObjectName != null && accessControlUtil.getResourceAccess(address, false).isAccessibleResource()) {
-            handleChildren = action.onResource(resourceObjectName);
+            return action.onResource(resourceObjectName);
         }
+        return false;
+    }
+
+    private void doIterate(final Resource current, final PathAddress address, final ObjectName objectName) {
+        boolean handleChildren = handleResource(address, objectName);
 
         if (handleChildren) {
             for (String type : current.getChildTypes()) {
@@ -58,7 +111,7 @@ class RootResourceIterator<T> {
                     for (ResourceEntry entry : current.getChildren(type)) {
                         final PathElement pathElement = entry.getPathElement();
                         final PathAddress childAddress = address.append(pathElement);
-                        doIterate(entry, childAddress);
+                        doIterate(entry, childAddress, null);
                     }
                 }
             }
@@ -75,6 +128,17 @@ class RootResourceIterator<T> {
          */
         ObjectName onAddress(PathAddress address);
 
+        /**
+         * Variant of {@link #onAddress(PathAddress)} for an address whose ObjectName representation is already known.
+         * @param address the address
+         * @param objectName the ObjectName representation of the address
+         * @return an ObjectName representation of the address, or {@code null} if neither the address nor
+         *         any of its children are interesting to this ResourceAction.
+         */
+        default ObjectName onAddress(PathAddress address, ObjectName objectName) {
+            return onAddress(address);
+        }
+
         /**
          *
          * @param resourceObjectName the ObjectName returned by onAddress.
@@ -0,0 +1,78 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.jmx.model;
+
+import javax.management.openmbean.SimpleType;
+
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ProcessType;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelType;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of {@link DescriptionCache}.
+ */
+public class DescriptionCacheTestCase {
+
+    private static final SimpleAttributeDefinition NAME = new SimpleAttributeDefinitionBuilder("name", ModelType.STRING).build();
+    private static final SimpleAttributeDefinition SIZE = new SimpleAttributeDefinitionBuilder("size", ModelType.INT)
+            .setAllowExpression(true)
+            .build();
+
+    @Test
+    public void testResourceDescription() {
+        ManagementResourceRegistration registration = ManagementResourceRegistration.Factory.forProcessType(ProcessType.EMBEDDED_SERVER)
+                .createRegistration(new SimpleResourceDefinition(PathElement.pathElement("test"), NonResolvingResourceDescriptionResolver.INSTANCE));
+        registration.registerReadOnlyAttribute(NAME, null);
+
+        DescriptionCache cache = new DescriptionCache(TypeConverters.createLegacyTypeConverters(true));
+        DescriptionCache.ResourceDescription description = cache.getResourceDescription(registration);
+        Assert.assertSame(description, cache.getResourceDescription(registration));
+        Assert.assertEquals(1, description.getAttributes().size());
+        Assert.assertEquals(SimpleType.STRING, description.getAttributes().get("name").getOpenType());
+
+        // Registering an attribute replaces the cached description
+        registration.registerReadOnlyAttribute(SIZE, null);
+        DescriptionCache.ResourceDescription updated = cache.getResourceDescription(registration);
+        Assert.assertNotSame(description, updated);
+        Assert.assertEquals(2, updated.getAttributes().size());
+        Assert.assertEquals(SimpleType.INTEGER, updated.getAttributes().get("size").getOpenType());
+        Assert.assertTrue(updated.getAttributes().get("size").isExpressionsAllowed());
+        Assert.assertFalse(updated.getAttributes().get("name").isExpressionsAllowed());
+        Assert.assertSame(updated, cache.getResourceDescription(registration));
+
+        // So does registering an attribute again under the same name
+        registration.unregisterAttribute(SIZE.getName());
+        Assert.assertEquals(1, cache.getResourceDescription(registration).getAttributes().size());
+        registration.registerReadOnlyAttribute(SIZE, null);
+        DescriptionCache.ResourceDescription reregistered = cache.getResourceDescription(registration);
+        Assert.assertNotSame(updated, reregistered);
+        Assert.assertEquals(2, reregistered.getAttributes().size());
+    }
+}
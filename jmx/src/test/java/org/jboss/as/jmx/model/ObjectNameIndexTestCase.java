@@ -0,0 +1,153 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.jmx.model;
+
+import static org.jboss.as.controller.PathElement.pathElement;
+
+import java.util.List;
+
+import javax.management.ObjectName;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.Resource;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of {@link ObjectNameIndex}.
+ */
+public class ObjectNameIndexTestCase {
+
+    private static final String DOMAIN = "jboss.as";
+    private static final PathElement SUBSYSTEM_A = pathElement("subsystem", "a");
+    private static final PathElement SUBSYSTEM_B = pathElement("subsystem", "b");
+    private static final PathElement CHILD = pathElement("child", "one");
+    private static final PathElement DEPLOYMENT = pathElement("deployment", "test.war");
+
+    @Test
+    public void testIndex() throws Exception {
+        ObjectNameIndex index = new ObjectNameIndex(DOMAIN);
+        ObjectNameIndex.Node root = index.refresh(createModel());
+
+        Assert.assertTrue(root.isIndexed());
+        Assert.assertEquals(ModelControllerMBeanHelper.createRootObjectName(DOMAIN), root.getObjectName());
+        Assert.assertEquals(3, root.getChildren().size());
+
+        ObjectNameIndex.Node child = getChild(getChild(root, SUBSYSTEM_A), CHILD);
+        Assert.assertTrue(child.isIndexed());
+        Assert.assertEquals(PathAddress.pathAddress(SUBSYSTEM_A, CHILD), child.getAddress());
+        Assert.assertEquals(ObjectName.getInstance("jboss.as:subsystem=a,child=one"), child.getObjectName());
+
+        // Deployments and runtime resources are read from the model
+        Assert.assertFalse(getChild(root, DEPLOYMENT).isIndexed());
+        Assert.assertFalse(getChild(getChild(root, SUBSYSTEM_B), CHILD).isIndexed());
+    }
+
+    @Test
+    public void testRefresh() throws Exception {
+        Resource model = createModel();
+        ObjectNameIndex index = new ObjectNameIndex(DOMAIN);
+        ObjectNameIndex.Node root = index.refresh(model);
+        ObjectNameIndex.Node a = getChild(root, SUBSYSTEM_A);
+        ObjectNameIndex.Node b = getChild(root, SUBSYSTEM_B);
+
+        Assert.assertSame(a, getChild(index.refresh(model), SUBSYSTEM_A));
+
+        Resource copy = Resource.Tools.copyOnWrite(model);
+        copy.requireChild(SUBSYSTEM_B).removeChild(CHILD);
+        Resource.Tools.endCopyOnWrite(copy);
+
+        ObjectNameIndex.Node refreshed = index.refresh(copy);
+        Assert.assertSame(a, getChild(refreshed, SUBSYSTEM_A));
+        Assert.assertNotSame(b, getChild(refreshed, SUBSYSTEM_B));
+        Assert.assertTrue(getChild(refreshed, SUBSYSTEM_B).getChildren().isEmpty());
+    }
+
+    @Test
+    public void testFind() throws Exception {
+        ObjectNameIndex.Node root = new ObjectNameIndex(DOMAIN).refresh(createModel());
+
+        List<ObjectNameIndex.Node> found = find(root, "jboss.as:subsystem=a,child=one");
+        Assert.assertEquals(1, found.size());
+        Assert.assertSame(getChild(getChild(root, SUBSYSTEM_A), CHILD), found.get(0));
+
+        // The order of the key properties does not matter
+        found = find(root, "jboss.as:child=one,subsystem=a");
+        Assert.assertEquals(1, found.size());
+        Assert.assertEquals(PathAddress.pathAddress(SUBSYSTEM_A, CHILD), found.get(0).getAddress());
+
+        // The remaining key properties of a pattern are below the node found
+        found = find(root, "jboss.as:subsystem=b,*");
+        Assert.assertEquals(1, found.size());
+        Assert.assertSame(getChild(root, SUBSYSTEM_B), found.get(0));
+
+        Assert.assertTrue(find(root, "jboss.as:subsystem=c").isEmpty());
+        Assert.assertTrue(find(root, "jboss.as:subsystem=a,child=two").isEmpty());
+    }
+
+    @Test
+    public void testFindBelowUnindexed() throws Exception {
+        ObjectNameIndex.Node root = new ObjectNameIndex(DOMAIN).refresh(createModel());
+
+        List<ObjectNameIndex.Node> found = find(root, "jboss.as:subsystem=a,deployment=test.war");
+        Assert.assertEquals(1, found.size());
+        ObjectNameIndex.Node node = found.get(0);
+        Assert.assertEquals(PathAddress.pathAddress(DEPLOYMENT, SUBSYSTEM_A), node.getAddress());
+        Assert.assertFalse(node.isIndexed());
+        Assert.assertNotNull(node.getResource());
+
+        found = find(root, "jboss.as:subsystem=b,child=one");
+        Assert.assertEquals(1, found.size());
+        Assert.assertFalse(found.get(0).isIndexed());
+
+        Assert.assertTrue(find(root, "jboss.as:deployment=test.war,subsystem=b").isEmpty());
+    }
+
+    private static List<ObjectNameIndex.Node> find(ObjectNameIndex.Node root, String name) throws Exception {
+        return ObjectNameIndex.find(root, ObjectName.getInstance(name).getKeyPropertyList());
+    }
+
+    private static Resource createModel() {
+        Resource root = Resource.Factory.create();
+        Resource a = Resource.Factory.create();
+        a.registerChild(CHILD, Resource.Factory.create());
+        root.registerChild(SUBSYSTEM_A, a);
+        Resource b = Resource.Factory.create();
+        b.registerChild(CHILD, Resource.Factory.create(true));
+        root.registerChild(SUBSYSTEM_B, b);
+        Resource deployment = Resource.Factory.create();
+        deployment.registerChild(SUBSYSTEM_A, Resource.Factory.create(true));
+        root.registerChild(DEPLOYMENT, deployment);
+        return root;
+    }
+
+    private static ObjectNameIndex.Node getChild(ObjectNameIndex.Node node, PathElement element) {
+        for (ObjectNameIndex.Node child : node.getChildren()) {
+            if (child.getAddress().getLastElement().equals(element)) {
+                return child;
+            }
+        }
+        throw new AssertionError(element);
+    }
+}
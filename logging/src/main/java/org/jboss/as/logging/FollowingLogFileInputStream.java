@@ -0,0 +1,175 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.remote.FollowingInputStream;
+
+/**
+ * A stream of the bytes appended to a log file, starting at a given position. Reads block until more bytes are
+ * written to the file, the follow duration elapses or the stream is closed. If the file is rotated the stream
+ * continues from the start of the new file.
+ * <p>
+ * Bytes are read from the file only as fast as the stream is consumed, so a slow reader holds no more than the
+ * caller's buffer in memory. Unlike most streams a read returns {@code 0} if no bytes were appended within
+ * {@value #HEARTBEAT_MILLIS} milliseconds, which lets the caller check on its own state between reads.
+ * </p>
+ */
+final class FollowingLogFileInputStream extends InputStream implements FollowingInputStream {
+
+    private static final long POLL_MILLIS = 250L;
+    private static final long HEARTBEAT_MILLIS = 1000L;
+
+    private final Path path;
+    private final long deadline;
+    private volatile boolean closed;
+    private volatile FileChannel channel;
+    private Object fileKey;
+    private long position;
+
+    /**
+     * Creates a new stream.
+     *
+     * @param path     the log file
+     * @param position the position in the file to start from
+     * @param duration the number of milliseconds to follow the file for
+     */
+    FollowingLogFileInputStream(final Path path, final long position, final long duration) {
+        this.path = path;
+        this.position = position;
+        this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(duration);
+    }
+
+    @Override
+    public int read() throws IOException {
+        final byte[] b = new byte[1];
+        int read;
+        while ((read = read(b, 0, 1)) == 0) {
+            // keep waiting; single byte reads must block
+        }
+        return read < 0 ? -1 : (b[0] & 0xff);
+    }
+
+    @Override
+    public synchronized int read(final byte[] b, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        final long heartbeat = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(HEARTBEAT_MILLIS);
+        while (!closed) {
+            final long now = System.nanoTime();
+            if (now - deadline >= 0) {
+                return -1;
+            }
+            final int read = readAvailable(b, off, len);
+            if (read > 0) {
+                return read;
+            }
+            if (now - heartbeat >= 0) {
+                return 0;
+            }
+            try {
+                Thread.sleep(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public synchronized int available() throws IOException {
+        if (closed || channel == null) {
+            return 0;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(0L, channel.size() - position));
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        final FileChannel channel = this.channel;
+        if (channel != null) {
+            // Closing the channel also ends a read in progress
+            channel.close();
+        }
+    }
+
+    private int readAvailable(final byte[] b, final int off, final int len) throws IOException {
+        if (channel == null && !open()) {
+            return 0;
+        }
+        final long size = channel.size();
+        if (size > position) {
+            final int read = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, size - position)), position);
+            if (read > 0) {
+                position += read;
+                return read;
+            }
+        } else if (size < position) {
+            // Truncated in place
+            position = 0L;
+        } else if (isRotated()) {
+            channel.close();
+            channel = null;
+            position = 0L;
+        }
+        return 0;
+    }
+
+    private boolean open() throws IOException {
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            // Between the rotation of the old file and the creation of the new one
+            return false;
+        }
+        fileKey = Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+        if (closed) {
+            channel.close();
+            return false;
+        }
+        return true;
+    }
+
+    private boolean isRotated() throws IOException {
+        try {
+            return !Objects.equals(fileKey, Files.readAttributes(path, BasicFileAttributes.class).fileKey());
+        } catch (NoSuchFileException e) {
+            return true;
+        }
+    }
+}
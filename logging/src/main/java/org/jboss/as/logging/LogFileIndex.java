@@ -0,0 +1,291 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A sparse index of the line offsets of a log file. The offset of every {@value #LINES_PER_ENTRY}th line is recorded
+ * so any line can be located by scanning at most that many lines. The index is extended incrementally as the file
+ * grows and rebuilt if the file is replaced or truncated, for example when it is rotated.
+ * <p>
+ * Lines are terminated by a line feed, optionally preceded by a carriage return. The index can only be used for
+ * character sets which encode those two characters as their single byte ASCII values.
+ * </p>
+ */
+final class LogFileIndex {
+
+    static final int LINES_PER_ENTRY = 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_INDEXES = 32;
+
+    private static final Map<Path, LogFileIndex> INDEXES = new LinkedHashMap<Path, LogFileIndex>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Path, LogFileIndex> eldest) {
+            return size() > MAX_INDEXES;
+        }
+    };
+
+    private Object fileKey;
+    // offsets[i] is the position of line (i * LINES_PER_ENTRY)
+    private long[] offsets = new long[16];
+    private int entries;
+    // The position just after the last line feed scanned
+    private long indexedLength;
+    // The number of complete lines before indexedLength
+    private long lineCount;
+
+    private LogFileIndex() {
+        reset(null);
+    }
+
+    /**
+     * Gets the index for the log file, creating an empty one if the file has not been indexed yet.
+     *
+     * @param path the log file
+     *
+     * @return the index
+     */
+    static LogFileIndex getIndex(final Path path) {
+        final Path key = path.toAbsolutePath().normalize();
+        synchronized (INDEXES) {
+            LogFileIndex index = INDEXES.get(key);
+            if (index == null) {
+                index = new LogFileIndex();
+                INDEXES.put(key, index);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Checks whether the lines of a file in the character set can be found by scanning for line feed bytes.
+     *
+     * @param charset the character set of the file
+     *
+     * @return {@code true} if the index can be used, otherwise {@code false}
+     */
+    static boolean isIndexable(final Charset charset) {
+        if (!charset.canEncode()) {
+            return false;
+        }
+        try {
+            final ByteBuffer encoded = charset.newEncoder().encode(CharBuffer.wrap("\r\n"));
+            return encoded.remaining() == 2 && encoded.get(0) == '\r' && encoded.get(1) == '\n';
+        } catch (CharacterCodingException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Brings the index up to date with the file and finds the positions of the requested lines.
+     *
+     * @param path          the log file
+     * @param channel       a channel open for reading the log file
+     * @param tail          {@code true} to count the lines from the end of the file
+     * @param skip          the number of lines to skip
+     * @param numberOfLines the number of lines to find or -1 for all the remaining lines
+     *
+     * @return the start position, inclusive, and the end position, exclusive, of the lines
+     *
+     * @throws IOException if the file could not be read
+     */
+    synchronized long[] findLines(final Path path, final FileChannel channel, final boolean tail, final int skip, final int numberOfLines) throws IOException {
+        final long size = channel.size();
+        update(path, channel, size);
+        // A trailing line without a line feed is still being written but is returned like any other line
+        final long totalLines = lineCount + (size > indexedLength ? 1 : 0);
+        final long first;
+        final long last;
+        if (tail) {
+            last = Math.max(0L, totalLines - skip);
+            first = numberOfLines < 0 ? 0L : Math.max(0L, last - numberOfLines);
+        } else {
+            first = Math.min((long) skip, totalLines);
+            last = numberOfLines < 0 ? totalLines : Math.min(totalLines, first + numberOfLines);
+        }
+        return new long[] {getPosition(channel, first, size), getPosition(channel, last, size)};
+    }
+
+    private void update(final Path path, final FileChannel channel, final long size) throws IOException {
+        final Object currentKey = Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+        if (size < indexedLength || !Objects.equals(fileKey, currentKey) || !endsWithLineFeed(channel, indexedLength)) {
+            reset(currentKey);
+        }
+        if (size == indexedLength) {
+            return;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long position = indexedLength;
+        while (position < size) {
+            buffer.clear();
+            final int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            final byte[] bytes = buffer.array();
+            for (int i = 0; i < read; i++) {
+                if (bytes[i] == '\n') {
+                    indexedLength = position + i + 1;
+                    if (++lineCount % LINES_PER_ENTRY == 0) {
+                        addEntry(indexedLength);
+                    }
+                }
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * A cheap check that a file truncated and rewritten in place still has a line feed where the index expects one.
+     */
+    private static boolean endsWithLineFeed(final FileChannel channel, final long length) throws IOException {
+        if (length == 0L) {
+            return true;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(1);
+        return channel.read(buffer, length - 1) == 1 && buffer.get(0) == '\n';
+    }
+
+    private long getPosition(final FileChannel channel, final long line, final long size) throws IOException {
+        if (line >= lineCount) {
+            return line == lineCount ? indexedLength : size;
+        }
+        final int entry = (int) (line / LINES_PER_ENTRY);
+        long position = offsets[entry];
+        int remaining = (int) (line % LINES_PER_ENTRY);
+        if (remaining == 0) {
+            return position;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(8192);
+        while (true) {
+            buffer.clear();
+            final int read = channel.read(buffer, position);
+            if (read <= 0) {
+                // The file was truncated while reading
+                return size;
+            }
+            final byte[] bytes = buffer.array();
+            for (int i = 0; i < read; i++) {
+                if (bytes[i] == '\n' && --remaining == 0) {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+
+    private void addEntry(final long position) {
+        if (entries == offsets.length) {
+            offsets = Arrays.copyOf(offsets, entries << 1);
+        }
+        offsets[entries++] = position;
+    }
+
+    private void reset(final Object fileKey) {
+        this.fileKey = fileKey;
+        offsets = new long[16];
+        entries = 0;
+        indexedLength = 0L;
+        lineCount = 0L;
+        addEntry(0L);
+    }
+
+    /**
+     * Creates a stream of the bytes between two positions of a file. Closing the stream closes the channel.
+     *
+     * @param channel the channel to read from
+     * @param start   the position of the first byte
+     * @param end     the position after the last byte
+     *
+     * @return the stream
+     */
+    static InputStream newInputStream(final FileChannel channel, final long start, final long end) {
+        return new RangeInputStream(channel, start, end);
+    }
+
+    private static class RangeInputStream extends InputStream {
+        private final FileChannel channel;
+        private final long end;
+        private long position;
+
+        private RangeInputStream(final FileChannel channel, final long start, final long end) {
+            this.channel = channel;
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] b = new byte[1];
+            return read(b, 0, 1) < 0 ? -1 : (b[0] & 0xff);
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= end) {
+                return -1;
+            }
+            final int max = (int) Math.min(len, end - position);
+            final int read = channel.read(ByteBuffer.wrap(b, off, max), position);
+            if (read < 0) {
+                return -1;
+            }
+            position += read;
+            return read;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            final long skipped = Math.max(0L, Math.min(n, end - position));
+            position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(Integer.MAX_VALUE, end - position);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -25,19 +25,25 @@ package org.jboss.as.logging;
 import static org.jboss.as.logging.CommonAttributes.ENCODING;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.OperationContext;
@@ -53,6 +59,7 @@ import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.access.constraint.SensitivityClassification;
 import org.jboss.as.controller.access.management.AccessConstraintDefinition;
 import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraintDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.services.path.PathManager;
@@ -109,15 +116,36 @@ class LogFileResourceDefinition extends SimpleResourceDefinition {
             .setDefaultValue(new ModelNode(true))
             .build();
 
+    static final SimpleAttributeDefinition STREAM_LINES = SimpleAttributeDefinitionBuilder.create("stream", ModelType.BOOLEAN, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(false))
+            .build();
+
     static final SimpleOperationDefinition READ_LOG_FILE = new SimpleOperationDefinitionBuilder("read-log-file", LoggingExtension.getResourceDescriptionResolver())
             .addAccessConstraint(VIEW_SERVER_LOGS)
-            .setParameters(ENCODING, LINES, SKIP, TAIL)
+            .setParameters(ENCODING, LINES, SKIP, TAIL, STREAM_LINES)
+            // When streaming the reply is instead the uuid of the response attachment, see the reply description
             .setReplyType(ModelType.LIST)
             .setReplyValueType(ModelType.STRING)
             .setReadOnly()
             .setRuntimeOnly()
             .build();
 
+    static final SimpleAttributeDefinition DURATION = SimpleAttributeDefinitionBuilder.create("duration", ModelType.INT, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(60))
+            .setMeasurementUnit(MeasurementUnit.SECONDS)
+            .setValidator(new IntRangeValidator(1, 3600, true, true))
+            .build();
+
+    static final SimpleOperationDefinition FOLLOW_LOG_FILE = new SimpleOperationDefinitionBuilder("follow-log-file", LoggingExtension.getResourceDescriptionResolver())
+            .addAccessConstraint(VIEW_SERVER_LOGS)
+            .setParameters(LINES, DURATION)
+            .setReplyType(ModelType.STRING)
+            .setReadOnly()
+            .setRuntimeOnly()
+            .build();
+
     static final PathElement LOG_FILE_PATH = PathElement.pathElement("log-file");
 
     private final PathManager pathManager;
@@ -133,6 +161,7 @@ class LogFileResourceDefinition extends SimpleResourceDefinition {
     public void registerOperations(final ManagementResourceRegistration resourceRegistration) {
         super.registerOperations(resourceRegistration);
         resourceRegistration.registerOperationHandler(READ_LOG_FILE, new ReadLogFileOperation(pathManager));
+        resourceRegistration.registerOperationHandler(FOLLOW_LOG_FILE, new FollowLogFileOperation(pathManager));
 
     }
 
@@ -220,6 +249,7 @@ class LogFileResourceDefinition extends SimpleResourceDefinition {
             final int numberOfLines = LINES.resolveModelAttribute(context, operation).asInt();
             final int skip = SKIP.resolveModelAttribute(context, operation).asInt();
             final boolean tail = TAIL.resolveModelAttribute(context, operation).asBoolean();
+            final boolean stream = STREAM_LINES.resolveModelAttribute(context, operation).asBoolean();
             final ModelNode encodingModel = ENCODING.resolveModelAttribute(context, operation);
             final String encoding = (encodingModel.isDefined() ? encodingModel.asString() : null);
             final String fileName = LoggingOperations.getAddressName(operation);
@@ -232,6 +262,12 @@ class LogFileResourceDefinition extends SimpleResourceDefinition {
 
             // Read the contents of the log file
             try {
+                if (stream) {
+                    final String uuid = context.attachResultStream("text/plain", openLines(path, encoding, tail, skip, numberOfLines));
+                    context.getResult().set(uuid);
+                    context.completeStep(ResultHandler.NOOP_RESULT_HANDLER);
+                    return;
+                }
                 final List<String> lines;
                 if (numberOfLines == 0) {
                     lines = Collections.emptyList();
@@ -247,31 +283,153 @@ class LogFileResourceDefinition extends SimpleResourceDefinition {
             }
             context.completeStep(ResultHandler.NOOP_RESULT_HANDLER);
         }
+    }
 
-        private List<String> readLines(final File file, final String encoding, final boolean tail, final int skip, final int numberOfLines) throws IOException {
-            final List<String> lines;
-            if (numberOfLines < 0) {
-                lines = new ArrayList<>();
-            } else {
-                lines = new ArrayList<>(numberOfLines);
+    /**
+     * Attaches a stream to the response that follows a log file, starting with its last lines. The stream delivers
+     * the bytes appended to the file as they are written until the requested duration elapses or the client closes
+     * the stream.
+     */
+    static class FollowLogFileOperation implements OperationStepHandler {
+
+        private final PathManager pathManager;
+
+        private FollowLogFileOperation(final PathManager pathManager) {
+            this.pathManager = pathManager;
+        }
+
+        @Override
+        public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+            // Validate the operation
+            for (AttributeDefinition attribute : FOLLOW_LOG_FILE.getParameters()) {
+                attribute.validateOperation(operation);
             }
-            try (
-                    final InputStream in = (tail ? new LifoFileInputStream(file) : Files.newInputStream(file.toPath()));
-                    final InputStreamReader isr = (encoding == null ? new InputStreamReader(in) : new InputStreamReader(in, encoding));
-                    final BufferedReader reader = new BufferedReader(isr)
-            ) {
-                int lineCount = 0;
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (++lineCount <= skip) continue;
-                    if (lines.size() == numberOfLines) break;
-                    lines.add(line);
-                }
-                if (tail) {
-                    Collections.reverse(lines);
+            final int numberOfLines = LINES.resolveModelAttribute(context, operation).asInt();
+            final int duration = DURATION.resolveModelAttribute(context, operation).asInt();
+            final String fileName = LoggingOperations.getAddressName(operation);
+            final File file = new File(pathManager.resolveRelativePathEntry(fileName, ServerEnvironment.SERVER_LOG_DIR));
+
+            // The file must exist
+            if (!file.exists()) {
+                throw LoggingLogger.ROOT_LOGGER.logFileNotFound(fileName, ServerEnvironment.SERVER_LOG_DIR);
+            }
+
+            final Path path = file.toPath();
+            try {
+                final long position;
+                try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    if (numberOfLines == 0) {
+                        position = channel.size();
+                    } else {
+                        position = LogFileIndex.getIndex(path).findLines(path, channel, true, 0, numberOfLines)[0];
+                    }
                 }
-                return lines;
+                final InputStream in = new FollowingLogFileInputStream(path, position, TimeUnit.SECONDS.toMillis(duration));
+                context.getResult().set(context.attachResultStream("text/plain", in));
+            } catch (IOException e) {
+                throw LoggingLogger.ROOT_LOGGER.failedToReadLogFile(e, fileName);
+            }
+            context.completeStep(ResultHandler.NOOP_RESULT_HANDLER);
+        }
+    }
+
+    /**
+     * Reads lines from a log file. The lines are located with the file's {@link LogFileIndex} when the encoding
+     * allows it, otherwise the file is read sequentially.
+     *
+     * @param file          the log file
+     * @param encoding      the encoding of the file or {@code null} for the default encoding
+     * @param tail          {@code true} to count the lines from the end of the file
+     * @param skip          the number of lines to skip
+     * @param numberOfLines the number of lines to read or -1 for all the remaining lines
+     *
+     * @return the lines in the order they appear in the file
+     *
+     * @throws IOException if the file could not be read
+     */
+    static List<String> readLines(final File file, final String encoding, final boolean tail, final int skip, final int numberOfLines) throws IOException {
+        final Charset charset = getCharset(encoding);
+        if (!LogFileIndex.isIndexable(charset)) {
+            return readLinesSequentially(file, charset, tail, skip, numberOfLines);
+        }
+        final List<String> lines;
+        if (numberOfLines < 0) {
+            lines = new ArrayList<>();
+        } else {
+            lines = new ArrayList<>(numberOfLines);
+        }
+        try (final BufferedReader reader = new BufferedReader(new InputStreamReader(openIndexedLines(file.toPath(), tail, skip, numberOfLines), charset))) {
+            String line;
+            while (lines.size() != numberOfLines && (line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Opens a stream of the raw bytes of the requested lines of a log file.
+     *
+     * @see #readLines(File, String, boolean, int, int)
+     */
+    static InputStream openLines(final File file, final String encoding, final boolean tail, final int skip, final int numberOfLines) throws IOException {
+        final Charset charset = getCharset(encoding);
+        if (LogFileIndex.isIndexable(charset)) {
+            return openIndexedLines(file.toPath(), tail, skip, numberOfLines);
+        }
+        final StringBuilder result = new StringBuilder();
+        if (numberOfLines != 0) {
+            for (String line : readLinesSequentially(file, charset, tail, skip, numberOfLines)) {
+                result.append(line).append('\n');
+            }
+        }
+        return new ByteArrayInputStream(result.toString().getBytes(charset));
+    }
+
+    private static InputStream openIndexedLines(final Path path, final boolean tail, final int skip, final int numberOfLines) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            final long[] range = LogFileIndex.getIndex(path).findLines(path, channel, tail, skip, numberOfLines);
+            return LogFileIndex.newInputStream(channel, range[0], range[1]);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static Charset getCharset(final String encoding) throws UnsupportedEncodingException {
+        if (encoding == null) {
+            return Charset.defaultCharset();
+        }
+        try {
+            return Charset.forName(encoding);
+        } catch (IllegalArgumentException e) {
+            throw new UnsupportedEncodingException(encoding);
+        }
+    }
+
+    private static List<String> readLinesSequentially(final File file, final Charset charset, final boolean tail, final int skip, final int numberOfLines) throws IOException {
+        final List<String> lines;
+        if (numberOfLines < 0) {
+            lines = new ArrayList<>();
+        } else {
+            lines = new ArrayList<>(numberOfLines);
+        }
+        try (
+                final InputStream in = (tail ? new LifoFileInputStream(file) : Files.newInputStream(file.toPath()));
+                final BufferedReader reader = new BufferedReader(new InputStreamReader(in, charset))
+        ) {
+            int lineCount = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (++lineCount <= skip) continue;
+                if (lines.size() == numberOfLines) break;
+                lines.add(line);
+            }
+            if (tail) {
+                Collections.reverse(lines);
             }
+            return lines;
         }
     }
 
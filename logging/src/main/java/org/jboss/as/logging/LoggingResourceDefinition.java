@@ -24,13 +24,8 @@ package org.jboss.as.logging;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
 
-import java.io.BufferedReader;
-import java.io.Closeable;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.nio.file.Path;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -272,7 +267,7 @@ public class LoggingResourceDefinition extends TransformerResourceDefinition {
                 if (numberOfLines == 0) {
                     lines = Collections.emptyList();
                 } else {
-                    lines = readLines(path, encoding, tail, skip, numberOfLines);
+                    lines = LogFileResourceDefinition.readLines(path, encoding, tail, skip, numberOfLines);
                 }
                 final ModelNode result = context.getResult().setEmptyList();
                 for (String line : lines) {
@@ -283,50 +278,6 @@ public class LoggingResourceDefinition extends TransformerResourceDefinition {
             }
             context.completeStep(ResultHandler.NOOP_RESULT_HANDLER);
         }
-
-        private List<String> readLines(final File file, final String encoding, final boolean tail, final int skip, final int numberOfLines) throws IOException {
-            final List<String> lines;
-            if (numberOfLines < 0) {
-                lines = new ArrayList<String>();
-            } else {
-                lines = new ArrayList<String>(numberOfLines);
-            }
-            final InputStream in;
-            BufferedReader reader = null;
-            try {
-                if (tail) {
-                    in = new LogFileResourceDefinition.LifoFileInputStream(file);
-                } else {
-                    in = new FileInputStream(file);
-                }
-                if (encoding == null) {
-                    reader = new BufferedReader(new InputStreamReader(in));
-                } else {
-                    reader = new BufferedReader(new InputStreamReader(in, encoding));
-                }
-                int lineCount = 0;
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (++lineCount <= skip) continue;
-                    if (lines.size() == numberOfLines) break;
-                    lines.add(line);
-                }
-                if (tail) {
-                    Collections.reverse(lines);
-                }
-                return lines;
-            } finally {
-                safeClose(reader);
-            }
-        }
-    }
-
-    private static void safeClose(final Closeable closeable) {
-        if (closeable != null) try {
-            closeable.close();
-        } catch (Throwable t) {
-            LoggingLogger.ROOT_LOGGER.failedToCloseResource(t, closeable);
-        }
     }
 
     private static List<File> findFiles(final String defaultLogDir, final ModelNode model) throws IOException {
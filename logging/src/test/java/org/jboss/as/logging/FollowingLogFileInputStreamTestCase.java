@@ -0,0 +1,173 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests following a log file with {@link FollowingLogFileInputStream}.
+ */
+public class FollowingLogFileInputStreamTestCase {
+
+    private static final long FOLLOW_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testAppends() throws Exception {
+        final Path path = createFile("line0\nline1\n");
+        try (InputStream in = new FollowingLogFileInputStream(path, 6L, FOLLOW_MILLIS)) {
+            Assert.assertEquals("line1\n", read(in, 6));
+
+            // Nothing appended, so a read eventually returns 0 bytes rather than blocking
+            Assert.assertEquals(0, in.read(new byte[16], 0, 16));
+
+            append(path, "line2\n");
+            Assert.assertEquals("line2\n", read(in, 6));
+            append(path, "line3\nline4\n");
+            Assert.assertEquals("line3\nline4\n", read(in, 12));
+        }
+    }
+
+    @Test
+    public void testRotation() throws Exception {
+        final Path path = createFile("old0\n");
+        try (InputStream in = new FollowingLogFileInputStream(path, 0L, FOLLOW_MILLIS)) {
+            Assert.assertEquals("old0\n", read(in, 5));
+
+            Files.move(path, path.resolveSibling(path.getFileName() + ".1"));
+            Files.write(path, "new0\n".getBytes(StandardCharsets.UTF_8));
+            Assert.assertEquals("new0\n", read(in, 5));
+
+            append(path, "new1\n");
+            Assert.assertEquals("new1\n", read(in, 5));
+        }
+    }
+
+    @Test
+    public void testTruncation() throws Exception {
+        final Path path = createFile("line0\nline1\n");
+        try (InputStream in = new FollowingLogFileInputStream(path, 0L, FOLLOW_MILLIS)) {
+            Assert.assertEquals("line0\nline1\n", read(in, 12));
+
+            Files.write(path, "new0\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.TRUNCATE_EXISTING);
+            Assert.assertEquals("new0\n", read(in, 5));
+        }
+    }
+
+    @Test
+    public void testDeadline() throws Exception {
+        final Path path = createFile("line0\n");
+        final long start = System.nanoTime();
+        try (InputStream in = new FollowingLogFileInputStream(path, 0L, 500L)) {
+            Assert.assertEquals("line0\n", read(in, 6));
+            int read;
+            while ((read = in.read(new byte[16], 0, 16)) == 0) {
+                // heartbeat
+            }
+            Assert.assertEquals(-1, read);
+            final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            Assert.assertTrue("Elapsed " + elapsed, elapsed >= 500L && elapsed < FOLLOW_MILLIS);
+
+            // Even if more is appended
+            append(path, "line1\n");
+            Assert.assertEquals(-1, in.read(new byte[16], 0, 16));
+        }
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        final Path path = createFile("line0\n");
+        final InputStream in = new FollowingLogFileInputStream(path, 6L, FOLLOW_MILLIS);
+        final AtomicInteger result = new AtomicInteger(Integer.MIN_VALUE);
+        final Thread reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    int read;
+                    while ((read = in.read(new byte[16], 0, 16)) == 0) {
+                        // heartbeat
+                    }
+                    result.set(read);
+                } catch (IOException e) {
+                    result.set(Integer.MAX_VALUE);
+                }
+            }
+        });
+        reader.start();
+        Thread.sleep(100L);
+
+        // Closing ends a read in progress
+        in.close();
+        reader.join(TimeUnit.SECONDS.toMillis(10));
+        Assert.assertFalse(reader.isAlive());
+        Assert.assertEquals(-1, result.get());
+        Assert.assertEquals(0, in.available());
+
+        append(path, "line1\n");
+        Assert.assertEquals(-1, in.read(new byte[16], 0, 16));
+    }
+
+    private Path createFile(final String content) throws IOException {
+        final Path path = temporaryFolder.newFile().toPath();
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+        return path;
+    }
+
+    private static void append(final Path path, final String content) throws IOException {
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Reads the given number of bytes, allowing up to 10 heartbeats without any.
+     */
+    private static String read(final InputStream in, final int length) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[length];
+        int heartbeats = 0;
+        while (out.size() < length) {
+            final int read = in.read(buffer, 0, length - out.size());
+            if (read < 0) {
+                Assert.fail("Stream ended after " + out);
+            } else if (read == 0) {
+                Assert.assertTrue("Timed out after " + out, ++heartbeats < 10);
+            }
+            out.write(buffer, 0, read);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the line lookups of {@link LogFileIndex}.
+ */
+public class LogFileIndexTestCase {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testHeadAndTail() throws Exception {
+        final Path path = createFile(lines(0, 10));
+
+        Assert.assertEquals(lines(0, 10), readLines(path, false, 0, -1));
+        Assert.assertEquals(lines(2, 5), readLines(path, false, 2, 3));
+        Assert.assertEquals(lines(8, 10), readLines(path, false, 8, 5));
+        Assert.assertEquals("", readLines(path, false, 20, 5));
+
+        Assert.assertEquals(lines(7, 10), readLines(path, true, 0, 3));
+        Assert.assertEquals(lines(5, 8), readLines(path, true, 2, 3));
+        Assert.assertEquals(lines(0, 8), readLines(path, true, 2, -1));
+        Assert.assertEquals(lines(0, 2), readLines(path, true, 8, 5));
+        Assert.assertEquals("", readLines(path, true, 20, 5));
+    }
+
+    @Test
+    public void testSparseEntries() throws Exception {
+        final int count = LogFileIndex.LINES_PER_ENTRY * 3 + 10;
+        final Path path = createFile(lines(0, count));
+
+        Assert.assertEquals(lines(LogFileIndex.LINES_PER_ENTRY, LogFileIndex.LINES_PER_ENTRY + 1),
+                readLines(path, false, LogFileIndex.LINES_PER_ENTRY, 1));
+        Assert.assertEquals(lines(LogFileIndex.LINES_PER_ENTRY * 2 - 3, LogFileIndex.LINES_PER_ENTRY * 2 + 3),
+                readLines(path, false, LogFileIndex.LINES_PER_ENTRY * 2 - 3, 6));
+        Assert.assertEquals(lines(count - 20, count - 5), readLines(path, true, 5, 15));
+
+        // Appended lines are indexed from where the last update stopped
+        append(path, lines(count, count + LogFileIndex.LINES_PER_ENTRY));
+        Assert.assertEquals(lines(count + 100, count + 102), readLines(path, false, count + 100, 2));
+        Assert.assertEquals(lines(count + LogFileIndex.LINES_PER_ENTRY - 1, count + LogFileIndex.LINES_PER_ENTRY),
+                readLines(path, true, 0, 1));
+    }
+
+    @Test
+    public void testPartialTrailingLine() throws Exception {
+        final Path path = createFile("line0\nline1\npartial");
+
+        // The line still being written counts as the last line
+        Assert.assertEquals("partial", readLines(path, true, 0, 1));
+        Assert.assertEquals("line1\n", readLines(path, true, 1, 1));
+        Assert.assertEquals("line0\nline1\npartial", readLines(path, false, 0, -1));
+        Assert.assertEquals("partial", readLines(path, false, 2, 5));
+
+        // Once it is completed it is indexed as a whole line
+        append(path, " line\nline3\n");
+        Assert.assertEquals("partial line\n", readLines(path, false, 2, 1));
+        Assert.assertEquals("partial line\nline3\n", readLines(path, true, 0, 2));
+    }
+
+    @Test
+    public void testTruncation() throws Exception {
+        final Path path = createFile(lines(0, 10));
+        Assert.assertEquals(lines(9, 10), readLines(path, true, 0, 1));
+
+        Files.write(path, "first\nsecond\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.TRUNCATE_EXISTING);
+        Assert.assertEquals("first\nsecond\n", readLines(path, false, 0, -1));
+        Assert.assertEquals("second\n", readLines(path, true, 0, 1));
+    }
+
+    @Test
+    public void testRewrittenInPlace() throws Exception {
+        final Path path = createFile("aa\nbb\n");
+        Assert.assertEquals("bb\n", readLines(path, true, 0, 1));
+
+        // Same file and longer than what was indexed, but the old last line feed is gone
+        final byte[] rewritten = "one\ntwo\nthree\n".getBytes(StandardCharsets.UTF_8);
+        Assert.assertNotEquals('\n', rewritten[5]);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(0L);
+            channel.write(ByteBuffer.wrap(rewritten), 0L);
+        }
+        Assert.assertEquals("one\ntwo\nthree\n", readLines(path, true, 0, 3));
+        Assert.assertEquals("two\n", readLines(path, false, 1, 1));
+    }
+
+    @Test
+    public void testRotation() throws Exception {
+        final Path path = createFile("aa\nbb\n");
+        final Object fileKey = Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+        Assume.assumeNotNull(fileKey);
+        Assert.assertEquals("bb\n", readLines(path, true, 0, 1));
+
+        // A new file which is longer and has a line feed where the old one ended is only told apart by its key
+        Files.move(path, path.resolveSibling(path.getFileName() + ".1"));
+        Files.write(path, "a\nb\nc\nzzz\n".getBytes(StandardCharsets.UTF_8));
+        Assume.assumeFalse(fileKey.equals(Files.readAttributes(path, BasicFileAttributes.class).fileKey()));
+        Assert.assertEquals("c\nzzz\n", readLines(path, true, 0, 2));
+        Assert.assertEquals("a\nb\nc\nzzz\n", readLines(path, true, 0, 4));
+    }
+
+    private Path createFile(final String content) throws IOException {
+        final Path path = temporaryFolder.newFile().toPath();
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+        return path;
+    }
+
+    private static void append(final Path path, final String content) throws IOException {
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    }
+
+    private static String lines(final int from, final int to) {
+        final StringBuilder result = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            result.append("line").append(i).append('\n');
+        }
+        return result.toString();
+    }
+
+    private static String readLines(final Path path, final boolean tail, final int skip, final int numberOfLines) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        final long[] range = LogFileIndex.getIndex(path).findLines(path, channel, tail, skip, numberOfLines);
+        try (InputStream in = LogFileIndex.newInputStream(channel, range[0], range[1])) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            int len;
+            while ((len = in.read(buffer)) != -1) {
+                out.write(buffer, 0, len);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
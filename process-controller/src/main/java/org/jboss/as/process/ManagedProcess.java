@@ -27,13 +27,12 @@ import static java.lang.Thread.holdsLock;
 import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.FilterInputStream;
 import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.io.PrintStream;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
@@ -73,6 +72,8 @@ final class ManagedProcess {
     private boolean shutdown;
     private boolean stopRequested = false;
     private final AtomicInteger respawnCount = new AtomicInteger(0);
+    private volatile ProcessOutputPump.Output stdoutOutput;
+    private volatile ProcessOutputPump.Output stderrOutput;
 
     public String getAuthKey() {
         return authKey;
@@ -146,6 +147,29 @@ final class ManagedProcess {
         return processName;
     }
 
+    /**
+     * Gets the number of bytes the current or last run of the process has written to its stdout and stderr.
+     *
+     * @return the number of bytes
+     */
+    long getOutputBytes() {
+        final ProcessOutputPump.Output stdout = stdoutOutput;
+        final ProcessOutputPump.Output stderr = stderrOutput;
+        return (stdout == null ? 0L : stdout.getBytes()) + (stderr == null ? 0L : stderr.getBytes());
+    }
+
+    /**
+     * Gets the number of lines of output of the current or last run of the process that were dropped because they
+     * could not be written fast enough.
+     *
+     * @return the number of lines
+     */
+    long getDroppedOutputLines() {
+        final ProcessOutputPump.Output stdout = stdoutOutput;
+        final ProcessOutputPump.Output stderr = stderrOutput;
+        return (stdout == null ? 0L : stdout.getDroppedLines()) + (stderr == null ? 0L : stderr.getDroppedLines());
+    }
+
     public void start() {
         synchronized (lock) {
             if (state != State.DOWN) {
@@ -218,10 +242,13 @@ final class ManagedProcess {
         final OutputStream stdin = process.getOutputStream();
         final InputStream stderr = process.getErrorStream();
         final InputStream stdout = process.getInputStream();
-        final Thread stderrThread = new Thread(new ReadTask(stderr, processController.getStderr()));
+        final ProcessOutputPump outputPump = processController.getOutputPump();
+        stderrOutput = outputPump.createOutput(processName, processController.getStderr());
+        stdoutOutput = outputPump.createOutput(processName, processController.getStdout());
+        final Thread stderrThread = new Thread(new ReadTask(stderr, stderrOutput));
         stderrThread.setName(String.format("stderr for %s", processName));
         stderrThread.start();
-        final Thread stdoutThread = new Thread(new ReadTask(stdout, processController.getStdout()));
+        final Thread stdoutThread = new Thread(new ReadTask(stdout, stdoutOutput));
         stdoutThread.setName(String.format("stdout for %s", processName));
         stdoutThread.start();
         final Thread joinThread = new Thread(new JoinTask(startTime));
@@ -352,6 +379,10 @@ final class ManagedProcess {
             for (;;) try {
                 exitCode = process.waitFor();
                 log.processFinished(processName, exitCode);
+                final long droppedLines = getDroppedOutputLines();
+                if (droppedLines > 0) {
+                    log.processOutputDropped(processName, droppedLines, getOutputBytes());
+                }
                 break;
             } catch (InterruptedException e) {
                 // ignore
@@ -420,19 +451,19 @@ final class ManagedProcess {
 
     private final class ReadTask implements Runnable {
         private final InputStream source;
-        private final PrintStream target;
+        private final ProcessOutputPump.Output output;
 
-        private ReadTask(final InputStream source, final PrintStream target) {
+        private ReadTask(final InputStream source, final ProcessOutputPump.Output output) {
             this.source = source;
-            this.target = target;
+            this.output = output;
         }
 
         public void run() {
             final InputStream source = this.source;
             final String processName = ManagedProcess.this.processName;
             try {
-                final BufferedReader reader = new BufferedReader(new InputStreamReader(new BufferedInputStream(source)));
-                final OutputStreamWriter writer = new OutputStreamWriter(target);
+                final BufferedReader reader = new BufferedReader(new InputStreamReader(new CountingInputStream(new BufferedInputStream(source), output)));
+                final StringBuilder builder = new StringBuilder();
                 String s;
                 String prevEscape = "";
                 while ((s = reader.readLine()) != null) {
@@ -440,21 +471,14 @@ final class ManagedProcess {
                     int i = s.lastIndexOf('\033');
                     int j = i != -1 ? s.indexOf('m', i) : 0;
 
-                    synchronized (target) {
-                        writer.write('[');
-                        writer.write(processName);
-                        writer.write("] ");
-                        writer.write(prevEscape);
-                        writer.write(s);
+                    builder.setLength(0);
+                    builder.append('[').append(processName).append("] ").append(prevEscape).append(s);
 
-                        // Reset if there was ANSI
-                        if (j != 0 || prevEscape != "") {
-                            writer.write("\033[0m");
-                        }
-                        writer.write('\n');
-                        writer.flush();
+                    // Reset if there was ANSI
+                    if (j != 0 || prevEscape != "") {
+                        builder.append("\033[0m");
                     }
-
+                    output.writeLine(builder.toString());
 
                     // Remember escape code for the next line
                     if (j != 0) {
@@ -474,4 +498,31 @@ final class ManagedProcess {
             }
         }
     }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private final ProcessOutputPump.Output output;
+
+        private CountingInputStream(final InputStream in, final ProcessOutputPump.Output output) {
+            super(in);
+            this.output = output;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b != -1) {
+                output.bytesRead(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            final int read = super.read(b, off, len);
+            if (read > 0) {
+                output.bytesRead(read);
+            }
+            return read;
+        }
+    }
 }
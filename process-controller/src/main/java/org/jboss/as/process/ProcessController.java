@@ -68,6 +68,7 @@ public final class ProcessController {
 
     private final PrintStream stdout;
     private final PrintStream stderr;
+    private final ProcessOutputPump outputPump = new ProcessOutputPump();
 
     public ProcessController(final ProtocolServer.Configuration configuration, final PrintStream stdout, final PrintStream stderr) throws IOException {
         this.stdout = stdout;
@@ -241,6 +242,7 @@ public final class ProcessController {
                     // ignore
                 }
             }
+            outputPump.shutdown();
             ProcessLogger.ROOT_LOGGER.shutdownComplete();
         }
     }
@@ -345,6 +347,8 @@ public final class ProcessController {
                             os.write(process.getAuthKey().getBytes(Charset.forName("US-ASCII")));
                             StreamUtils.writeBoolean(os, process.isRunning());
                             StreamUtils.writeBoolean(os, process.isStopping());
+                            StreamUtils.writeLong(os, process.getOutputBytes());
+                            StreamUtils.writeLong(os, process.getDroppedOutputLines());
                         }
                         os.close();
                     } finally {
@@ -412,6 +416,10 @@ public final class ProcessController {
         return stderr;
     }
 
+    ProcessOutputPump getOutputPump() {
+        return outputPump;
+    }
+
     private static final class Key {
         private final byte[] authKey;
         private final int hashCode;
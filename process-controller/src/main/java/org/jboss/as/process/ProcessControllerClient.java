@@ -115,8 +115,11 @@ public final class ProcessControllerClient implements Closeable {
                             readFully(dataStream, processAuthBytes);
                             final boolean processRunning = StreamUtils.readBoolean(dataStream);
                             final boolean processStopping = StreamUtils.readBoolean(dataStream);
+                            final long outputBytes = readLong(dataStream);
+                            final long droppedOutputLines = readLong(dataStream);
                             final String processAuthKey = new String(processAuthBytes, Charset.forName("US-ASCII"));
-                            inventory.put(processName, new ProcessInfo(processName, processAuthKey, processRunning, processStopping));
+                            inventory.put(processName, new ProcessInfo(processName, processAuthKey, processRunning, processStopping,
+                                    outputBytes, droppedOutputLines));
                         }
                         dataStream.close();
                         ProcessLogger.CLIENT_LOGGER.tracef("Received process_inventory");
@@ -30,12 +30,17 @@ public final class ProcessInfo {
     private final String authKey;
     private final boolean running;
     private final boolean stopping;
+    private final long outputBytes;
+    private final long droppedOutputLines;
 
-    ProcessInfo(final String processName, final String authKey, final boolean running, final boolean stopping) {
+    ProcessInfo(final String processName, final String authKey, final boolean running, final boolean stopping,
+                final long outputBytes, final long droppedOutputLines) {
         this.processName = processName;
         this.authKey = authKey;
         this.running = running;
         this.stopping = stopping;
+        this.outputBytes = outputBytes;
+        this.droppedOutputLines = droppedOutputLines;
     }
 
     public String getProcessName() {
@@ -53,4 +58,23 @@ public final class ProcessInfo {
     public boolean isStopping() {
         return stopping;
     }
+
+    /**
+     * Gets the number of bytes the current or last run of the process has written to its stdout and stderr.
+     *
+     * @return the number of bytes
+     */
+    public long getOutputBytes() {
+        return outputBytes;
+    }
+
+    /**
+     * Gets the number of lines of output of the current or last run of the process that the process controller
+     * dropped because they could not be written fast enough.
+     *
+     * @return the number of lines
+     */
+    public long getDroppedOutputLines() {
+        return droppedOutputLines;
+    }
 }
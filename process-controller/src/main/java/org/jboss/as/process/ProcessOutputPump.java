@@ -0,0 +1,196 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.process;
+
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.process.logging.ProcessLogger;
+
+/**
+ * Writes the output of the managed processes to the process controller's own streams from a single thread.
+ * <p>
+ * The threads reading the processes' pipes hand each line to the {@link Output} for their stream, which holds a
+ * bounded number of characters. If the output of a process cannot be written fast enough its further lines are
+ * dropped, and counted, rather than blocking its reader and letting the process' pipe fill up. The pump thread
+ * takes turns between the processes with pending output, writing a few lines of each at a time, so one chatty
+ * process cannot hold up the others. Lines are always written whole.
+ * </p>
+ */
+final class ProcessOutputPump {
+
+    /** The number of characters each process stream may have waiting to be written */
+    static final int BUFFER_SIZE = 1024 * 1024;
+    private static final int LINES_PER_TURN = 64;
+
+    private final BlockingQueue<Output> ready = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private volatile boolean stopped;
+
+    ProcessOutputPump() {
+        thread = new Thread(this::run, "process output pump");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Creates the buffer for one output stream of a process.
+     *
+     * @param processName the name of the process, which is used as the prefix of its lines
+     * @param target      the stream to write the lines to
+     *
+     * @return the output
+     */
+    Output createOutput(final String processName, final PrintStream target) {
+        return new Output(processName, target);
+    }
+
+    /**
+     * Writes all pending output and stops the pump.
+     */
+    void shutdown() {
+        stopped = true;
+        thread.interrupt();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        try {
+            while (!stopped) {
+                write(ready.take());
+            }
+        } catch (InterruptedException e) {
+            // stopped
+        } finally {
+            Output output;
+            while ((output = ready.poll()) != null) {
+                write(output);
+            }
+        }
+    }
+
+    private void write(final Output output) {
+        final List<String> lines = new ArrayList<>(LINES_PER_TURN);
+        final long dropped;
+        final boolean more;
+        synchronized (output) {
+            for (int i = 0; i < LINES_PER_TURN && !output.lines.isEmpty(); i++) {
+                final String line = output.lines.poll();
+                output.pending -= line.length();
+                lines.add(line);
+            }
+            dropped = output.unreportedDrops;
+            output.unreportedDrops = 0;
+            more = !output.lines.isEmpty();
+            output.queued = more;
+        }
+        final PrintStream target = output.target;
+        synchronized (target) {
+            for (String line : lines) {
+                target.print(line);
+                target.print('\n');
+            }
+            if (dropped > 0) {
+                target.print('[');
+                target.print(output.processName);
+                target.print("] ");
+                target.print(ProcessLogger.ROOT_LOGGER.outputLinesDropped(dropped));
+                target.print('\n');
+            }
+            target.flush();
+        }
+        if (more) {
+            // Go to the back of the queue so the other processes get their turn
+            ready.add(output);
+        }
+    }
+
+    /**
+     * The pending lines of one output stream of a process.
+     */
+    final class Output {
+        private final String processName;
+        private final PrintStream target;
+        private final ArrayDeque<String> lines = new ArrayDeque<>();
+        private final AtomicLong bytes = new AtomicLong();
+        private final AtomicLong droppedLines = new AtomicLong();
+        // Guarded by this
+        private int pending;
+        private long unreportedDrops;
+        private boolean queued;
+
+        private Output(final String processName, final PrintStream target) {
+            this.processName = processName;
+            this.target = target;
+        }
+
+        /**
+         * Queues a line to be written, or drops it if too much of this stream's output is waiting to be written.
+         *
+         * @param line the line, without its line terminator
+         */
+        void writeLine(final String line) {
+            synchronized (this) {
+                // A line longer than the whole buffer is still taken if nothing else is waiting
+                if (pending > 0 && pending + line.length() > BUFFER_SIZE) {
+                    unreportedDrops++;
+                    droppedLines.incrementAndGet();
+                    return;
+                }
+                lines.add(line);
+                pending += line.length();
+                if (queued) {
+                    return;
+                }
+                queued = true;
+            }
+            ready.add(this);
+        }
+
+        /**
+         * Records bytes read from the process.
+         *
+         * @param count the number of bytes
+         */
+        void bytesRead(final long count) {
+            bytes.addAndGet(count);
+        }
+
+        long getBytes() {
+            return bytes.get();
+        }
+
+        long getDroppedLines() {
+            return droppedLines.get();
+        }
+    }
+}
@@ -807,4 +807,25 @@ public interface ProcessLogger extends BasicLogger {
     @Message(id = 62, value = "Writes are already shut down")
     IOException writesAlreadyShutdown();
 
+    /**
+     * Creates the line written in place of the output lines of a process that had to be dropped.
+     *
+     * @param count the number of lines dropped
+     *
+     * @return the message
+     */
+    @Message(id = 63, value = "... %d lines of output were dropped because they could not be written fast enough")
+    String outputLinesDropped(long count);
+
+    /**
+     * Logs a warning message indicating that some of the output of a process was dropped.
+     *
+     * @param processName the process name.
+     * @param lines       the number of lines dropped.
+     * @param bytes       the total number of bytes of output of the process.
+     */
+    @LogMessage(level = WARN)
+    @Message(id = 64, value = "Process '%s' dropped %d lines of its %d bytes of output because they could not be written fast enough")
+    void processOutputDropped(String processName, long lines, long bytes);
+
 }
@@ -0,0 +1,130 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.process;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test of {@link ProcessOutputPump}.
+ */
+public class ProcessOutputPumpTestCase {
+
+    @Test
+    public void testLinesAreWrittenWhole() throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final PrintStream target = new PrintStream(bytes, true, "UTF-8");
+        final ProcessOutputPump pump = new ProcessOutputPump();
+        final ProcessOutputPump.Output one = pump.createOutput("one", target);
+        final ProcessOutputPump.Output two = pump.createOutput("two", target);
+
+        final Thread writer = new Thread(() -> {
+            for (int i = 0; i < 1000; i++) {
+                two.writeLine("[two] line " + i);
+            }
+        });
+        writer.start();
+        for (int i = 0; i < 1000; i++) {
+            one.writeLine("[one] line " + i);
+        }
+        writer.join();
+        pump.shutdown();
+
+        final List<String> lines = Arrays.asList(new String(bytes.toByteArray(), StandardCharsets.UTF_8).split("\n"));
+        Assert.assertEquals(2000, lines.size());
+        int nextOne = 0;
+        int nextTwo = 0;
+        for (String line : lines) {
+            if (line.startsWith("[one] ")) {
+                Assert.assertEquals("[one] line " + nextOne++, line);
+            } else {
+                Assert.assertEquals("[two] line " + nextTwo++, line);
+            }
+        }
+        Assert.assertEquals(0, one.getDroppedLines());
+        Assert.assertEquals(0, two.getDroppedLines());
+    }
+
+    @Test
+    public void testLinesAreDroppedWhenTargetIsBlocked() throws Exception {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final PrintStream target = new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                bytes.write(b);
+            }
+        }, false, "UTF-8");
+        final ProcessOutputPump pump = new ProcessOutputPump();
+        final ProcessOutputPump.Output output = pump.createOutput("chatty", target);
+
+        // The pump takes the first line and blocks writing it
+        output.writeLine("first");
+        blocked.await();
+        final char[] chars = new char[1024];
+        Arrays.fill(chars, 'x');
+        final String line = new String(chars);
+        final int capacity = ProcessOutputPump.BUFFER_SIZE / line.length();
+        for (int i = 0; i < capacity + 10; i++) {
+            output.writeLine(line);
+        }
+        Assert.assertEquals(10, output.getDroppedLines());
+
+        release.countDown();
+        pump.shutdown();
+        final String written = new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+        Assert.assertTrue(written, written.contains("[chatty] ") && written.contains("10 lines of output were dropped"));
+    }
+
+    @Test
+    public void testLongLineIsWrittenWhenNothingIsPending() throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final PrintStream target = new PrintStream(bytes, true, "UTF-8");
+        final ProcessOutputPump pump = new ProcessOutputPump();
+        final ProcessOutputPump.Output output = pump.createOutput("verbose", target);
+
+        final char[] chars = new char[ProcessOutputPump.BUFFER_SIZE + 1];
+        Arrays.fill(chars, 'x');
+        final String line = new String(chars);
+        output.writeLine(line);
+        pump.shutdown();
+
+        Assert.assertEquals(0, output.getDroppedLines());
+        Assert.assertEquals(line + "\n", new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.requestcontroller;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A limit on the number of concurrent requests that follows the observed request latency, using additive increase and
+ * multiplicative decrease.
+ * <p/>
+ * The shortest latency seen recently is taken as the latency of the server when it is not overloaded. While requests
+ * complete within twice that, and at least half of the limit is in use, the limit grows by one for every {@code limit}
+ * completed requests. Once requests take longer the limit is cut by a tenth, at most once every {@code limit} requests,
+ * so that a single burst of slow requests does not collapse it.
+ */
+final class AdaptiveRequestLimit {
+
+    static final int INITIAL_LIMIT = 20;
+    static final int MIN_LIMIT = 1;
+
+    private static final double BACKOFF_RATIO = 0.9;
+    /**
+     * The latency baseline is taken over this long, so it follows a downstream that has become slower or faster
+     */
+    private static final long BASELINE_WINDOW = TimeUnit.SECONDS.toNanos(30);
+    /**
+     * Latencies that differ by less than this from the baseline are taken as noise
+     */
+    private static final long LATENCY_SLACK = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final int maxLimit;
+    private final Lock lock = new ReentrantLock();
+
+    private volatile int limit;
+
+    // guarded by lock
+    private long baselineLatency = Long.MAX_VALUE;
+    private long windowMinLatency = Long.MAX_VALUE;
+    private long windowStart;
+    private int samplesSinceChange;
+
+    /**
+     * @param maxLimit the upper bound for the limit, or a value less than {@code 1} if there is none
+     */
+    AdaptiveRequestLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+        this.limit = maxLimit > 0 ? Math.min(INITIAL_LIMIT, maxLimit) : INITIAL_LIMIT;
+        this.windowStart = System.nanoTime();
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Records the latency of a completed request. Samples are dropped if another thread is recording one, as the
+     * limit does not need every one of them.
+     *
+     * @param latency the time in nanoseconds the request took
+     * @param inFlight the number of requests running when it completed
+     * @return {@code true} if the limit was raised
+     */
+    boolean onSample(long latency, int inFlight) {
+        if (!lock.tryLock()) {
+            return false;
+        }
+        try {
+            final long now = System.nanoTime();
+            if (now - windowStart > BASELINE_WINDOW) {
+                baselineLatency = windowMinLatency;
+                windowMinLatency = Long.MAX_VALUE;
+                windowStart = now;
+            }
+            windowMinLatency = Math.min(windowMinLatency, latency);
+            baselineLatency = Math.min(baselineLatency, latency);
+
+            final int limit = this.limit;
+            samplesSinceChange++;
+            if (latency > Math.max(baselineLatency * 2, baselineLatency + LATENCY_SLACK)) {
+                if (samplesSinceChange >= limit) {
+                    this.limit = Math.max(MIN_LIMIT, (int) (limit * BACKOFF_RATIO));
+                    samplesSinceChange = 0;
+                }
+                return false;
+            }
+            // only grow a limit that is actually being used
+            if (samplesSinceChange >= limit && inFlight * 2 >= limit && (maxLimit < 1 || limit < maxLimit)) {
+                this.limit = limit + 1;
+                samplesSinceChange = 0;
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -30,5 +30,9 @@ package org.wildfly.extension.requestcontroller;
 interface Constants {
     String MAX_REQUESTS = "max-requests";
     String ACTIVE_REQUESTS = "active-requests";
+    String QUEUED_REQUESTS = "queued-requests";
+    String ADAPTIVE_LIMIT = "adaptive-limit";
+    String CURRENT_REQUEST_LIMIT = "current-request-limit";
+    String REJECTED_REQUESTS = "rejected-requests";
     String TRACK_INDIVIDUAL_ENDPOINTS = "track-individual-endpoints";
 }
@@ -21,8 +21,13 @@
  */
 package org.wildfly.extension.requestcontroller;
 
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
 import org.jboss.as.server.logging.ServerLogger;
 import org.jboss.as.server.suspend.ServerActivityCallback;
 import java.util.concurrent.Executor;
@@ -44,6 +49,8 @@ public class ControlPoint {
 
     private static final AtomicIntegerFieldUpdater<ControlPoint> activeRequestCountUpdater = AtomicIntegerFieldUpdater.newUpdater(ControlPoint.class, "activeRequestCount");
     private static final AtomicReferenceFieldUpdater<ControlPoint, ServerActivityCallback> listenerUpdater = AtomicReferenceFieldUpdater.newUpdater(ControlPoint.class, ServerActivityCallback.class, "listener");
+    private static final AtomicIntegerFieldUpdater<ControlPoint> queuedRequestCountUpdater = AtomicIntegerFieldUpdater.newUpdater(ControlPoint.class, "queuedRequestCount");
+    private static final AtomicIntegerFieldUpdater<ControlPoint> dispatchScheduledUpdater = AtomicIntegerFieldUpdater.newUpdater(ControlPoint.class, "dispatchScheduled");
 
     private final RequestController controller;
     private final String deployment;
@@ -64,6 +71,31 @@ public class ControlPoint {
     @SuppressWarnings("unused")
     private volatile ServerActivityCallback listener = null;
 
+    /**
+     * The tasks queued through this entry point that are waiting for the request controller to run them
+     */
+    private final Queue<RequestController.QueuedTask> queuedTasks = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The number of queued tasks that have neither run nor timed out
+     */
+    @SuppressWarnings("unused")
+    private volatile int queuedRequestCount = 0;
+
+    /**
+     * 1 if this entry point is in the request controller's dispatch queue
+     */
+    @SuppressWarnings("unused")
+    private volatile int dispatchScheduled = 0;
+
+    /**
+     * The total time the queued tasks that have been run spent waiting, and how many of them there were
+     */
+    private final LongAdder queueWaitTime = new LongAdder();
+    private final LongAdder dispatchedRequestCount = new LongAdder();
+
+    private final LongAdder rejectedRequestCount = new LongAdder();
+
     /**
      * The number of services that are using this entry point.
      * This is a deployment time measurement, not a runtime one
@@ -122,10 +154,13 @@ public class ControlPoint {
      * task cannot be run, and its failure should be signaled back to the originator.
      * <p/>
      * If it returns {@code RUN} then the task should proceed as normal, and the {@link #requestComplete()} method
-     * must be called once the task is complete, usually via a try/finally construct.
+     * must be called once the task is complete, usually via a try/finally construct. To have the latency of the task
+     * sampled by the adaptive request limit, read {@link System#nanoTime()} before calling this method and pass it to
+     * {@link #requestComplete(long)} instead.
      */
     public RunResult beginRequest() throws Exception {
         if (paused) {
+            requestRejected();
             return RunResult.REJECTED;
         }
         if(trackIndividualControlPoints) {
@@ -134,6 +169,7 @@ public class ControlPoint {
         RunResult runResult = controller.beginRequest(false);
         if (runResult == RunResult.REJECTED) {
             decreaseRequestCount();
+            requestRejected();
         }
         return runResult;
     }
@@ -171,8 +207,25 @@ public class ControlPoint {
      * This cannot be done automatically when the handleRequest method completes, as some
      */
     public void requestComplete() {
+        requestComplete(0);
+    }
+
+    /**
+     * Like {@link #requestComplete()}, but also has the latency of the request sampled by the adaptive request limit.
+     * It can be called on any thread, not just the one the request began on.
+     *
+     * @param startTime the value of {@link System#nanoTime()} read before {@link #beginRequest()} or
+     *                  {@link #forceBeginRequest()} was called for the request, or {@code 0} if its latency is not to
+     *                  be sampled
+     */
+    public void requestComplete(long startTime) {
         decreaseRequestCount();
-        controller.requestComplete();
+        controller.requestComplete(startTime);
+    }
+
+    private void requestRejected() {
+        rejectedRequestCount.increment();
+        controller.requestRejected();
     }
 
     private void decreaseRequestCount() {
@@ -236,6 +289,79 @@ public class ControlPoint {
         return activeRequestCountUpdater.get(this);
     }
 
+    /**
+     * @return The number of tasks queued through this entry point that are waiting to run
+     */
+    public int getQueuedRequestCount() {
+        //a task is counted after it is queued, so it can briefly go negative if the task runs straight away
+        return Math.max(0, queuedRequestCountUpdater.get(this));
+    }
+
+    /**
+     * @return The average time in milliseconds queued tasks spent waiting before they were run
+     */
+    public long getAverageQueueWaitTime() {
+        long dispatched = dispatchedRequestCount.sum();
+        if (dispatched == 0) {
+            return 0;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(queueWaitTime.sum() / dispatched);
+    }
+
+    /**
+     * @return The number of requests through this entry point that were rejected
+     */
+    public long getRejectedRequestCount() {
+        return rejectedRequestCount.sum();
+    }
+
+    /**
+     * Adds a task to the queue of this entry point.
+     *
+     * @return {@code true} if the caller must add this entry point to the request controller's dispatch queue
+     */
+    boolean offerQueuedTask(RequestController.QueuedTask task) {
+        queuedTasks.add(task);
+        return dispatchScheduledUpdater.compareAndSet(this, 0, 1);
+    }
+
+    RequestController.QueuedTask pollQueuedTask() {
+        return queuedTasks.poll();
+    }
+
+    void removeQueuedTask(RequestController.QueuedTask task) {
+        queuedTasks.remove(task);
+    }
+
+    /**
+     * Called by the request controller once it has taken this entry point off the dispatch queue.
+     *
+     * @return {@code true} if there are still tasks queued, and the entry point must go back on the dispatch queue
+     */
+    boolean requeueForDispatch() {
+        if (!queuedTasks.isEmpty()) {
+            return true;
+        }
+        dispatchScheduledUpdater.set(this, 0);
+        //a task may have been added before the flag was cleared, in which case its caller did not schedule us
+        return !queuedTasks.isEmpty() && dispatchScheduledUpdater.compareAndSet(this, 0, 1);
+    }
+
+    void queuedRequestAdded() {
+        queuedRequestCountUpdater.incrementAndGet(this);
+    }
+
+    /**
+     * @param waitTime the time in nanoseconds the task spent in the queue, or a negative value if it timed out
+     */
+    void queuedRequestRemoved(long waitTime) {
+        queuedRequestCountUpdater.decrementAndGet(this);
+        if (waitTime >= 0) {
+            queueWaitTime.add(waitTime);
+            dispatchedRequestCount.increment();
+        }
+    }
+
     synchronized int increaseReferenceCount() {
         return ++referenceCount;
     }
@@ -34,17 +34,20 @@ import org.jboss.msc.value.InjectedValue;
 import org.wildfly.extension.requestcontroller.logging.RequestControllerLogger;
 
 import java.util.ArrayList;
-import java.util.Deque;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
-import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * A controller that manages the active requests that are running in the container.
@@ -54,6 +57,14 @@ import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
  * 1) Graceful shutdown - When the number of active request reaches zero then the container can be gracefully shut down
  * 2) Request limiting - This allows the total number of requests that are active to be limited.
  * <p/>
+ * The limit is either the configured maximum, or if the adaptive limit is enabled a limit that is adjusted from the
+ * latency of the requests that complete, and which does not exceed the configured maximum. The latency is sampled for
+ * queued tasks, and for requests whose start time is passed to {@link ControlPoint#requestComplete(long)}.
+ * <p/>
+ * Tasks queued while the request limit has been hit are kept in a queue per {@link ControlPoint}, and the control
+ * points with queued tasks take turns when a request slot becomes free, so a burst through one deployment does not
+ * hold up the others. Forced tasks are kept apart, as they are the only ones that may run while suspended.
+ * <p/>
  *
  * @author Stuart Douglas
  */
@@ -71,7 +82,11 @@ public class RequestController implements Service<RequestController>, ServerActi
 
     private volatile boolean paused = false;
 
-    private final Map<ControlPointIdentifier, ControlPoint> entryPoints = new HashMap<>();
+    private volatile AdaptiveRequestLimit adaptiveLimit;
+
+    private final LongAdder rejectedRequestCount = new LongAdder();
+
+    private final ConcurrentMap<ControlPointIdentifier, ControlPoint> entryPoints = new ConcurrentHashMap<>();
 
     private final InjectedValue<SuspendController> shutdownControllerInjectedValue = new InjectedValue<>();
 
@@ -89,9 +104,22 @@ public class RequestController implements Service<RequestController>, ServerActi
         listener.done();
     }
 
-    private Timer timer;
+    private ScheduledThreadPoolExecutor timer;
+
+    /**
+     * Forced tasks, which run ahead of the others and also while the container is suspended
+     */
+    private final Queue<QueuedTask> forcedTaskQueue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The control points with queued tasks, in the order they get their turn
+     */
+    private final Queue<ControlPoint> dispatchQueue = new ConcurrentLinkedQueue<>();
 
-    private final Deque<QueuedTask> taskQueue = new LinkedBlockingDeque<>();
+    /**
+     * The number of queued tasks that have neither run nor timed out
+     */
+    private final AtomicInteger queuedTaskCount = new AtomicInteger();
 
     /**
      * Pause the controller. All existing requests will have a chance to finish, and once all requests are
@@ -122,9 +150,7 @@ public class RequestController implements Service<RequestController>, ServerActi
         if (listener != null) {
             listenerUpdater.compareAndSet(this, listener, null);
         }
-        while (!taskQueue.isEmpty() && (activeRequestCount < maxRequestCount || maxRequestCount < 0)) {
-            runQueuedTask(false);
-        }
+        runQueuedTasks();
     }
 
     /**
@@ -200,16 +226,18 @@ public class RequestController implements Service<RequestController>, ServerActi
         }
     }
 
-    public synchronized RequestControllerState getState() {
+    public RequestControllerState getState() {
         final List<RequestControllerState.EntryPointState> eps = new ArrayList<>();
         for (ControlPoint controlPoint : entryPoints.values()) {
-            eps.add(new RequestControllerState.EntryPointState(controlPoint.getDeployment(), controlPoint.getEntryPoint(), controlPoint.isPaused(), controlPoint.getActiveRequestCount()));
+            eps.add(new RequestControllerState.EntryPointState(controlPoint.getDeployment(), controlPoint.getEntryPoint(), controlPoint.isPaused(),
+                    controlPoint.getActiveRequestCount(), controlPoint.getQueuedRequestCount(), controlPoint.getAverageQueueWaitTime(),
+                    controlPoint.getRejectedRequestCount()));
         }
         return new RequestControllerState(paused, activeRequestCount, maxRequestCount, eps);
     }
 
     RunResult beginRequest(boolean force) {
-        int maxRequests = maxRequestCount;
+        int maxRequests = getCurrentRequestLimit();
         int active = activeRequestCountUpdater.get(this);
         boolean success = false;
         while ((maxRequests <= 0 || active < maxRequests) && (!paused || force)) {
@@ -225,7 +253,7 @@ public class RequestController implements Service<RequestController>, ServerActi
             //if this happens we just call requestComplete(), as the listener can only be invoked once it does not
             //matter if it has already been invoked
             if(!force && paused) {
-                requestComplete();
+                requestComplete(0);
                 return RunResult.REJECTED;
             }
             return RunResult.RUN;
@@ -234,8 +262,24 @@ public class RequestController implements Service<RequestController>, ServerActi
         }
     }
 
-    void requestComplete() {
+    void requestRejected() {
+        rejectedRequestCount.increment();
+    }
+
+    /**
+     * @param startTime when the request started, or {@code 0} if its latency is not known
+     */
+    void requestComplete(long startTime) {
+        boolean limitRaised = false;
+        final AdaptiveRequestLimit adaptiveLimit = this.adaptiveLimit;
+        if (adaptiveLimit != null && startTime != 0) {
+            limitRaised = adaptiveLimit.onSample(System.nanoTime() - startTime, activeRequestCount);
+        }
         runQueuedTask(true);
+        if (limitRaised && !paused) {
+            //our permit went to one queued task, the extra one can go to another
+            runQueuedTask(false);
+        }
     }
 
     private void decrementRequestCount() {
@@ -304,7 +348,50 @@ public class RequestController implements Service<RequestController>, ServerActi
      */
     public void setMaxRequestCount(int maxRequestCount) {
         this.maxRequestCount = maxRequestCount;
-        while (!taskQueue.isEmpty() && (activeRequestCount < maxRequestCount || maxRequestCount < 0)) {
+        if (adaptiveLimit != null) {
+            adaptiveLimit = new AdaptiveRequestLimit(maxRequestCount);
+        }
+        runQueuedTasks();
+    }
+
+    /**
+     * @return <code>true</code> If the limit on active requests is adjusted from the observed request latency
+     */
+    public boolean isAdaptiveLimit() {
+        return adaptiveLimit != null;
+    }
+
+    /**
+     * Sets whether the limit on active requests is adjusted from the observed request latency. If it is, the max
+     * request count is the upper bound for the limit.
+     *
+     * @param adaptiveLimit If the adaptive limit is enabled
+     */
+    public void setAdaptiveLimit(boolean adaptiveLimit) {
+        if (adaptiveLimit != isAdaptiveLimit()) {
+            this.adaptiveLimit = adaptiveLimit ? new AdaptiveRequestLimit(maxRequestCount) : null;
+            runQueuedTasks();
+        }
+    }
+
+    /**
+     * @return The limit on active requests that currently applies, or a value less than {@code 1} if there is none
+     */
+    public int getCurrentRequestLimit() {
+        final AdaptiveRequestLimit adaptiveLimit = this.adaptiveLimit;
+        return adaptiveLimit == null ? maxRequestCount : adaptiveLimit.getLimit();
+    }
+
+    /**
+     * @return The number of requests that were rejected, because the server was suspended or the request limit was reached
+     */
+    public long getRejectedRequestCount() {
+        return rejectedRequestCount.sum();
+    }
+
+    private void runQueuedTasks() {
+        int limit;
+        while (queuedTaskCount.get() > 0 && (activeRequestCount < (limit = getCurrentRequestLimit()) || limit < 1)) {
             if(!runQueuedTask(false)) {
                 break;
             }
@@ -321,19 +408,26 @@ public class RequestController implements Service<RequestController>, ServerActi
     @Override
     public void start(StartContext startContext) throws StartException {
         shutdownControllerInjectedValue.getValue().registerActivity(this);
-        timer = new Timer();
+        timer = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "Request controller timeout thread");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        // Queued tasks that get to run cancel their timeout, so don't leave those in the timer until they are due
+        timer.setRemoveOnCancelPolicy(true);
     }
 
     @Override
     public void stop(StopContext stopContext) {
         shutdownControllerInjectedValue.getValue().unRegisterActivity(this);
-        timer.cancel();
+        timer.shutdownNow();
         timer = null;
-        while (!taskQueue.isEmpty()) {
-            QueuedTask t = taskQueue.poll();
-            if(t != null) {
-                t.run();
-            }
+        QueuedTask t;
+        while ((t = pollQueuedTask(false)) != null) {
+            t.run();
         }
     }
 
@@ -350,6 +444,13 @@ public class RequestController implements Service<RequestController>, ServerActi
         return activeRequestCount;
     }
 
+    /**
+     * @return The number of tasks queued until the request controller allows them to run
+     */
+    public int getQueuedRequestCount() {
+        return Math.max(0, queuedTaskCount.get());
+    }
+
     void queueTask(ControlPoint controlPoint, Runnable task, Executor taskExecutor, long timeout, Runnable timeoutTask, boolean rejectOnSuspend, boolean forceRun) {
         if(paused) {
             if(rejectOnSuspend && !forceRun) {
@@ -358,11 +459,18 @@ public class RequestController implements Service<RequestController>, ServerActi
             }
         }
         QueuedTask queuedTask = new QueuedTask(taskExecutor, task, timeoutTask, controlPoint, forceRun);
-        taskQueue.add(queuedTask);
+        if (forceRun) {
+            forcedTaskQueue.add(queuedTask);
+        } else if (controlPoint.offerQueuedTask(queuedTask)) {
+            dispatchQueue.add(controlPoint);
+        }
+        // count once queued, so a non-zero count means there is something to poll
+        queuedTaskCount.incrementAndGet();
+        controlPoint.queuedRequestAdded();
         runQueuedTask(false);
         if(queuedTask.isQueued()) {
             if(timeout > 0) {
-                timer.schedule(queuedTask, timeout);
+                queuedTask.scheduleTimeout(timer, timeout);
             }
         }
     }
@@ -375,45 +483,55 @@ public class RequestController implements Service<RequestController>, ServerActi
      * @param hasPermit If the caller has already called {@link #beginRequest(boolean force)}
      */
     private boolean runQueuedTask(boolean hasPermit) {
-        QueuedTask task = null;
-        if(!hasPermit) {
-            if(!paused) {
-                if (beginRequest(false) == RunResult.REJECTED) {
-                    return false;
-                }
-                task = taskQueue.poll();
-            } else {
-                //the container is suspended, but we still need to run any force queued tasks
-                List<QueuedTask> storage = new ArrayList<>();
-                while (task == null && !taskQueue.isEmpty()) {
-                    QueuedTask tmp = taskQueue.poll();
-                    if(tmp.forceRun) {
-                        task = tmp;
-                    } else {
-                        storage.add(tmp);
-                    }
-                }
-                //this screws the order somewhat, but the container is suspending anyway, and the order
-                //was never guarenteed. if we push them back onto the front we will need to just go through them again
-                taskQueue.addAll(storage);
-                if(task == null) {
-                    return false;
-                }
-                //after all that we are at the max request limit anyway
-                if (beginRequest(true) == RunResult.REJECTED) {
-                    return false;
-                }
+        if (!hasPermit) {
+            if (queuedTaskCount.get() == 0) {
+                return false;
+            }
+            //while suspended only forced tasks can run, and these may exceed the request limit
+            if (beginRequest(paused) == RunResult.REJECTED) {
+                return false;
             }
         }
-        if(task != null) {
-            if(!task.runRequest()) {
-                decrementRequestCount();
+        QueuedTask task;
+        while ((task = pollQueuedTask(paused)) != null) {
+            if (task.runRequest()) {
+                return true;
             }
-            return true;
-        } else {
-            decrementRequestCount();
-            return false;
+            //the task timed out while it was queued, so the permit goes to the next one
+        }
+        decrementRequestCount();
+        //a task queued while we were polling may have been turned away as the permit was still held, so it
+        //is up to us to run it. Checking once is enough, as the task was counted before it was turned away.
+        if (hasPermit && !paused && queuedTaskCount.get() > 0) {
+            runQueuedTask(false);
         }
+        return false;
+    }
+
+    /**
+     * Takes the next queued task. Forced tasks go first; otherwise the control points with queued tasks take turns,
+     * one task each.
+     *
+     * @param forcedOnly If only forced tasks should be taken
+     * @return The task, or {@code null} if there is none
+     */
+    private QueuedTask pollQueuedTask(boolean forcedOnly) {
+        QueuedTask task = forcedTaskQueue.poll();
+        if (task != null || forcedOnly) {
+            return task;
+        }
+        ControlPoint controlPoint;
+        while ((controlPoint = dispatchQueue.poll()) != null) {
+            task = controlPoint.pollQueuedTask();
+            if (controlPoint.requeueForDispatch()) {
+                //back of the line until the others had their turn
+                dispatchQueue.add(controlPoint);
+            }
+            if (task != null) {
+                return task;
+            }
+        }
+        return null;
     }
 
     private static final class ControlPointIdentifier {
@@ -451,13 +569,15 @@ public class RequestController implements Service<RequestController>, ServerActi
     }
 
 
-    private static final class QueuedTask extends TimerTask {
+    final class QueuedTask implements Runnable {
 
         private final Executor executor;
         private final Runnable task;
         private final Runnable cancelTask;
         private final ControlPoint controlPoint;
         private final boolean forceRun;
+        private final long queuedTime = System.nanoTime();
+        private volatile ScheduledFuture<?> timeoutFuture;
 
         //0 == queued
         //1 == run
@@ -472,9 +592,24 @@ public class RequestController implements Service<RequestController>, ServerActi
             this.forceRun = forceRun;
         }
 
+        void scheduleTimeout(ScheduledThreadPoolExecutor timer, long timeout) {
+            timeoutFuture = timer.schedule(this, timeout, TimeUnit.MILLISECONDS);
+            if (!isQueued()) {
+                //ran in the meantime
+                timeoutFuture.cancel(false);
+            }
+        }
+
         @Override
         public void run() {
             if(state.compareAndSet(0, 2)) {
+                dequeued(false);
+                //don't hold on to the task until the next dispatch gets to it
+                if (forceRun) {
+                    forcedTaskQueue.remove(this);
+                } else {
+                    controlPoint.removeQueuedTask(this);
+                }
                 if(cancelTask != null) {
                     try {
                         executor.execute(cancelTask);
@@ -488,15 +623,23 @@ public class RequestController implements Service<RequestController>, ServerActi
 
         public boolean runRequest() {
             if(state.compareAndSet(0, 1)) {
-                cancel();
+                ScheduledFuture<?> timeoutFuture = this.timeoutFuture;
+                if (timeoutFuture != null) {
+                    timeoutFuture.cancel(false);
+                }
+                dequeued(true);
                 executor.execute(new Runnable() {
                     @Override
                     public void run() {
+                        long startTime = 0;
                         try {
                             controlPoint.beginExistingRequest();
+                            if (adaptiveLimit != null) {
+                                startTime = System.nanoTime();
+                            }
                             task.run();
                         } finally {
-                            controlPoint.requestComplete();
+                            controlPoint.requestComplete(startTime);
                         }
                     }
                 });
@@ -509,6 +652,11 @@ public class RequestController implements Service<RequestController>, ServerActi
         boolean isQueued() {
             return state.get() == 0;
         }
+
+        private void dequeued(boolean run) {
+            queuedTaskCount.decrementAndGet();
+            controlPoint.queuedRequestRemoved(run ? System.nanoTime() - queuedTime : -1);
+        }
     }
 
 }
@@ -57,9 +57,26 @@ class RequestControllerRootDefinition extends PersistentResourceDefinition {
             .setDefaultValue(new ModelNode(false))
             .build();
 
+    public static final SimpleAttributeDefinition ADAPTIVE_LIMIT = SimpleAttributeDefinitionBuilder.create(Constants.ADAPTIVE_LIMIT, ModelType.BOOLEAN, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(false))
+            .build();
+
     public static final SimpleAttributeDefinition ACTIVE_REQUESTS = SimpleAttributeDefinitionBuilder.create(Constants.ACTIVE_REQUESTS, ModelType.INT, true)
             .setStorageRuntime()
             .build();
+
+    public static final SimpleAttributeDefinition QUEUED_REQUESTS = SimpleAttributeDefinitionBuilder.create(Constants.QUEUED_REQUESTS, ModelType.INT, true)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition CURRENT_REQUEST_LIMIT = SimpleAttributeDefinitionBuilder.create(Constants.CURRENT_REQUEST_LIMIT, ModelType.INT, true)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition REJECTED_REQUESTS = SimpleAttributeDefinitionBuilder.create(Constants.REJECTED_REQUESTS, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
     public static final RequestControllerRootDefinition INSTANCE = new RequestControllerRootDefinition(true);
 
     static final RuntimeCapability<Void> REQUEST_CONTROLLER_CAPABILITY =
@@ -83,9 +100,9 @@ class RequestControllerRootDefinition extends PersistentResourceDefinition {
 
     private static Collection<AttributeDefinition> getAttributeDefinitions(boolean registerRuntimeOnly) {
         if(registerRuntimeOnly) {
-            return Arrays.asList(new AttributeDefinition[]{MAX_REQUESTS, TRACK_INDIVIDUAL_ENDPOINTS, ACTIVE_REQUESTS});
+            return Arrays.asList(new AttributeDefinition[]{MAX_REQUESTS, TRACK_INDIVIDUAL_ENDPOINTS, ADAPTIVE_LIMIT, ACTIVE_REQUESTS, QUEUED_REQUESTS, CURRENT_REQUEST_LIMIT, REJECTED_REQUESTS});
         } else {
-            return Arrays.asList(new AttributeDefinition[]{MAX_REQUESTS, TRACK_INDIVIDUAL_ENDPOINTS});
+            return Arrays.asList(new AttributeDefinition[]{MAX_REQUESTS, TRACK_INDIVIDUAL_ENDPOINTS, ADAPTIVE_LIMIT});
         }
     }
 
@@ -99,8 +116,12 @@ class RequestControllerRootDefinition extends PersistentResourceDefinition {
         MaxRequestsWriteHandler handler = new MaxRequestsWriteHandler(MAX_REQUESTS);
         resourceRegistration.registerReadWriteAttribute(MAX_REQUESTS, null, handler);
         resourceRegistration.registerReadWriteAttribute(TRACK_INDIVIDUAL_ENDPOINTS, null, new ReloadRequiredWriteAttributeHandler(TRACK_INDIVIDUAL_ENDPOINTS));
+        resourceRegistration.registerReadWriteAttribute(ADAPTIVE_LIMIT, null, new AdaptiveLimitWriteHandler(ADAPTIVE_LIMIT));
         if(registerRuntimeOnly) {
             resourceRegistration.registerMetric(ACTIVE_REQUESTS, new ActiveRequestsReadHandler());
+            resourceRegistration.registerMetric(QUEUED_REQUESTS, new QueuedRequestsReadHandler());
+            resourceRegistration.registerMetric(CURRENT_REQUEST_LIMIT, new CurrentRequestLimitReadHandler());
+            resourceRegistration.registerMetric(REJECTED_REQUESTS, new RejectedRequestsReadHandler());
         }
     }
 
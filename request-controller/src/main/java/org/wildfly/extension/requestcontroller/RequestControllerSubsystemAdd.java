@@ -66,10 +66,12 @@ class RequestControllerSubsystemAdd extends AbstractBoottimeAddStepHandler {
 
         int maxRequests = RequestControllerRootDefinition.MAX_REQUESTS.resolveModelAttribute(context, resource.getModel()).asInt();
         boolean trackIndividual = RequestControllerRootDefinition.TRACK_INDIVIDUAL_ENDPOINTS.resolveModelAttribute(context, resource.getModel()).asBoolean();
+        boolean adaptiveLimit = RequestControllerRootDefinition.ADAPTIVE_LIMIT.resolveModelAttribute(context, resource.getModel()).asBoolean();
 
         RequestController requestController = new RequestController(trackIndividual);
 
         requestController.setMaxRequestCount(maxRequests);
+        requestController.setAdaptiveLimit(adaptiveLimit);
 
         context.getServiceTarget().addService(RequestController.SERVICE_NAME, requestController)
                 .addDependency(SuspendController.SERVICE_NAME, SuspendController.class, requestController.getShutdownControllerInjectedValue())
@@ -37,7 +37,7 @@ class RequestControllerSubsystemParser_1_0 extends PersistentResourceXMLParser {
     private final PersistentResourceXMLDescription xmlDescription;
 
     private RequestControllerSubsystemParser_1_0() {
-        xmlDescription = builder(RequestControllerRootDefinition.INSTANCE, Namespace.CURRENT.getUriString())
+        xmlDescription = builder(RequestControllerRootDefinition.INSTANCE, Namespace.REQUEST_CONTROLLER_1_0.getUriString())
                 .addAttributes(RequestControllerRootDefinition.MAX_REQUESTS, RequestControllerRootDefinition.TRACK_INDIVIDUAL_ENDPOINTS)
                 .build();
     }
@@ -0,0 +1,90 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.requestcontroller;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the adaptive request limit.
+ */
+public class AdaptiveRequestLimitTestCase {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(50);
+
+    @Test
+    public void testInitialLimit() {
+        Assert.assertEquals(AdaptiveRequestLimit.INITIAL_LIMIT, new AdaptiveRequestLimit(-1).getLimit());
+        Assert.assertEquals(5, new AdaptiveRequestLimit(5).getLimit());
+    }
+
+    @Test
+    public void testGrowsWhileLatencyIsLow() {
+        AdaptiveRequestLimit limit = new AdaptiveRequestLimit(-1);
+        int initial = limit.getLimit();
+        boolean raised = false;
+        for (int i = 0; i < initial; i++) {
+            raised = limit.onSample(FAST, limit.getLimit());
+        }
+        Assert.assertTrue(raised);
+        Assert.assertEquals(initial + 1, limit.getLimit());
+    }
+
+    @Test
+    public void testDoesNotGrowWhenUnused() {
+        AdaptiveRequestLimit limit = new AdaptiveRequestLimit(-1);
+        for (int i = 0; i < 10 * AdaptiveRequestLimit.INITIAL_LIMIT; i++) {
+            Assert.assertFalse(limit.onSample(FAST, 1));
+        }
+        Assert.assertEquals(AdaptiveRequestLimit.INITIAL_LIMIT, limit.getLimit());
+    }
+
+    @Test
+    public void testDoesNotExceedMax() {
+        AdaptiveRequestLimit limit = new AdaptiveRequestLimit(AdaptiveRequestLimit.INITIAL_LIMIT + 1);
+        for (int i = 0; i < 10 * AdaptiveRequestLimit.INITIAL_LIMIT; i++) {
+            limit.onSample(FAST, limit.getLimit());
+        }
+        Assert.assertEquals(AdaptiveRequestLimit.INITIAL_LIMIT + 1, limit.getLimit());
+    }
+
+    @Test
+    public void testShrinksWhenLatencyRises() {
+        AdaptiveRequestLimit limit = new AdaptiveRequestLimit(-1);
+        limit.onSample(FAST, 1);
+        int before = limit.getLimit();
+        for (int i = 0; i < before; i++) {
+            Assert.assertFalse(limit.onSample(SLOW, before));
+        }
+        Assert.assertEquals((int) (before * 0.9), limit.getLimit());
+
+        // keeps backing off while requests stay slow, but not below the minimum
+        for (int i = 0; i < 100 * before; i++) {
+            limit.onSample(SLOW, before);
+        }
+        Assert.assertEquals(AdaptiveRequestLimit.MIN_LIMIT, limit.getLimit());
+    }
+}
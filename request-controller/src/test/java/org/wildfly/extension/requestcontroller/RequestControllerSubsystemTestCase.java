@@ -48,7 +48,12 @@ public class RequestControllerSubsystemTestCase extends AbstractSubsystemBaseTes
 
     @Override
     protected String getSubsystemXml() throws IOException {
-        return readResource("request-controller-1.0.xml");
+        return readResource("request-controller-1.1.xml");
+    }
+
+    @Test
+    public void testParse_1_0() throws Exception {
+        standardSubsystemTest("request-controller-1.0.xml", false);
     }
 
     @Test
@@ -64,6 +69,8 @@ public class RequestControllerSubsystemTestCase extends AbstractSubsystemBaseTes
         workerServiceController.awaitValue();
         RequestController controller = workerServiceController.getService().getValue();
         Assert.assertEquals(100, controller.getMaxRequestCount());
+        Assert.assertTrue(controller.isAdaptiveLimit());
+        Assert.assertEquals(AdaptiveRequestLimit.INITIAL_LIMIT, controller.getCurrentRequestLimit());
     }
 
     @Override
@@ -0,0 +1,200 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.requestcontroller;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.server.suspend.ServerActivityCallback;
+import org.jboss.as.server.suspend.SuspendController;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of how the request controller limits, queues and dispatches requests.
+ */
+public class RequestControllerTestCase {
+
+    private static final Executor DIRECT = Runnable::run;
+
+    private RequestController controller;
+
+    @Before
+    public void startController() throws Exception {
+        controller = new RequestController(true);
+        controller.getShutdownControllerInjectedValue().inject(new SuspendController());
+        controller.start(null);
+    }
+
+    @After
+    public void stopController() {
+        controller.stop(null);
+    }
+
+    @Test
+    public void testQueuedTasksDispatchedFairlyAcrossControlPoints() throws Exception {
+        controller.setMaxRequestCount(1);
+        ControlPoint first = controller.getControlPoint("first.war", "web");
+        ControlPoint second = controller.getControlPoint("second.war", "web");
+
+        Assert.assertEquals(RunResult.RUN, first.beginRequest());
+        Assert.assertEquals(RunResult.REJECTED, second.beginRequest());
+
+        final List<String> order = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 1; i <= 3; i++) {
+            first.queueTask(record(order, "first-" + i), DIRECT, -1, null, false);
+        }
+        for (int i = 1; i <= 3; i++) {
+            second.queueTask(record(order, "second-" + i), DIRECT, -1, null, false);
+        }
+        Assert.assertTrue(order.isEmpty());
+        Assert.assertEquals(6, controller.getQueuedRequestCount());
+        Assert.assertEquals(3, second.getQueuedRequestCount());
+
+        // Releasing the permit hands it on to the queued tasks, which take turns
+        first.requestComplete();
+        Assert.assertEquals(Arrays.asList("first-1", "second-1", "first-2", "second-2", "first-3", "second-3"), order);
+        Assert.assertEquals(0, controller.getQueuedRequestCount());
+        Assert.assertEquals(0, controller.getActiveRequestCount());
+        Assert.assertEquals(0, first.getActiveRequestCount());
+        Assert.assertEquals(0, second.getQueuedRequestCount());
+        Assert.assertEquals(1, controller.getRejectedRequestCount());
+    }
+
+    @Test
+    public void testForcedTasksRunWhileSuspended() throws Exception {
+        ControlPoint controlPoint = controller.getControlPoint("test.war", "timer");
+        CountDownLatch suspended = new CountDownLatch(1);
+        controller.suspended(callback(suspended));
+        Assert.assertEquals(0, suspended.getCount());
+
+        final List<String> order = Collections.synchronizedList(new ArrayList<>());
+        controlPoint.queueTask(record(order, "rejected"), DIRECT, -1, record(order, "rejected-timeout"), true);
+        controlPoint.queueTask(record(order, "queued"), DIRECT, -1, null, false);
+        controlPoint.forceQueueTask(record(order, "forced"), DIRECT);
+        Assert.assertEquals(Arrays.asList("rejected-timeout", "forced"), order);
+        Assert.assertEquals(1, controller.getQueuedRequestCount());
+        Assert.assertEquals(RunResult.REJECTED, controlPoint.beginRequest());
+
+        // Resuming runs what was held back, and lets new requests in
+        controller.resume();
+        Assert.assertEquals(Arrays.asList("rejected-timeout", "forced", "queued"), order);
+        Assert.assertEquals(0, controller.getQueuedRequestCount());
+        Assert.assertEquals(RunResult.RUN, controlPoint.beginRequest());
+        controlPoint.requestComplete();
+        Assert.assertEquals(0, controller.getActiveRequestCount());
+    }
+
+    @Test
+    public void testQueuedTaskRemovedOnTimeout() throws Exception {
+        controller.setMaxRequestCount(1);
+        ControlPoint controlPoint = controller.getControlPoint("test.war", "web");
+        Assert.assertEquals(RunResult.RUN, controlPoint.beginRequest());
+
+        final List<String> order = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch timedOut = new CountDownLatch(1);
+        controlPoint.queueTask(record(order, "queued"), DIRECT, 50, timedOut::countDown, false);
+        Assert.assertEquals(1, controlPoint.getQueuedRequestCount());
+
+        Assert.assertTrue(timedOut.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(0, controller.getQueuedRequestCount());
+        Assert.assertEquals(0, controlPoint.getQueuedRequestCount());
+
+        // The timed out task does not get the permit when it is released
+        controlPoint.requestComplete();
+        Assert.assertTrue(order.isEmpty());
+        Assert.assertEquals(0, controller.getActiveRequestCount());
+        Assert.assertEquals(RunResult.RUN, controlPoint.beginRequest());
+        controlPoint.requestComplete();
+    }
+
+    @Test
+    public void testResumeAfterSuspend() throws Exception {
+        ControlPoint controlPoint = controller.getControlPoint("test.war", "web");
+        Assert.assertEquals(RunResult.RUN, controlPoint.beginRequest());
+
+        // Suspending waits for the active request to complete
+        CountDownLatch suspended = new CountDownLatch(1);
+        controller.suspended(callback(suspended));
+        Assert.assertEquals(1, suspended.getCount());
+        Assert.assertEquals(RunResult.REJECTED, controlPoint.beginRequest());
+        controlPoint.requestComplete();
+        Assert.assertEquals(0, suspended.getCount());
+
+        controller.resume();
+        Assert.assertFalse(controller.isPaused());
+        Assert.assertEquals(RunResult.RUN, controlPoint.beginRequest());
+        Assert.assertEquals(1, controller.getActiveRequestCount());
+        controlPoint.requestComplete();
+        Assert.assertEquals(0, controller.getActiveRequestCount());
+    }
+
+    @Test
+    public void testRequestsCompletedOnOtherThreadsSampled() throws Exception {
+        controller.setAdaptiveLimit(true);
+        final ControlPoint controlPoint = controller.getControlPoint("test.war", "web");
+        final int limit = controller.getCurrentRequestLimit();
+        final ExecutorService otherThread = Executors.newSingleThreadExecutor();
+        try {
+            //fast requests make the baseline latency, each completing on the other thread from the one it began on
+            for (int i = 0; i < limit; i++) {
+                final long start = System.nanoTime();
+                if (i % 2 == 0) {
+                    Assert.assertEquals(RunResult.RUN, controlPoint.beginRequest());
+                    otherThread.submit(() -> controlPoint.requestComplete(start)).get();
+                } else {
+                    Assert.assertEquals(RunResult.RUN, otherThread.submit(controlPoint::beginRequest).get());
+                    controlPoint.requestComplete(start);
+                }
+            }
+            Assert.assertEquals(limit, controller.getCurrentRequestLimit());
+
+            //a slow request is sampled although it completes on another thread
+            final long start = System.nanoTime();
+            Assert.assertEquals(RunResult.RUN, controlPoint.beginRequest());
+            Thread.sleep(20);
+            otherThread.submit(() -> controlPoint.requestComplete(start)).get();
+            Assert.assertTrue(controller.getCurrentRequestLimit() < limit);
+            Assert.assertEquals(0, controller.getActiveRequestCount());
+        } finally {
+            otherThread.shutdown();
+        }
+    }
+
+    private static Runnable record(final List<String> order, final String name) {
+        return () -> order.add(name);
+    }
+
+    private static ServerActivityCallback callback(final CountDownLatch latch) {
+        return latch::countDown;
+    }
+}
@@ -37,6 +37,7 @@ import org.jboss.as.controller.parsing.Namespace;
 import org.jboss.as.controller.persistence.BackupXmlConfigurationPersister;
 import org.jboss.as.controller.persistence.ConfigurationFile;
 import org.jboss.as.controller.persistence.ExtensibleConfigurationPersister;
+import org.jboss.as.controller.persistence.JournalingXmlConfigurationPersister;
 import org.jboss.as.server.parsing.StandaloneXml;
 import org.jboss.modules.Module;
 import org.jboss.modules.ModuleLoader;
@@ -194,8 +195,10 @@ public interface Bootstrap {
                         }
                         QName rootElement = new QName(Namespace.CURRENT.getUriString(), "server");
                         StandaloneXml parser = new StandaloneXml(Module.getBootModuleLoader(), executorService, extensionRegistry);
-                        BackupXmlConfigurationPersister persister = new BackupXmlConfigurationPersister(configurationFile, rootElement, parser, parser,
-                                runningModeControl.isReloaded(), serverEnvironment.getLaunchType() == ServerEnvironment.LaunchType.EMBEDDED);
+                        boolean embedded = serverEnvironment.getLaunchType() == ServerEnvironment.LaunchType.EMBEDDED;
+                        BackupXmlConfigurationPersister persister = JournalingXmlConfigurationPersister.isJournalEnabled()
+                                ? new JournalingXmlConfigurationPersister(configurationFile, rootElement, parser, parser, runningModeControl.isReloaded(), embedded)
+                                : new BackupXmlConfigurationPersister(configurationFile, rootElement, parser, parser, runningModeControl.isReloaded(), embedded);
                         for (Namespace namespace : Namespace.domainValues()) {
                             if (!namespace.equals(Namespace.CURRENT)) {
                                 persister.registerAdditionalRootElement(new QName(namespace.getUriString(), "server"), parser);
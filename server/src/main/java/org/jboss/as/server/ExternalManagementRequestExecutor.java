@@ -57,6 +57,14 @@ public class ExternalManagementRequestExecutor implements Service<ExecutorServic
     @Deprecated
     public static final ServiceName SERVICE_NAME = Services.JBOSS_AS.append("external-mgmt-executor");
 
+    /**
+     * The service name for the executor handling external management requests for read-only operations.
+     *
+     * @deprecated may be removed at any time
+     */
+    @Deprecated
+    public static final ServiceName READ_ONLY_SERVICE_NAME = Services.JBOSS_AS.append("external-mgmt-read-only-executor");
+
     // The Executor settings.
     // We limit concurrent requests to a small number to avoid overloading a server.
     // For the native interface we limit to 4 (see AbstractModelControllerOperationHandlerFactoryService)
@@ -66,16 +74,20 @@ public class ExternalManagementRequestExecutor implements Service<ExecutorServic
     private static final int DEFAULT_POOL_SIZE = 10;
     private static final int WORK_QUEUE_SIZE = 512;
     private static final String POOL_SIZE_PROP = "org.wildfly.unsupported.external.management.pool-size";
-
-    private static int getPoolSize() {
-        int defaultThreads = DEFAULT_POOL_SIZE;
-        String maxThreads = WildFlySecurityManager.getPropertyPrivileged(POOL_SIZE_PROP, null);
+    // Read-only requests (e.g. health checks and the console polling) get their own, smaller, pool so
+    // that slow domain-wide updates cannot hold them up
+    private static final int DEFAULT_READ_ONLY_POOL_SIZE = 4;
+    private static final String READ_ONLY_POOL_SIZE_PROP = "org.wildfly.unsupported.external.management.read-only.pool-size";
+
+    private static int getPoolSize(String property, int defaultPoolSize) {
+        int defaultThreads = defaultPoolSize;
+        String maxThreads = WildFlySecurityManager.getPropertyPrivileged(property, null);
         if (maxThreads != null && maxThreads.length() > 0) {
             try {
                 int max = Integer.decode(maxThreads);
                 defaultThreads = Math.max(max, 1);
             } catch (NumberFormatException ex) {
-                ServerLogger.ROOT_LOGGER.failedToParseCommandLineInteger(POOL_SIZE_PROP, maxThreads);
+                ServerLogger.ROOT_LOGGER.failedToParseCommandLineInteger(property, maxThreads);
             }
         }
         return defaultThreads;
@@ -83,23 +95,32 @@ public class ExternalManagementRequestExecutor implements Service<ExecutorServic
 
     private final InjectedValue<ExecutorService> injectedExecutor = new InjectedValue<>();
     private final ThreadGroup threadGroup;
+    private final String namePattern;
+    private final int poolSize;
     private ExecutorService executorService;
 
     @SuppressWarnings("deprecation")
     public static void install(ServiceTarget target, ThreadGroup threadGroup, ServiceName cleanupExecutor) {
-        final ExternalManagementRequestExecutor service = new ExternalManagementRequestExecutor(threadGroup);
-        target.addService(SERVICE_NAME, service)
+        install(target, SERVICE_NAME, new ExternalManagementRequestExecutor(threadGroup, "External Management Request Threads -- %t",
+                getPoolSize(POOL_SIZE_PROP, DEFAULT_POOL_SIZE)), cleanupExecutor);
+        install(target, READ_ONLY_SERVICE_NAME, new ExternalManagementRequestExecutor(threadGroup, "External Management Read Request Threads -- %t",
+                getPoolSize(READ_ONLY_POOL_SIZE_PROP, DEFAULT_READ_ONLY_POOL_SIZE)), cleanupExecutor);
+    }
+
+    private static void install(ServiceTarget target, ServiceName name, ExternalManagementRequestExecutor service, ServiceName cleanupExecutor) {
+        target.addService(name, service)
                 .addDependency(cleanupExecutor, ExecutorService.class, service.injectedExecutor)
                 .setInitialMode(ServiceController.Mode.ON_DEMAND).install();
     }
 
-    private ExternalManagementRequestExecutor(ThreadGroup threadGroup) {
+    private ExternalManagementRequestExecutor(ThreadGroup threadGroup, String namePattern, int poolSize) {
         this.threadGroup = threadGroup;
+        this.namePattern = namePattern;
+        this.poolSize = poolSize;
     }
 
     @Override
     public synchronized void start(StartContext context) throws StartException {
-        final String namePattern = "External Management Request Threads -- %t";
         final ThreadFactory threadFactory = doPrivileged(new PrivilegedAction<ThreadFactory>() {
             public ThreadFactory run() {
                 return new JBossThreadFactory(threadGroup, Boolean.FALSE, null, namePattern, null, null);
@@ -107,7 +128,6 @@ public class ExternalManagementRequestExecutor implements Service<ExecutorServic
         });
 
         final BlockingQueue<Runnable> workQueue = new LinkedBlockingQueue<Runnable>(WORK_QUEUE_SIZE);
-        int poolSize = getPoolSize();
         executorService = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
                 workQueue, threadFactory);
     }
@@ -0,0 +1,248 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.DeploymentUnit;
+import org.jboss.as.server.deployment.module.ResourceRoot;
+import org.jboss.as.server.deploymentoverlay.DeploymentOverlayIndex;
+import org.jboss.as.server.logging.ServerLogger;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexReader;
+import org.jboss.jandex.IndexWriter;
+import org.jboss.jandex.Indexer;
+import org.jboss.vfs.VirtualFile;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * A cache of the annotation indexes of deployment resource roots, kept on disk so it survives redeployments and
+ * server restarts.
+ * <p>
+ * Indexes are only cached for managed deployments. They are keyed by the hash of the deployment content, the path of
+ * the resource root within the deployment, the deployment overlays that apply to the deployment and the paths that
+ * are excluded from indexing, so a cached index is only used for exactly the same classes it was built from. An index
+ * written in another index format than the one of the Jandex version in use is built again, as it may lack what this
+ * version indexes. Indexes that have not been used for 30 days are removed.
+ */
+public final class AnnotationIndexCache {
+
+    /**
+     * System property that can be set to {@code false} to turn the cache off
+     */
+    public static final String INDEX_CACHE_PROPERTY = "jboss.server.deployment.index-cache";
+
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final long MAX_UNUSED_AGE = TimeUnit.DAYS.toMillis(30);
+    /**
+     * The version of the index format that is written by the Jandex version in use
+     */
+    static final int INDEX_VERSION = currentIndexVersion();
+
+    private final File cacheDir;
+    private final AtomicBoolean purged = new AtomicBoolean();
+
+    /**
+     * @param cacheDir the directory to keep the indexes in. It is created when the first index is stored
+     */
+    public AnnotationIndexCache(final File cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
+    private static int currentIndexVersion() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            new IndexWriter(out).write(new Indexer().complete());
+            return new IndexReader(new ByteArrayInputStream(out.toByteArray())).getIndexVersion();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return whether the index cache is enabled
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(INDEX_CACHE_PROPERTY, "true"));
+    }
+
+    /**
+     * Gets the key of the index of a resource root.
+     *
+     * @param deploymentUnit the deployment unit the resource root belongs to
+     * @param resourceRoot the resource root
+     * @return the key, or {@code null} if the index of the resource root cannot be cached
+     */
+    String getKey(final DeploymentUnit deploymentUnit, final ResourceRoot resourceRoot) {
+        final DeploymentUnit topLevel = deploymentUnit.getParent() == null ? deploymentUnit : deploymentUnit.getParent();
+        final byte[] contentHash = topLevel.getAttachment(Attachments.DEPLOYMENT_CONTENT_HASH);
+        final ResourceRoot deploymentRoot = topLevel.getAttachment(Attachments.DEPLOYMENT_ROOT);
+        if (contentHash == null || deploymentRoot == null) {
+            return null;
+        }
+        final VirtualFile root = resourceRoot.getRoot();
+        final String path;
+        if (root.equals(deploymentRoot.getRoot())) {
+            path = "";
+        } else {
+            try {
+                path = root.getPathNameRelativeTo(deploymentRoot.getRoot());
+            } catch (IllegalArgumentException e) {
+                // not part of the deployment content
+                return null;
+            }
+        }
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            digest.update(contentHash);
+            update(digest, path);
+            final DeploymentOverlayIndex overlayIndex = topLevel.getAttachment(Attachments.DEPLOYMENT_OVERLAY_INDEX);
+            if (overlayIndex != null) {
+                for (Map.Entry<String, byte[]> overlay : new TreeMap<>(overlayIndex.getOverlays(topLevel.getName())).entrySet()) {
+                    update(digest, overlay.getKey());
+                    digest.update(overlay.getValue());
+                }
+            }
+            final List<String> ignorePaths = resourceRoot.getAttachment(Attachments.INDEX_IGNORE_PATHS);
+            if (ignorePaths != null) {
+                for (String ignorePath : new TreeSet<>(ignorePaths)) {
+                    update(digest, ignorePath);
+                }
+            }
+            return HashUtil.bytesToHexString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void update(final MessageDigest digest, final String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        // separator, so that the values cannot run into each other
+        digest.update((byte) 0);
+    }
+
+    /**
+     * Reads a cached index.
+     *
+     * @param key the key of the index
+     * @return the index, or {@code null} if there is no usable index cached under the key
+     */
+    Index read(final String key) {
+        purgeUnused();
+        final File file = new File(cacheDir, key + INDEX_SUFFIX);
+        if (!file.exists()) {
+            return null;
+        }
+        final Index index;
+        try (InputStream in = new FileInputStream(file)) {
+            final IndexReader reader = new IndexReader(in);
+            final int version = reader.getIndexVersion();
+            if (version != INDEX_VERSION) {
+                ServerLogger.DEPLOYMENT_LOGGER.debugf("Discarding cached annotation index %s written in index format %d", file, version);
+                index = null;
+            } else {
+                index = reader.read();
+            }
+        } catch (Exception e) {
+            ServerLogger.DEPLOYMENT_LOGGER.debugf(e, "Discarding unreadable cached annotation index %s", file);
+            file.delete();
+            return null;
+        }
+        if (index == null) {
+            file.delete();
+            return null;
+        }
+        // the age of the file is how long the index has not been used
+        file.setLastModified(System.currentTimeMillis());
+        return index;
+    }
+
+    /**
+     * Stores an index in the cache. Failures are logged, as the index can always be built again.
+     *
+     * @param key the key of the index
+     * @param index the index
+     * @param resourceRoot the root the index was built from
+     */
+    void write(final String key, final Index index, final VirtualFile resourceRoot) {
+        File temp = null;
+        try {
+            if (!cacheDir.isDirectory() && !cacheDir.mkdirs() && !cacheDir.isDirectory()) {
+                throw new IOException(cacheDir.getAbsolutePath());
+            }
+            temp = File.createTempFile(key, TEMP_SUFFIX, cacheDir);
+            try (OutputStream out = new FileOutputStream(temp)) {
+                new IndexWriter(out).write(index);
+            }
+            // concurrent deployments of the same content may race here, either copy of the index will do
+            Files.move(temp.toPath(), new File(cacheDir, key + INDEX_SUFFIX).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            ServerLogger.DEPLOYMENT_LOGGER.cannotStoreCachedAnnotationIndex(resourceRoot.getPathName(), cacheDir.getAbsolutePath(), e);
+            if (temp != null) {
+                temp.delete();
+            }
+        }
+    }
+
+    /**
+     * Removes the indexes that have not been used for a while, and temp files left behind by a crash. This is done
+     * once, the first time the cache is used.
+     */
+    private void purgeUnused() {
+        if (!purged.compareAndSet(false, true)) {
+            return;
+        }
+        final File[] files = cacheDir.listFiles();
+        if (files == null) {
+            return;
+        }
+        final long cutOff = System.currentTimeMillis() - MAX_UNUSED_AGE;
+        for (File file : files) {
+            final String name = file.getName();
+            if (name.endsWith(TEMP_SUFFIX) || (name.endsWith(INDEX_SUFFIX) && file.lastModified() < cutOff)) {
+                file.delete();
+            }
+        }
+    }
+}
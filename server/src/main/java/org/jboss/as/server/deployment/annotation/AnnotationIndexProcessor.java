@@ -37,6 +37,20 @@ import org.jboss.as.server.deployment.module.ResourceRoot;
  */
 public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
 
+    private final AnnotationIndexCache indexCache;
+
+    public AnnotationIndexProcessor() {
+        this(null);
+    }
+
+    /**
+     * @param indexCache the cache to take the indexes of unchanged deployment content from, or {@code null} to always
+     *                   index the deployment
+     */
+    public AnnotationIndexProcessor(final AnnotationIndexCache indexCache) {
+        this.indexCache = indexCache;
+    }
+
     /**
      * Process this deployment for annotations.  This will use an annotation indexer to create an index of all annotations
      * found in this deployment and attach it to the deployment unit context.
@@ -48,7 +62,7 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
         for (ResourceRoot resourceRoot : DeploymentUtils.allResourceRoots(deploymentUnit)) {
-            ResourceRootIndexer.indexResourceRoot(resourceRoot);
+            ResourceRootIndexer.indexResourceRoot(resourceRoot, deploymentUnit, indexCache);
         }
     }
 
@@ -29,6 +29,7 @@ import java.util.Set;
 
 import org.jboss.as.server.logging.ServerLogger;
 import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.as.server.moduleservice.ModuleIndexBuilder;
@@ -50,6 +51,18 @@ public class ResourceRootIndexer {
      * Creates and attaches the annotation index to a resource root, if it has not already been attached
      */
     public static void indexResourceRoot(final ResourceRoot resourceRoot) throws DeploymentUnitProcessingException {
+        indexResourceRoot(resourceRoot, null, null);
+    }
+
+    /**
+     * Creates and attaches the annotation index to a resource root, if it has not already been attached. If the
+     * resource root does not ship an index, one that was built for the same content before is taken from the index cache.
+     *
+     * @param resourceRoot the resource root
+     * @param deploymentUnit the deployment unit the resource root belongs to
+     * @param indexCache the index cache, or {@code null} if indexes should not be cached
+     */
+    public static void indexResourceRoot(final ResourceRoot resourceRoot, final DeploymentUnit deploymentUnit, final AnnotationIndexCache indexCache) throws DeploymentUnitProcessingException {
         if (resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX) != null) {
             return;
         }
@@ -81,6 +94,16 @@ public class ResourceRootIndexer {
         }
 
         final VirtualFile virtualFile = resourceRoot.getRoot();
+        final String cacheKey = indexCache == null || deploymentUnit == null ? null : indexCache.getKey(deploymentUnit, resourceRoot);
+        if (cacheKey != null) {
+            final Index cached = indexCache.read(cacheKey);
+            if (cached != null) {
+                resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, cached);
+                ServerLogger.DEPLOYMENT_LOGGER.tracef("Found cached index for archive %s", virtualFile);
+                return;
+            }
+        }
+
         final Indexer indexer = new Indexer();
         try {
             final VisitorAttributes visitorAttributes = new VisitorAttributes();
@@ -106,6 +129,9 @@ public class ResourceRootIndexer {
             final Index index = indexer.complete();
             resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
             ServerLogger.DEPLOYMENT_LOGGER.tracef("Generated index for archive %s", virtualFile);
+            if (cacheKey != null) {
+                indexCache.write(cacheKey, index, virtualFile);
+            }
         } catch (Throwable t) {
             throw ServerLogger.ROOT_LOGGER.deploymentIndexingFailed(t);
         }
@@ -1196,4 +1196,8 @@ public interface ServerLogger extends BasicLogger {
     @Message(id = 241, value = "Shutting down in response to management operation '%s'")
     void shuttingDownInResponseToManagementRequest(String op);
 
+    @LogMessage(level = WARN)
+    @Message(id = 242, value = "Could not store the annotation index of %s in the index cache at %s")
+    void cannotStoreCachedAnnotationIndex(String resourceRoot, String cacheDir, @Cause Throwable cause);
+
 }
@@ -34,6 +34,7 @@ import java.util.concurrent.Executor;
 
 import org.jboss.as.controller.ControlledProcessStateService;
 import org.jboss.as.controller.ModelController;
+import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.domain.http.server.ConsoleMode;
 import org.jboss.as.domain.http.server.ManagementHttpRequestProcessor;
 import org.jboss.as.domain.http.server.ManagementHttpServer;
@@ -87,8 +88,10 @@ public class UndertowHttpManagementService implements Service<HttpManagement> {
     private final InjectedValue<Collection<String>> allowedOriginsValue = new InjectedValue<Collection<String>>();
     private final InjectedValue<XnioWorker> worker = new InjectedValue<>();
     private final InjectedValue<Executor> managementExecutor = new InjectedValue<>();
+    private final InjectedValue<Executor> readOnlyManagementExecutor = new InjectedValue<>();
     private final ConsoleMode consoleMode;
     private final String consoleSlot;
+    private final ImmutableManagementResourceRegistration rootRegistration;
     private ManagementHttpServer serverManagement;
     private SocketBindingManager socketBindingManager;
     private boolean useUnmanagedBindings = false;
@@ -158,8 +161,19 @@ public class UndertowHttpManagementService implements Service<HttpManagement> {
     };
 
     public UndertowHttpManagementService(ConsoleMode consoleMode, String consoleSlot) {
+        this(consoleMode, consoleSlot, null);
+    }
+
+    /**
+     * @param consoleMode the console mode
+     * @param consoleSlot the slot of the console module, or {@code null}
+     * @param rootRegistration the root resource registration, used to tell which operations are read-only. May be
+     *                         {@code null}, in which case all operations sent by POST are treated as writes
+     */
+    public UndertowHttpManagementService(ConsoleMode consoleMode, String consoleSlot, ImmutableManagementResourceRegistration rootRegistration) {
         this.consoleMode = consoleMode;
         this.consoleSlot = consoleSlot;
+        this.rootRegistration = rootRegistration;
     }
 
     /**
@@ -234,7 +248,8 @@ public class UndertowHttpManagementService implements Service<HttpManagement> {
 
             serverManagement = ManagementHttpServer.create(bindAddress, secureBindAddress, 50, modelController,
                     securityRealmService, controlledProcessStateService, consoleMode, consoleSlot, upgradeHandler,
-                    requestProcessor, allowedOriginsValue.getOptionalValue(), worker.getValue(), managementExecutor.getValue());
+                    requestProcessor, allowedOriginsValue.getOptionalValue(), worker.getValue(), managementExecutor.getValue(),
+                    readOnlyManagementExecutor.getValue(), rootRegistration);
 
             serverManagement.start();
 
@@ -413,4 +428,8 @@ public class UndertowHttpManagementService implements Service<HttpManagement> {
     public InjectedValue<Executor> getManagementExecutor() {
         return managementExecutor;
     }
+
+    public InjectedValue<Executor> getReadOnlyManagementExecutor() {
+        return readOnlyManagementExecutor;
+    }
 }
@@ -39,6 +39,7 @@ import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.controller.ModelController;
+import org.jboss.as.controller.client.impl.ModelNodeCodec;
 import org.jboss.as.controller.remote.ResponseAttachmentInputStreamSupport;
 import org.jboss.as.controller.remote.TransactionalProtocolClient;
 import org.jboss.as.controller.remote.TransactionalProtocolOperationHandler;
@@ -278,8 +279,7 @@ class HostControllerConnection extends FutureManagementChannel {
         public void handleRequest(DataInput input, ActiveOperation.ResultHandler<ModelNode> resultHandler, ManagementRequestContext<Void> voidManagementRequestContext) throws IOException {
             final byte param = input.readByte();
             if(param == DomainServerProtocol.PARAM_OK) {
-                final ModelNode operations = new ModelNode();
-                operations.readExternal(input);
+                final ModelNode operations = ModelNodeCodec.readModelNode(input, voidManagementRequestContext.getRequestHeader());
                 resultHandler.done(operations);
             } else {
                 resultHandler.failed(new IOException());
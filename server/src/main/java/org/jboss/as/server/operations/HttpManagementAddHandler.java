@@ -131,7 +131,8 @@ public class HttpManagementAddHandler extends BaseHttpInterfaceAddStepHandler {
         NativeManagementServices.installManagementWorkerService(serviceTarget, context.getServiceRegistry(false));
 
         ServerEnvironment environment = (ServerEnvironment) context.getServiceRegistry(false).getRequiredService(ServerEnvironmentService.SERVICE_NAME).getValue();
-        final UndertowHttpManagementService undertowService = new UndertowHttpManagementService(consoleMode, environment.getProductConfig().getConsoleSlot());
+        final UndertowHttpManagementService undertowService = new UndertowHttpManagementService(consoleMode, environment.getProductConfig().getConsoleSlot(),
+                context.getRootResourceRegistration());
         ServiceBuilder<HttpManagement> undertowBuilder = serviceTarget.addService(UndertowHttpManagementService.SERVICE_NAME, undertowService)
                 .addDependency(Services.JBOSS_SERVER_CONTROLLER, ModelController.class, undertowService.getModelControllerInjector())
                 .addDependency(SocketBindingManagerImpl.SOCKET_BINDING_MANAGER, SocketBindingManager.class, undertowService.getSocketBindingManagerInjector())
@@ -140,6 +141,7 @@ public class HttpManagementAddHandler extends BaseHttpInterfaceAddStepHandler {
                 .addDependency(requestProcessorName, ManagementHttpRequestProcessor.class, undertowService.getRequestProcessorValue())
                 .addDependency(ManagementWorkerService.SERVICE_NAME, XnioWorker.class, undertowService.getWorker())
                 .addDependency(ExternalManagementRequestExecutor.SERVICE_NAME, Executor.class, undertowService.getManagementExecutor())
+                .addDependency(ExternalManagementRequestExecutor.READ_ONLY_SERVICE_NAME, Executor.class, undertowService.getReadOnlyManagementExecutor())
                 .addInjection(undertowService.getAllowedOriginsInjector(), commonPolicy.getAllowedOrigins());
 
             if (socketBindingServiceName != null) {
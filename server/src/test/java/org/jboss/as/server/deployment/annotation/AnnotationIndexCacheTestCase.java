@@ -0,0 +1,109 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexWriter;
+import org.jboss.jandex.Indexer;
+import org.jboss.vfs.VFS;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests of reading and writing cached annotation indexes.
+ */
+public class AnnotationIndexCacheTestCase {
+
+    private static final String KEY = "0123456789abcdef0123456789abcdef01234567";
+    private static final DotName INDEXED_CLASS = DotName.createSimple(AnnotationIndexCacheTestCase.class.getName());
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private File cacheDir;
+    private AnnotationIndexCache cache;
+
+    @Before
+    public void createCache() {
+        cacheDir = new File(folder.getRoot(), "annotation-index");
+        cache = new AnnotationIndexCache(cacheDir);
+    }
+
+    @Test
+    public void testMiss() {
+        Assert.assertNull(cache.read(KEY));
+    }
+
+    @Test
+    public void testHit() throws IOException {
+        cache.write(KEY, createIndex(), VFS.getChild(folder.getRoot().getAbsolutePath()));
+        final Index index = cache.read(KEY);
+        Assert.assertNotNull(index);
+        Assert.assertNotNull(index.getClassByName(INDEXED_CLASS));
+        // other keys are not served from the same index
+        Assert.assertNull(cache.read(KEY.replace('0', 'f')));
+    }
+
+    @Test
+    public void testCorruptIndexDiscarded() throws IOException {
+        Assert.assertTrue(cacheDir.mkdirs());
+        final File file = new File(cacheDir, KEY + ".idx");
+        Files.write(file.toPath(), "not an index".getBytes(StandardCharsets.UTF_8));
+        Assert.assertNull(cache.read(KEY));
+        Assert.assertFalse(file.exists());
+    }
+
+    @Test
+    public void testIndexOfOtherVersionDiscarded() throws IOException {
+        Assert.assertTrue(cacheDir.mkdirs());
+        final File file = new File(cacheDir, KEY + ".idx");
+        // the last index format of Jandex 1.x, which is readable but lacks what later versions index
+        final byte oldVersion = 3;
+        Assert.assertNotEquals(oldVersion, AnnotationIndexCache.INDEX_VERSION);
+        try (OutputStream out = new FileOutputStream(file)) {
+            new IndexWriter(out).write(createIndex(), oldVersion);
+        }
+        Assert.assertNull(cache.read(KEY));
+        Assert.assertFalse(file.exists());
+    }
+
+    private static Index createIndex() throws IOException {
+        final Indexer indexer = new Indexer();
+        try (InputStream in = AnnotationIndexCacheTestCase.class.getResourceAsStream(AnnotationIndexCacheTestCase.class.getSimpleName() + ".class")) {
+            indexer.index(in);
+        }
+        return indexer.complete();
+    }
+}